@@ -0,0 +1,16 @@
+@echo off
+rem Runs BigCompanyAnalytics with the class-data-sharing archive created by the Maven build, when present.
+rem JVM options, such as -Dfile=..., are passed through: bin\analytics "-Dfile=src/test/resources/SampleData.csv"
+setlocal
+set "BASE_DIR=%~dp0.."
+set "JAR=%BASE_DIR%\target\BigCompanyAnalytics-1.0-SNAPSHOT.jar"
+set "ARCHIVE=%BASE_DIR%\target\BigCompanyAnalytics-1.0-SNAPSHOT.jsa"
+set "JAVA=java"
+if defined JAVA_HOME set "JAVA=%JAVA_HOME%\bin\java"
+
+if exist "%ARCHIVE%" (
+    "%JAVA%" "-XX:SharedArchiveFile=%ARCHIVE%" -Xshare:auto %* -jar "%JAR%"
+) else (
+    "%JAVA%" %* -jar "%JAR%"
+)
+exit /b %ERRORLEVEL%
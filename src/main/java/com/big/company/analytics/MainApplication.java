@@ -8,9 +8,17 @@ import com.big.company.analytics.services.impl.AnalyticsManager;
 import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
 import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
 import com.big.company.analytics.services.impl.EmployeeNodeGenerator;
+import com.big.company.analytics.services.impl.ExecutionMode;
 
 import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 public class MainApplication {
 
@@ -19,22 +27,113 @@ public class MainApplication {
      * System property key for specifying the file path.
      */
     public static final String FILE_SYSTEM_PROPERTY = "file";
+    /**
+     * File property value for reading the employee data from the standard input.
+     */
+    public static final String STANDARD_INPUT_FILE = "-";
+    /**
+     * System property key for specifying several files, e.g. one per division, separated by the platform path
+     * separator as on a class path, so a path may hold any other character.
+     */
+    public static final String FILES_SYSTEM_PROPERTY = "files";
     public static final String DEFAULT_HAS_HEADER_VALUE = "true";
+    /**
+     * System property key for specifying the execution mode, e.g. pipelined.
+     */
+    public static final String MODE_SYSTEM_PROPERTY = "mode";
+    /**
+     * System property key for specifying the file receiving the rejected rows, which makes the reading lenient.
+     */
+    public static final String REJECTED_ROWS_SYSTEM_PROPERTY = "rejected_rows";
+    /**
+     * System property key for specifying the maximum number of rows rejected before the reading is aborted.
+     */
+    public static final String ERROR_BUDGET_SYSTEM_PROPERTY = "error_budget";
+    public static final String DEFAULT_ERROR_BUDGET_VALUE = "1000";
 
 
     public static void main(String[] args) {
 
         String hasHeader = Optional.ofNullable(System.getProperty(HAS_HEADER_SYSTEM_PROPERTY)).orElse(DEFAULT_HAS_HEADER_VALUE);
-        FileReaderService<Employee> fileReaderService = new EmployeeCsvFileReader(!hasHeader.equals("false"));
+        String rejectedRows = System.getProperty(REJECTED_ROWS_SYSTEM_PROPERTY);
+        String errorBudget = Optional.ofNullable(System.getProperty(ERROR_BUDGET_SYSTEM_PROPERTY)).orElse(DEFAULT_ERROR_BUDGET_VALUE);
+        FileReaderService<Employee> fileReaderService = (rejectedRows != null)
+                ? new EmployeeCsvFileReader(!hasHeader.equals("false"), Path.of(rejectedRows), parseErrorBudget(errorBudget))
+                : new EmployeeCsvFileReader(!hasHeader.equals("false"));
 
         EmployeeNodeService nodeService = new EmployeeNodeGenerator();
         EmployeeReportService reportService = new EmployeeHierarchyReportService();
 
         String filePath = System.getProperty(FILE_SYSTEM_PROPERTY);
-        AnalyticsManager analyticsManager = (filePath != null) ?
-                new AnalyticsManager(fileReaderService, nodeService, reportService, new File(filePath)) :
-                new AnalyticsManager(fileReaderService, nodeService, reportService);
+        String filePaths = System.getProperty(FILES_SYSTEM_PROPERTY);
+        if (filePath != null && filePaths != null)
+            throw new IllegalArgumentException("Only one of the file and files properties should be given");
+        String mode = System.getProperty(MODE_SYSTEM_PROPERTY);
+        ExecutionMode executionMode = (mode != null) ? parseExecutionMode(mode) : ExecutionMode.IN_MEMORY;
+        AnalyticsManager analyticsManager;
+        if (STANDARD_INPUT_FILE.equals(filePath)) {
+            ReadableByteChannel standardInput = new FileInputStream(FileDescriptor.in).getChannel();
+            analyticsManager = new AnalyticsManager(fileReaderService, nodeService, reportService, standardInput, executionMode);
+        } else if (filePaths != null) {
+            // a lenient reader writes the rejected rows of every file to the same file, so it cannot read them concurrently
+            if (rejectedRows != null) throw new IllegalArgumentException("Rejected rows are not supported when reading several files");
+            List<File> files = new ArrayList<>();
+            for (String path : filePaths.split(Pattern.quote(File.pathSeparator))) {
+                if (!path.isBlank()) files.add(new File(path));
+            }
+            analyticsManager = new AnalyticsManager(fileReaderService, nodeService, reportService, files, executionMode);
+        } else {
+            analyticsManager = (filePath != null) ?
+                    new AnalyticsManager(fileReaderService, nodeService, reportService, new File(filePath), executionMode) :
+                    new AnalyticsManager(fileReaderService, nodeService, reportService, executionMode);
+        }
 
         analyticsManager.runAnalytics();
     }
+
+    /**
+     * Parses the execution mode property, case-insensitive.
+     *
+     * @param mode the execution mode property
+     * @return the execution mode
+     * @throws IllegalArgumentException if the property is not the name of an execution mode
+     */
+    private static ExecutionMode parseExecutionMode(String mode) {
+        for (ExecutionMode executionMode : ExecutionMode.values()) {
+            if (executionMode.name().equalsIgnoreCase(mode.trim())) return executionMode;
+        }
+        List<String> names = new ArrayList<>();
+        for (ExecutionMode executionMode : ExecutionMode.values()) names.add(executionMode.name().toLowerCase());
+        return invalidProperty(String.format("Invalid execution mode: %s | Expected one of: %s", mode, String.join(", ", names)));
+    }
+
+    /**
+     * Parses the error budget property.
+     *
+     * @param errorBudget the error budget property
+     * @return the error budget
+     * @throws IllegalArgumentException if the property is not a non-negative integer
+     */
+    private static int parseErrorBudget(String errorBudget) {
+        try {
+            int budget = Integer.parseInt(errorBudget.trim());
+            if (budget >= 0) return budget;
+        } catch (NumberFormatException e) {
+            // reported below, as a negative budget
+        }
+        return invalidProperty(String.format("Invalid error budget: %s | Expected a non-negative integer", errorBudget));
+    }
+
+    /**
+     * Prints an error for an invalid system property and aborts the application.
+     *
+     * @param message the error message
+     * @param <T>     the type of the value the property should have
+     * @return never returns
+     * @throws IllegalArgumentException always, with the error message
+     */
+    private static <T> T invalidProperty(String message) {
+        System.out.printf("ERROR: %s%n", message);
+        throw new IllegalArgumentException(message);
+    }
 }
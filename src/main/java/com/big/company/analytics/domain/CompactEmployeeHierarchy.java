@@ -0,0 +1,434 @@
+package com.big.company.analytics.domain;
+
+import com.big.company.analytics.exception.EmployeeException;
+import com.big.company.analytics.util.IntIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * An {@link EmployeeHierarchy} held on plain arrays, one per column, indexed by breadth-first ordinal.
+ * <p>
+ * The hierarchy is built in linear time: direct subordinates are grouped by manager with a count-then-scatter
+ * pass, so no per-employee collection is allocated, and the ordinals are then assigned breadth-first from the CEO.
+ * Employees whose reporting line does not reach the CEO are left out.
+ * <p>
+ * {@link #ofParallel(EmployeeTable)} and {@link #toEmployeeNodeParallel()} build the same hierarchy and tree on
+ * every core: subordinates are grouped by a parallel sort instead of the count-then-scatter pass, and each
+ * breadth-first level is laid out with a parallel prefix sum of the subordinate counts of the level before.
+ * <p>
+ * When the table holds {@link MappedNames}, the hierarchy shares them instead of decoding every name, so only the
+ * names of the employees actually restored are ever decoded. When the table or the tree it is built from keeps the
+ * employee instances, the hierarchy keeps them too and returns them as they are, instead of holding the names.
+ */
+public final class CompactEmployeeHierarchy implements EmployeeHierarchy {
+
+    /**
+     * Minimum number of elements for a step of the parallel build to be split across cores.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 12;
+
+    /**
+     * Columns of the hierarchy, indexed by ordinal.
+     */
+    private final int[] ids;
+    private final int[] salaries;
+    private final int[] managerOrdinals;
+    private final int[] firstSubordinates;
+    private final int[] subordinateCounts;
+    private final String[] firstNames;
+    private final String[] lastNames;
+
+    /**
+     * Names left on the source file and the index of each employee on them, by ordinal; {@code null} when the names
+     * are held as strings.
+     */
+    private final MappedNames mappedNames;
+    private final int[] nameIndexes;
+
+    /**
+     * Original employees by ordinal, kept when the hierarchy is flattened from {@link EmployeeNode}s or built from a
+     * table keeping them; {@code null} otherwise.
+     */
+    private final Employee[] employees;
+
+    /**
+     * Ordinal of each employee id. When an id is duplicated, it maps to its first ordinal.
+     */
+    private final IntIntHashMap ordinalsById;
+
+    private CompactEmployeeHierarchy(int size, Employee[] employees, MappedNames mappedNames) {
+        this.ids = new int[size];
+        this.salaries = new int[size];
+        this.managerOrdinals = new int[size];
+        this.firstSubordinates = new int[size];
+        this.subordinateCounts = new int[size];
+        boolean namesHeld = mappedNames == null && employees == null;
+        this.firstNames = namesHeld ? new String[size] : null;
+        this.lastNames = namesHeld ? new String[size] : null;
+        this.mappedNames = mappedNames;
+        this.nameIndexes = (mappedNames == null) ? null : new int[size];
+        this.employees = employees;
+        this.ordinalsById = new IntIntHashMap(size);
+    }
+
+    /**
+     * Builds the hierarchy of the employees of a table.
+     *
+     * @param table the table of employees
+     * @return the hierarchy rooted at the CEO of the table
+     * @throws NullPointerException if table is null
+     * @throws EmployeeException    if the table has more than one CEO or no CEO
+     */
+    public static CompactEmployeeHierarchy of(EmployeeTable table) {
+        Objects.requireNonNull(table, "Employee table must not be null");
+        int tableSize = table.size();
+
+        int ceo = EmployeeTable.NOT_FOUND;
+        int[] subordinateOffsets = new int[tableSize + 1];
+        for (int ordinal = 0; ordinal < tableSize; ordinal++) {
+            int manager = table.managerOrdinal(ordinal);
+            if (manager >= 0) subordinateOffsets[manager + 1]++;
+            else if (manager == EmployeeTable.NO_MANAGER) {
+                if (ceo != EmployeeTable.NOT_FOUND) throw new EmployeeException("Employee list has more than one CEO");
+                ceo = ordinal;
+            }
+        }
+        if (ceo == EmployeeTable.NOT_FOUND) throw new EmployeeException("Employee list has no CEO");
+
+        for (int ordinal = 0; ordinal < tableSize; ordinal++) {
+            subordinateOffsets[ordinal + 1] += subordinateOffsets[ordinal];
+        }
+        int[] subordinates = new int[subordinateOffsets[tableSize]];
+        int[] cursors = new int[tableSize];
+        for (int ordinal = 0; ordinal < tableSize; ordinal++) {
+            int manager = table.managerOrdinal(ordinal);
+            if (manager >= 0) subordinates[subordinateOffsets[manager] + cursors[manager]++] = ordinal;
+        }
+
+        int[] tableOrdinals = new int[tableSize];
+        int[] hierarchyManagers = new int[tableSize];
+        int size = 0;
+        tableOrdinals[size] = ceo;
+        hierarchyManagers[size++] = NO_MANAGER;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            int manager = tableOrdinals[ordinal];
+            for (int i = subordinateOffsets[manager]; i < subordinateOffsets[manager + 1]; i++) {
+                tableOrdinals[size] = subordinates[i];
+                hierarchyManagers[size++] = ordinal;
+            }
+        }
+
+        MappedNames mappedNames = table.mappedNames();
+        CompactEmployeeHierarchy hierarchy = new CompactEmployeeHierarchy(size, table.keepsEmployees() ? new Employee[size] : null, mappedNames);
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            int tableOrdinal = tableOrdinals[ordinal];
+            if (mappedNames != null) hierarchy.nameIndexes[ordinal] = tableOrdinal;
+            if (hierarchy.employees != null) hierarchy.employees[ordinal] = table.employee(tableOrdinal);
+            hierarchy.set(ordinal, table.id(tableOrdinal),
+                    (mappedNames == null) ? table.firstName(tableOrdinal) : null,
+                    (mappedNames == null) ? table.lastName(tableOrdinal) : null,
+                    table.salary(tableOrdinal), hierarchyManagers[ordinal]);
+        }
+        return hierarchy;
+    }
+
+    /**
+     * Builds the hierarchy of the employees of a table on every core. The hierarchy is identical to the one built by
+     * {@link #of(EmployeeTable)}, ordinals included.
+     *
+     * @param table the table of employees
+     * @return the hierarchy rooted at the CEO of the table
+     * @throws NullPointerException if table is null
+     * @throws EmployeeException    if the table has more than one CEO or no CEO
+     */
+    public static CompactEmployeeHierarchy ofParallel(EmployeeTable table) {
+        Objects.requireNonNull(table, "Employee table must not be null");
+        int tableSize = table.size();
+
+        int[] ceos = range(tableSize).filter(ordinal -> table.managerOrdinal(ordinal) == EmployeeTable.NO_MANAGER)
+                .limit(2).toArray();
+        if (ceos.length > 1) throw new EmployeeException("Employee list has more than one CEO");
+        if (ceos.length == 0) throw new EmployeeException("Employee list has no CEO");
+
+        // sorting (manager, ordinal) pairs groups the subordinates of each manager in ordinal order, as the
+        // count-then-scatter pass does; employees without a known manager are sorted last
+        long[] links = new long[tableSize];
+        Arrays.parallelSetAll(links, ordinal -> {
+            int manager = table.managerOrdinal(ordinal);
+            return ((long) ((manager >= 0) ? manager : Integer.MAX_VALUE) << 32) | ordinal;
+        });
+        Arrays.parallelSort(links);
+        int linkCount = firstLinkOf(links, Integer.MAX_VALUE);
+        int[] linkStarts = new int[tableSize];
+        int[] linkCounts = new int[tableSize];
+        range(linkCount).forEach(i -> {
+            int manager = (int) (links[i] >>> 32);
+            if (i == 0 || (int) (links[i - 1] >>> 32) != manager) linkStarts[manager] = i;
+        });
+        range(linkCount).forEach(i -> {
+            int manager = (int) (links[i] >>> 32);
+            if (i == linkCount - 1 || (int) (links[i + 1] >>> 32) != manager)
+                linkCounts[manager] = i + 1 - linkStarts[manager];
+        });
+
+        int[] tableOrdinals = new int[tableSize];
+        int[] hierarchyManagers = new int[tableSize];
+        int[] firstSubordinates = new int[tableSize];
+        tableOrdinals[0] = ceos[0];
+        hierarchyManagers[0] = NO_MANAGER;
+        int levelStart = 0;
+        int levelEnd = 1;
+        while (levelStart < levelEnd) {
+            int start = levelStart;
+            int end = levelEnd;
+            int[] levelOffsets = new int[end - start];
+            Arrays.parallelSetAll(levelOffsets, i -> linkCounts[tableOrdinals[start + i]]);
+            Arrays.parallelPrefix(levelOffsets, Integer::sum);
+            range(end - start).forEach(i -> {
+                int manager = tableOrdinals[start + i];
+                int first = end + ((i == 0) ? 0 : levelOffsets[i - 1]);
+                firstSubordinates[start + i] = (linkCounts[manager] == 0) ? start + i + 1 : first;
+                for (int j = 0; j < linkCounts[manager]; j++) {
+                    tableOrdinals[first + j] = (int) links[linkStarts[manager] + j];
+                    hierarchyManagers[first + j] = start + i;
+                }
+            });
+            levelStart = end;
+            levelEnd = end + levelOffsets[levelOffsets.length - 1];
+        }
+
+        int size = levelEnd;
+        MappedNames mappedNames = table.mappedNames();
+        CompactEmployeeHierarchy hierarchy = new CompactEmployeeHierarchy(size, table.keepsEmployees() ? new Employee[size] : null, mappedNames);
+        range(size).forEach(ordinal -> {
+            int tableOrdinal = tableOrdinals[ordinal];
+            hierarchy.ids[ordinal] = table.id(tableOrdinal);
+            if (mappedNames != null) {
+                hierarchy.nameIndexes[ordinal] = tableOrdinal;
+            } else if (hierarchy.employees != null) {
+                hierarchy.employees[ordinal] = table.employee(tableOrdinal);
+            } else {
+                hierarchy.firstNames[ordinal] = table.firstName(tableOrdinal);
+                hierarchy.lastNames[ordinal] = table.lastName(tableOrdinal);
+            }
+            hierarchy.salaries[ordinal] = table.salary(tableOrdinal);
+            hierarchy.managerOrdinals[ordinal] = hierarchyManagers[ordinal];
+            hierarchy.firstSubordinates[ordinal] = firstSubordinates[ordinal];
+            hierarchy.subordinateCounts[ordinal] = linkCounts[tableOrdinal];
+        });
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            hierarchy.ordinalsById.putIfAbsent(hierarchy.ids[ordinal], ordinal, NOT_FOUND);
+        }
+        return hierarchy;
+    }
+
+    /**
+     * Finds the position of the first link of a manager on sorted links.
+     *
+     * @param links   the sorted links, the manager on the high half and the subordinate on the low half
+     * @param manager the manager
+     * @return the position of the first link of the manager or of a higher manager, or the number of links
+     */
+    private static int firstLinkOf(long[] links, int manager) {
+        long key = (long) manager << 32;
+        int low = 0;
+        int high = links.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (links[middle] < key) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Gets the stream of the positions of a step of the parallel build, split across cores when it is large enough.
+     *
+     * @param size the number of positions
+     * @return the stream of positions from 0 to {@code size - 1}
+     */
+    private static IntStream range(int size) {
+        IntStream range = IntStream.range(0, size);
+        return (size >= PARALLEL_THRESHOLD) ? range.parallel() : range;
+    }
+
+    /**
+     * Flattens a hierarchy of {@link EmployeeNode}s, keeping the order of the subordinates of each node.
+     *
+     * @param root the root node of the hierarchy
+     * @return the flattened hierarchy
+     * @throws NullPointerException if root is null
+     */
+    public static CompactEmployeeHierarchy of(EmployeeNode root) {
+        Objects.requireNonNull(root, "Employees hierarchy must not be null");
+        List<EmployeeNode> nodes = new ArrayList<>();
+        int[] managers = new int[16];
+        nodes.add(root);
+        managers[0] = NO_MANAGER;
+        for (int ordinal = 0; ordinal < nodes.size(); ordinal++) {
+            for (EmployeeNode subordinate : nodes.get(ordinal).subordinates()) {
+                if (nodes.size() == managers.length) managers = Arrays.copyOf(managers, managers.length * 2);
+                managers[nodes.size()] = ordinal;
+                nodes.add(subordinate);
+            }
+        }
+
+        int size = nodes.size();
+        CompactEmployeeHierarchy hierarchy = new CompactEmployeeHierarchy(size, new Employee[size], null);
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            Employee employee = nodes.get(ordinal).employee();
+            hierarchy.employees[ordinal] = employee;
+            hierarchy.set(ordinal, employee.id(), employee.firstName(), employee.lastName(), employee.salary(),
+                    managers[ordinal]);
+        }
+        return hierarchy;
+    }
+
+    /**
+     * Sets the columns of an employee and links it to its manager. Managers must be set before their subordinates,
+     * in ordinal order.
+     *
+     * @param ordinal        the ordinal of the employee
+     * @param id             the employee id
+     * @param firstName      the employee first name, ignored when the names are not held
+     * @param lastName       the employee last name, ignored when the names are not held
+     * @param salary         the employee salary
+     * @param managerOrdinal the ordinal of the manager, or {@link #NO_MANAGER} for the CEO
+     */
+    private void set(int ordinal, int id, String firstName, String lastName, int salary, int managerOrdinal) {
+        ids[ordinal] = id;
+        if (firstNames != null) {
+            firstNames[ordinal] = firstName;
+            lastNames[ordinal] = lastName;
+        }
+        salaries[ordinal] = salary;
+        managerOrdinals[ordinal] = managerOrdinal;
+        firstSubordinates[ordinal] = ordinal + 1;
+        if (managerOrdinal != NO_MANAGER && subordinateCounts[managerOrdinal]++ == 0)
+            firstSubordinates[managerOrdinal] = ordinal;
+        ordinalsById.putIfAbsent(id, ordinal, NOT_FOUND);
+    }
+
+    /**
+     * Restores the hierarchy as a tree of {@link EmployeeNode}s.
+     *
+     * @return the root node of the hierarchy
+     */
+    public EmployeeNode toEmployeeNode() {
+        int size = size();
+        EmployeeNode[] nodes = new EmployeeNode[size];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            nodes[ordinal] = new EmployeeNode(employee(ordinal), new ArrayList<>(subordinateCounts[ordinal]));
+            if (ordinal != ROOT) nodes[managerOrdinals[ordinal]].subordinates().add(nodes[ordinal]);
+        }
+        return nodes[ROOT];
+    }
+
+    /**
+     * Restores the hierarchy as a tree of {@link EmployeeNode}s on every core. Each subordinate list is filled by a
+     * single task, and the tree is only returned once every task is done.
+     *
+     * @return the root node of the hierarchy
+     */
+    public EmployeeNode toEmployeeNodeParallel() {
+        int size = size();
+        EmployeeNode[] nodes = new EmployeeNode[size];
+        range(size).forEach(ordinal ->
+                nodes[ordinal] = new EmployeeNode(employee(ordinal), new ArrayList<>(subordinateCounts[ordinal])));
+        range(size).forEach(ordinal -> {
+            List<EmployeeNode> subordinates = nodes[ordinal].subordinates();
+            for (int i = 0; i < subordinateCounts[ordinal]; i++) {
+                subordinates.add(nodes[firstSubordinates[ordinal] + i]);
+            }
+        });
+        return nodes[ROOT];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int id(int ordinal) {
+        return ids[ordinal];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int salary(int ordinal) {
+        return salaries[ordinal];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String firstName(int ordinal) {
+        if (employees != null) return employees[ordinal].firstName();
+        return (mappedNames == null) ? firstNames[ordinal] : mappedNames.firstName(nameIndexes[ordinal]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String lastName(int ordinal) {
+        if (employees != null) return employees[ordinal].lastName();
+        return (mappedNames == null) ? lastNames[ordinal] : mappedNames.lastName(nameIndexes[ordinal]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int managerOrdinal(int ordinal) {
+        return managerOrdinals[ordinal];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int firstSubordinate(int ordinal) {
+        return firstSubordinates[ordinal];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int subordinateCount(int ordinal) {
+        return subordinateCounts[ordinal];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int ordinalOf(int id) {
+        return ordinalsById.get(id, NOT_FOUND);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Employee employee(int ordinal) {
+        if (employees != null) return employees[ordinal];
+        Integer managerId = (ordinal == ROOT) ? null : ids[managerOrdinals[ordinal]];
+        return new Employee(ids[ordinal], firstName(ordinal), lastName(ordinal), salaries[ordinal], managerId);
+    }
+}
@@ -0,0 +1,171 @@
+package com.big.company.analytics.domain;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Index of the depth of every employee of a hierarchy, answering reporting line threshold queries without
+ * traversing the hierarchy again.
+ * <p>
+ * The depth of each employee is its number of reporting lines until the CEO. Employees are bucketed by depth with a
+ * counting sort, and the start of each bucket is kept, so the employees deeper than any threshold are a suffix of the
+ * buckets: their count is found in constant time and their list in time proportional to its size.
+ */
+public final class DepthIndex {
+
+    /**
+     * Hierarchy the depths were computed on, used to restore the employees.
+     */
+    private final EmployeeHierarchy hierarchy;
+
+    /**
+     * Depth of each employee, by ordinal.
+     */
+    private final int[] depths;
+
+    /**
+     * Ordinals of the employees, grouped by ascending depth.
+     */
+    private final int[] ordinalsByDepth;
+
+    /**
+     * Position on {@link #ordinalsByDepth} where each depth starts, with one extra position for the end.
+     */
+    private final int[] depthStarts;
+
+    private DepthIndex(EmployeeHierarchy hierarchy, int[] depths, int[] ordinalsByDepth, int[] depthStarts) {
+        this.hierarchy = hierarchy;
+        this.depths = depths;
+        this.ordinalsByDepth = ordinalsByDepth;
+        this.depthStarts = depthStarts;
+    }
+
+    /**
+     * Builds the depth index of a hierarchy.
+     *
+     * @param hierarchy the employee hierarchy
+     * @return the depth index
+     * @throws NullPointerException if hierarchy is null
+     */
+    public static DepthIndex of(EmployeeHierarchy hierarchy) {
+        Objects.requireNonNull(hierarchy, "Employees hierarchy must not be null");
+        int size = hierarchy.size();
+        int[] depths = new int[size];
+        int maxDepth = 0;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            int manager = hierarchy.managerOrdinal(ordinal);
+            depths[ordinal] = (manager == EmployeeHierarchy.NO_MANAGER) ? 0 : depths[manager] + 1;
+            maxDepth = Math.max(maxDepth, depths[ordinal]);
+        }
+
+        int[] depthStarts = new int[maxDepth + 2];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            depthStarts[depths[ordinal] + 1]++;
+        }
+        for (int depth = 0; depth <= maxDepth; depth++) {
+            depthStarts[depth + 1] += depthStarts[depth];
+        }
+        int[] ordinalsByDepth = new int[size];
+        int[] cursors = Arrays.copyOf(depthStarts, maxDepth + 1);
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            ordinalsByDepth[cursors[depths[ordinal]]++] = ordinal;
+        }
+        return new DepthIndex(hierarchy, depths, ordinalsByDepth, depthStarts);
+    }
+
+    /**
+     * Gets the depth of an employee.
+     *
+     * @param ordinal the ordinal of the employee
+     * @return the number of reporting lines between the employee and the CEO
+     */
+    public int depth(int ordinal) {
+        return depths[ordinal];
+    }
+
+    /**
+     * Gets the depth of the deepest employee.
+     *
+     * @return the maximum depth
+     */
+    public int maxDepth() {
+        return depthStarts.length - 2;
+    }
+
+    /**
+     * Gets the number of employees at each depth.
+     *
+     * @return a new array with the number of employees at each depth, from the CEO down to the maximum depth
+     */
+    public int[] histogram() {
+        int[] histogram = new int[maxDepth() + 1];
+        for (int depth = 0; depth < histogram.length; depth++) {
+            histogram[depth] = countAtDepth(depth);
+        }
+        return histogram;
+    }
+
+    /**
+     * Counts the employees at a depth.
+     *
+     * @param depth the depth
+     * @return the number of employees at the depth
+     */
+    public int countAtDepth(int depth) {
+        if (depth < 0 || depth > maxDepth()) return 0;
+        return depthStarts[depth + 1] - depthStarts[depth];
+    }
+
+    /**
+     * Counts the employees with more reporting lines than a threshold.
+     *
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines
+     * @return the number of employees deeper than the threshold
+     */
+    public int countDeeperThan(int reportingLinesThreshold) {
+        return ordinalsByDepth.length - firstDeeperThan(reportingLinesThreshold);
+    }
+
+    /**
+     * Gets the ordinals of the employees with more reporting lines than a threshold, from the shallowest to
+     * the deepest.
+     *
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines
+     * @return a new array with the ordinals of the employees deeper than the threshold
+     */
+    public int[] ordinalsDeeperThan(int reportingLinesThreshold) {
+        return Arrays.copyOfRange(ordinalsByDepth, firstDeeperThan(reportingLinesThreshold), ordinalsByDepth.length);
+    }
+
+    /**
+     * Gets the employees with more reporting lines than a threshold and how many reporting lines they exceed it by,
+     * as reported by
+     * {@link com.big.company.analytics.services.EmployeeReportService#reportManagersWithExcessiveReportingLines(EmployeeHierarchy, Integer)}.
+     *
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines
+     * @return a map with the employees and how much reporting lines higher than the threshold
+     */
+    public Map<Employee, Integer> excessiveReportingLines(int reportingLinesThreshold) {
+        int start = firstDeeperThan(reportingLinesThreshold);
+        Map<Employee, Integer> result = new HashMap<>();
+        for (int i = start; i < ordinalsByDepth.length; i++) {
+            int ordinal = ordinalsByDepth[i];
+            result.put(hierarchy.employee(ordinal), depths[ordinal] - reportingLinesThreshold);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the position on {@link #ordinalsByDepth} of the first employee deeper than a threshold.
+     *
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines
+     * @return the position of the first employee deeper than the threshold
+     */
+    private int firstDeeperThan(int reportingLinesThreshold) {
+        if (reportingLinesThreshold < 0) return 0;
+        if (reportingLinesThreshold >= maxDepth()) return ordinalsByDepth.length;
+        return depthStarts[reportingLinesThreshold + 1];
+    }
+}
@@ -39,4 +39,38 @@ public record Employee(
     public Optional<Integer> getManagerId() {
         return Optional.ofNullable(managerId);
     }
+
+    /**
+     * Compares every component of the employees, as the generated record equality does. It is written out since the
+     * generated one is bootstrapped through method handles on its first call, which slows down the application
+     * startup, and employees are used as report keys on every run.
+     *
+     * @param other the object to compare with
+     * @return {@code true} if the other object is an employee with the same components
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        return other instanceof Employee employee
+                && id.equals(employee.id)
+                && firstName.equals(employee.firstName)
+                && lastName.equals(employee.lastName)
+                && salary.equals(employee.salary)
+                && Objects.equals(managerId, employee.managerId);
+    }
+
+    /**
+     * Combines the hash codes of every component of the employee.
+     *
+     * @return the hash code of the employee
+     * @see #equals(Object)
+     */
+    @Override
+    public int hashCode() {
+        int hash = id.hashCode();
+        hash = 31 * hash + firstName.hashCode();
+        hash = 31 * hash + lastName.hashCode();
+        hash = 31 * hash + salary.hashCode();
+        return 31 * hash + Objects.hashCode(managerId);
+    }
 }
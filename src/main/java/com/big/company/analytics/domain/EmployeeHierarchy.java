@@ -0,0 +1,105 @@
+package com.big.company.analytics.domain;
+
+/**
+ * Represents an employee hierarchy indexed by dense ordinals, so it can be traversed with plain array lookups.
+ * <p>
+ * Ordinals are assigned breadth-first from the CEO: the CEO is ordinal 0, every manager comes before its
+ * subordinates and the subordinates of a manager have consecutive ordinals. Hence a forward pass over the ordinals
+ * visits managers before their subordinates, and a backward pass visits subordinates before their managers.
+ */
+public interface EmployeeHierarchy {
+
+    /**
+     * Ordinal of the CEO, root of the hierarchy.
+     */
+    int ROOT = 0;
+
+    /**
+     * Manager ordinal of the CEO.
+     */
+    int NO_MANAGER = -1;
+
+    /**
+     * Value returned by {@link #ordinalOf(int)} when the id is not on the hierarchy.
+     */
+    int NOT_FOUND = -1;
+
+    /**
+     * Gets the number of employees on the hierarchy.
+     *
+     * @return the number of employees
+     */
+    int size();
+
+    /**
+     * Gets the original id of an employee.
+     *
+     * @param ordinal the ordinal of the employee
+     * @return the employee id
+     */
+    int id(int ordinal);
+
+    /**
+     * Gets the salary of an employee.
+     *
+     * @param ordinal the ordinal of the employee
+     * @return the employee salary
+     */
+    int salary(int ordinal);
+
+    /**
+     * Gets the first name of an employee.
+     *
+     * @param ordinal the ordinal of the employee
+     * @return the employee first name
+     */
+    String firstName(int ordinal);
+
+    /**
+     * Gets the last name of an employee.
+     *
+     * @param ordinal the ordinal of the employee
+     * @return the employee last name
+     */
+    String lastName(int ordinal);
+
+    /**
+     * Gets the ordinal of the manager of an employee.
+     *
+     * @param ordinal the ordinal of the employee
+     * @return the manager ordinal, or {@link #NO_MANAGER} for the CEO
+     */
+    int managerOrdinal(int ordinal);
+
+    /**
+     * Gets the ordinal of the first direct subordinate of an employee. The other direct subordinates follow it.
+     *
+     * @param ordinal the ordinal of the employee
+     * @return the ordinal of the first direct subordinate; meaningless when the employee has no subordinate
+     */
+    int firstSubordinate(int ordinal);
+
+    /**
+     * Gets the number of direct subordinates of an employee.
+     *
+     * @param ordinal the ordinal of the employee
+     * @return the number of direct subordinates
+     */
+    int subordinateCount(int ordinal);
+
+    /**
+     * Gets the ordinal of an employee id.
+     *
+     * @param id the employee id
+     * @return the ordinal of the employee, or {@link #NOT_FOUND} if the id is not on the hierarchy
+     */
+    int ordinalOf(int id);
+
+    /**
+     * Restores an employee with its original ids and names.
+     *
+     * @param ordinal the ordinal of the employee
+     * @return the employee
+     */
+    Employee employee(int ordinal);
+}
@@ -0,0 +1,72 @@
+package com.big.company.analytics.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keeps the versions of a {@link PersistentEmployeeHierarchy}, numbered from 0 in the order they were committed,
+ * to answer "as of version N" queries.
+ * <p>
+ * Versions share every unchanged subtree and employee record, so the history grows with the size of the changes
+ * between versions and not with their number. This class is not thread-safe.
+ */
+public final class EmployeeHierarchyHistory {
+
+    /**
+     * Committed versions, by version number.
+     */
+    private final List<PersistentEmployeeHierarchy> versions = new ArrayList<>();
+
+    /**
+     * Constructs an {@code EmployeeHierarchyHistory} with an initial version 0.
+     *
+     * @param initial the initial version
+     * @throws NullPointerException if the initial version is null
+     */
+    public EmployeeHierarchyHistory(PersistentEmployeeHierarchy initial) {
+        versions.add(Objects.requireNonNull(initial, "Initial version must not be null"));
+    }
+
+    /**
+     * Commits a new version, usually derived from {@link #latest()}.
+     *
+     * @param version the new version
+     * @return the number of the new version
+     * @throws NullPointerException if version is null
+     */
+    public int commit(PersistentEmployeeHierarchy version) {
+        versions.add(Objects.requireNonNull(version, "Version must not be null"));
+        return versions.size() - 1;
+    }
+
+    /**
+     * Gets a committed version, whose {@link PersistentEmployeeHierarchy#root()} can be reported by
+     * {@link com.big.company.analytics.services.EmployeeReportService}.
+     *
+     * @param version the version number
+     * @return the hierarchy as of the version
+     * @throws IndexOutOfBoundsException if the version was not committed
+     */
+    public PersistentEmployeeHierarchy asOf(int version) {
+        return versions.get(Objects.checkIndex(version, versions.size()));
+    }
+
+    /**
+     * Gets the last committed version.
+     *
+     * @return the last committed version
+     */
+    public PersistentEmployeeHierarchy latest() {
+        return versions.get(versions.size() - 1);
+    }
+
+    /**
+     * Gets the number of committed versions.
+     *
+     * @return the number of versions
+     */
+    public int versionCount() {
+        return versions.size();
+    }
+}
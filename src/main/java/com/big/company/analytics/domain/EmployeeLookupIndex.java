@@ -0,0 +1,250 @@
+package com.big.company.analytics.domain;
+
+import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Index of the per-employee analytics of a hierarchy, answering batches of employee lookups with columnar results.
+ * <p>
+ * The ordinal, manager id, depth, team size, organization size and salary policy status of every employee are
+ * computed once, in two passes over the ordinals, and interleaved on a single array in ascending id order, so all
+ * the values of an employee share a cache line. A batch sorts its lookups by id and merges them with the sorted ids
+ * of the index, so both are read front to back in a single pass instead of one random hash probe and one random row
+ * per lookup; each distinct id is read once and its values are scattered back to the position of each of its
+ * lookups on the batch.
+ * <p>
+ * Salary policy statuses are decided by the report's own comparison,
+ * {@link EmployeeHierarchyReportService#compareWithSalaryPolicy(double, double, int, int)}, so they match the report
+ * on the bounds of the band.
+ */
+public final class EmployeeLookupIndex {
+
+    /**
+     * Salary policy status of an employee within the band, or without subordinates.
+     */
+    public static final byte NO_VIOLATION = 0;
+
+    /**
+     * Salary policy status of a manager earning less than the band allows.
+     */
+    public static final byte UNDERPAID = 1;
+
+    /**
+     * Salary policy status of a manager earning more than the band allows.
+     */
+    public static final byte OVERPAID = 2;
+
+    /**
+     * Layout of the values of an employee on {@link #values}.
+     */
+    private static final int STRIDE = 6;
+    private static final int ORDINAL = 0;
+    private static final int MANAGER_ID = 1;
+    private static final int DEPTH = 2;
+    private static final int TEAM_SIZE = 3;
+    private static final int ORGANIZATION_SIZE = 4;
+    private static final int VIOLATION = 5;
+
+    /**
+     * Number of bits of the id sorted on each pass of the radix sort, so 32-bit ids are sorted in three passes.
+     */
+    private static final int RADIX_BITS = 11;
+
+    /**
+     * Minimum number of keys for the radix sort to beat a comparison sort.
+     */
+    private static final int RADIX_SORT_THRESHOLD = 1024;
+
+    /**
+     * Ids of the employees, in ascending order.
+     */
+    private final int[] ids;
+
+    /**
+     * Values of each employee, {@link #STRIDE} per employee, in the order of {@link #ids}.
+     */
+    private final int[] values;
+
+    private EmployeeLookupIndex(int[] ids, int[] values) {
+        this.ids = ids;
+        this.values = values;
+    }
+
+    /**
+     * Builds the lookup index of a hierarchy for a salary policy band.
+     *
+     * @param hierarchy         the employee hierarchy
+     * @param minimumPercentage the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param maximumPercentage the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @return the lookup index
+     * @throws NullPointerException if hierarchy is null
+     */
+    public static EmployeeLookupIndex of(EmployeeHierarchy hierarchy, int minimumPercentage, int maximumPercentage) {
+        Objects.requireNonNull(hierarchy, "Employees hierarchy must not be null");
+        int size = hierarchy.size();
+        int[] byOrdinal = new int[size * STRIDE];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            int base = ordinal * STRIDE;
+            int manager = hierarchy.managerOrdinal(ordinal);
+            if (manager != EmployeeHierarchy.NO_MANAGER) {
+                byOrdinal[base + MANAGER_ID] = hierarchy.id(manager);
+                byOrdinal[base + DEPTH] = byOrdinal[manager * STRIDE + DEPTH] + 1;
+            }
+
+            int subordinateCount = hierarchy.subordinateCount(ordinal);
+            byOrdinal[base + TEAM_SIZE] = subordinateCount;
+            if (subordinateCount == 0) continue;
+            long salariesSum = 0;
+            int firstSubordinate = hierarchy.firstSubordinate(ordinal);
+            for (int subordinate = firstSubordinate; subordinate < firstSubordinate + subordinateCount; subordinate++) {
+                salariesSum += hierarchy.salary(subordinate);
+            }
+            int comparison = EmployeeHierarchyReportService.compareWithSalaryPolicy(hierarchy.salary(ordinal),
+                    (double) salariesSum / subordinateCount, minimumPercentage, maximumPercentage);
+            if (comparison < 0) byOrdinal[base + VIOLATION] = UNDERPAID;
+            else if (comparison > 0) byOrdinal[base + VIOLATION] = OVERPAID;
+        }
+
+        // subordinates come after their manager, so a backward pass completes every organization before its manager
+        for (int ordinal = size - 1; ordinal > EmployeeHierarchy.ROOT; ordinal--) {
+            byOrdinal[hierarchy.managerOrdinal(ordinal) * STRIDE + ORGANIZATION_SIZE] += byOrdinal[ordinal * STRIDE + ORGANIZATION_SIZE] + 1;
+        }
+
+        // each key is the id on the high half and the ordinal on the low half
+        long[] keys = new long[size];
+        for (int ordinal = 0; ordinal < size; ordinal++) keys[ordinal] = ((long) hierarchy.id(ordinal) << 32) | ordinal;
+        sortByHighHalf(keys);
+        int[] ids = new int[size];
+        int[] values = new int[size * STRIDE];
+        for (int rank = 0; rank < size; rank++) {
+            int ordinal = (int) keys[rank];
+            ids[rank] = (int) (keys[rank] >> 32);
+            System.arraycopy(byOrdinal, ordinal * STRIDE, values, rank * STRIDE, STRIDE);
+            values[rank * STRIDE + ORDINAL] = ordinal;
+        }
+        return new EmployeeLookupIndex(ids, values);
+    }
+
+    /**
+     * Gets the number of employees on the index.
+     *
+     * @return the number of employees
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Looks up a batch of employees. Ids may repeat and come in any order; each result is at the position of its id.
+     *
+     * @param ids the employee ids
+     * @return the values of each employee, in columns
+     * @throws NullPointerException if ids is null
+     */
+    public EmployeeLookupResult lookup(int[] ids) {
+        Objects.requireNonNull(ids, "Employee ids must not be null");
+        int count = ids.length;
+        int[] ordinals = new int[count];
+        int[] managerIds = new int[count];
+        int[] depths = new int[count];
+        int[] teamSizes = new int[count];
+        int[] organizationSizes = new int[count];
+        byte[] violations = new byte[count];
+
+        // each key is the id on the high half and the position on the batch on the low half
+        long[] keys = new long[count];
+        for (int position = 0; position < count; position++) keys[position] = ((long) ids[position] << 32) | position;
+        sortByHighHalf(keys);
+
+        int rank = 0;
+        for (int i = 0; i < count; ) {
+            int id = (int) (keys[i] >> 32);
+            rank = rankOf(id, rank);
+            int end = i + 1;
+            while (end < count && (int) (keys[end] >> 32) == id) end++;
+            if (rank == this.ids.length || this.ids[rank] != id) {
+                for (; i < end; i++) {
+                    int position = (int) keys[i];
+                    ordinals[position] = EmployeeHierarchy.NOT_FOUND;
+                    depths[position] = -1;
+                }
+                continue;
+            }
+            int base = rank * STRIDE;
+            for (; i < end; i++) {
+                int position = (int) keys[i];
+                ordinals[position] = values[base + ORDINAL];
+                managerIds[position] = values[base + MANAGER_ID];
+                depths[position] = values[base + DEPTH];
+                teamSizes[position] = values[base + TEAM_SIZE];
+                organizationSizes[position] = values[base + ORGANIZATION_SIZE];
+                violations[position] = (byte) values[base + VIOLATION];
+            }
+        }
+        return new EmployeeLookupResult(ordinals, managerIds, depths, teamSizes, organizationSizes, violations);
+    }
+
+    /**
+     * Sorts keys by their high half, as a signed int, keeping the order of the keys with the same high half. Large
+     * arrays are sorted with a least significant digit radix sort; small ones, whose low halves are distinct and
+     * ascending, with a comparison sort of the whole keys, which gives the same order.
+     *
+     * @param keys the keys, with distinct low halves in ascending order, sorted in place
+     */
+    private static void sortByHighHalf(long[] keys) {
+        if (keys.length < RADIX_SORT_THRESHOLD) {
+            Arrays.sort(keys);
+            return;
+        }
+        long[] source = keys;
+        long[] target = new long[keys.length];
+        int[] counts = new int[(1 << RADIX_BITS) + 1];
+        for (int shift = 32; shift < 64; shift += RADIX_BITS) {
+            Arrays.fill(counts, 0);
+            for (long key : source) counts[digit(key, shift) + 1]++;
+            for (int digit = 0; digit < counts.length - 1; digit++) counts[digit + 1] += counts[digit];
+            for (long key : source) target[counts[digit(key, shift)]++] = key;
+            long[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != keys) System.arraycopy(source, 0, keys, 0, keys.length);
+    }
+
+    /**
+     * Gets a digit of the high half of a key, with the sign bit flipped so negative ids sort first.
+     *
+     * @param key   the key
+     * @param shift the position of the lowest bit of the digit
+     * @return the digit
+     */
+    private static int digit(long key, int shift) {
+        return (int) (((key ^ Long.MIN_VALUE) >>> shift) & ((1 << RADIX_BITS) - 1));
+    }
+
+    /**
+     * Finds the rank of the first id not below an id, from a rank known not to be past it: the distance is doubled
+     * until the id is passed, then halved, so close ids of a sorted batch cost a few steps each.
+     *
+     * @param id   the looked up id
+     * @param from the rank the search starts from
+     * @return the rank of the first id of the index not below the looked up id, or the number of ids if none
+     */
+    private int rankOf(int id, int from) {
+        int low = from;
+        int step = 1;
+        while (low + step < ids.length && ids[low + step] < id) {
+            low += step;
+            step <<= 1;
+        }
+        int high = Math.min(low + step, ids.length);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ids[middle] < id) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,38 @@
+package com.big.company.analytics.domain;
+
+/**
+ * Results of a batch of employee lookups on an {@link EmployeeLookupIndex}, in columns: the values of the lookup at
+ * a position of the batch are at the same position of every array.
+ *
+ * @param ordinals          the ordinal of each employee, or {@link EmployeeHierarchy#NOT_FOUND} if its id is not on
+ *                          the hierarchy; the other values of an employee not found are meaningless, but its depth,
+ *                          which is -1
+ * @param managerIds        the id of the manager of each employee; meaningless for the CEO, at depth 0
+ * @param depths            the number of reporting lines between each employee and the CEO
+ * @param teamSizes         the number of direct subordinates of each employee
+ * @param organizationSizes the number of employees under each employee, directly or not
+ * @param violations        the salary policy status of each employee: {@link EmployeeLookupIndex#NO_VIOLATION},
+ *                          {@link EmployeeLookupIndex#UNDERPAID} or {@link EmployeeLookupIndex#OVERPAID}
+ */
+public record EmployeeLookupResult(int[] ordinals, int[] managerIds, int[] depths, int[] teamSizes,
+                                   int[] organizationSizes, byte[] violations) {
+
+    /**
+     * Gets the number of lookups on the batch.
+     *
+     * @return the number of lookups
+     */
+    public int size() {
+        return ordinals.length;
+    }
+
+    /**
+     * Checks whether the employee of a lookup was found on the hierarchy.
+     *
+     * @param position the position of the lookup on the batch
+     * @return {@code true} if the employee was found
+     */
+    public boolean isFound(int position) {
+        return ordinals[position] != EmployeeHierarchy.NOT_FOUND;
+    }
+}
@@ -0,0 +1,364 @@
+package com.big.company.analytics.domain;
+
+import com.big.company.analytics.util.IntIntHashMap;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Represents a list of employees stored column by column, with each employee identified by a dense ordinal.
+ * <p>
+ * Ordinals go from 0 to {@code size() - 1}, in the order the employees were added. Manager references are resolved to
+ * ordinals, so downstream structures can be indexed by plain arrays; the original employee ids are kept on a compact
+ * lookup table and only restored when {@link #employee(int)} is called, unless the table was created from a list of
+ * employees, whose instances are kept and returned as they are.
+ * <p>
+ * Names are either held as strings or, for a table read with a {@link Column} projection, left on the source file
+ * as {@link MappedNames} and decoded each time they are asked for.
+ */
+public final class EmployeeTable {
+
+    /**
+     * Manager ordinal of an employee without a manager.
+     */
+    public static final int NO_MANAGER = -1;
+
+    /**
+     * Manager ordinal of an employee whose manager id was not found on the table.
+     */
+    public static final int UNKNOWN_MANAGER = -2;
+
+    /**
+     * Value returned by {@link #ordinalOf(int)} when the id is not on the table.
+     */
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * Columns of an employee, to be declared by a projected read.
+     */
+    public enum Column {
+        ID, FIRST_NAME, LAST_NAME, SALARY, MANAGER_ID
+    }
+
+    /**
+     * Number of employees on the table.
+     */
+    private final int size;
+
+    /**
+     * Columns of the table, indexed by ordinal.
+     */
+    private final int[] ids;
+    private final int[] salaries;
+    private final int[] managerOrdinals;
+    private final String[] firstNames;
+    private final String[] lastNames;
+
+    /**
+     * Names left on the source file, by ordinal, or {@code null} when the names are held as strings.
+     */
+    private final MappedNames mappedNames;
+
+    /**
+     * Original employees by ordinal, kept when the table is created from a list of employees; {@code null} otherwise.
+     */
+    private final Employee[] employees;
+
+    /**
+     * Ordinal of each employee id. When an id is duplicated, it maps to its first ordinal.
+     */
+    private final IntIntHashMap ordinalsById;
+
+    /**
+     * Original manager id of the employees whose manager was not found, by ordinal.
+     */
+    private final IntIntHashMap unknownManagerIds;
+
+    private EmployeeTable(Builder builder, MappedNames mappedNames, Employee[] employees) {
+        this.size = builder.size;
+        this.employees = employees;
+        this.ids = Arrays.copyOf(builder.ids, size);
+        this.salaries = Arrays.copyOf(builder.salaries, size);
+        this.firstNames = (mappedNames == null) ? Arrays.copyOf(builder.firstNames, size) : null;
+        this.lastNames = (mappedNames == null) ? Arrays.copyOf(builder.lastNames, size) : null;
+        this.mappedNames = mappedNames;
+        this.ordinalsById = builder.ordinalsById;
+        this.unknownManagerIds = new IntIntHashMap();
+        this.managerOrdinals = new int[size];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (!builder.hasManager[ordinal]) {
+                managerOrdinals[ordinal] = NO_MANAGER;
+                continue;
+            }
+            int managerId = builder.managerIds[ordinal];
+            managerOrdinals[ordinal] = ordinalsById.get(managerId, UNKNOWN_MANAGER);
+            if (managerOrdinals[ordinal] == UNKNOWN_MANAGER) unknownManagerIds.put(ordinal, managerId);
+        }
+    }
+
+    /**
+     * Creates a table from a list of employees, keeping the list order and the employee instances.
+     *
+     * @param employees the list of employees
+     * @return the table holding the employees
+     * @throws NullPointerException if employees list or any of its employees is null
+     */
+    public static EmployeeTable of(List<Employee> employees) {
+        Objects.requireNonNull(employees, "Employees list must not be null");
+        Builder builder = new Builder(employees.size());
+        for (Employee employee : employees) {
+            builder.add(employee);
+        }
+        return new EmployeeTable(builder, null, employees.toArray(new Employee[0]));
+    }
+
+    /**
+     * Gets the number of employees on the table.
+     *
+     * @return the number of employees
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the original id of an employee.
+     *
+     * @param ordinal the ordinal of the employee
+     * @return the employee id
+     */
+    public int id(int ordinal) {
+        return ids[ordinal];
+    }
+
+    /**
+     * Gets the salary of an employee.
+     *
+     * @param ordinal the ordinal of the employee
+     * @return the employee salary
+     */
+    public int salary(int ordinal) {
+        return salaries[ordinal];
+    }
+
+    /**
+     * Gets the ordinal of the manager of an employee.
+     *
+     * @param ordinal the ordinal of the employee
+     * @return the manager ordinal, {@link #NO_MANAGER} for the CEO or {@link #UNKNOWN_MANAGER} when the manager
+     * id was not found on the table
+     */
+    public int managerOrdinal(int ordinal) {
+        return managerOrdinals[ordinal];
+    }
+
+    /**
+     * Gets the first name of an employee.
+     *
+     * @param ordinal the ordinal of the employee
+     * @return the employee first name
+     */
+    public String firstName(int ordinal) {
+        return (mappedNames == null) ? firstNames[ordinal] : mappedNames.firstName(ordinal);
+    }
+
+    /**
+     * Gets the last name of an employee.
+     *
+     * @param ordinal the ordinal of the employee
+     * @return the employee last name
+     */
+    public String lastName(int ordinal) {
+        return (mappedNames == null) ? lastNames[ordinal] : mappedNames.lastName(ordinal);
+    }
+
+    /**
+     * Gets the names left on the source file.
+     *
+     * @return the names by ordinal, or {@code null} when the names are held as strings
+     */
+    MappedNames mappedNames() {
+        return mappedNames;
+    }
+
+    /**
+     * Gets the ordinal of an employee id.
+     *
+     * @param id the employee id
+     * @return the ordinal of the first employee with this id, or {@link #NOT_FOUND} if the id is not on the table
+     */
+    public int ordinalOf(int id) {
+        return ordinalsById.get(id, NOT_FOUND);
+    }
+
+    /**
+     * Checks whether the table keeps the employee instances it was created from.
+     *
+     * @return {@code true} if {@link #employee(int)} returns the original instances
+     */
+    boolean keepsEmployees() {
+        return employees != null;
+    }
+
+    /**
+     * Restores an employee with its original ids, or returns it as it was given when the table keeps the instances.
+     *
+     * @param ordinal the ordinal of the employee
+     * @return the employee
+     */
+    public Employee employee(int ordinal) {
+        if (employees != null) return employees[ordinal];
+        int managerOrdinal = managerOrdinals[ordinal];
+        Integer managerId = switch (managerOrdinal) {
+            case NO_MANAGER -> null;
+            case UNKNOWN_MANAGER -> unknownManagerIds.get(ordinal, 0);
+            default -> ids[managerOrdinal];
+        };
+        return new Employee(ids[ordinal], firstName(ordinal), lastName(ordinal), salaries[ordinal], managerId);
+    }
+
+    /**
+     * Builds an {@code EmployeeTable} by appending employees one at a time, assigning each one the next ordinal.
+     * Manager references are resolved to ordinals when the table is built, so managers may be added after
+     * their subordinates.
+     */
+    public static final class Builder {
+
+        /**
+         * Number of employees appended so far and their columns, indexed by ordinal.
+         */
+        private int size;
+        private int[] ids;
+        private int[] salaries;
+        private int[] managerIds;
+        private boolean[] hasManager;
+        private String[] firstNames;
+        private String[] lastNames;
+
+        /**
+         * Ordinal of each employee id appended so far.
+         */
+        private final IntIntHashMap ordinalsById;
+
+        /**
+         * Constructs a builder able to hold the expected number of employees without growing.
+         *
+         * @param expectedSize the expected number of employees
+         */
+        public Builder(int expectedSize) {
+            int capacity = Math.max(16, expectedSize);
+            this.ids = new int[capacity];
+            this.salaries = new int[capacity];
+            this.managerIds = new int[capacity];
+            this.hasManager = new boolean[capacity];
+            this.firstNames = new String[capacity];
+            this.lastNames = new String[capacity];
+            this.ordinalsById = new IntIntHashMap(expectedSize);
+        }
+
+        /**
+         * Constructs a builder with a default initial capacity.
+         */
+        public Builder() {
+            this(1024);
+        }
+
+        /**
+         * Appends an employee.
+         *
+         * @param id         the employee id
+         * @param firstName  the employee first name
+         * @param lastName   the employee last name
+         * @param salary     the employee salary
+         * @param hasManager whether the employee has a manager
+         * @param managerId  the manager id, ignored when the employee has no manager
+         * @return the ordinal assigned to the employee
+         */
+        public int add(int id, String firstName, String lastName, int salary, boolean hasManager, int managerId) {
+            if (size == ids.length) grow();
+            int ordinal = size++;
+            ids[ordinal] = id;
+            firstNames[ordinal] = firstName;
+            lastNames[ordinal] = lastName;
+            salaries[ordinal] = salary;
+            this.hasManager[ordinal] = hasManager;
+            managerIds[ordinal] = managerId;
+            ordinalsById.putIfAbsent(id, ordinal, NOT_FOUND);
+            return ordinal;
+        }
+
+        /**
+         * Appends an employee without names, to be given by {@link #build(MappedNames)}.
+         *
+         * @param id         the employee id
+         * @param salary     the employee salary
+         * @param hasManager whether the employee has a manager
+         * @param managerId  the manager id, ignored when the employee has no manager
+         * @return the ordinal assigned to the employee
+         */
+        public int add(int id, int salary, boolean hasManager, int managerId) {
+            return add(id, null, null, salary, hasManager, managerId);
+        }
+
+        /**
+         * Appends an employee.
+         *
+         * @param employee the employee
+         * @return the ordinal assigned to the employee
+         * @throws NullPointerException if employee is null
+         */
+        public int add(Employee employee) {
+            Objects.requireNonNull(employee, "Employee must not be null");
+            return add(employee.id(), employee.firstName(), employee.lastName(), employee.salary(),
+                    employee.managerId() != null, (employee.managerId() != null) ? employee.managerId() : 0);
+        }
+
+        /**
+         * Gets the number of employees appended so far.
+         *
+         * @return the number of employees
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Builds the table, resolving every manager reference to its ordinal.
+         *
+         * @return the table
+         */
+        public EmployeeTable build() {
+            return new EmployeeTable(this, null, null);
+        }
+
+        /**
+         * Builds the table with names left on the source file, resolving every manager reference to its ordinal.
+         * Any name given when appending the employees is discarded.
+         *
+         * @param mappedNames the names of the employees, by ordinal
+         * @return the table
+         * @throws NullPointerException     if mapped names is null
+         * @throws IllegalArgumentException if the number of names differs from the number of employees
+         */
+        public EmployeeTable build(MappedNames mappedNames) {
+            Objects.requireNonNull(mappedNames, "Mapped names must not be null");
+            if (mappedNames.size() != size)
+                throw new IllegalArgumentException(String.format("Mapped names have %d entries for %d employees", mappedNames.size(), size));
+            return new EmployeeTable(this, mappedNames, null);
+        }
+
+        /**
+         * Doubles the capacity of every column.
+         */
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            salaries = Arrays.copyOf(salaries, capacity);
+            managerIds = Arrays.copyOf(managerIds, capacity);
+            hasManager = Arrays.copyOf(hasManager, capacity);
+            firstNames = Arrays.copyOf(firstNames, capacity);
+            lastNames = Arrays.copyOf(lastNames, capacity);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.big.company.analytics.domain;
+
+import java.util.Objects;
+
+/**
+ * Represents a change of an employee between two snapshots of a hierarchy.
+ *
+ * @param type        what changed
+ * @param before      the employee on the earlier snapshot, or {@code null} if it was added
+ * @param after       the employee on the later snapshot, or {@code null} if it was removed
+ * @param description the salary policy violation or the reporting lines above the threshold, for report changes;
+ *                    {@code null} otherwise
+ */
+public record HierarchyChange(
+        Type type,
+        Employee before,
+        Employee after,
+        String description
+) {
+
+    /**
+     * Constructs a HierarchyChange object.
+     *
+     * @param type        what changed (required)
+     * @param before      the employee on the earlier snapshot
+     * @param after       the employee on the later snapshot
+     * @param description the description of a report change
+     * @throws NullPointerException     if type is null
+     * @throws IllegalArgumentException if both employees are null
+     */
+    public HierarchyChange {
+        Objects.requireNonNull(type, "Change type must not be null");
+        if (before == null && after == null) throw new IllegalArgumentException("Changed employee must not be null");
+    }
+
+    /**
+     * Gets the id of the changed employee.
+     *
+     * @return the employee id
+     */
+    public int id() {
+        return (after != null) ? after.id() : before.id();
+    }
+
+    /**
+     * Gets how much the salary of the employee changed.
+     *
+     * @return the later salary minus the earlier one, taking a missing employee as a zero salary
+     */
+    public int salaryDelta() {
+        return ((after != null) ? after.salary() : 0) - ((before != null) ? before.salary() : 0);
+    }
+
+    /**
+     * Kinds of change of an employee between two snapshots.
+     */
+    public enum Type {
+
+        /**
+         * The employee is only on the later snapshot.
+         */
+        ADDED,
+
+        /**
+         * The employee is only on the earlier snapshot.
+         */
+        REMOVED,
+
+        /**
+         * The employee reports to another manager, moving its whole subtree.
+         */
+        MANAGER_CHANGED,
+
+        /**
+         * The salary of the employee changed.
+         */
+        SALARY_CHANGED,
+
+        /**
+         * The first or last name of the employee changed.
+         */
+        NAME_CHANGED,
+
+        /**
+         * The employee started violating the salary policy.
+         */
+        SALARY_POLICY_VIOLATION_ADDED,
+
+        /**
+         * The employee no longer violates the salary policy.
+         */
+        SALARY_POLICY_VIOLATION_RESOLVED,
+
+        /**
+         * The reporting line of the employee became longer than the threshold.
+         */
+        EXCESSIVE_REPORTING_LINES_ADDED,
+
+        /**
+         * The reporting line of the employee is no longer longer than the threshold.
+         */
+        EXCESSIVE_REPORTING_LINES_RESOLVED
+    }
+}
@@ -0,0 +1,273 @@
+package com.big.company.analytics.domain;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Publishes immutable snapshots of an employee hierarchy to concurrent readers, so a service can swap in a freshly
+ * built hierarchy while request threads keep querying the previous one.
+ * <p>
+ * Snapshots are published through an atomic reference with read-copy-update semantics: a new version is built aside,
+ * usually from {@link #current()}, and swapped in with a single compare-and-set, so reloads never block readers and
+ * readers never block reloads. {@link #current()} is a single volatile read, wait-free. A snapshot replaced by a new
+ * one is retired, and its reclaimer runs once the last reader holding a {@link Lease} on it closes it; heap-only
+ * hierarchies, such as {@link EmployeeNode} trees or {@link PersistentEmployeeHierarchy}, need no reclaimer, as the
+ * garbage collector reclaims them once the readers drop their references. Instances are thread-safe.
+ *
+ * @param <H> the type of the hierarchy, which must not be changed once published
+ */
+public final class HierarchyRegistry<H> {
+
+    /**
+     * Reference count of a reclaimed snapshot, far enough below zero that late pins cannot bring it back.
+     */
+    private static final long RECLAIMED = Long.MIN_VALUE / 2;
+
+    /**
+     * Snapshot currently published.
+     */
+    private final AtomicReference<Snapshot<H>> current;
+
+    /**
+     * Releases the resources of a retired hierarchy once its readers drained.
+     */
+    private final Consumer<? super H> reclaimer;
+
+    /**
+     * Constructs a {@code HierarchyRegistry} publishing an initial hierarchy as version 0, for hierarchies reclaimed
+     * by the garbage collector.
+     *
+     * @param initial the initial hierarchy
+     * @throws NullPointerException if the initial hierarchy is null
+     */
+    public HierarchyRegistry(H initial) {
+        this(initial, hierarchy -> {
+        });
+    }
+
+    /**
+     * Constructs a {@code HierarchyRegistry} publishing an initial hierarchy as version 0.
+     *
+     * @param initial   the initial hierarchy
+     * @param reclaimer releases the resources of a retired hierarchy, on the thread of its last reader or of the
+     *                  publisher replacing it
+     * @throws NullPointerException if the initial hierarchy or the reclaimer is null
+     */
+    public HierarchyRegistry(H initial, Consumer<? super H> reclaimer) {
+        this.reclaimer = Objects.requireNonNull(reclaimer, "Reclaimer must not be null");
+        this.current = new AtomicReference<>(new Snapshot<>(0, Objects.requireNonNull(initial, "Hierarchy must not be null"), this));
+    }
+
+    /**
+     * Gets the snapshot currently published, wait-free. The snapshot may be retired right after; when its
+     * hierarchy holds resources released by the reclaimer, read it through {@link #acquire()} instead.
+     *
+     * @return the current snapshot
+     */
+    public Snapshot<H> current() {
+        return current.get();
+    }
+
+    /**
+     * Pins the snapshot currently published, so it is not reclaimed before the lease is closed. Pinning is a
+     * single atomic increment; it is only retried when the snapshot was replaced and fully drained in between.
+     *
+     * @return the lease, to be closed when the snapshot is no longer read
+     */
+    public Lease<H> acquire() {
+        return new Lease<>(pinCurrent());
+    }
+
+    /**
+     * Publishes a hierarchy as the next version and retires the previous one.
+     *
+     * @param hierarchy the new hierarchy
+     * @return the published snapshot
+     * @throws NullPointerException if hierarchy is null
+     */
+    public Snapshot<H> publish(H hierarchy) {
+        Objects.requireNonNull(hierarchy, "Hierarchy must not be null");
+        while (true) {
+            Snapshot<H> previous = current.get();
+            Snapshot<H> next = new Snapshot<>(previous.version + 1, hierarchy, this);
+            if (current.compareAndSet(previous, next)) {
+                previous.release();
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Publishes a new version derived from the current one, read-copy-update: the update builds a new hierarchy
+     * from the current one, which is published only if no other version was published meanwhile, otherwise the
+     * update is applied again to the newer version. The update must therefore not have side effects.
+     *
+     * @param update builds the new hierarchy from the current one, which it must not change
+     * @return the published snapshot
+     * @throws NullPointerException if update is null or returns null
+     */
+    public Snapshot<H> update(UnaryOperator<H> update) {
+        Objects.requireNonNull(update, "Update must not be null");
+        while (true) {
+            Snapshot<H> previous = pinCurrent();
+            try {
+                H hierarchy = Objects.requireNonNull(update.apply(previous.hierarchy), "Hierarchy must not be null");
+                Snapshot<H> next = new Snapshot<>(previous.version + 1, hierarchy, this);
+                if (current.compareAndSet(previous, next)) {
+                    previous.release();
+                    return next;
+                }
+            } finally {
+                previous.release();
+            }
+        }
+    }
+
+    /**
+     * Pins the current snapshot, reading it again while the one read was already reclaimed.
+     *
+     * @return the pinned snapshot
+     */
+    private Snapshot<H> pinCurrent() {
+        while (true) {
+            Snapshot<H> snapshot = current.get();
+            if (snapshot.references.getAndIncrement() > 0) return snapshot;
+            snapshot.release();
+        }
+    }
+
+    /**
+     * A published version of the hierarchy.
+     *
+     * @param <H> the type of the hierarchy
+     */
+    public static final class Snapshot<H> {
+
+        /**
+         * Version number, from 0 in the order the snapshots were published.
+         */
+        private final long version;
+
+        /**
+         * The published hierarchy.
+         */
+        private final H hierarchy;
+
+        /**
+         * Registry the snapshot was published on, holding the reclaimer.
+         */
+        private final HierarchyRegistry<H> registry;
+
+        /**
+         * Number of references to the snapshot: one held by the registry while it is published, plus one per lease.
+         * The snapshot is reclaimed when it drops to zero, and never pinned again from there.
+         */
+        private final AtomicLong references = new AtomicLong(1);
+
+        private Snapshot(long version, H hierarchy, HierarchyRegistry<H> registry) {
+            this.version = version;
+            this.hierarchy = hierarchy;
+            this.registry = registry;
+        }
+
+        /**
+         * Gets the version number of the snapshot.
+         *
+         * @return the version number
+         */
+        public long version() {
+            return version;
+        }
+
+        /**
+         * Gets the published hierarchy.
+         *
+         * @return the hierarchy
+         */
+        public H hierarchy() {
+            return hierarchy;
+        }
+
+        /**
+         * Checks whether the snapshot was retired and its readers drained, so its hierarchy was reclaimed.
+         *
+         * @return {@code true} if the snapshot was reclaimed
+         */
+        public boolean isReclaimed() {
+            return references.get() < 0;
+        }
+
+        /**
+         * Checks whether the snapshot is a later version of the same registry as another one.
+         *
+         * @param other the other snapshot
+         * @return {@code true} if both snapshots were published on the same registry and this one after the other
+         */
+        public boolean supersedes(Snapshot<?> other) {
+            return other != null && registry == other.registry && version > other.version;
+        }
+
+        /**
+         * Drops a reference, reclaiming the hierarchy when it was the last one.
+         */
+        private void release() {
+            if (references.decrementAndGet() == 0 && references.compareAndSet(0, RECLAIMED)) {
+                registry.reclaimer.accept(hierarchy);
+            }
+        }
+    }
+
+    /**
+     * A pin on a snapshot, which is not reclaimed before the lease is closed. A lease is meant to be used by a
+     * single thread, with try-with-resources.
+     *
+     * @param <H> the type of the hierarchy
+     */
+    public static final class Lease<H> implements AutoCloseable {
+
+        /**
+         * The pinned snapshot, or {@code null} once the lease is closed.
+         */
+        private Snapshot<H> snapshot;
+
+        private Lease(Snapshot<H> snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        /**
+         * Gets the pinned snapshot.
+         *
+         * @return the snapshot
+         * @throws IllegalStateException if the lease was closed
+         */
+        public Snapshot<H> snapshot() {
+            if (snapshot == null) throw new IllegalStateException("Lease was already closed");
+            return snapshot;
+        }
+
+        /**
+         * Gets the hierarchy of the pinned snapshot.
+         *
+         * @return the hierarchy
+         * @throws IllegalStateException if the lease was closed
+         */
+        public H hierarchy() {
+            return snapshot().hierarchy;
+        }
+
+        /**
+         * Unpins the snapshot, reclaiming it when it was retired and this was its last reader. Closing a lease
+         * again does nothing.
+         */
+        @Override
+        public void close() {
+            if (snapshot == null) return;
+            Snapshot<H> released = snapshot;
+            snapshot = null;
+            released.release();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.big.company.analytics.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Represents the result of validating a list of employees before building their hierarchy.
+ *
+ * @param ceoCandidates employees without a manager; a valid list has exactly one
+ * @param duplicateIds  ids shared by more than one employee, each reported once
+ * @param orphans       employees whose manager id was not found on the list
+ * @param cycles        reporting lines that loop back on themselves, each one with the ids of its members
+ *                      in reporting order
+ */
+public record HierarchyValidationReport(
+        List<Employee> ceoCandidates,
+        List<Integer> duplicateIds,
+        List<Employee> orphans,
+        List<List<Integer>> cycles
+) {
+
+    /**
+     * Constructs a HierarchyValidationReport object. Lists are copied, so the report is immutable.
+     *
+     * @param ceoCandidates employees without a manager (required)
+     * @param duplicateIds  ids shared by more than one employee (required)
+     * @param orphans       employees whose manager id was not found (required)
+     * @param cycles        reporting lines that loop back on themselves (required)
+     * @throws NullPointerException if any params is null
+     */
+    public HierarchyValidationReport {
+        ceoCandidates = List.copyOf(Objects.requireNonNull(ceoCandidates, "CEO candidates list must not be null"));
+        duplicateIds = List.copyOf(Objects.requireNonNull(duplicateIds, "Duplicate ids list must not be null"));
+        orphans = List.copyOf(Objects.requireNonNull(orphans, "Orphans list must not be null"));
+        List<List<Integer>> cycleCopies = new ArrayList<>(Objects.requireNonNull(cycles, "Cycles list must not be null").size());
+        for (List<Integer> cycle : cycles) cycleCopies.add(List.copyOf(cycle));
+        cycles = List.copyOf(cycleCopies);
+    }
+
+    /**
+     * Checks whether the employees can be built into a single hierarchy holding all of them.
+     *
+     * @return {@code true} if there is exactly one CEO and no duplicate id, orphan or cycle
+     */
+    public boolean isValid() {
+        return ceoCandidates.size() == 1 && duplicateIds.isEmpty() && orphans.isEmpty() && cycles.isEmpty();
+    }
+}
@@ -0,0 +1,177 @@
+package com.big.company.analytics.domain;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Employee names kept as byte ranges of the UTF-8 file they were read from, and only decoded when asked for.
+ * <p>
+ * The file is memory-mapped read-only, so names cost two offsets and two lengths per employee on the heap, and only
+ * the pages holding the names actually decoded are read. The file must not be changed while the names are in use;
+ * the mapping is released when the names are no longer referenced. Instances are safe to be read concurrently.
+ */
+public final class MappedNames {
+
+    /**
+     * Number of bits of the offset inside a segment of the mapping, for segments of 1 GB.
+     */
+    private static final int SEGMENT_SHIFT = 30;
+
+    /**
+     * Number of names entries.
+     */
+    private final int size;
+
+    /**
+     * Byte ranges of the names on the file, indexed by entry.
+     */
+    private final long[] firstNameOffsets;
+    private final int[] firstNameLengths;
+    private final long[] lastNameOffsets;
+    private final int[] lastNameLengths;
+
+    /**
+     * Read-only mapping of the file.
+     */
+    private final SegmentedBuffer source;
+
+    private MappedNames(Builder builder, SegmentedBuffer source) {
+        this.size = builder.size;
+        this.firstNameOffsets = Arrays.copyOf(builder.firstNameOffsets, size);
+        this.firstNameLengths = Arrays.copyOf(builder.firstNameLengths, size);
+        this.lastNameOffsets = Arrays.copyOf(builder.lastNameOffsets, size);
+        this.lastNameLengths = Arrays.copyOf(builder.lastNameLengths, size);
+        this.source = source;
+    }
+
+    /**
+     * Gets the number of names entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Decodes the first name of an entry.
+     *
+     * @param index the index of the entry
+     * @return the first name
+     */
+    public String firstName(int index) {
+        return decode(firstNameOffsets[index], firstNameLengths[index]);
+    }
+
+    /**
+     * Decodes the last name of an entry.
+     *
+     * @param index the index of the entry
+     * @return the last name
+     */
+    public String lastName(int index) {
+        return decode(lastNameOffsets[index], lastNameLengths[index]);
+    }
+
+    /**
+     * Decodes a byte range of the file as UTF-8 text.
+     *
+     * @param offset the offset of the first byte
+     * @param length the number of bytes
+     * @return the text
+     */
+    private String decode(long offset, int length) {
+        byte[] bytes = new byte[length];
+        source.get(offset, bytes, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Builds {@code MappedNames} by appending the byte ranges of each entry, in index order.
+     */
+    public static final class Builder {
+
+        /**
+         * Number of entries appended so far and their byte ranges, indexed by entry.
+         */
+        private int size;
+        private long[] firstNameOffsets;
+        private int[] firstNameLengths;
+        private long[] lastNameOffsets;
+        private int[] lastNameLengths;
+
+        /**
+         * Constructs a builder with a default initial capacity.
+         */
+        public Builder() {
+            this.firstNameOffsets = new long[1024];
+            this.firstNameLengths = new int[1024];
+            this.lastNameOffsets = new long[1024];
+            this.lastNameLengths = new int[1024];
+        }
+
+        /**
+         * Appends the byte ranges of the names of an entry.
+         *
+         * @param firstNameOffset the offset on the file of the first name
+         * @param firstNameLength the number of bytes of the first name
+         * @param lastNameOffset  the offset on the file of the last name
+         * @param lastNameLength  the number of bytes of the last name
+         * @return the index assigned to the entry
+         */
+        public int add(long firstNameOffset, int firstNameLength, long lastNameOffset, int lastNameLength) {
+            if (size == firstNameOffsets.length) grow();
+            int index = size++;
+            firstNameOffsets[index] = firstNameOffset;
+            firstNameLengths[index] = firstNameLength;
+            lastNameOffsets[index] = lastNameOffset;
+            lastNameLengths[index] = lastNameLength;
+            return index;
+        }
+
+        /**
+         * Maps the file the byte ranges point to.
+         *
+         * @param file the file holding the names
+         * @return the names
+         * @throws NullPointerException if file is null
+         * @throws IOException          if the file cannot be mapped
+         */
+        public MappedNames map(Path file) throws IOException {
+            Objects.requireNonNull(file, "File must not be null");
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long[] position = {0};
+                IOException[] failure = {null};
+                SegmentedBuffer source = new SegmentedBuffer(channel.size(), SEGMENT_SHIFT, bytes -> {
+                    try {
+                        ByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, position[0], bytes);
+                        position[0] += bytes;
+                        return segment;
+                    } catch (IOException e) {
+                        failure[0] = e;
+                        return ByteBuffer.allocate(0);
+                    }
+                });
+                if (failure[0] != null) throw failure[0];
+                return new MappedNames(this, source);
+            }
+        }
+
+        /**
+         * Doubles the capacity of every column.
+         */
+        private void grow() {
+            int capacity = firstNameOffsets.length * 2;
+            firstNameOffsets = Arrays.copyOf(firstNameOffsets, capacity);
+            firstNameLengths = Arrays.copyOf(firstNameLengths, capacity);
+            lastNameOffsets = Arrays.copyOf(lastNameOffsets, capacity);
+            lastNameLengths = Arrays.copyOf(lastNameLengths, capacity);
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package com.big.company.analytics.domain;
+
+import com.big.company.analytics.exception.HierarchyStoreException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * An {@link EmployeeHierarchy} stored outside the Java heap, in memory-mapped or direct {@link ByteBuffer}s.
+ * <p>
+ * Each employee is a fixed-width record holding its id, salary, manager ordinal, subordinate range and the location
+ * of its names; the names are UTF-8 encoded on a separate region and the id lookup is an open-addressing table on a
+ * third one. The heap only holds the few buffer objects, so the garbage collector has almost nothing to trace no
+ * matter the size of the organisation. Strings and {@link Employee}s are only created when they are requested.
+ * <p>
+ * By default the store is a memory-mapped temporary file, so it is bounded neither by the heap nor by
+ * {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap size and would otherwise fail a large
+ * organisation on the small heap this store is meant for: the operating system pages the file in and out on demand.
+ * {@link #ofDirect(EmployeeHierarchy)} keeps the store on direct buffers instead, which requires
+ * {@code -XX:MaxDirectMemorySize} above {@link #offHeapBytes()}.
+ * <p>
+ * The store is immutable once built and safe to be read concurrently. Its memory is released when the hierarchy
+ * is no longer referenced.
+ */
+public final class OffHeapEmployeeHierarchy implements EmployeeHierarchy {
+
+    /**
+     * Default number of bits of the offset inside a segment, for segments of 1 GB.
+     */
+    private static final int DEFAULT_SEGMENT_SHIFT = 30;
+
+    /**
+     * Layout of an employee record.
+     */
+    private static final int RECORD_SIZE = 32;
+    private static final int ID_OFFSET = 0;
+    private static final int SALARY_OFFSET = 4;
+    private static final int MANAGER_OFFSET = 8;
+    private static final int FIRST_SUBORDINATE_OFFSET = 12;
+    private static final int SUBORDINATE_COUNT_OFFSET = 16;
+    private static final int FIRST_NAME_LENGTH_OFFSET = 20;
+    private static final int LAST_NAME_LENGTH_OFFSET = 22;
+    private static final int NAMES_OFFSET = 24;
+
+    /**
+     * Layout of a slot of the id lookup table: the id and the ordinal plus one, zero meaning an empty slot.
+     */
+    private static final int SLOT_SIZE = 8;
+    private static final int SLOT_VALUE_OFFSET = 4;
+
+    /**
+     * Maximum size of an encoded name, as its length is stored on an unsigned short.
+     */
+    private static final int MAXIMUM_NAME_BYTES = 0xFFFF;
+
+    /**
+     * Number of employees on the hierarchy.
+     */
+    private final int size;
+
+    /**
+     * Employee records, by ordinal.
+     */
+    private final SegmentedBuffer records;
+
+    /**
+     * UTF-8 encoded names of the employees, first and last name of each employee one after the other.
+     */
+    private final SegmentedBuffer names;
+
+    /**
+     * Id lookup table.
+     */
+    private final SegmentedBuffer slots;
+
+    /**
+     * Number of slots of the id lookup table, a power of two.
+     */
+    private final int slotCount;
+
+    /**
+     * Total size of the off-heap regions, in bytes.
+     */
+    private final long offHeapBytes;
+
+    private OffHeapEmployeeHierarchy(EmployeeHierarchy source, int segmentShift, SegmentedBuffer.Allocator allocator) {
+        this.size = source.size();
+        this.slotCount = Integer.highestOneBit(Math.max(4, size) * 2 - 1) * 2;
+
+        long namesBytes = 0;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            namesBytes += encodedLength(source.firstName(ordinal)) + encodedLength(source.lastName(ordinal));
+        }
+        this.records = new SegmentedBuffer((long) size * RECORD_SIZE, segmentShift, allocator);
+        this.names = new SegmentedBuffer(namesBytes, segmentShift, allocator);
+        this.slots = new SegmentedBuffer((long) slotCount * SLOT_SIZE, segmentShift, allocator);
+        this.offHeapBytes = (long) size * RECORD_SIZE + namesBytes + (long) slotCount * SLOT_SIZE;
+
+        long namesOffset = 0;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            long record = (long) ordinal * RECORD_SIZE;
+            records.putInt(record + ID_OFFSET, source.id(ordinal));
+            records.putInt(record + SALARY_OFFSET, source.salary(ordinal));
+            records.putInt(record + MANAGER_OFFSET, source.managerOrdinal(ordinal));
+            records.putInt(record + FIRST_SUBORDINATE_OFFSET, source.firstSubordinate(ordinal));
+            records.putInt(record + SUBORDINATE_COUNT_OFFSET, source.subordinateCount(ordinal));
+
+            byte[] firstName = source.firstName(ordinal).getBytes(StandardCharsets.UTF_8);
+            byte[] lastName = source.lastName(ordinal).getBytes(StandardCharsets.UTF_8);
+            records.putShort(record + FIRST_NAME_LENGTH_OFFSET, (short) firstName.length);
+            records.putShort(record + LAST_NAME_LENGTH_OFFSET, (short) lastName.length);
+            records.putLong(record + NAMES_OFFSET, namesOffset);
+            names.put(namesOffset, firstName);
+            names.put(namesOffset + firstName.length, lastName);
+            namesOffset += firstName.length + lastName.length;
+
+            indexId(source.id(ordinal), ordinal);
+        }
+    }
+
+    /**
+     * Copies a hierarchy into a memory-mapped temporary file. The file is deleted as soon as it is mapped, or on exit
+     * where a mapped file cannot be deleted, and its disk space is released when the hierarchy is no longer
+     * referenced.
+     *
+     * @param source the hierarchy to be copied
+     * @return the memory-mapped copy of the hierarchy
+     * @throws NullPointerException    if source is null
+     * @throws HierarchyStoreException if the temporary file cannot be mapped or any employee name is too long to be stored
+     */
+    public static OffHeapEmployeeHierarchy of(EmployeeHierarchy source) {
+        Objects.requireNonNull(source, "Employees hierarchy must not be null");
+        Path file;
+        try {
+            file = Files.createTempFile("hierarchy", ".bin");
+        } catch (IOException e) {
+            throw new HierarchyStoreException("Error when creating the temporary file of the hierarchy");
+        }
+        try {
+            return map(source, file);
+        } finally {
+            try {
+                Files.delete(file);
+            } catch (IOException e) {
+                file.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Copies a hierarchy into direct buffers. Direct buffers are bounded by {@code -XX:MaxDirectMemorySize}, which
+     * defaults to the maximum heap size, so it must be raised above {@link #offHeapBytes()} for large hierarchies.
+     *
+     * @param source the hierarchy to be copied
+     * @return the off-heap copy of the hierarchy
+     * @throws NullPointerException    if source is null
+     * @throws HierarchyStoreException if any employee name is too long to be stored
+     * @throws OutOfMemoryError        if the direct memory limit is reached
+     */
+    public static OffHeapEmployeeHierarchy ofDirect(EmployeeHierarchy source) {
+        return ofDirect(source, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    /**
+     * Copies a hierarchy into direct buffers of the specified segment size.
+     *
+     * @param source       the hierarchy to be copied
+     * @param segmentShift the number of bits of the offset inside a segment
+     * @return the off-heap copy of the hierarchy
+     */
+    static OffHeapEmployeeHierarchy ofDirect(EmployeeHierarchy source, int segmentShift) {
+        Objects.requireNonNull(source, "Employees hierarchy must not be null");
+        return new OffHeapEmployeeHierarchy(source, segmentShift, ByteBuffer::allocateDirect);
+    }
+
+    /**
+     * Copies a hierarchy into a memory-mapped file, so the operating system can page it in and out on demand.
+     * The file is created or truncated, and holds the store until the hierarchy is no longer referenced.
+     *
+     * @param source the hierarchy to be copied
+     * @param file   the file backing the store
+     * @return the memory-mapped copy of the hierarchy
+     * @throws NullPointerException    if any params is null
+     * @throws HierarchyStoreException if the file cannot be mapped or any employee name is too long to be stored
+     */
+    public static OffHeapEmployeeHierarchy map(EmployeeHierarchy source, Path file) {
+        Objects.requireNonNull(source, "Employees hierarchy must not be null");
+        Objects.requireNonNull(file, "File must not be null");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long[] position = {0};
+            return new OffHeapEmployeeHierarchy(source, DEFAULT_SEGMENT_SHIFT, bytes -> {
+                try {
+                    ByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, position[0], bytes);
+                    position[0] += bytes;
+                    return segment;
+                } catch (IOException e) {
+                    throw new HierarchyStoreException(String.format("Error when mapping the file | Filename: %s", file.getFileName()));
+                }
+            });
+        } catch (IOException e) {
+            throw new HierarchyStoreException(String.format("Error when opening the file | Filename: %s", file.getFileName()));
+        }
+    }
+
+    /**
+     * Gets the total size of the off-heap regions holding the hierarchy.
+     *
+     * @return the size in bytes
+     */
+    public long offHeapBytes() {
+        return offHeapBytes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int id(int ordinal) {
+        return records.getInt(record(ordinal) + ID_OFFSET);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int salary(int ordinal) {
+        return records.getInt(record(ordinal) + SALARY_OFFSET);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String firstName(int ordinal) {
+        long record = record(ordinal);
+        return decode(records.getLong(record + NAMES_OFFSET), Short.toUnsignedInt(records.getShort(record + FIRST_NAME_LENGTH_OFFSET)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String lastName(int ordinal) {
+        long record = record(ordinal);
+        int firstNameLength = Short.toUnsignedInt(records.getShort(record + FIRST_NAME_LENGTH_OFFSET));
+        return decode(records.getLong(record + NAMES_OFFSET) + firstNameLength,
+                Short.toUnsignedInt(records.getShort(record + LAST_NAME_LENGTH_OFFSET)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int managerOrdinal(int ordinal) {
+        return records.getInt(record(ordinal) + MANAGER_OFFSET);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int firstSubordinate(int ordinal) {
+        return records.getInt(record(ordinal) + FIRST_SUBORDINATE_OFFSET);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int subordinateCount(int ordinal) {
+        return records.getInt(record(ordinal) + SUBORDINATE_COUNT_OFFSET);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int ordinalOf(int id) {
+        int mask = slotCount - 1;
+        for (int slot = hash(id) & mask; ; slot = (slot + 1) & mask) {
+            long offset = (long) slot * SLOT_SIZE;
+            int value = slots.getInt(offset + SLOT_VALUE_OFFSET);
+            if (value == 0) return NOT_FOUND;
+            if (slots.getInt(offset) == id) return value - 1;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Employee employee(int ordinal) {
+        int manager = managerOrdinal(ordinal);
+        Integer managerId = (manager == NO_MANAGER) ? null : id(manager);
+        return new Employee(id(ordinal), firstName(ordinal), lastName(ordinal), salary(ordinal), managerId);
+    }
+
+    /**
+     * Gets the offset of the record of an employee.
+     *
+     * @param ordinal the ordinal of the employee
+     * @return the offset of the record
+     * @throws IndexOutOfBoundsException if the ordinal is not on the hierarchy
+     */
+    private long record(int ordinal) {
+        Objects.checkIndex(ordinal, size);
+        return (long) ordinal * RECORD_SIZE;
+    }
+
+    /**
+     * Adds an id to the lookup table, keeping the first ordinal of duplicated ids.
+     *
+     * @param id      the employee id
+     * @param ordinal the ordinal of the employee
+     */
+    private void indexId(int id, int ordinal) {
+        int mask = slotCount - 1;
+        for (int slot = hash(id) & mask; ; slot = (slot + 1) & mask) {
+            long offset = (long) slot * SLOT_SIZE;
+            if (slots.getInt(offset + SLOT_VALUE_OFFSET) == 0) {
+                slots.putInt(offset, id);
+                slots.putInt(offset + SLOT_VALUE_OFFSET, ordinal + 1);
+                return;
+            }
+            if (slots.getInt(offset) == id) return;
+        }
+    }
+
+    /**
+     * Decodes a name from the names region.
+     *
+     * @param offset the offset of the encoded name
+     * @param length the length of the encoded name
+     * @return the name
+     */
+    private String decode(long offset, int length) {
+        byte[] bytes = new byte[length];
+        names.get(offset, bytes, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the length of a name once UTF-8 encoded, without encoding it. Unpaired surrogates count as the single
+     * replacement byte they are encoded to.
+     *
+     * @param name the name
+     * @return the encoded length
+     * @throws HierarchyStoreException if the encoded name is too long to be stored
+     */
+    private static int encodedLength(String name) {
+        int length = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < 0x80) length++;
+            else if (c < 0x800) length += 2;
+            else if (Character.isHighSurrogate(c) && i + 1 < name.length() && Character.isLowSurrogate(name.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) length++;
+            else length += 3;
+        }
+        if (length > MAXIMUM_NAME_BYTES)
+            throw new HierarchyStoreException(String.format("Employee name is longer than %d bytes", MAXIMUM_NAME_BYTES));
+        return length;
+    }
+
+    /**
+     * Spreads the bits of an id, as {@link com.big.company.analytics.util.IntIntHashMap} does.
+     *
+     * @param id the id
+     * @return the hash of the id
+     */
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
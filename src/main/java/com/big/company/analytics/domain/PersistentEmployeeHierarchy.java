@@ -0,0 +1,330 @@
+package com.big.company.analytics.domain;
+
+import com.big.company.analytics.exception.EmployeeException;
+import com.big.company.analytics.util.PersistentIntMap;
+import com.big.company.analytics.util.PersistentList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+/**
+ * An immutable employee hierarchy, where every update returns a new version sharing the unchanged subtrees and
+ * employee records with the previous one.
+ * <p>
+ * The hierarchy is a tree of {@link EmployeeNode}s with unmodifiable subordinate lists, so it can be reported by
+ * {@link com.big.company.analytics.services.EmployeeReportService} as is, together with a
+ * {@link PersistentIntMap} of the employees by id. An update copies only the nodes on the reporting line of the
+ * changed employee, path copying, plus a few trie nodes of the map. The subordinates of each node are a
+ * {@link PersistentList}, so copying a manager copies a few chunks of its subordinates, not all of them, and keeping
+ * many versions costs memory proportional to their changes even under managers with many direct reports. The
+ * subordinate lists cannot be changed through {@link EmployeeNode#addEmployee(Employee)}.
+ * <p>
+ * A newly loaded snapshot becomes the next version with {@link #rebase(EmployeeHierarchy, List)}, which applies the
+ * changes found by a diff against it, so the next version still shares every unchanged subtree.
+ */
+public final class PersistentEmployeeHierarchy {
+
+    /**
+     * Root node of the hierarchy, the CEO.
+     */
+    private final EmployeeNode root;
+
+    /**
+     * Employees of the hierarchy by id.
+     */
+    private final PersistentIntMap<Employee> employeesById;
+
+    private PersistentEmployeeHierarchy(EmployeeNode root, PersistentIntMap<Employee> employeesById) {
+        this.root = root;
+        this.employeesById = employeesById;
+    }
+
+    /**
+     * Copies a hierarchy of {@link EmployeeNode}s into a persistent hierarchy, keeping the order of the
+     * subordinates of each node and the employee records.
+     *
+     * @param root the root node of the hierarchy
+     * @return the persistent hierarchy
+     * @throws NullPointerException if root is null
+     * @throws EmployeeException    if an employee id is found more than once on the hierarchy
+     */
+    public static PersistentEmployeeHierarchy of(EmployeeNode root) {
+        Objects.requireNonNull(root, "Employees hierarchy must not be null");
+        List<EmployeeNode> nodes = new ArrayList<>();
+        int[] managers = new int[16];
+        nodes.add(root);
+        managers[0] = EmployeeHierarchy.NO_MANAGER;
+        for (int ordinal = 0; ordinal < nodes.size(); ordinal++) {
+            for (EmployeeNode subordinate : nodes.get(ordinal).subordinates()) {
+                if (nodes.size() == managers.length) managers = Arrays.copyOf(managers, managers.length * 2);
+                managers[nodes.size()] = ordinal;
+                nodes.add(subordinate);
+            }
+        }
+
+        // subordinates come after their manager, so copying backwards copies every subtree before its root
+        int size = nodes.size();
+        EmployeeNode[] copies = new EmployeeNode[size];
+        List<List<EmployeeNode>> subordinates = new ArrayList<>(size);
+        for (int ordinal = 0; ordinal < size; ordinal++) subordinates.add(new ArrayList<>());
+        PersistentIntMap<Employee> employeesById = PersistentIntMap.empty();
+        for (int ordinal = size - 1; ordinal >= 0; ordinal--) {
+            Employee employee = nodes.get(ordinal).employee();
+            if (employeesById.containsKey(employee.id()))
+                throw new EmployeeException(String.format("Employee id %d was found more than once on the hierarchy", employee.id()));
+            employeesById = employeesById.put(employee.id(), employee);
+
+            List<EmployeeNode> ordered = subordinates.get(ordinal);
+            for (int i = 0; i < ordered.size() / 2; i++) {
+                EmployeeNode swap = ordered.get(i);
+                ordered.set(i, ordered.get(ordered.size() - 1 - i));
+                ordered.set(ordered.size() - 1 - i, swap);
+            }
+            copies[ordinal] = new EmployeeNode(employee, PersistentList.of(ordered));
+            subordinates.set(ordinal, null);
+            if (ordinal != EmployeeHierarchy.ROOT) subordinates.get(managers[ordinal]).add(copies[ordinal]);
+        }
+        return new PersistentEmployeeHierarchy(copies[EmployeeHierarchy.ROOT], employeesById);
+    }
+
+    /**
+     * Gets the root node of the hierarchy, to be reported by
+     * {@link com.big.company.analytics.services.EmployeeReportService}.
+     *
+     * @return the root node of the hierarchy
+     */
+    public EmployeeNode root() {
+        return root;
+    }
+
+    /**
+     * Gets the number of employees of the hierarchy.
+     *
+     * @return the number of employees
+     */
+    public int size() {
+        return employeesById.size();
+    }
+
+    /**
+     * Gets an employee of the hierarchy.
+     *
+     * @param id the employee id
+     * @return the employee, or {@code null} if the id is not on the hierarchy
+     */
+    public Employee employee(int id) {
+        return employeesById.get(id);
+    }
+
+    /**
+     * Adds an employee under its manager, or updates it when its id is already on the hierarchy. When the manager
+     * of an employee changes, its whole subtree moves with it.
+     *
+     * @param employee the added or updated employee
+     * @return the new version of the hierarchy
+     * @throws NullPointerException if employee is null
+     * @throws EmployeeException    if the employee would be a second CEO, the CEO would get a manager, its manager is
+     *                              not on the hierarchy or its reporting line would be a cycle
+     */
+    public PersistentEmployeeHierarchy withEmployee(Employee employee) {
+        Objects.requireNonNull(employee, "Employee must not be null");
+        Employee existing = employeesById.get(employee.id());
+        if (employee.managerId() == null && (existing == null || existing.managerId() != null))
+            throw new EmployeeException("Employee list has more than one CEO");
+        if (employee.managerId() != null && existing != null && existing.managerId() == null)
+            throw new EmployeeException("Employee list has no CEO");
+        if (employee.managerId() != null && !employeesById.containsKey(employee.managerId()))
+            throw new EmployeeException(String.format("No manager id %d was found on the hierarchy", employee.managerId()));
+        PersistentIntMap<Employee> updatedEmployees = employeesById.put(employee.id(), employee);
+
+        if (existing == null) {
+            EmployeeNode added = new EmployeeNode(employee, PersistentList.empty());
+            return new PersistentEmployeeHierarchy(
+                    update(root, reportingLine(employee.managerId()), manager -> appended(manager, added)), updatedEmployees);
+        }
+        if (Objects.equals(existing.managerId(), employee.managerId())) {
+            return new PersistentEmployeeHierarchy(
+                    update(root, reportingLine(employee.id()), node -> new EmployeeNode(employee, node.subordinates())), updatedEmployees);
+        }
+
+        int[] newReportingLine = reportingLine(employee.managerId());
+        if (Arrays.stream(newReportingLine).anyMatch(id -> id == employee.id()))
+            throw new EmployeeException(String.format("Reporting line of employee with id %d would be a cycle", employee.id()));
+        EmployeeNode[] moved = new EmployeeNode[1];
+        EmployeeNode detached = update(root, reportingLine(existing.managerId()), manager -> {
+            int index = indexOf(manager, employee.id());
+            moved[0] = manager.subordinates().get(index);
+            return removed(manager, index);
+        });
+        EmployeeNode movedNode = new EmployeeNode(employee, moved[0].subordinates());
+        return new PersistentEmployeeHierarchy(
+                update(detached, newReportingLine, manager -> appended(manager, movedNode)), updatedEmployees);
+    }
+
+    /**
+     * Removes an employee without subordinates.
+     *
+     * @param id the id of the removed employee
+     * @return the new version of the hierarchy
+     * @throws EmployeeException if the id is not on the hierarchy, is the CEO or still has subordinates
+     */
+    public PersistentEmployeeHierarchy withoutEmployee(int id) {
+        Employee existing = employeesById.get(id);
+        if (existing == null) throw new EmployeeException(String.format("No employee id %d was found on the hierarchy", id));
+        if (existing.managerId() == null) throw new EmployeeException("Employee list has no CEO");
+        EmployeeNode updatedRoot = update(root, reportingLine(existing.managerId()), manager -> {
+            int index = indexOf(manager, id);
+            if (!manager.subordinates().get(index).subordinates().isEmpty())
+                throw new EmployeeException(String.format("Employee with id %d still has subordinates", id));
+            return removed(manager, index);
+        });
+        return new PersistentEmployeeHierarchy(updatedRoot, employeesById.remove(id));
+    }
+
+    /**
+     * Derives the version of a newly loaded snapshot from this one, applying the changes found by a diff from this
+     * version to the snapshot, such as {@link com.big.company.analytics.services.HierarchyDiffService#diff(EmployeeHierarchy, EmployeeHierarchy)}.
+     * Only the changed employees and their reporting lines are copied, so the new version shares every unchanged
+     * subtree with this one, which a version built with {@link #of(EmployeeNode)} would not.
+     * <p>
+     * Added, moved and updated employees are applied managers first, in the breadth-first order of the snapshot, so
+     * every manager is already in place and no intermediate reporting line is a cycle. Removed employees are then
+     * removed deepest first, once their subordinates were removed or moved away. Report changes are ignored.
+     *
+     * @param snapshot the newly loaded snapshot
+     * @param changes  the changes from this version to the snapshot
+     * @return the new version of the hierarchy
+     * @throws NullPointerException if snapshot or changes is null
+     * @throws EmployeeException    if the changes cannot be applied to this version, e.g. the CEO was replaced or an
+     *                              employee is removed while keeping subordinates
+     */
+    public PersistentEmployeeHierarchy rebase(EmployeeHierarchy snapshot, List<HierarchyChange> changes) {
+        Objects.requireNonNull(snapshot, "Hierarchy snapshot must not be null");
+        Objects.requireNonNull(changes, "Changes must not be null");
+        Map<Integer, Employee> updated = new LinkedHashMap<>();
+        List<Integer> removed = new ArrayList<>();
+        for (HierarchyChange change : changes) {
+            switch (change.type()) {
+                case ADDED, MANAGER_CHANGED, SALARY_CHANGED, NAME_CHANGED -> updated.put(change.id(), change.after());
+                case REMOVED -> removed.add(change.id());
+                default -> {
+                    // report changes follow from the employee changes
+                }
+            }
+        }
+
+        List<Employee> ordered = new ArrayList<>(updated.values());
+        ordered.sort(Comparator.comparingInt(employee -> snapshot.ordinalOf(employee.id())));
+        PersistentEmployeeHierarchy version = this;
+        for (Employee employee : ordered) version = version.withEmployee(employee);
+        PersistentEmployeeHierarchy beforeRemovals = version;
+        removed.sort(Comparator.comparingInt((Integer id) -> beforeRemovals.reportingLine(id).length).reversed());
+        for (int id : removed) version = version.withoutEmployee(id);
+        return version;
+    }
+
+    /**
+     * Gets the ids of the reporting line of an employee of the hierarchy.
+     *
+     * @param id the employee id
+     * @return the ids from the CEO down to the employee
+     */
+    private int[] reportingLine(int id) {
+        List<Integer> line = new ArrayList<>();
+        for (Employee employee = employeesById.get(id); employee != null;
+             employee = (employee.managerId() == null) ? null : employeesById.get(employee.managerId())) {
+            line.add(employee.id());
+        }
+        int[] ids = new int[line.size()];
+        for (int i = 0; i < ids.length; i++) ids[i] = line.get(ids.length - 1 - i);
+        return ids;
+    }
+
+    /**
+     * Updates the last node of a reporting line, copying every node above it.
+     *
+     * @param root          the root node
+     * @param reportingLine the ids from the CEO down to the updated node
+     * @param update        the update of the node
+     * @return the new root node
+     */
+    private static EmployeeNode update(EmployeeNode root, int[] reportingLine, UnaryOperator<EmployeeNode> update) {
+        EmployeeNode[] path = new EmployeeNode[reportingLine.length];
+        int[] indexes = new int[reportingLine.length];
+        path[0] = root;
+        for (int depth = 1; depth < path.length; depth++) {
+            indexes[depth] = indexOf(path[depth - 1], reportingLine[depth]);
+            path[depth] = path[depth - 1].subordinates().get(indexes[depth]);
+        }
+        EmployeeNode updated = update.apply(path[path.length - 1]);
+        for (int depth = path.length - 1; depth > 0; depth--) {
+            updated = replaced(path[depth - 1], indexes[depth], updated);
+        }
+        return updated;
+    }
+
+    /**
+     * Finds a direct subordinate of a node.
+     *
+     * @param manager the node
+     * @param id      the id of the subordinate
+     * @return the index of the subordinate on the subordinates of the node
+     */
+    private static int indexOf(EmployeeNode manager, int id) {
+        List<EmployeeNode> subordinates = manager.subordinates();
+        for (int index = 0; index < subordinates.size(); index++) {
+            if (subordinates.get(index).employee().id() == id) return index;
+        }
+        throw new IllegalStateException(String.format("Employee with id %d is not a subordinate of %d", id, manager.employee().id()));
+    }
+
+    /**
+     * Copies a node with a subordinate replaced.
+     *
+     * @param manager     the node
+     * @param index       the index of the replaced subordinate
+     * @param subordinate the new subordinate
+     * @return the copied node
+     */
+    private static EmployeeNode replaced(EmployeeNode manager, int index, EmployeeNode subordinate) {
+        return new EmployeeNode(manager.employee(), subordinates(manager).replaced(index, subordinate));
+    }
+
+    /**
+     * Copies a node with a subordinate appended.
+     *
+     * @param manager     the node
+     * @param subordinate the appended subordinate
+     * @return the copied node
+     */
+    private static EmployeeNode appended(EmployeeNode manager, EmployeeNode subordinate) {
+        return new EmployeeNode(manager.employee(), subordinates(manager).appended(subordinate));
+    }
+
+    /**
+     * Copies a node with a subordinate removed.
+     *
+     * @param manager the node
+     * @param index   the index of the removed subordinate
+     * @return the copied node
+     */
+    private static EmployeeNode removed(EmployeeNode manager, int index) {
+        return new EmployeeNode(manager.employee(), subordinates(manager).removed(index));
+    }
+
+    /**
+     * Gets the subordinates of a node of the hierarchy.
+     *
+     * @param manager the node
+     * @return the persistent list of its subordinates
+     */
+    private static PersistentList<EmployeeNode> subordinates(EmployeeNode manager) {
+        return (PersistentList<EmployeeNode>) manager.subordinates();
+    }
+}
@@ -0,0 +1,165 @@
+package com.big.company.analytics.domain;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Computes the depth of every employee from a plain array with the ordinal of each employee's manager, in parallel
+ * and regardless of the shape of the hierarchy.
+ * <p>
+ * Depths are found by pointer jumping: each employee keeps an ancestor and its distance to it, starting with its
+ * manager at distance one, and on each round jumps to the ancestor of its ancestor, adding both distances. Every
+ * round doubles the distance covered, so a reporting line of length {@code n} is resolved in {@code log2(n)} rounds,
+ * and every employee of a round is updated independently, across all cores. Rounds read one buffer and write the
+ * other, so no employee ever sees a half updated ancestor.
+ */
+public final class PointerJumpingDepths {
+
+    /**
+     * Manager ordinal of an employee without a manager, the root of its reporting line.
+     */
+    public static final int NO_MANAGER = EmployeeTable.NO_MANAGER;
+
+    /**
+     * Depth of an employee whose reporting line does not reach an employee without a manager, because it goes
+     * through a cycle or an unknown manager.
+     */
+    public static final int UNREACHABLE = -1;
+
+    /**
+     * Number of employees updated by each parallel task.
+     */
+    private static final int CHUNK_SIZE = 1 << 14;
+
+    /**
+     * Ancestor of an employee whose reporting line is resolved up to its root.
+     */
+    private static final int RESOLVED = -1;
+
+    /**
+     * Ancestor of an employee whose reporting line ends on an unknown manager.
+     */
+    private static final int BROKEN = -2;
+
+    private PointerJumpingDepths() {
+    }
+
+    /**
+     * Computes the depth of every employee of a table.
+     *
+     * @param table the employee table
+     * @return a new array with the depth of each employee by ordinal, or {@link #UNREACHABLE}
+     * @throws NullPointerException if table is null
+     * @see #of(int[])
+     */
+    public static int[] of(EmployeeTable table) {
+        Objects.requireNonNull(table, "Employee table must not be null");
+        int[] managerOrdinals = new int[table.size()];
+        Arrays.setAll(managerOrdinals, table::managerOrdinal);
+        return of(managerOrdinals);
+    }
+
+    /**
+     * Computes the number of reporting lines between every employee and the root of its reporting line.
+     * <p>
+     * Any negative manager ordinal other than {@link #NO_MANAGER}, such as {@link EmployeeTable#UNKNOWN_MANAGER},
+     * is taken as a manager that is not on the array.
+     *
+     * @param managerOrdinals the ordinal of the manager of each employee, or {@link #NO_MANAGER}
+     * @return a new array with the depth of each employee by ordinal, or {@link #UNREACHABLE}
+     * @throws NullPointerException     if the manager ordinals array is null
+     * @throws IllegalArgumentException if a manager ordinal is not lower than the number of employees
+     */
+    public static int[] of(int[] managerOrdinals) {
+        Objects.requireNonNull(managerOrdinals, "Manager ordinals must not be null");
+        int size = managerOrdinals.length;
+        long[] current = new long[size];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            int manager = managerOrdinals[ordinal];
+            if (manager >= size)
+                throw new IllegalArgumentException(String.format("Manager ordinal %d of employee %d is out of range", manager, ordinal));
+            if (manager == NO_MANAGER) current[ordinal] = pack(RESOLVED, 0);
+            else if (manager < 0) current[ordinal] = pack(BROKEN, 0);
+            else current[ordinal] = pack(manager, 1);
+        }
+
+        long[] next = new long[size];
+        int chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        // a reporting line has fewer than size links, so lines still pending after these rounds go through a cycle
+        int maxRounds = 32 - Integer.numberOfLeadingZeros(size);
+        int pending = size;
+        for (int round = 0; round < maxRounds && pending > 0; round++) {
+            long[] source = current;
+            long[] target = next;
+            IntStream range = IntStream.range(0, chunks);
+            pending = ((chunks > 1) ? range.parallel() : range).map(chunk -> jump(source, target, chunk)).sum();
+            next = current;
+            current = target;
+        }
+
+        int[] depths = new int[size];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            depths[ordinal] = (ancestor(current[ordinal]) == RESOLVED) ? distance(current[ordinal]) : UNREACHABLE;
+        }
+        return depths;
+    }
+
+    /**
+     * Runs a round of pointer jumping on a chunk of employees.
+     *
+     * @param source the ancestor and distance of each employee before the round
+     * @param target the ancestor and distance of each employee after the round
+     * @param chunk  the index of the chunk
+     * @return the number of employees of the chunk still not resolved after the round
+     */
+    private static int jump(long[] source, long[] target, int chunk) {
+        int from = chunk * CHUNK_SIZE;
+        int to = Math.min(source.length, from + CHUNK_SIZE);
+        int pending = 0;
+        for (int ordinal = from; ordinal < to; ordinal++) {
+            long entry = source[ordinal];
+            int ancestor = ancestor(entry);
+            if (ancestor < 0) {
+                target[ordinal] = entry;
+                continue;
+            }
+            long ancestorEntry = source[ancestor];
+            int jumped = ancestor(ancestorEntry);
+            target[ordinal] = pack(jumped, distance(entry) + distance(ancestorEntry));
+            if (jumped >= 0) pending++;
+        }
+        return pending;
+    }
+
+    /**
+     * Packs an ancestor and the distance to it in a single value, so both are always read together.
+     *
+     * @param ancestor the ancestor ordinal, {@link #RESOLVED} or {@link #BROKEN}
+     * @param distance the distance to the ancestor
+     * @return the packed value
+     */
+    private static long pack(int ancestor, int distance) {
+        return ((long) ancestor << 32) | (distance & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets the ancestor of a packed value.
+     *
+     * @param entry the packed value
+     * @return the ancestor ordinal, {@link #RESOLVED} or {@link #BROKEN}
+     */
+    private static int ancestor(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    /**
+     * Gets the distance of a packed value.
+     *
+     * @param entry the packed value
+     * @return the distance to the ancestor
+     */
+    private static int distance(long entry) {
+        return (int) entry;
+    }
+}
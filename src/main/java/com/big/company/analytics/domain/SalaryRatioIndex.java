@@ -0,0 +1,319 @@
+package com.big.company.analytics.domain;
+
+import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Index of the salary-to-subordinate-average ratio of every manager of a hierarchy, answering salary policy
+ * violations for any percentage band without traversing the hierarchy again.
+ * <p>
+ * The ratio of each manager is computed once and kept sorted on a primitive array, alongside the ordinal of the
+ * manager. A band from {@code minimumPercentage} to {@code maximumPercentage} is violated by the managers whose ratio
+ * is below {@code 1 + minimumPercentage / 100} or above {@code 1 + maximumPercentage / 100}: a prefix and a suffix of
+ * the sorted ratios, both found by binary search. The report compares the salary with the average multiplied by the
+ * bound instead, whose rounding differs from the ratio's, so the managers whose ratio is within a tolerance of a bound
+ * are checked again with {@link EmployeeHierarchyReportService#compareWithSalaryPolicy(double, double, int, int)}, on the
+ * average kept alongside their ratio.
+ * <p>
+ * Managers whose salary and subordinates' salaries are all zero have no ratio and never violate the policy, as on
+ * {@link com.big.company.analytics.services.EmployeeReportService#reportManagersSalaryPolicyViolation(EmployeeHierarchy, Integer, Integer)}.
+ */
+public final class SalaryRatioIndex {
+
+    /**
+     * Relative distance from a bound within which a ratio may be on either side of the report's comparison.
+     */
+    private static final double BOUNDARY_TOLERANCE = 1e-9;
+
+    /**
+     * Hierarchy the ratios were computed on, used to restore the violating managers.
+     */
+    private final EmployeeHierarchy hierarchy;
+
+    /**
+     * Ratio of each manager, in ascending order.
+     */
+    private final double[] ratios;
+
+    /**
+     * Average salary of the direct subordinates of the manager of each ratio.
+     */
+    private final double[] averages;
+
+    /**
+     * Ordinal of the manager of each ratio.
+     */
+    private final int[] ordinals;
+
+    /**
+     * Number of managers on the hierarchy, including those without a ratio.
+     */
+    private final int managerCount;
+
+    private SalaryRatioIndex(EmployeeHierarchy hierarchy, double[] ratios, double[] averages, int[] ordinals, int managerCount) {
+        this.hierarchy = hierarchy;
+        this.ratios = ratios;
+        this.averages = averages;
+        this.ordinals = ordinals;
+        this.managerCount = managerCount;
+    }
+
+    /**
+     * Builds the index of the managers of a hierarchy.
+     *
+     * @param hierarchy the employee hierarchy
+     * @return the index of the salary ratio of every manager
+     * @throws NullPointerException if hierarchy is null
+     */
+    public static SalaryRatioIndex of(EmployeeHierarchy hierarchy) {
+        Objects.requireNonNull(hierarchy, "Employees hierarchy must not be null");
+        int size = hierarchy.size();
+        double[] unsortedRatios = new double[size];
+        double[] unsortedAverages = new double[size];
+        int[] unsortedOrdinals = new int[size];
+        int managerCount = 0;
+        int count = 0;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            int subordinateCount = hierarchy.subordinateCount(ordinal);
+            if (subordinateCount == 0) continue;
+            managerCount++;
+
+            long salariesSum = 0;
+            int firstSubordinate = hierarchy.firstSubordinate(ordinal);
+            for (int subordinate = firstSubordinate; subordinate < firstSubordinate + subordinateCount; subordinate++) {
+                salariesSum += hierarchy.salary(subordinate);
+            }
+            double average = (double) salariesSum / subordinateCount;
+            double ratio = hierarchy.salary(ordinal) / average;
+            if (Double.isNaN(ratio)) continue;
+            unsortedRatios[count] = ratio;
+            unsortedAverages[count] = average;
+            unsortedOrdinals[count++] = ordinal;
+        }
+
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        sortByRatio(order, new int[count], 0, count, unsortedRatios);
+
+        double[] ratios = new double[count];
+        double[] averages = new double[count];
+        int[] ordinals = new int[count];
+        for (int i = 0; i < count; i++) {
+            ratios[i] = unsortedRatios[order[i]];
+            averages[i] = unsortedAverages[order[i]];
+            ordinals[i] = unsortedOrdinals[order[i]];
+        }
+        return new SalaryRatioIndex(hierarchy, ratios, averages, ordinals, managerCount);
+    }
+
+    /**
+     * Gets the number of managers on the hierarchy.
+     *
+     * @return the number of managers
+     */
+    public int managerCount() {
+        return managerCount;
+    }
+
+    /**
+     * Counts the managers violating a salary policy band.
+     *
+     * @param minimumPercentage the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param maximumPercentage the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @return the number of managers violating the band
+     */
+    public int countViolations(int minimumPercentage, int maximumPercentage) {
+        Sweep sweep = sweep(minimumPercentage, maximumPercentage);
+        int count = sweep.belowEnd() + (ratios.length - sweep.aboveStart());
+        for (int i = sweep.firstCheckedFrom(); i < sweep.firstCheckedTo(); i++) {
+            if (violates(i, minimumPercentage, maximumPercentage)) count++;
+        }
+        for (int i = sweep.secondCheckedFrom(); i < sweep.secondCheckedTo(); i++) {
+            if (violates(i, minimumPercentage, maximumPercentage)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Counts the managers violating each band of a sweep.
+     *
+     * @param minimumPercentages the minimum percentage of each band
+     * @param maximumPercentages the maximum percentage of each band
+     * @return the number of managers violating each band, in the same order
+     * @throws NullPointerException     if any params is null
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public int[] countViolations(int[] minimumPercentages, int[] maximumPercentages) {
+        Objects.requireNonNull(minimumPercentages, "Minimum percentages must not be null");
+        Objects.requireNonNull(maximumPercentages, "Maximum percentages must not be null");
+        if (minimumPercentages.length != maximumPercentages.length)
+            throw new IllegalArgumentException("Minimum and maximum percentages should have the same length");
+
+        int[] counts = new int[minimumPercentages.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = countViolations(minimumPercentages[i], maximumPercentages[i]);
+        }
+        return counts;
+    }
+
+    /**
+     * Gets the managers violating a salary policy band, from the lowest to the highest ratio.
+     *
+     * @param minimumPercentage the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param maximumPercentage the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @return the managers violating the band
+     */
+    public List<Employee> violations(int minimumPercentage, int maximumPercentage) {
+        Sweep sweep = sweep(minimumPercentage, maximumPercentage);
+        List<Employee> violations = new ArrayList<>(sweep.belowEnd() + ratios.length - sweep.aboveStart());
+        for (int i = 0; i < sweep.belowEnd(); i++) {
+            violations.add(hierarchy.employee(ordinals[i]));
+        }
+        for (int i = sweep.firstCheckedFrom(); i < sweep.firstCheckedTo(); i++) {
+            if (violates(i, minimumPercentage, maximumPercentage)) violations.add(hierarchy.employee(ordinals[i]));
+        }
+        for (int i = sweep.secondCheckedFrom(); i < sweep.secondCheckedTo(); i++) {
+            if (violates(i, minimumPercentage, maximumPercentage)) violations.add(hierarchy.employee(ordinals[i]));
+        }
+        for (int i = sweep.aboveStart(); i < ratios.length; i++) {
+            violations.add(hierarchy.employee(ordinals[i]));
+        }
+        return violations;
+    }
+
+    /**
+     * Positions of the sorted ratios violating a band: every ratio before {@code belowEnd} and from {@code aboveStart}
+     * violates it, those on the two checked ranges are close to a bound and violate it only if {@link #violates} says
+     * so, and the others follow it.
+     *
+     * @param belowEnd          the number of ratios surely below the band
+     * @param firstCheckedFrom  the first position of the first checked range, inclusive
+     * @param firstCheckedTo    the last position of the first checked range, exclusive
+     * @param secondCheckedFrom the first position of the second checked range, inclusive
+     * @param secondCheckedTo   the last position of the second checked range, exclusive
+     * @param aboveStart        the first position of the ratios surely above the band
+     */
+    private record Sweep(int belowEnd, int firstCheckedFrom, int firstCheckedTo, int secondCheckedFrom,
+                         int secondCheckedTo, int aboveStart) {
+    }
+
+    /**
+     * Finds the positions of the sorted ratios violating a band, by binary search of the ratios within the tolerance
+     * of each bound.
+     *
+     * @param minimumPercentage the minimum percentage of the band
+     * @param maximumPercentage the maximum percentage of the band
+     * @return the positions violating the band
+     */
+    private Sweep sweep(int minimumPercentage, int maximumPercentage) {
+        double minimumRatio = minimumRatio(minimumPercentage);
+        double maximumRatio = maximumRatio(maximumPercentage);
+        int belowEnd = firstNotBelow(minimumRatio - Math.abs(minimumRatio) * BOUNDARY_TOLERANCE);
+        int belowCheckedEnd = firstNotBelow(minimumRatio + Math.abs(minimumRatio) * BOUNDARY_TOLERANCE);
+        int aboveCheckedStart = firstAbove(maximumRatio - Math.abs(maximumRatio) * BOUNDARY_TOLERANCE);
+        int aboveStart = firstAbove(maximumRatio + Math.abs(maximumRatio) * BOUNDARY_TOLERANCE);
+
+        // with a minimum above the maximum, every ratio is on either side of the band
+        if (belowEnd >= aboveStart) return new Sweep(ratios.length, 0, 0, 0, 0, ratios.length);
+        if (belowCheckedEnd <= aboveCheckedStart)
+            return new Sweep(belowEnd, belowEnd, belowCheckedEnd, aboveCheckedStart, aboveStart, aboveStart);
+        return new Sweep(belowEnd, belowEnd, aboveStart, 0, 0, aboveStart);
+    }
+
+    /**
+     * Checks a manager against a band with the same comparison as the report.
+     *
+     * @param position          the position of the manager's ratio
+     * @param minimumPercentage the minimum percentage of the band
+     * @param maximumPercentage the maximum percentage of the band
+     * @return {@code true} if the manager violates the band
+     */
+    private boolean violates(int position, int minimumPercentage, int maximumPercentage) {
+        return EmployeeHierarchyReportService.compareWithSalaryPolicy(hierarchy.salary(ordinals[position]),
+                averages[position], minimumPercentage, maximumPercentage) != 0;
+    }
+
+    /**
+     * Gets the lowest ratio allowed by a minimum percentage.
+     *
+     * @param minimumPercentage the minimum percentage
+     * @return the lowest ratio allowed
+     */
+    private static double minimumRatio(int minimumPercentage) {
+        return 1 + ((double) minimumPercentage / 100);
+    }
+
+    /**
+     * Gets the highest ratio allowed by a maximum percentage.
+     *
+     * @param maximumPercentage the maximum percentage
+     * @return the highest ratio allowed
+     */
+    private static double maximumRatio(int maximumPercentage) {
+        return 1 + ((double) maximumPercentage / 100);
+    }
+
+    /**
+     * Finds the position of the first ratio that is not below a bound.
+     *
+     * @param bound the lowest ratio allowed
+     * @return the number of ratios below the bound
+     */
+    private int firstNotBelow(double bound) {
+        int low = 0;
+        int high = ratios.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ratios[middle] < bound) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Finds the position of the first ratio above a bound.
+     *
+     * @param bound the highest ratio allowed
+     * @return the number of ratios not above the bound
+     */
+    private int firstAbove(double bound) {
+        int low = 0;
+        int high = ratios.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ratios[middle] <= bound) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Sorts positions by their ratio with a merge sort, so no position is boxed.
+     *
+     * @param positions the positions to be sorted, from {@code from} to {@code to}
+     * @param buffer    a scratch array as long as the positions
+     * @param from      the first position to be sorted, inclusive
+     * @param to        the last position to be sorted, exclusive
+     * @param ratios    the ratio of each position
+     */
+    private static void sortByRatio(int[] positions, int[] buffer, int from, int to, double[] ratios) {
+        if (to - from < 2) return;
+        int middle = (from + to) >>> 1;
+        sortByRatio(positions, buffer, from, middle, ratios);
+        sortByRatio(positions, buffer, middle, to, ratios);
+        if (ratios[positions[middle - 1]] <= ratios[positions[middle]]) return;
+
+        System.arraycopy(positions, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && ratios[buffer[left]] <= ratios[buffer[right]])) positions[i] = buffer[left++];
+            else positions[i] = buffer[right++];
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.big.company.analytics.domain;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A region of off-heap memory addressed by {@code long} offsets, split into {@link ByteBuffer} segments so it
+ * can exceed the 2 GB limit of a single buffer.
+ * <p>
+ * Only absolute accessors are used, so concurrent reads are safe. Integers and longs must be aligned to their
+ * size, so they never straddle two segments; byte arrays may.
+ */
+final class SegmentedBuffer {
+
+    /**
+     * Segments of the region, all of {@link #segmentSize} bytes but the last one.
+     */
+    private final ByteBuffer[] segments;
+
+    /**
+     * Number of bits of the offset inside a segment.
+     */
+    private final int segmentShift;
+
+    /**
+     * Mask of the offset inside a segment.
+     */
+    private final long segmentMask;
+
+    /**
+     * Allocates the segments of a region of memory.
+     */
+    interface Allocator {
+
+        /**
+         * Allocates a segment.
+         *
+         * @param bytes the size of the segment
+         * @return the segment, with every byte set to zero
+         */
+        ByteBuffer allocate(int bytes);
+    }
+
+    /**
+     * Constructs a {@code SegmentedBuffer} of the specified size.
+     *
+     * @param size         the size of the region in bytes
+     * @param segmentShift the number of bits of the offset inside a segment, at least 3
+     * @param allocator    the allocator of the segments
+     */
+    SegmentedBuffer(long size, int segmentShift, Allocator allocator) {
+        this.segmentShift = segmentShift;
+        this.segmentMask = (1L << segmentShift) - 1;
+        int segmentCount = (int) ((size + segmentMask) >>> segmentShift);
+        this.segments = new ByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long remaining = size - ((long) i << segmentShift);
+            segments[i] = allocator.allocate((int) Math.min(remaining, 1L << segmentShift));
+        }
+    }
+
+    /**
+     * Gets the integer at an offset.
+     *
+     * @param offset the offset, aligned to 4 bytes
+     * @return the integer
+     */
+    int getInt(long offset) {
+        return segments[(int) (offset >>> segmentShift)].getInt((int) (offset & segmentMask));
+    }
+
+    /**
+     * Sets the integer at an offset.
+     *
+     * @param offset the offset, aligned to 4 bytes
+     * @param value  the integer
+     */
+    void putInt(long offset, int value) {
+        segments[(int) (offset >>> segmentShift)].putInt((int) (offset & segmentMask), value);
+    }
+
+    /**
+     * Gets the long at an offset.
+     *
+     * @param offset the offset, aligned to 8 bytes
+     * @return the long
+     */
+    long getLong(long offset) {
+        return segments[(int) (offset >>> segmentShift)].getLong((int) (offset & segmentMask));
+    }
+
+    /**
+     * Sets the long at an offset.
+     *
+     * @param offset the offset, aligned to 8 bytes
+     * @param value  the long
+     */
+    void putLong(long offset, long value) {
+        segments[(int) (offset >>> segmentShift)].putLong((int) (offset & segmentMask), value);
+    }
+
+    /**
+     * Gets the short at an offset.
+     *
+     * @param offset the offset, aligned to 2 bytes
+     * @return the short
+     */
+    short getShort(long offset) {
+        return segments[(int) (offset >>> segmentShift)].getShort((int) (offset & segmentMask));
+    }
+
+    /**
+     * Sets the short at an offset.
+     *
+     * @param offset the offset, aligned to 2 bytes
+     * @param value  the short
+     */
+    void putShort(long offset, short value) {
+        segments[(int) (offset >>> segmentShift)].putShort((int) (offset & segmentMask), value);
+    }
+
+    /**
+     * Copies bytes of the region into an array.
+     *
+     * @param offset      the offset of the first byte
+     * @param destination the array receiving the bytes
+     * @param length      the number of bytes to be copied
+     */
+    void get(long offset, byte[] destination, int length) {
+        int copied = 0;
+        while (copied < length) {
+            ByteBuffer segment = segments[(int) ((offset + copied) >>> segmentShift)];
+            int position = (int) ((offset + copied) & segmentMask);
+            int chunk = Math.min(length - copied, segment.capacity() - position);
+            segment.get(position, destination, copied, chunk);
+            copied += chunk;
+        }
+    }
+
+    /**
+     * Copies bytes of an array into the region.
+     *
+     * @param offset the offset of the first byte
+     * @param source the array holding the bytes
+     */
+    void put(long offset, byte[] source) {
+        int copied = 0;
+        while (copied < source.length) {
+            ByteBuffer segment = segments[(int) ((offset + copied) >>> segmentShift)];
+            int position = (int) ((offset + copied) & segmentMask);
+            int chunk = Math.min(source.length - copied, segment.capacity() - position);
+            segment.put(position, source, copied, chunk);
+            copied += chunk;
+        }
+    }
+}
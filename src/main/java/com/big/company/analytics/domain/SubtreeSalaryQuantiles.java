@@ -0,0 +1,157 @@
+package com.big.company.analytics.domain;
+
+import com.big.company.analytics.util.SalaryQuantileSketch;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Approximate salary quantiles, such as the median and the 90th percentile, of the whole organization under every
+ * manager of a hierarchy: all the employees reporting to the manager, directly or not.
+ * <p>
+ * Unlike the average of the direct subordinates used by the salary policy, these are not skewed by a few outliers
+ * and cover entire subtrees. They are computed bottom-up in a single backward pass over the ordinals, where each
+ * manager's {@link SalaryQuantileSketch} is the merge of its subordinates' salaries and of the sketches of the
+ * subordinates that are managers themselves. A sketch is dropped as soon as it is merged into its manager's, and
+ * holds at most a fixed number of buckets, so memory does not grow with the size of the subtrees: only the requested
+ * quantiles of each manager are kept.
+ */
+public final class SubtreeSalaryQuantiles {
+
+    /**
+     * Quantile of the median.
+     */
+    public static final double MEDIAN = 0.5;
+
+    /**
+     * Quantile of the 90th percentile.
+     */
+    public static final double PERCENTILE_90 = 0.9;
+
+    /**
+     * Default relative accuracy of the quantiles, 1%.
+     */
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+    /**
+     * Default maximum number of buckets of a sketch, covering salaries from 1 to more than 10^10 at 1% accuracy.
+     */
+    public static final int DEFAULT_MAX_BUCKETS = 1200;
+
+    /**
+     * Quantiles computed, in the order they were requested.
+     */
+    private final double[] quantiles;
+
+    /**
+     * Estimated value of each quantile of each employee, {@code quantiles.length} per ordinal; {@code NaN} for the
+     * employees without subordinates.
+     */
+    private final double[] values;
+
+    private SubtreeSalaryQuantiles(double[] quantiles, double[] values) {
+        this.quantiles = quantiles;
+        this.values = values;
+    }
+
+    /**
+     * Computes the median and the 90th percentile of the organization of every manager of a hierarchy, with the
+     * default accuracy.
+     *
+     * @param hierarchy the employee hierarchy
+     * @return the quantiles of every manager
+     * @throws NullPointerException if hierarchy is null
+     */
+    public static SubtreeSalaryQuantiles of(EmployeeHierarchy hierarchy) {
+        return of(hierarchy, DEFAULT_RELATIVE_ACCURACY, DEFAULT_MAX_BUCKETS, MEDIAN, PERCENTILE_90);
+    }
+
+    /**
+     * Computes quantiles of the organization of every manager of a hierarchy.
+     *
+     * @param hierarchy        the employee hierarchy
+     * @param relativeAccuracy the relative accuracy of the quantiles, e.g. 0.01 for 1%
+     * @param maxBuckets       the maximum number of buckets of each sketch
+     * @param quantiles        the quantiles to be computed, each between 0 and 1
+     * @return the quantiles of every manager
+     * @throws NullPointerException     if hierarchy or quantiles is null
+     * @throws IllegalArgumentException if a quantile, the accuracy or the buckets are out of range
+     */
+    public static SubtreeSalaryQuantiles of(EmployeeHierarchy hierarchy, double relativeAccuracy, int maxBuckets, double... quantiles) {
+        Objects.requireNonNull(hierarchy, "Employees hierarchy must not be null");
+        Objects.requireNonNull(quantiles, "Quantiles must not be null");
+        for (double quantile : quantiles) {
+            if (!(quantile >= 0 && quantile <= 1)) throw new IllegalArgumentException("Quantile should be between 0 and 1");
+        }
+        // checks the accuracy and the buckets even when the hierarchy has no manager
+        new SalaryQuantileSketch(relativeAccuracy, maxBuckets);
+
+        int size = hierarchy.size();
+        double[] values = new double[size * quantiles.length];
+        Arrays.fill(values, Double.NaN);
+        SalaryQuantileSketch[] sketches = new SalaryQuantileSketch[size];
+        // subordinates come after their manager, so a backward pass completes every sketch before its manager's
+        for (int ordinal = size - 1; ordinal >= EmployeeHierarchy.ROOT; ordinal--) {
+            int subordinateCount = hierarchy.subordinateCount(ordinal);
+            if (subordinateCount == 0) continue;
+
+            int firstSubordinate = hierarchy.firstSubordinate(ordinal);
+            SalaryQuantileSketch sketch = null;
+            for (int subordinate = firstSubordinate; subordinate < firstSubordinate + subordinateCount; subordinate++) {
+                SalaryQuantileSketch subordinateSketch = sketches[subordinate];
+                if (subordinateSketch == null) continue;
+                // the first subordinate sketch is reused as the manager's, the others are merged into it
+                if (sketch == null) sketch = subordinateSketch;
+                else sketch.merge(subordinateSketch);
+                sketches[subordinate] = null;
+            }
+            if (sketch == null) sketch = new SalaryQuantileSketch(relativeAccuracy, maxBuckets);
+            for (int subordinate = firstSubordinate; subordinate < firstSubordinate + subordinateCount; subordinate++) {
+                sketch.add(hierarchy.salary(subordinate));
+            }
+
+            for (int i = 0; i < quantiles.length; i++) {
+                values[ordinal * quantiles.length + i] = sketch.quantile(quantiles[i]);
+            }
+            sketches[ordinal] = sketch;
+        }
+        return new SubtreeSalaryQuantiles(quantiles.clone(), values);
+    }
+
+    /**
+     * Gets the estimated median salary of the organization of an employee.
+     *
+     * @param ordinal the ordinal of the employee
+     * @return the estimated median, or {@code NaN} if the employee has no subordinates
+     * @throws IllegalArgumentException if the median was not computed
+     */
+    public double median(int ordinal) {
+        return quantile(ordinal, MEDIAN);
+    }
+
+    /**
+     * Gets the estimated 90th percentile salary of the organization of an employee.
+     *
+     * @param ordinal the ordinal of the employee
+     * @return the estimated 90th percentile, or {@code NaN} if the employee has no subordinates
+     * @throws IllegalArgumentException if the 90th percentile was not computed
+     */
+    public double percentile90(int ordinal) {
+        return quantile(ordinal, PERCENTILE_90);
+    }
+
+    /**
+     * Gets an estimated quantile of the salaries of the organization of an employee.
+     *
+     * @param ordinal  the ordinal of the employee
+     * @param quantile the quantile, one of those computed
+     * @return the estimated salary, or {@code NaN} if the employee has no subordinates
+     * @throws IllegalArgumentException if the quantile was not computed
+     */
+    public double quantile(int ordinal, double quantile) {
+        for (int i = 0; i < quantiles.length; i++) {
+            if (quantiles[i] == quantile) return values[ordinal * quantiles.length + i];
+        }
+        throw new IllegalArgumentException(String.format("Quantile %s was not computed", quantile));
+    }
+}
@@ -0,0 +1,17 @@
+package com.big.company.analytics.exception;
+
+/**
+ * Custom exception class for handling errors of the off-heap hierarchy store.
+ * Thrown when the store cannot be allocated or its backing file cannot be mapped.
+ */
+public class HierarchyStoreException extends RuntimeException {
+
+    /**
+     * Constructs a new HierarchyStoreException with the specified error message.
+     *
+     * @param errorMessage A String containing the error message.
+     */
+    public HierarchyStoreException(String errorMessage) {
+        super(errorMessage);
+    }
+}
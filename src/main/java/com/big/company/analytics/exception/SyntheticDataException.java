@@ -0,0 +1,17 @@
+package com.big.company.analytics.exception;
+
+/**
+ * Custom exception class for handling errors of the synthetic employee data generation.
+ * Thrown when the generated file cannot be written.
+ */
+public class SyntheticDataException extends RuntimeException {
+
+    /**
+     * Constructs a new SyntheticDataException with the specified error message.
+     *
+     * @param errorMessage A String containing the error message.
+     */
+    public SyntheticDataException(String errorMessage) {
+        super(errorMessage);
+    }
+}
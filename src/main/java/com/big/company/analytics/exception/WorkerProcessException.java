@@ -0,0 +1,27 @@
+package com.big.company.analytics.exception;
+
+/**
+ * Custom exception class for handling errors of the worker processes of a partitioned analysis.
+ * Thrown when a worker cannot be started, fails or cannot be communicated with.
+ */
+public class WorkerProcessException extends RuntimeException {
+
+    /**
+     * Constructs a new WorkerProcessException with the specified error message.
+     *
+     * @param errorMessage A String containing the error message.
+     */
+    public WorkerProcessException(String errorMessage) {
+        super(errorMessage);
+    }
+
+    /**
+     * Constructs a new WorkerProcessException with the specified error message and cause.
+     *
+     * @param errorMessage A String containing the error message.
+     * @param cause        The error that caused this one.
+     */
+    public WorkerProcessException(String errorMessage, Throwable cause) {
+        super(errorMessage, cause);
+    }
+}
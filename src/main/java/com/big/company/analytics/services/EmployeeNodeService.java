@@ -1,6 +1,8 @@
 package com.big.company.analytics.services;
 
+import com.big.company.analytics.domain.CompactEmployeeHierarchy;
 import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
 import com.big.company.analytics.domain.EmployeeNode;
 import com.big.company.analytics.exception.EmployeeNodeServiceException;
 
@@ -20,4 +22,27 @@ public interface EmployeeNodeService {
      * @throws EmployeeNodeServiceException if employees list is not valid e.g. not having an eligible ceo
      */
     EmployeeNode generateEmployeesHierarchy(List<Employee> employees);
+
+    /**
+     * Generates the employee hierarchy of the provided list of employees as an {@link EmployeeHierarchy}, for the
+     * reports that do not need a tree of nodes. The default implementation flattens the generated tree.
+     *
+     * @param employees the list of employees to be reported
+     * @return the generated employee hierarchy
+     * @throws NullPointerException if employees list is null
+     * @throws EmployeeNodeServiceException if employees list is not valid e.g. not having an eligible ceo
+     */
+    default EmployeeHierarchy generateHierarchy(List<Employee> employees) {
+        return CompactEmployeeHierarchy.of(generateEmployeesHierarchy(employees));
+    }
+
+    /**
+     * Gets the same service building the hierarchy on every core, with the same validation.
+     * The default implementation has no parallel build and returns this service.
+     *
+     * @return the service building the hierarchy on every core
+     */
+    default EmployeeNodeService parallel() {
+        return this;
+    }
 }
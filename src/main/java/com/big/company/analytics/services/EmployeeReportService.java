@@ -1,9 +1,13 @@
 package com.big.company.analytics.services;
 
+import com.big.company.analytics.domain.CompactEmployeeHierarchy;
 import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
 import com.big.company.analytics.domain.EmployeeNode;
 
+import java.util.ArrayList;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * The {@code EmployeeReport} interface provides methods for generating reports
@@ -63,4 +67,55 @@ public interface EmployeeReportService {
      * @throws NullPointerException when any params is null
      */
     Map<Employee, Integer> reportManagersWithExcessiveReportingLines(EmployeeNode employeeHierarchy);
+
+    /**
+     * Generates a report printed in console on managers who violate the salary policy by falling outside
+     * the specified percentage range, traversing an ordinal-indexed hierarchy. The default implementation restores
+     * the hierarchy as a tree of {@link EmployeeNode}s and reports on the tree.
+     *
+     * @param employeeHierarchy the ordinal-indexed employee hierarchy
+     * @param minimumPercentage the minimum allowed percentage increase in salary.
+     * @param maximumPercentage the maximum allowed percentage increase in salary.
+     * @return a map of the managers and the salary violation description
+     * @throws NullPointerException if any params is null
+     * @see #reportManagersSalaryPolicyViolation(EmployeeNode, Integer, Integer)
+     */
+    default Map<Employee, String> reportManagersSalaryPolicyViolation(EmployeeHierarchy employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage) {
+        return reportManagersSalaryPolicyViolation(toEmployeeNode(employeeHierarchy), minimumPercentage, maximumPercentage);
+    }
+
+    /**
+     * Generates a report printed in console on managers who have an excessive number of reporting lines until the ceo,
+     * exceeding the specified threshold, traversing an ordinal-indexed hierarchy. The default implementation restores
+     * the hierarchy as a tree of {@link EmployeeNode}s and reports on the tree.
+     *
+     * @param employeeHierarchy       the ordinal-indexed employee hierarchy
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines.
+     * @return a map with managers and how much reporting lines higher than the threshold
+     * @throws NullPointerException when any params is null
+     * @see #reportManagersWithExcessiveReportingLines(EmployeeNode, Integer)
+     */
+    default Map<Employee, Integer> reportManagersWithExcessiveReportingLines(EmployeeHierarchy employeeHierarchy, Integer reportingLinesThreshold) {
+        return reportManagersWithExcessiveReportingLines(toEmployeeNode(employeeHierarchy), reportingLinesThreshold);
+    }
+
+    /**
+     * Restores an ordinal-indexed hierarchy as a tree of {@link EmployeeNode}s, in a forward pass over the ordinals.
+     *
+     * @param employeeHierarchy the ordinal-indexed employee hierarchy
+     * @return the root node of the hierarchy
+     * @throws NullPointerException if the hierarchy is null
+     */
+    private static EmployeeNode toEmployeeNode(EmployeeHierarchy employeeHierarchy) {
+        Objects.requireNonNull(employeeHierarchy, "Employees hierarchy must not be null");
+        if (employeeHierarchy instanceof CompactEmployeeHierarchy compactHierarchy) return compactHierarchy.toEmployeeNode();
+
+        EmployeeNode[] nodes = new EmployeeNode[employeeHierarchy.size()];
+        for (int ordinal = 0; ordinal < nodes.length; ordinal++) {
+            nodes[ordinal] = new EmployeeNode(employeeHierarchy.employee(ordinal), new ArrayList<>(employeeHierarchy.subordinateCount(ordinal)));
+            int manager = employeeHierarchy.managerOrdinal(ordinal);
+            if (manager != EmployeeHierarchy.NO_MANAGER) nodes[manager].subordinates().add(nodes[ordinal]);
+        }
+        return nodes[EmployeeHierarchy.ROOT];
+    }
 }
@@ -0,0 +1,24 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.domain.EmployeeTable;
+
+import java.io.File;
+import java.util.Set;
+
+/**
+ * Service for reading the employees of a file straight into an {@link EmployeeTable}, parsing only the columns the
+ * caller needs, for the reports that only restore a few employees.
+ */
+public interface EmployeeTableReader {
+
+    /**
+     * Reads the employees of a file into an {@code EmployeeTable}, parsing only the declared columns. Ids and manager
+     * ids are always parsed, as they define the reporting lines.
+     *
+     * @param file    the file from which the employees will be read
+     * @param columns the columns needed by the caller
+     * @return the table holding the employees, in file order
+     * @throws NullPointerException if any params is null
+     */
+    EmployeeTable readTable(File file, Set<EmployeeTable.Column> columns);
+}
@@ -1,11 +1,20 @@
 package com.big.company.analytics.services;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 import com.big.company.analytics.exception.FileReaderException;
 import com.big.company.analytics.exception.ParseExtractionException;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * An interface for reading elements from files.
@@ -36,4 +45,64 @@ public interface FileReaderService<T> {
      * @throws NullPointerException     if any params is null
      */
     List<T> readFile(File file);
+
+    /**
+     * Read elements from a specified file object, handing them over to the consumer in batches.
+     * <br>Implementations able to parse incrementally should deliver each batch as soon as it is parsed,
+     * so that consumers can work on it while the rest of the file is still being read.
+     * The default implementation reads the whole file first and then splits the result.
+     *
+     * @param file          the file object from which <b>T</b> objects will be read
+     * @param batchSize     the maximum number of elements delivered on each batch
+     * @param batchConsumer the consumer receiving every non-empty batch, in file order
+     * @throws FileReaderException      if the file is not found or cannot be loaded
+     * @throws ParseExtractionException if any error occurs during parsing of the file content
+     * @throws NullPointerException     if any params is null
+     * @throws IllegalArgumentException if batch size is not positive
+     */
+    default void readFile(File file, int batchSize, Consumer<List<T>> batchConsumer) {
+        Objects.requireNonNull(batchConsumer, "Batch consumer should not be null");
+        if (batchSize <= 0) throw new IllegalArgumentException("Batch size should be positive");
+
+        List<T> elements = readFile(file);
+        for (int from = 0; from < elements.size(); from += batchSize) {
+            batchConsumer.accept(new ArrayList<>(elements.subList(from, Math.min(from + batchSize, elements.size()))));
+        }
+    }
+
+    /**
+     * Read elements from a channel, such as the standard input or a named pipe, handing them over to the consumer
+     * in batches. The channel is read in a single pass up to its end, and is left open.
+     * <br>Implementations able to parse incrementally should deliver each batch as soon as it is parsed, so the memory
+     * used does not depend on the size of the content. The default implementation copies the content to a temporary
+     * file, deleted once read, and reads it with {@link #readFile(File, int, Consumer)}.
+     *
+     * @param channel       the channel from which <b>T</b> objects will be read
+     * @param batchSize     the maximum number of elements delivered on each batch
+     * @param batchConsumer the consumer receiving every non-empty batch, in channel order
+     * @throws FileReaderException      if the channel cannot be read
+     * @throws ParseExtractionException if any error occurs during parsing of the content
+     * @throws NullPointerException     if any params is null
+     * @throws IllegalArgumentException if batch size is not positive
+     */
+    default void readChannel(ReadableByteChannel channel, int batchSize, Consumer<List<T>> batchConsumer) {
+        Objects.requireNonNull(channel, "Channel should not be null");
+        Objects.requireNonNull(batchConsumer, "Batch consumer should not be null");
+        if (batchSize <= 0) throw new IllegalArgumentException("Batch size should be positive");
+
+        Path copy;
+        try {
+            copy = Files.createTempFile("channel", ".csv");
+        } catch (IOException e) {
+            throw new FileReaderException("Error when copying the input stream to a temporary file");
+        }
+        try {
+            Files.copy(Channels.newInputStream(channel), copy, StandardCopyOption.REPLACE_EXISTING);
+            readFile(copy.toFile(), batchSize, batchConsumer);
+        } catch (IOException e) {
+            throw new FileReaderException("Error when reading the input stream");
+        } finally {
+            copy.toFile().delete();
+        }
+    }
 }
@@ -0,0 +1,58 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.domain.CompactEmployeeHierarchy;
+import com.big.company.analytics.domain.EmployeeHierarchy;
+import com.big.company.analytics.domain.HierarchyChange;
+import com.big.company.analytics.domain.PersistentEmployeeHierarchy;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Service for comparing two snapshots of an employee hierarchy.
+ */
+public interface HierarchyDiffService {
+
+    /**
+     * Compares two snapshots of a hierarchy, passing each change to a consumer as soon as it is found: employees
+     * added and removed, manager moves, salary and name changes, and employees that start or stop being reported for the
+     * salary policy or for excessive reporting lines.
+     *
+     * @param before                  the earlier snapshot
+     * @param after                   the later snapshot
+     * @param minimumPercentage       the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param maximumPercentage       the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines
+     * @param changes                 the consumer of the changes
+     * @throws NullPointerException if any snapshot or the consumer is null
+     */
+    void diff(EmployeeHierarchy before, EmployeeHierarchy after, int minimumPercentage, int maximumPercentage,
+              int reportingLinesThreshold, Consumer<HierarchyChange> changes);
+
+    /**
+     * Compares two snapshots of a hierarchy with the default salary policy and reporting lines threshold.
+     *
+     * @param before the earlier snapshot
+     * @param after  the later snapshot
+     * @return the list of changes
+     * @throws NullPointerException if any snapshot is null
+     */
+    List<HierarchyChange> diff(EmployeeHierarchy before, EmployeeHierarchy after);
+
+    /**
+     * Derives the next version of a persistent hierarchy from a newly loaded snapshot, applying the changes found by
+     * {@link #diff(EmployeeHierarchy, EmployeeHierarchy)}, so the new version shares every unchanged subtree with the
+     * current one.
+     *
+     * @param current  the current version
+     * @param snapshot the newly loaded snapshot
+     * @return the new version, holding the employees of the snapshot
+     * @throws NullPointerException if any hierarchy is null
+     * @see PersistentEmployeeHierarchy#rebase(EmployeeHierarchy, List)
+     */
+    default PersistentEmployeeHierarchy rebase(PersistentEmployeeHierarchy current, EmployeeHierarchy snapshot) {
+        Objects.requireNonNull(current, "Earlier hierarchy must not be null");
+        return current.rebase(snapshot, diff(CompactEmployeeHierarchy.of(current.root()), snapshot));
+    }
+}
@@ -0,0 +1,23 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.HierarchyValidationReport;
+
+import java.util.List;
+
+/**
+ * Service for validating a list of employees before building their hierarchy.
+ */
+public interface HierarchyValidationService {
+
+    /**
+     * Validates a list of employees, finding every problem that keeps them from forming a single hierarchy:
+     * missing or multiple CEOs, duplicate ids, employees whose manager is not on the list and reporting lines
+     * that loop back on themselves.
+     *
+     * @param employees the list of employees to be validated
+     * @return the report of every problem found
+     * @throws NullPointerException if employees list is null
+     */
+    HierarchyValidationReport validate(List<Employee> employees);
+}
@@ -1,16 +1,25 @@
 package com.big.company.analytics.services.impl;
 
 import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
 import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.domain.EmployeeTable;
 import com.big.company.analytics.exception.FileReaderException;
+import com.big.company.analytics.exception.HierarchyStoreException;
 import com.big.company.analytics.exception.ParseExtractionException;
 import com.big.company.analytics.exception.UnexpectedException;
 import com.big.company.analytics.services.AnalyticsService;
 import com.big.company.analytics.services.EmployeeNodeService;
+import com.big.company.analytics.services.EmployeeTableReader;
 import com.big.company.analytics.services.FileReaderService;
 import com.big.company.analytics.services.EmployeeReportService;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
 
@@ -25,6 +34,11 @@ public class AnalyticsManager implements AnalyticsService {
      */
     public static final String DEFAULT_SAMPLE_DATA_CSV = "SampleData.csv";
 
+    /**
+     * Name shown for the employee data read from an input channel.
+     */
+    public static final String INPUT_CHANNEL_NAME = "input stream";
+
     /**
      * Service for reading data from a file.
      */
@@ -41,12 +55,118 @@ public class AnalyticsManager implements AnalyticsService {
     private final EmployeeReportService report;
 
     /**
-     * The file containing employee data.
+     * The file containing employee data, or {@code null} when the data is read from an input channel.
      */
     private final File file;
 
+    /**
+     * The channel containing employee data, such as the standard input, or {@code null} when the data is read
+     * from a file.
+     */
+    private final ReadableByteChannel input;
+
+    /**
+     * The files containing employee data, such as one file per division, or {@code null} when the data is read
+     * from a single file or an input channel.
+     */
+    private final List<File> files;
+
+    /**
+     * How the employees are read and their hierarchy is built.
+     */
+    private final ExecutionMode executionMode;
+
+    /**
+     * Constructs an {@code AnalyticsManager} object with the specified services, file and execution mode.
+     *
+     * @param fileReaderService The service for reading data from a file.
+     * @param nodeService       The service for generating employee hierarchy nodes.
+     * @param report            The service for generating employee reports.
+     * @param file              The file containing employee data.
+     * @param executionMode     How the employees are read and their hierarchy is built.
+     * @throws NullPointerException if any of the services, the file or the execution mode is null.
+     */
+    public AnalyticsManager(
+            FileReaderService<Employee> fileReaderService,
+            EmployeeNodeService nodeService,
+            EmployeeReportService report,
+            File file,
+            ExecutionMode executionMode) {
+        this.fileReaderService = Objects.requireNonNull(fileReaderService, "File reader service must not be null");
+        this.nodeService = Objects.requireNonNull(nodeService, "Employee node service must not be null");
+        this.report = Objects.requireNonNull(report, "Employee report service must not be null");
+        this.file = Objects.requireNonNull(file, "File must not be null");
+        this.input = null;
+        this.files = null;
+        this.executionMode = Objects.requireNonNull(executionMode, "Execution mode must not be null");
+    }
+
+    /**
+     * Constructs an {@code AnalyticsManager} object reading the employee data from a channel, such as the standard
+     * input or a named pipe, with the specified services and execution mode.
+     * <br>The channel is read once, as its content is parsed: with the {@link ExecutionMode#EXTERNAL_MEMORY} mode the
+     * memory used does not depend on the size of the content.
+     *
+     * @param fileReaderService The service for reading data from a file.
+     * @param nodeService       The service for generating employee hierarchy nodes.
+     * @param report            The service for generating employee reports.
+     * @param input             The channel containing employee data.
+     * @param executionMode     How the employees are read and their hierarchy is built.
+     * @throws NullPointerException if any of the services, the input or the execution mode is null.
+     */
+    public AnalyticsManager(
+            FileReaderService<Employee> fileReaderService,
+            EmployeeNodeService nodeService,
+            EmployeeReportService report,
+            ReadableByteChannel input,
+            ExecutionMode executionMode) {
+        this.fileReaderService = Objects.requireNonNull(fileReaderService, "File reader service must not be null");
+        this.nodeService = Objects.requireNonNull(nodeService, "Employee node service must not be null");
+        this.report = Objects.requireNonNull(report, "Employee report service must not be null");
+        this.file = null;
+        this.input = Objects.requireNonNull(input, "Input channel must not be null");
+        this.files = null;
+        this.executionMode = Objects.requireNonNull(executionMode, "Execution mode must not be null");
+    }
+
+    /**
+     * Constructs an {@code AnalyticsManager} object reading the employee data from several files, such as one file
+     * per division, with the specified services and execution mode.
+     * <br>The files are read concurrently with the {@link ShardedEmployeeReader}, each one with its own header, and
+     * merged into a single hierarchy, where an employee may report to a manager of another file. The hierarchy is
+     * built in memory, so only the {@link ExecutionMode#IN_MEMORY}, {@link ExecutionMode#PARALLEL},
+     * {@link ExecutionMode#PARTITIONED} and {@link ExecutionMode#AUTO} modes are supported.
+     *
+     * @param fileReaderService The service for reading data from a file, called from several threads at once.
+     * @param nodeService       The service for generating employee hierarchy nodes.
+     * @param report            The service for generating employee reports.
+     * @param files             The files containing employee data.
+     * @param executionMode     How the employees are read and their hierarchy is built.
+     * @throws NullPointerException     if any of the services, the files or the execution mode is null.
+     * @throws IllegalArgumentException if the files are empty or the execution mode does not build the hierarchy in memory.
+     */
+    public AnalyticsManager(
+            FileReaderService<Employee> fileReaderService,
+            EmployeeNodeService nodeService,
+            EmployeeReportService report,
+            List<File> files,
+            ExecutionMode executionMode) {
+        this.fileReaderService = Objects.requireNonNull(fileReaderService, "File reader service must not be null");
+        this.nodeService = Objects.requireNonNull(nodeService, "Employee node service must not be null");
+        this.report = Objects.requireNonNull(report, "Employee report service must not be null");
+        this.file = null;
+        this.input = null;
+        this.files = List.copyOf(Objects.requireNonNull(files, "Files must not be null"));
+        if (this.files.isEmpty()) throw new IllegalArgumentException("At least one file should be given");
+        this.executionMode = Objects.requireNonNull(executionMode, "Execution mode must not be null");
+        if (executionMode != ExecutionMode.IN_MEMORY && executionMode != ExecutionMode.PARALLEL
+                && executionMode != ExecutionMode.PARTITIONED && executionMode != ExecutionMode.AUTO)
+            throw new IllegalArgumentException(String.format("Execution mode %s does not support several files", executionMode.name().toLowerCase()));
+    }
+
     /**
      * Constructs an {@code AnalyticsManager} object with the specified services and file.
+     * The employees are read and their hierarchy is built with the {@link ExecutionMode#IN_MEMORY} mode.
      *
      * @param fileReaderService The service for reading data from a file.
      * @param nodeService       The service for generating employee hierarchy nodes.
@@ -59,15 +179,37 @@ public class AnalyticsManager implements AnalyticsService {
             EmployeeNodeService nodeService,
             EmployeeReportService report,
             File file) {
+        this(fileReaderService, nodeService, report, file, ExecutionMode.IN_MEMORY);
+    }
+
+    /**
+     * Constructs an {@code AnalyticsManager} object with the specified services, default file and execution mode.
+     * The default file is set to "SampleData.csv" and the {@code AnalyticsManager} will search for it in the same directory the app is running.
+     *
+     * @param fileReaderService The service for reading data from a file.
+     * @param nodeService       The service for generating employee hierarchy nodes.
+     * @param report            The service for generating employee reports.
+     * @param executionMode     How the employees are read and their hierarchy is built.
+     * @throws NullPointerException if any of the services or the execution mode is null.
+     */
+    public AnalyticsManager(
+            FileReaderService<Employee> fileReaderService,
+            EmployeeNodeService nodeService,
+            EmployeeReportService report,
+            ExecutionMode executionMode) {
         this.fileReaderService = Objects.requireNonNull(fileReaderService, "File reader service must not be null");
         this.nodeService = Objects.requireNonNull(nodeService, "Employee node service must not be null");
         this.report = Objects.requireNonNull(report, "Employee report service must not be null");
-        this.file = Objects.requireNonNull(file, "File must not be null");
+        this.executionMode = Objects.requireNonNull(executionMode, "Execution mode must not be null");
+        this.file = initDefaultFile();
+        this.input = null;
+        this.files = null;
     }
 
     /**
      * Constructs an {@code AnalyticsManager} object with the specified services and default file.
      * The default file is set to "SampleData.csv" and the {@code AnalyticsManager} will search for it in the same directory the app is running.
+     * The employees are read and their hierarchy is built with the {@link ExecutionMode#IN_MEMORY} mode.
      *
      * @param fileReaderService The service for reading data from a file.
      * @param nodeService       The service for generating employee hierarchy nodes.
@@ -78,10 +220,7 @@ public class AnalyticsManager implements AnalyticsService {
             FileReaderService<Employee> fileReaderService,
             EmployeeNodeService nodeService,
             EmployeeReportService report) {
-        this.fileReaderService = Objects.requireNonNull(fileReaderService, "File reader service must not be null");
-        this.nodeService = Objects.requireNonNull(nodeService, "Employee node service must not be null");
-        this.report = Objects.requireNonNull(report, "Employee report service must not be null");
-        this.file = initDefaultFile();
+        this(fileReaderService, nodeService, report, ExecutionMode.IN_MEMORY);
     }
 
     /**
@@ -95,7 +234,7 @@ public class AnalyticsManager implements AnalyticsService {
     }
 
     /**
-     * Retrieves employees from the specified CSV file.
+     * Retrieves employees from the specified CSV file, or from the input channel or the several files when there are.
      *
      * @param csvFile The CSV file containing employee data.
      * @return A list of employees.
@@ -105,7 +244,11 @@ public class AnalyticsManager implements AnalyticsService {
      */
     private List<Employee> retrieveEmployeesFromFile(File csvFile) {
         try {
-            return fileReaderService.readFile(csvFile);
+            if (files != null) return retrieveEmployeesFromFiles();
+            if (input == null) return fileReaderService.readFile(csvFile);
+            List<Employee> employees = new ArrayList<>();
+            fileReaderService.readChannel(input, EmployeeHierarchyPipeline.DEFAULT_BATCH_SIZE, employees::addAll);
+            return employees;
         } catch (FileReaderException e) {
             System.out.println("ERROR when loading the file");
             throw new FileReaderException(e.getMessage());
@@ -118,6 +261,23 @@ public class AnalyticsManager implements AnalyticsService {
         }
     }
 
+    /**
+     * Reads the employees of the several files concurrently and merges them, printing a warning for each id found
+     * on more than one file.
+     *
+     * @return A list of employees.
+     */
+    private List<Employee> retrieveEmployeesFromFiles() {
+        ShardedEmployeeReader.Result result = new ShardedEmployeeReader(fileReaderService).read(files);
+        for (ShardedEmployeeReader.DuplicateId duplicate : result.duplicateIds())
+            System.out.printf("Warning -> Employee id %d was found on files %s and %s, keeping the one from %s%n",
+                    duplicate.id(), duplicate.keptFile(), duplicate.otherFile(), duplicate.keptFile());
+        for (int i = 0; i < files.size(); i++)
+            System.out.printf("-> %s: %d employees%n", files.get(i).getName(), result.employeesPerFile().get(i));
+        System.out.printf("Employees reporting to a manager of another file: %d%n", result.crossFileReportingLines());
+        return result.employees();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -128,17 +288,79 @@ public class AnalyticsManager implements AnalyticsService {
         System.out.println();
         System.out.println("Init reading of employees from file");
 
-        System.out.printf("Loading file: %s%n", file.getName());
-        List<Employee> employees = retrieveEmployeesFromFile(file);
+        System.out.printf("Loading file: %s%n", inputName());
+        ExecutionMode mode = (executionMode == ExecutionMode.AUTO) ? planExecution() : executionMode;
+        switch (mode) {
+            case IN_MEMORY -> reportHierarchy(retrieveHierarchyInMemory(file, nodeService));
+            case PARALLEL -> reportHierarchy(retrieveHierarchyInMemory(file, nodeService.parallel()));
+            case PIPELINED -> reportHierarchy(retrieveHierarchyPipelined(file));
+            case EXTERNAL_MEMORY -> runExternalMemoryReports(file);
+            case PARTITIONED -> runPartitionedReports(retrieveHierarchyInMemory(file, nodeService));
+            case SALARY_POLICY_ONLY -> runStreamingSalaryPolicyReport(file);
+            case AUTO -> throw new IllegalStateException("The execution planner must choose a concrete execution mode");
+        }
+        System.out.println("=========== FINISHING ANALYTICS REPORTS ===========");
+    }
 
-        System.out.println("Reading successfully done!");
-        System.out.printf("Employees loaded: %d%n", employees.size());
+    /**
+     * Gets the name of the employee data shown while loading it.
+     *
+     * @return The name of the file, of the input channel, or of every file separated by commas.
+     */
+    private String inputName() {
+        if (input != null) return INPUT_CHANNEL_NAME;
+        if (files == null) return file.getName();
+        List<String> names = new ArrayList<>(files.size());
+        for (File shard : files) names.add(shard.getName());
+        return String.join(", ", names);
+    }
+
+    /**
+     * Chooses the execution mode with the {@link ExecutionPlanner}, and prints the plan and its reasons.
+     * Several files are always read in memory, as the other modes read a single input.
+     *
+     * @return The chosen execution mode.
+     */
+    private ExecutionMode planExecution() {
+        if (files != null) {
+            System.out.printf("Execution plan -> %s%n", ExecutionMode.IN_MEMORY.name().toLowerCase());
+            System.out.printf("-> Reason: %d files are read concurrently and merged in memory%n", files.size());
+            return ExecutionMode.IN_MEMORY;
+        }
+        ExecutionPlanner planner = new ExecutionPlanner();
+        ExecutionPlanner.Plan plan = (input != null) ? planner.planChannel() : planner.plan(file);
+        System.out.printf("Execution plan -> %s%n", plan.mode().name().toLowerCase());
+        System.out.printf("-> Input: %s | Estimated rows: %s | Estimated heap: %s%n",
+                (plan.inputSize() < 0) ? "unknown" : String.format("%d bytes", plan.inputSize()),
+                (plan.estimatedRows() < 0) ? "unknown" : String.valueOf(plan.estimatedRows()),
+                (plan.estimatedHeap() < 0) ? "unknown" : String.format("%d MB", plan.estimatedHeap() >> 20));
+        System.out.printf("-> Available heap: %d MB | Cores: %d%n", plan.availableHeap() >> 20, plan.processors());
+        System.out.printf("-> Stages: %s%n", plan.stages());
+        for (String reason : plan.reasons()) System.out.printf("-> Reason: %s%n", reason);
+        return plan.mode();
+    }
+
+    /**
+     * Runs the reports on a generated employee hierarchy.
+     *
+     * @param employeesHierarchy The employee hierarchy.
+     */
+    private void reportHierarchy(EmployeeHierarchy employeesHierarchy) {
+        System.out.println("Employee hierarchy generated!");
         System.out.println();
 
-        System.out.println("Creating employee hierarchy...");
+        System.out.println("Init report of managers with policy violation");
+        System.out.println();
 
-        EmployeeNode employeesHierarchy = nodeService.generateEmployeesHierarchy(employees);
+        runReports(employeesHierarchy);
+    }
 
+    /**
+     * Runs the reports on a generated employee hierarchy.
+     *
+     * @param employeesHierarchy The root node of the employee hierarchy.
+     */
+    private void reportHierarchy(EmployeeNode employeesHierarchy) {
         System.out.println("Employee hierarchy generated!");
         System.out.println();
 
@@ -146,7 +368,68 @@ public class AnalyticsManager implements AnalyticsService {
         System.out.println();
 
         runReports(employeesHierarchy);
-        System.out.println("=========== FINISHING ANALYTICS REPORTS ===========");
+    }
+
+    /**
+     * Reads the whole file into a list of employees, then generates their hierarchy.
+     *
+     * @param csvFile   The CSV file containing employee data.
+     * @param generator The service generating the employee hierarchy.
+     * @return The employee hierarchy.
+     */
+    private EmployeeHierarchy retrieveHierarchyInMemory(File csvFile, EmployeeNodeService generator) {
+        List<Employee> employees = retrieveEmployeesFromFile(csvFile);
+
+        System.out.println("Reading successfully done!");
+        System.out.printf("Employees loaded: %d%n", employees.size());
+        System.out.println();
+
+        System.out.println("Creating employee hierarchy...");
+        return generator.generateHierarchy(employees);
+    }
+
+    /**
+     * Reads the file and generates the employee hierarchy at the same time, on separate threads.
+     *
+     * @param csvFile The CSV file containing employee data.
+     * @return The root node of the employee hierarchy.
+     * @throws FileReaderException      If an error occurs while extracting data from the file.
+     * @throws ParseExtractionException If an error occurs while parsing the extracted data.
+     */
+    private EmployeeNode retrieveHierarchyPipelined(File csvFile) {
+        System.out.println("Creating employee hierarchy while reading...");
+        EmployeeHierarchyPipeline.Result result;
+        try {
+            EmployeeHierarchyPipeline pipeline = new EmployeeHierarchyPipeline(fileReaderService);
+            result = (input != null) ? pipeline.run(input) : pipeline.run(csvFile);
+        } catch (FileReaderException e) {
+            System.out.println("ERROR when loading the file");
+            throw new FileReaderException(e.getMessage());
+        } catch (ParseExtractionException e) {
+            System.out.println("ERROR when reading the file");
+            throw new ParseExtractionException(e.getMessage());
+        }
+
+        System.out.println("Reading successfully done!");
+        System.out.printf("Employees loaded: %d%n", result.employeesRead());
+        System.out.println();
+        return result.employeesHierarchy();
+    }
+
+    /**
+     * Runs reports on the employee hierarchy, with the default salary policy and reporting lines threshold.
+     *
+     * @param employees The employee hierarchy.
+     */
+    private void runReports(EmployeeHierarchy employees) {
+        try {
+            report.reportManagersSalaryPolicyViolation(employees, EmployeeHierarchyReportService.DEFAULT_MINIMUM_PERCENTAGE,
+                    EmployeeHierarchyReportService.DEFAULT_MAXIMUM_PERCENTAGE);
+            report.reportManagersWithExcessiveReportingLines(employees, EmployeeHierarchyReportService.DEFAULT_REPORTING_LINES_THRESHOLD);
+        } catch (Exception e) {
+            System.out.printf("ERROR creating the reports of employees | %s%n", e.getMessage());
+            throw e;
+        }
     }
 
     /**
@@ -163,4 +446,97 @@ public class AnalyticsManager implements AnalyticsService {
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Computes the reports with bounded memory, sorting the employees on temporary files, and prints them.
+     *
+     * @param csvFile The CSV file containing employee data.
+     * @throws FileReaderException      If an error occurs while extracting data from the file.
+     * @throws ParseExtractionException If an error occurs while parsing the extracted data.
+     * @throws HierarchyStoreException  If the temporary files cannot be written or read.
+     */
+    private void runExternalMemoryReports(File csvFile) {
+        System.out.println("Sorting employees on temporary files...");
+        ExternalMemoryAnalytics analytics = new ExternalMemoryAnalytics(fileReaderService);
+        try (SpilledEmployeeReports reports = new SpilledEmployeeReports(Path.of(System.getProperty("java.io.tmpdir")))) {
+            ExternalMemoryAnalytics.Result result;
+            try {
+                result = (input != null) ? analytics.analyze(input, reports) : analytics.analyze(csvFile, reports);
+            } catch (FileReaderException e) {
+                System.out.println("ERROR when loading the file");
+                throw new FileReaderException(e.getMessage());
+            } catch (ParseExtractionException e) {
+                System.out.println("ERROR when reading the file");
+                throw new ParseExtractionException(e.getMessage());
+            }
+
+            System.out.println("Reading successfully done!");
+            System.out.printf("Employees loaded: %d%n", result.employeesRead());
+            System.out.println();
+
+            System.out.println("Init report of managers with policy violation");
+            System.out.println();
+
+            reports.printManagersSalaryPolicyViolation(EmployeeHierarchyReportService.DEFAULT_MINIMUM_PERCENTAGE,
+                    EmployeeHierarchyReportService.DEFAULT_MAXIMUM_PERCENTAGE);
+            reports.printManagersWithExcessiveReportingLines(EmployeeHierarchyReportService.DEFAULT_REPORTING_LINES_THRESHOLD);
+        } catch (IOException e) {
+            throw new HierarchyStoreException("Error when deleting the temporary files of the reports");
+        }
+    }
+
+    /**
+     * Computes the salary policy report while reading the file, without generating the employee hierarchy, and prints it.
+     * When the file reader service can read tables, the file is read with the salary column only, so the names of
+     * the employees are not decoded until the violating managers are printed.
+     *
+     * @param csvFile The CSV file containing employee data.
+     * @throws FileReaderException      If an error occurs while extracting data from the file.
+     * @throws ParseExtractionException If an error occurs while parsing the extracted data.
+     * @throws HierarchyStoreException  If the temporary file of the standard input cannot be written or read.
+     */
+    private void runStreamingSalaryPolicyReport(File csvFile) {
+        System.out.println("Init report of managers with policy violation while reading");
+        System.out.println();
+        try {
+            StreamingSalaryPolicyReport streamingReport = new StreamingSalaryPolicyReport(fileReaderService);
+            if (input != null) streamingReport.report(input);
+            else if (fileReaderService instanceof EmployeeTableReader tableReader)
+                streamingReport.report(tableReader.readTable(csvFile, EnumSet.of(EmployeeTable.Column.SALARY)));
+            else streamingReport.report(csvFile);
+        } catch (FileReaderException e) {
+            System.out.println("ERROR when loading the file");
+            throw new FileReaderException(e.getMessage());
+        } catch (ParseExtractionException e) {
+            System.out.println("ERROR when reading the file");
+            throw new ParseExtractionException(e.getMessage());
+        }
+    }
+
+    /**
+     * Computes the reports of the employee hierarchy on worker processes, and prints them.
+     *
+     * @param employeesHierarchy The employee hierarchy.
+     */
+    private void runPartitionedReports(EmployeeHierarchy employeesHierarchy) {
+        System.out.println("Employee hierarchy generated!");
+        System.out.println();
+
+        System.out.printf("Computing reports on %d worker processes...%n", PartitionedAnalytics.DEFAULT_WORKERS);
+        PartitionedAnalytics.Result result;
+        try {
+            result = new PartitionedAnalytics(PartitionedAnalytics.DEFAULT_WORKERS).analyze(employeesHierarchy);
+        } catch (Exception e) {
+            System.out.printf("ERROR creating the reports of employees | %s%n", e.getMessage());
+            throw e;
+        }
+
+        System.out.println("Init report of managers with policy violation");
+        System.out.println();
+
+        EmployeeReportPrinter.printManagersSalaryPolicyViolation(result.salaryPolicyViolations(),
+                EmployeeHierarchyReportService.DEFAULT_MINIMUM_PERCENTAGE, EmployeeHierarchyReportService.DEFAULT_MAXIMUM_PERCENTAGE);
+        EmployeeReportPrinter.printManagersWithExcessiveReportingLines(result.excessiveReportingLines(),
+                EmployeeHierarchyReportService.DEFAULT_REPORTING_LINES_THRESHOLD);
+    }
+}
@@ -0,0 +1,362 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
+import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.domain.HierarchyRegistry;
+import com.big.company.analytics.services.EmployeeReportService;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A decorator of {@code EmployeeReportService} that memoises the reports of immutable hierarchies.
+ * <p>
+ * Results are keyed by the hierarchy they were computed on and by the report parameters. Only hierarchies that cannot
+ * change are cached: {@link EmployeeHierarchy} instances, which are immutable and keyed by identity, and the
+ * {@link EmployeeNode} trees published on a {@link HierarchyRegistry}, keyed by their snapshot, as a published tree
+ * must not be changed and a new version is a new snapshot. A plain {@code EmployeeNode} tree may be changed in place at
+ * any time, so its reports are always computed by the decorated service. Results of several hierarchies are cached
+ * together, evicting the least recently used one first once there are {@code maximumEntries} of them.
+ * <p>
+ * Hierarchies are held weakly, so a cached result never keeps its hierarchy reachable, and the results of a
+ * collected hierarchy are dropped. Whenever a snapshot is requested, the results of the older versions of its registry
+ * and those of the reclaimed snapshots are dropped too, so loading a new hierarchy frees the results of the previous one.
+ * <p>
+ * Cached results are unmodifiable and shared by every caller. When the decorated service prints every report it
+ * computes, as {@link EmployeeHierarchyReportService} does, the cache should be told so, and then a cache hit prints
+ * the cached report the same way, so the output does not depend on whether the report was cached.
+ */
+public class CachingEmployeeReportService implements EmployeeReportService {
+
+    /**
+     * Default maximum number of cached results.
+     */
+    public static final int DEFAULT_MAXIMUM_ENTRIES = 64;
+
+    /**
+     * Names of the cached reports, part of the cache keys.
+     */
+    private static final String SALARY_POLICY_REPORT = "salaryPolicyViolation";
+    private static final String REPORTING_LINES_REPORT = "excessiveReportingLines";
+
+    /**
+     * Service computing the reports on a cache miss.
+     */
+    private final EmployeeReportService delegate;
+
+    /**
+     * Whether the cache hits are printed, as the decorated service prints the reports it computes.
+     */
+    private final boolean printCachedReports;
+
+    /**
+     * Cached results in access order, from least to most recently used.
+     */
+    private final LinkedHashMap<ReportKey, Map<Employee, ?>> results;
+
+    /**
+     * Keys whose hierarchy was collected, to be dropped from the results.
+     */
+    private final ReferenceQueue<Object> collectedKeys = new ReferenceQueue<>();
+
+    /**
+     * Number of requests answered from the cache.
+     */
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * Number of requests computed by the decorated service.
+     */
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Number of invalidations, so a result computed before an invalidation is not cached after it.
+     */
+    private long generation;
+
+    /**
+     * Constructs a {@code CachingEmployeeReportService} decorating the specified service.
+     *
+     * @param delegate           the service computing the reports on a cache miss
+     * @param maximumEntries     the maximum number of cached results
+     * @param printCachedReports whether a cache hit prints the cached report, for a delegate printing every report it computes
+     * @throws NullPointerException     if the delegate is null
+     * @throws IllegalArgumentException if maximum entries is not positive
+     */
+    public CachingEmployeeReportService(EmployeeReportService delegate, int maximumEntries, boolean printCachedReports) {
+        this.delegate = Objects.requireNonNull(delegate, "Employee report service must not be null");
+        if (maximumEntries <= 0) throw new IllegalArgumentException("Maximum entries should be positive");
+        this.printCachedReports = printCachedReports;
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ReportKey, Map<Employee, ?>> eldest) {
+                return size() > maximumEntries;
+            }
+        };
+    }
+
+    /**
+     * Constructs a {@code CachingEmployeeReportService} decorating the specified service, not printing the cache hits.
+     *
+     * @param delegate       the service computing the reports on a cache miss
+     * @param maximumEntries the maximum number of cached results
+     * @throws NullPointerException     if the delegate is null
+     * @throws IllegalArgumentException if maximum entries is not positive
+     */
+    public CachingEmployeeReportService(EmployeeReportService delegate, int maximumEntries) {
+        this(delegate, maximumEntries, false);
+    }
+
+    /**
+     * Constructs a {@code CachingEmployeeReportService} decorating the specified service, keeping up to
+     * {@link #DEFAULT_MAXIMUM_ENTRIES} results and not printing the cache hits.
+     *
+     * @param delegate the service computing the reports on a cache miss
+     * @throws NullPointerException if the delegate is null
+     */
+    public CachingEmployeeReportService(EmployeeReportService delegate) {
+        this(delegate, DEFAULT_MAXIMUM_ENTRIES);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Employee, String> reportManagersSalaryPolicyViolation(EmployeeNode employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage) {
+        return delegate.reportManagersSalaryPolicyViolation(employeeHierarchy, minimumPercentage, maximumPercentage);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Employee, String> reportManagersSalaryPolicyViolation(EmployeeNode employeeHierarchy) {
+        return delegate.reportManagersSalaryPolicyViolation(employeeHierarchy);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Employee, Integer> reportManagersWithExcessiveReportingLines(EmployeeNode employeeHierarchy, Integer reportingLinesThreshold) {
+        return delegate.reportManagersWithExcessiveReportingLines(employeeHierarchy, reportingLinesThreshold);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Employee, Integer> reportManagersWithExcessiveReportingLines(EmployeeNode employeeHierarchy) {
+        return delegate.reportManagersWithExcessiveReportingLines(employeeHierarchy);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Employee, String> reportManagersSalaryPolicyViolation(EmployeeHierarchy employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage) {
+        return cached(employeeHierarchy, SALARY_POLICY_REPORT,
+                () -> delegate.reportManagersSalaryPolicyViolation(employeeHierarchy, minimumPercentage, maximumPercentage),
+                result -> EmployeeReportPrinter.printManagersSalaryPolicyViolation(result, minimumPercentage, maximumPercentage),
+                minimumPercentage, maximumPercentage);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Employee, Integer> reportManagersWithExcessiveReportingLines(EmployeeHierarchy employeeHierarchy, Integer reportingLinesThreshold) {
+        return cached(employeeHierarchy, REPORTING_LINES_REPORT,
+                () -> delegate.reportManagersWithExcessiveReportingLines(employeeHierarchy, reportingLinesThreshold),
+                result -> EmployeeReportPrinter.printManagersWithExcessiveReportingLines(result, reportingLinesThreshold),
+                reportingLinesThreshold);
+    }
+
+    /**
+     * Reports the managers violating the salary policy on a published hierarchy tree, cached by snapshot.
+     *
+     * @param snapshot          the published snapshot of the hierarchy
+     * @param minimumPercentage the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param maximumPercentage the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @return the unmodifiable map of the managers violating the salary policy and the violation description
+     * @throws NullPointerException if the snapshot or any param is null
+     * @see #reportManagersSalaryPolicyViolation(EmployeeNode, Integer, Integer)
+     */
+    public Map<Employee, String> reportManagersSalaryPolicyViolation(HierarchyRegistry.Snapshot<? extends EmployeeNode> snapshot, Integer minimumPercentage, Integer maximumPercentage) {
+        Objects.requireNonNull(snapshot, "Hierarchy snapshot must not be null");
+        return cached(snapshot, SALARY_POLICY_REPORT,
+                () -> delegate.reportManagersSalaryPolicyViolation(snapshot.hierarchy(), minimumPercentage, maximumPercentage),
+                result -> EmployeeReportPrinter.printManagersSalaryPolicyViolation(result, minimumPercentage, maximumPercentage),
+                minimumPercentage, maximumPercentage);
+    }
+
+    /**
+     * Reports the employees with excessive reporting lines on a published hierarchy tree, cached by snapshot.
+     *
+     * @param snapshot                the published snapshot of the hierarchy
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines
+     * @return the unmodifiable map of the employees with excessive reporting lines and how much reporting lines higher than the threshold
+     * @throws NullPointerException if the snapshot or any param is null
+     * @see #reportManagersWithExcessiveReportingLines(EmployeeNode, Integer)
+     */
+    public Map<Employee, Integer> reportManagersWithExcessiveReportingLines(HierarchyRegistry.Snapshot<? extends EmployeeNode> snapshot, Integer reportingLinesThreshold) {
+        Objects.requireNonNull(snapshot, "Hierarchy snapshot must not be null");
+        return cached(snapshot, REPORTING_LINES_REPORT,
+                () -> delegate.reportManagersWithExcessiveReportingLines(snapshot.hierarchy(), reportingLinesThreshold),
+                result -> EmployeeReportPrinter.printManagersWithExcessiveReportingLines(result, reportingLinesThreshold),
+                reportingLinesThreshold);
+    }
+
+    /**
+     * Drops every cached result, so the next requests are computed again.
+     */
+    public synchronized void invalidate() {
+        generation++;
+        results.clear();
+    }
+
+    /**
+     * Gets the number of requests answered from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long hitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of requests computed by the decorated service.
+     *
+     * @return the number of cache misses
+     */
+    public long missCount() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the number of cached results.
+     *
+     * @return the number of cached results
+     */
+    public synchronized int size() {
+        dropStaleResults(null);
+        return results.size();
+    }
+
+    /**
+     * Gets the result of a report from the cache, or computes and caches it on a miss. The computation runs outside
+     * the lock, so reports of different hierarchies or parameters can be computed concurrently.
+     *
+     * @param hierarchy   the immutable hierarchy or the snapshot the report is requested for
+     * @param report      the name of the report
+     * @param computation the computation of the report by the decorated service
+     * @param printer     prints a cached result as the decorated service prints a computed one
+     * @param parameters  the report parameters
+     * @param <V>         the type of the values of the report
+     * @return the unmodifiable result of the report
+     */
+    @SuppressWarnings("unchecked")
+    private <V> Map<Employee, V> cached(Object hierarchy, String report, Supplier<Map<Employee, V>> computation,
+                                        Consumer<Map<Employee, V>> printer, Object... parameters) {
+        if (hierarchy == null) return computation.get();
+
+        ReportKey key = new ReportKey(hierarchy, report, Arrays.asList(parameters), collectedKeys);
+        long computedGeneration;
+        synchronized (this) {
+            dropStaleResults(hierarchy);
+            Map<Employee, V> result = (Map<Employee, V>) results.get(key);
+            if (result != null) {
+                hits.incrementAndGet();
+                if (printCachedReports) printer.accept(result);
+                return result;
+            }
+            computedGeneration = generation;
+        }
+
+        misses.incrementAndGet();
+        Map<Employee, V> result = Collections.unmodifiableMap(computation.get());
+        synchronized (this) {
+            dropStaleResults(hierarchy);
+            boolean reclaimed = hierarchy instanceof HierarchyRegistry.Snapshot<?> snapshot && snapshot.isReclaimed();
+            if (computedGeneration == generation && !reclaimed) results.put(key, result);
+        }
+        Reference.reachabilityFence(hierarchy);
+        return result;
+    }
+
+    /**
+     * Drops the results whose hierarchy was collected, those of the reclaimed snapshots and, when a snapshot is
+     * requested, those of the older versions of its registry. Must be called holding the lock.
+     *
+     * @param requested the immutable hierarchy or the snapshot being requested, or {@code null}
+     */
+    private void dropStaleResults(Object requested) {
+        for (Reference<?> collected = collectedKeys.poll(); collected != null; collected = collectedKeys.poll()) {
+            results.remove((ReportKey) collected);
+        }
+        HierarchyRegistry.Snapshot<?> requestedSnapshot = (requested instanceof HierarchyRegistry.Snapshot<?> snapshot) ? snapshot : null;
+        results.keySet().removeIf(key -> key.get() instanceof HierarchyRegistry.Snapshot<?> cached
+                && (cached.isReclaimed() || requestedSnapshot != null && requestedSnapshot.supersedes(cached)));
+    }
+
+    /**
+     * Key of a cached result, holding its hierarchy weakly and comparing the hierarchies by identity, as two equal
+     * trees may still be changed apart. A key whose hierarchy was collected is only equal to itself.
+     */
+    private static final class ReportKey extends WeakReference<Object> {
+
+        /**
+         * Identity hash code of the hierarchy, kept once the hierarchy is collected.
+         */
+        private final int hierarchyHash;
+
+        /**
+         * The name of the report.
+         */
+        private final String report;
+
+        /**
+         * The report parameters.
+         */
+        private final List<Object> parameters;
+
+        /**
+         * Constructs a {@code ReportKey}.
+         *
+         * @param hierarchy     the immutable hierarchy or the snapshot the result was computed on
+         * @param report        the name of the report
+         * @param parameters    the report parameters
+         * @param collectedKeys the queue receiving the key once its hierarchy is collected
+         */
+        ReportKey(Object hierarchy, String report, List<Object> parameters, ReferenceQueue<Object> collectedKeys) {
+            super(hierarchy, collectedKeys);
+            this.hierarchyHash = System.identityHashCode(hierarchy);
+            this.report = report;
+            this.parameters = parameters;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (!(other instanceof ReportKey key)) return false;
+            Object hierarchy = get();
+            return hierarchy != null && hierarchy == key.get() && report.equals(key.report) && parameters.equals(key.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hierarchyHash, report, parameters);
+        }
+    }
+}
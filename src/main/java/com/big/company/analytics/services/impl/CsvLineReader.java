@@ -0,0 +1,194 @@
+package com.big.company.analytics.services.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Splits the bytes of a channel into lines, without decoding them.
+ * <p>
+ * The bytes are read through a single reusable buffer, which only grows when a line does not fit in it.
+ * Lines are terminated by a line feed (`\n`), a carriage return (`\r`) or a carriage return followed by a line feed,
+ * the same way {@link java.io.BufferedReader#readLine()} does. After each call to {@link #nextLine()} the current line
+ * is available as the range {@code [lineStart(), lineEnd())} of {@link #buffer()}; the range is only valid until the
+ * next call.
+ */
+final class CsvLineReader {
+
+    /**
+     * Channel the bytes are read from.
+     */
+    private final ReadableByteChannel channel;
+
+    /**
+     * Buffer holding the bytes read and not yet consumed.
+     */
+    private byte[] buffer;
+
+    /**
+     * View over {@code buffer} used to read from the channel.
+     */
+    private ByteBuffer byteBuffer;
+
+    /**
+     * Position on the buffer of the first byte not yet consumed.
+     */
+    private int position;
+
+    /**
+     * Position on the buffer after the last byte read.
+     */
+    private int limit;
+
+    /**
+     * Position on the buffer from which the next line terminator is searched.
+     */
+    private int scanPosition;
+
+    /**
+     * Offset on the channel of the first byte of the buffer.
+     */
+    private long bufferOffset;
+
+    /**
+     * Whether the channel has no more bytes.
+     */
+    private boolean endOfInput;
+
+    /**
+     * Whether the last line was terminated by a carriage return, so a following line feed must be skipped.
+     */
+    private boolean skipLineFeed;
+
+    /**
+     * Bounds of the current line on the buffer.
+     */
+    private int lineStart;
+    private int lineEnd;
+
+    /**
+     * Constructs a {@code CsvLineReader} over the specified channel.
+     *
+     * @param channel    the channel the bytes are read from
+     * @param bufferSize the initial size of the buffer
+     */
+    CsvLineReader(ReadableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = new byte[bufferSize];
+        this.byteBuffer = ByteBuffer.wrap(buffer);
+    }
+
+    /**
+     * Advances to the next line.
+     *
+     * @return {@code true} if there is a next line, {@code false} if the end of the channel was reached
+     * @throws IOException if the channel cannot be read
+     */
+    boolean nextLine() throws IOException {
+        while (true) {
+            if (skipLineFeed) {
+                if (position == limit && !endOfInput) {
+                    fill();
+                    continue;
+                }
+                if (position < limit && buffer[position] == '\n') position++;
+                scanPosition = Math.max(scanPosition, position);
+                skipLineFeed = false;
+            }
+
+            for (int i = scanPosition; i < limit; i++) {
+                byte b = buffer[i];
+                if (b == '\n' || b == '\r') {
+                    lineStart = position;
+                    lineEnd = i;
+                    position = i + 1;
+                    scanPosition = position;
+                    skipLineFeed = (b == '\r');
+                    return true;
+                }
+            }
+            scanPosition = limit;
+
+            if (endOfInput) {
+                if (position == limit) return false;
+                lineStart = position;
+                lineEnd = limit;
+                position = limit;
+                return true;
+            }
+            fill();
+        }
+    }
+
+    /**
+     * Reads more bytes from the channel, first moving the bytes not yet consumed to the beginning of the buffer.
+     * The buffer is doubled when it is already full of bytes not yet consumed.
+     *
+     * @throws IOException if the channel cannot be read
+     */
+    private void fill() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            bufferOffset += position;
+            scanPosition -= position;
+            limit -= position;
+            position = 0;
+        }
+        if (limit == buffer.length) {
+            byte[] grown = new byte[buffer.length * 2];
+            System.arraycopy(buffer, 0, grown, 0, limit);
+            buffer = grown;
+            byteBuffer = ByteBuffer.wrap(buffer);
+        }
+
+        byteBuffer.limit(buffer.length).position(limit);
+        int read = channel.read(byteBuffer);
+        if (read < 0) endOfInput = true;
+        else limit += read;
+    }
+
+    /**
+     * Gets the buffer holding the current line.
+     *
+     * @return the buffer
+     */
+    byte[] buffer() {
+        return buffer;
+    }
+
+    /**
+     * Gets the position on the buffer of the first byte of the current line.
+     *
+     * @return the start of the current line
+     */
+    int lineStart() {
+        return lineStart;
+    }
+
+    /**
+     * Gets the position on the buffer after the last byte of the current line, excluding the terminator.
+     *
+     * @return the end of the current line
+     */
+    int lineEnd() {
+        return lineEnd;
+    }
+
+    /**
+     * Gets the offset on the channel of the first byte of the current line.
+     *
+     * @return the offset of the current line
+     */
+    long lineOffset() {
+        return bufferOffset + lineStart;
+    }
+
+    /**
+     * Gets the number of bytes consumed from the channel so far.
+     *
+     * @return the number of bytes consumed
+     */
+    long bytesConsumed() {
+        return bufferOffset + position;
+    }
+}
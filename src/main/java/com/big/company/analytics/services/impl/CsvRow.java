@@ -0,0 +1,241 @@
+package com.big.company.analytics.services.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A single CSV line split into fields over the bytes it was read into, without copying or decoding them.
+ * <p>
+ * The same instance is reused for every line of a file: {@link #tokenize(byte[], int, int, int, long)} points it to the
+ * next line. Fields are split on the comma delimiter and trailing empty fields are discarded, the same way
+ * {@link String#split(String)} does. Fields are accessed by column, where the columns are mapped to fields through
+ * the header mapper when the file has a header line, or follow the field order otherwise.
+ */
+final class CsvRow {
+
+    /**
+     * Value returned by {@link #intValue(int)} when the column is missing or is not a valid integer.
+     */
+    static final long INVALID = Long.MIN_VALUE;
+
+    /**
+     * The delimiter byte used in the CSV file.
+     */
+    private static final byte DELIMITER = ',';
+
+    /**
+     * Maps each field position to its column, or {@code null} when fields are already in column order.
+     */
+    private final int[] headerMapper;
+
+    /**
+     * Maps each column to its field position on the current line, or -1 when the line has no such field.
+     */
+    private final int[] columnFields;
+
+    /**
+     * Bounds of each field of the current line on the buffer.
+     */
+    private int[] fieldStarts = new int[8];
+    private int[] fieldEnds = new int[8];
+
+    /**
+     * Number of fields on the current line.
+     */
+    private int fieldCount;
+
+    /**
+     * Buffer holding the current line.
+     */
+    private byte[] buffer;
+
+    /**
+     * Line number of the current line.
+     */
+    private int lineNumber;
+
+    /**
+     * Bounds of the current line on the buffer and offset on the source of its first byte.
+     */
+    private int lineStart;
+    private int lineEnd;
+    private long lineOffset;
+
+    /**
+     * Constructs a {@code CsvRow} for the specified number of columns.
+     *
+     * @param columns      the number of columns
+     * @param headerMapper maps each field position to its column, or {@code null} when fields are in column order
+     */
+    CsvRow(int columns, int[] headerMapper) {
+        this.headerMapper = headerMapper;
+        this.columnFields = new int[columns];
+    }
+
+    /**
+     * Points this row to a new line and splits it into fields.
+     *
+     * @param buffer     the buffer holding the line
+     * @param start      the position on the buffer of the first byte of the line
+     * @param end        the position on the buffer after the last byte of the line
+     * @param lineNumber the line number of the line
+     * @param lineOffset the offset on the source of the first byte of the line
+     */
+    void tokenize(byte[] buffer, int start, int end, int lineNumber, long lineOffset) {
+        this.buffer = buffer;
+        this.lineNumber = lineNumber;
+        this.lineStart = start;
+        this.lineEnd = end;
+        this.lineOffset = lineOffset;
+
+        int count = 0;
+        int fieldStart = start;
+        for (int i = start; i < end; i++) {
+            if (buffer[i] == DELIMITER) {
+                count = addField(count, fieldStart, i);
+                fieldStart = i + 1;
+            }
+        }
+        count = addField(count, fieldStart, end);
+        while (count > 0 && fieldStarts[count - 1] == fieldEnds[count - 1]) count--;
+        fieldCount = count;
+
+        for (int column = 0; column < columnFields.length; column++) {
+            columnFields[column] = (headerMapper == null && column < count) ? column : -1;
+        }
+        if (headerMapper != null) {
+            for (int field = 0; field < count && field < headerMapper.length; field++) {
+                int column = headerMapper[field];
+                if (column >= 0 && column < columnFields.length) columnFields[column] = field;
+            }
+        }
+    }
+
+    /**
+     * Records the bounds of a field, growing the bound arrays when needed.
+     *
+     * @param count the number of fields recorded so far
+     * @param start the position on the buffer of the first byte of the field
+     * @param end   the position on the buffer after the last byte of the field
+     * @return the number of fields recorded
+     */
+    private int addField(int count, int start, int end) {
+        if (count == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, count * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, count * 2);
+        }
+        fieldStarts[count] = start;
+        fieldEnds[count] = end;
+        return count + 1;
+    }
+
+    /**
+     * Gets the number of fields on the current line, excluding trailing empty fields.
+     *
+     * @return the number of fields
+     */
+    int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Gets the line number of the current line.
+     *
+     * @return the line number
+     */
+    int lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Decodes the whole current line as UTF-8 text, without its terminator.
+     *
+     * @return the text of the line
+     */
+    String line() {
+        return new String(buffer, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Checks whether the current line has a field for the column.
+     *
+     * @param column the column
+     * @return {@code true} if the line has the field
+     */
+    boolean hasColumn(int column) {
+        return columnFields[column] >= 0;
+    }
+
+    /**
+     * Parses the field of a column as a decimal integer, accepting the same values as {@link Integer#parseInt(String)}
+     * for ASCII digits, without throwing any exception.
+     *
+     * @param column the column
+     * @return the integer value, or {@link #INVALID} if the field is missing or is not a valid integer
+     */
+    long intValue(int column) {
+        int field = columnFields[column];
+        if (field < 0) return INVALID;
+        int i = fieldStarts[field];
+        int end = fieldEnds[field];
+        if (i == end) return INVALID;
+
+        boolean negative = false;
+        byte first = buffer[i];
+        if (first == '-' || first == '+') {
+            negative = (first == '-');
+            if (++i == end) return INVALID;
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9) return INVALID;
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) return INVALID;
+        }
+        if (negative) value = -value;
+        return (value > Integer.MAX_VALUE) ? INVALID : value;
+    }
+
+    /**
+     * Decodes the field of a column as UTF-8 text.
+     *
+     * @param column the column
+     * @return the text of the field, or {@code null} if the line has no such field
+     */
+    String text(int column) {
+        int field = columnFields[column];
+        if (field < 0) return null;
+        return new String(buffer, fieldStarts[field], fieldEnds[field] - fieldStarts[field], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the position on the buffer of the first byte of the field of a column.
+     *
+     * @param column the column, which must be present on the current line
+     * @return the start of the field
+     */
+    int start(int column) {
+        return fieldStarts[columnFields[column]];
+    }
+
+    /**
+     * Gets the position on the buffer after the last byte of the field of a column.
+     *
+     * @param column the column, which must be present on the current line
+     * @return the end of the field
+     */
+    int end(int column) {
+        return fieldEnds[columnFields[column]];
+    }
+
+    /**
+     * Gets the offset on the source of the first byte of the field of a column.
+     *
+     * @param column the column, which must be present on the current line
+     * @return the offset of the field
+     */
+    long offset(int column) {
+        return lineOffset + (start(column) - lineStart);
+    }
+}
@@ -0,0 +1,56 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * Binary encoding of employees, shared by the temporary files of {@link ExternalEmployeeSorter} and the pipes of
+ * {@link PartitionedAnalytics}.
+ */
+final class EmployeeCodec {
+
+    private EmployeeCodec() {
+    }
+
+    /**
+     * Writes an employee.
+     *
+     * @param output   the output
+     * @param employee the employee
+     * @throws IOException if the employee cannot be written
+     */
+    static void write(DataOutput output, Employee employee) throws IOException {
+        output.writeInt(employee.id());
+        output.writeInt(employee.salary());
+        output.writeBoolean(employee.managerId() != null);
+        output.writeInt((employee.managerId() != null) ? employee.managerId() : 0);
+        output.writeUTF(employee.firstName());
+        output.writeUTF(employee.lastName());
+    }
+
+    /**
+     * Reads the next employee.
+     *
+     * @param input the input
+     * @return the next employee, or {@code null} at the end of the input
+     * @throws IOException if the input cannot be read or ends in the middle of an employee
+     */
+    static Employee read(DataInput input) throws IOException {
+        int id;
+        try {
+            id = input.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        int salary = input.readInt();
+        boolean hasManager = input.readBoolean();
+        int managerId = input.readInt();
+        String firstName = input.readUTF();
+        String lastName = input.readUTF();
+        return new Employee(id, firstName, lastName, salary, hasManager ? managerId : null);
+    }
+}
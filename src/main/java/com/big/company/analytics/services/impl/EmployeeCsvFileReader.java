@@ -1,31 +1,57 @@
 package com.big.company.analytics.services.impl;
 
 import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeTable;
+import com.big.company.analytics.domain.MappedNames;
 import com.big.company.analytics.exception.FileReaderException;
 import com.big.company.analytics.exception.ParseExtractionException;
+import com.big.company.analytics.services.EmployeeTableReader;
 import com.big.company.analytics.services.FileReaderService;
 
-import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
 
 /**
  * An implementation of {@code FileReaderService} for retrieve {@code Employee} objects from a CSV file
  * with a fixed comma delimiter (`,`).
  * <p>
+ * Lines are parsed straight from the bytes of the file, through a reusable buffer. Gzip compressed files are
+ * detected by their magic number and decompressed while parsing. Named pipes and other non regular files, as well
+ * as any {@link ReadableByteChannel} such as the standard input, are parsed the same way in a single pass, so they
+ * are never held in memory as a whole.
+ * <p>
  * This implementation assumes that the CSV file has a header line that needs to be skipped.
+ * <p>
+ * By default the first malformed row aborts the read with a {@link ParseExtractionException}. A lenient reader
+ * instead validates every row up front, without throwing, and writes each malformed row to a rejected rows file
+ * before skipping it, until more rows than its error budget are rejected.
  */
-public final class EmployeeCsvFileReader implements FileReaderService<Employee> {
+public final class EmployeeCsvFileReader implements FileReaderService<Employee>, EmployeeTableReader {
 
     /**
      * The delimiter used in the CSV file.
@@ -43,6 +69,16 @@ public final class EmployeeCsvFileReader implements FileReaderService<Employee>
      */
     private final boolean hasHeader;
 
+    /**
+     * File receiving the rejected rows of a lenient reader, or {@code null} when any malformed row aborts the read.
+     */
+    private final Path rejectedRowsFile;
+
+    /**
+     * Maximum number of rows a lenient reader rejects before aborting the read.
+     */
+    private final int errorBudget;
+
     /**
      * Constructs a new {@code EmployeeDataExtractor} with the specified value for whether the CSV file has a header line.
      *
@@ -50,13 +86,33 @@ public final class EmployeeCsvFileReader implements FileReaderService<Employee>
      */
     public EmployeeCsvFileReader(Boolean hasHeader) {
         this.hasHeader = (hasHeader != null) ? hasHeader : Defaults.HAS_HEADER;
+        this.rejectedRowsFile = null;
+        this.errorBudget = 0;
+    }
+
+    /**
+     * Constructs a lenient {@code EmployeeCsvFileReader}, which skips malformed rows instead of aborting the read.
+     * Each read truncates the rejected rows file and writes on it one line per rejected row, as
+     * {@code Line number <line> -> <reason> | <row>}.
+     *
+     * @param hasHeader        {@code true} if the CSV file has a header line to be skipped, {@code false} otherwise
+     * @param rejectedRowsFile the file receiving the rejected rows
+     * @param errorBudget      the maximum number of rows rejected before a read is aborted
+     * @throws NullPointerException     if rejected rows file is null
+     * @throws IllegalArgumentException if error budget is negative
+     */
+    public EmployeeCsvFileReader(Boolean hasHeader, Path rejectedRowsFile, int errorBudget) {
+        this.hasHeader = (hasHeader != null) ? hasHeader : Defaults.HAS_HEADER;
+        this.rejectedRowsFile = Objects.requireNonNull(rejectedRowsFile, "Rejected rows file should not be null");
+        if (errorBudget < 0) throw new IllegalArgumentException("Error budget should not be negative");
+        this.errorBudget = errorBudget;
     }
 
     /**
      * Constructs a new {@code EmployeeDataExtractor} with default settings, assuming the CSV file has a header line.
      */
     public EmployeeCsvFileReader() {
-        this.hasHeader = Defaults.HAS_HEADER;
+        this(Defaults.HAS_HEADER);
     }
 
     /**
@@ -93,29 +149,128 @@ public final class EmployeeCsvFileReader implements FileReaderService<Employee>
         Objects.requireNonNull(file, "File should not be null");
 
         List<Employee> employees = new ArrayList<>();
-        try (
-                FileReader fileReader = new FileReader(file);
-                BufferedReader br = new BufferedReader(fileReader)
-        ) {
-            String line;
-            int curLine = 0;
-            int[] headerMapper = new int[0];
-            while ((line = br.readLine()) != null) {
-                if (hasHeader && curLine == 0) {
-                    headerMapper = createHeaderMapper(line.split(DELIMITER));
-                    curLine++;
-                    continue;
-                }
-                String[] values = (hasHeader)
-                        ? orderReadData(headerMapper, line.split(DELIMITER))
-                        : line.split(DELIMITER);
+        readRows(file, row -> employees.add(employeeFromRow(row)));
+        return employees;
+    }
+
+    /**
+     * Read the employees of a specified CSV file into an {@code EmployeeTable}, assigning each employee a dense
+     * ordinal as it is parsed. No {@code Employee} object is created while reading.
+     *
+     * @param file the CSV file object from which the employees will be read
+     * @return the table holding the employees, in file order
+     * @throws FileReaderException      if the file is not found or cannot be loaded
+     * @throws ParseExtractionException if any error occurs during parsing of the file content
+     * @throws NullPointerException     if any params is null
+     */
+    public EmployeeTable readTable(File file) {
+        return readTable(file, EnumSet.allOf(EmployeeTable.Column.class));
+    }
 
-                if (values.length < Defaults.MINIMUM_REQUIRED_VALUES_BY_CSV_LINE)
-                    throw new ParseExtractionException(String.format("Error on line number %d -> %s %d", curLine, "Line has less elements than the required size", Defaults.MINIMUM_REQUIRED_VALUES_BY_CSV_LINE));
+    /**
+     * Read the employees of a specified CSV file into an {@code EmployeeTable}, parsing only the declared columns.
+     * <p>
+     * Ids and manager ids are always parsed, as they define the reporting lines. An undeclared salary is not parsed
+     * and is left as zero. When neither name is declared and the file is not compressed, names are not decoded
+     * either: the table keeps their byte ranges and decodes them from a memory mapping of the file when they are
+     * asked for, so the file must not be changed while the table is in use. Names of compressed files are always
+     * decoded, as their byte ranges cannot be mapped.
+     *
+     * @param file    the CSV file object from which the employees will be read
+     * @param columns the columns needed by the caller
+     * @return the table holding the employees, in file order
+     * @throws FileReaderException      if the file is not found or cannot be loaded
+     * @throws ParseExtractionException if any error occurs during parsing of the file content
+     * @throws NullPointerException     if any params is null
+     */
+    @Override
+    public EmployeeTable readTable(File file, Set<EmployeeTable.Column> columns) {
+        Objects.requireNonNull(file, "File should not be null");
+        Objects.requireNonNull(columns, "Columns should not be null");
 
-                employees.add(employeeFromLineValues(values, curLine));
-                curLine++;
-            }
+        boolean parseSalary = columns.contains(EmployeeTable.Column.SALARY);
+        EmployeeTable.Builder table = new EmployeeTable.Builder();
+        if (columns.contains(EmployeeTable.Column.FIRST_NAME) || columns.contains(EmployeeTable.Column.LAST_NAME)
+                || !isMappable(file)) {
+            readRows(file, row -> addRowToTable(row, table, parseSalary, null));
+            return table.build();
+        }
+
+        MappedNames.Builder names = new MappedNames.Builder();
+        readRows(file, row -> addRowToTable(row, table, parseSalary, names));
+        try {
+            return table.build(names.map(file.toPath()));
+        } catch (IOException e) {
+            throw new FileReaderException("Error when reading the file");
+        }
+    }
+
+    /**
+     * Read {@code Employee} objects from a specified CSV file, handing them over as soon as each batch is parsed.
+     *
+     * @param file          the CSV file object from which {@code Employee} objects will be read
+     * @param batchSize     the maximum number of employees delivered on each batch
+     * @param batchConsumer the consumer receiving every non-empty batch, in file order
+     * @throws FileReaderException      if the file is not found or cannot be loaded
+     * @throws ParseExtractionException if any error occurs during parsing of the file content
+     * @throws NullPointerException     if any params is null
+     * @throws IllegalArgumentException if batch size is not positive
+     */
+    @Override
+    public void readFile(File file, int batchSize, Consumer<List<Employee>> batchConsumer) {
+        Objects.requireNonNull(file, "File should not be null");
+        Objects.requireNonNull(batchConsumer, "Batch consumer should not be null");
+        if (batchSize <= 0) throw new IllegalArgumentException("Batch size should be positive");
+
+        EmployeeBatcher batcher = new EmployeeBatcher(batchSize, batchConsumer);
+        readRows(file, row -> batcher.accept(employeeFromRow(row)));
+        batcher.flush();
+    }
+
+    /**
+     * Read {@code Employee} objects from a channel, such as the standard input or a named pipe, handing them over as
+     * soon as each batch is parsed. The channel is read in a single pass up to its end, and is left open.
+     * Gzip compressed content is detected and decompressed while parsing.
+     *
+     * @param channel       the blocking channel holding the CSV content
+     * @param batchSize     the maximum number of employees delivered on each batch
+     * @param batchConsumer the consumer receiving every non-empty batch, in channel order
+     * @throws FileReaderException      if the channel cannot be read
+     * @throws ParseExtractionException if any error occurs during parsing of the content
+     * @throws NullPointerException     if any params is null
+     * @throws IllegalArgumentException if batch size is not positive
+     */
+    @Override
+    public void readChannel(ReadableByteChannel channel, int batchSize, Consumer<List<Employee>> batchConsumer) {
+        Objects.requireNonNull(channel, "Channel should not be null");
+        Objects.requireNonNull(batchConsumer, "Batch consumer should not be null");
+        if (batchSize <= 0) throw new IllegalArgumentException("Batch size should be positive");
+
+        EmployeeBatcher batcher = new EmployeeBatcher(batchSize, batchConsumer);
+        try (ReadableByteChannel content = openStreamChannel(channel)) {
+            readContent(content, row -> batcher.accept(employeeFromRow(row)));
+        } catch (IOException e) {
+            throw new FileReaderException("Error when reading the input stream");
+        }
+        batcher.flush();
+    }
+
+    /**
+     * Parses the CSV file line by line, handing each row over to the consumer as soon as it is read.
+     * Gzip compressed files are detected and decompressed while parsing, without any temporary file.
+     *
+     * @param file        the CSV file object from which the rows will be read
+     * @param rowConsumer the consumer receiving every data row, in file order
+     * @throws FileReaderException      if the file is not found or cannot be loaded
+     * @throws ParseExtractionException if any error occurs during parsing of the file content, or a lenient reader
+     *                                  exhausts its error budget
+     */
+    private void readRows(File file, Consumer<CsvRow> rowConsumer) {
+        try (
+                FileInputStream fileInputStream = new FileInputStream(file);
+                ReadableByteChannel channel = openChannel(file, fileInputStream)
+        ) {
+            readContent(channel, rowConsumer);
         } catch (FileNotFoundException e) {
             throw new FileReaderException(
                     String.format("File not found | Filepath: %s | Filename: %s", Optional.ofNullable(file.getParent()).orElse("/"), file.getName()));
@@ -125,7 +280,136 @@ public final class EmployeeCsvFileReader implements FileReaderService<Employee>
         } catch (IOException e) {
             throw new FileReaderException("Error when reading the file");
         }
-        return employees;
+    }
+
+    /**
+     * Parses the CSV content of a channel line by line, writing the malformed rows to the rejected rows file when
+     * the reader is lenient.
+     *
+     * @param channel     the channel holding the CSV content
+     * @param rowConsumer the consumer receiving every data row, in channel order
+     * @throws IOException              if the channel cannot be read or a rejected row cannot be written
+     * @throws ParseExtractionException if any error occurs during parsing of the content, or the error budget is exhausted
+     */
+    private void readContent(ReadableByteChannel channel, Consumer<CsvRow> rowConsumer) throws IOException {
+        try (RejectedRows rejectedRows = (rejectedRowsFile != null) ? new RejectedRows(rejectedRowsFile, errorBudget) : null) {
+            readRows(channel, rowConsumer, rejectedRows);
+            if (rejectedRows != null && rejectedRows.count() > 0)
+                System.out.printf("Warning -> %d rows were rejected | Filename: %s%n", rejectedRows.count(), rejectedRowsFile.getFileName());
+        }
+    }
+
+    /**
+     * Parses the CSV content of a channel line by line, handing each data row over to the consumer as soon as
+     * it is read. The row is reused for the next line, so the consumer must not keep it.
+     *
+     * @param channel      the channel holding the CSV content
+     * @param rowConsumer  the consumer receiving every data row with at least the required number of fields, in channel order
+     * @param rejectedRows the rejected rows receiving every malformed row, or {@code null} to abort on the first one
+     * @throws IOException              if the channel cannot be read or a rejected row cannot be written
+     * @throws ParseExtractionException if any error occurs during parsing of the content, or the error budget is exhausted
+     */
+    private void readRows(ReadableByteChannel channel, Consumer<CsvRow> rowConsumer, RejectedRows rejectedRows) throws IOException {
+        CsvLineReader lineReader = new CsvLineReader(channel, Defaults.BUFFER_SIZE);
+        int curLine = 0;
+        CsvRow row = new CsvRow(headerOrder.size(), null);
+        while (lineReader.nextLine()) {
+            if (hasHeader && curLine == 0) {
+                String header = new String(lineReader.buffer(), lineReader.lineStart(),
+                        lineReader.lineEnd() - lineReader.lineStart(), StandardCharsets.UTF_8);
+                row = new CsvRow(headerOrder.size(), createHeaderMapper(header.split(DELIMITER)));
+                curLine++;
+                continue;
+            }
+            row.tokenize(lineReader.buffer(), lineReader.lineStart(), lineReader.lineEnd(), curLine, lineReader.lineOffset());
+
+            if (rejectedRows != null) {
+                String reason = rowError(row);
+                if (reason != null) {
+                    rejectedRows.reject(row, reason);
+                    curLine++;
+                    continue;
+                }
+            } else if (row.fieldCount() < Defaults.MINIMUM_REQUIRED_VALUES_BY_CSV_LINE)
+                throw new ParseExtractionException(String.format("Error on line number %d -> %s", curLine, missingFieldsReason()));
+
+            rowConsumer.accept(row);
+            curLine++;
+        }
+    }
+
+    /**
+     * Opens a channel over the content of a file, decompressing it on the fly when it is gzip compressed.
+     * Files that are not regular, such as named pipes, cannot be peeked at without consuming them, so they are
+     * read as a stream.
+     *
+     * @param file            the file
+     * @param fileInputStream the stream of the file
+     * @return the channel over the (decompressed) content of the file
+     * @throws IOException if the file cannot be read
+     */
+    private ReadableByteChannel openChannel(File file, FileInputStream fileInputStream) throws IOException {
+        FileChannel fileChannel = fileInputStream.getChannel();
+        if (!file.isFile()) return openStreamChannel(fileChannel);
+        if (!isGzip(fileChannel)) return fileChannel;
+        return new InputStreamChannel(new GZIPInputStream(fileInputStream, Defaults.BUFFER_SIZE));
+    }
+
+    /**
+     * Opens a channel over the content of a stream, decompressing it on the fly when it is gzip compressed.
+     * The first bytes are read to check for the gzip magic number, then given back ahead of the rest of the stream.
+     *
+     * @param channel the channel of the stream, left open when the returned channel is closed
+     * @return the channel over the (decompressed) content of the stream
+     * @throws IOException if the stream cannot be read
+     */
+    private ReadableByteChannel openStreamChannel(ReadableByteChannel channel) throws IOException {
+        ByteBuffer magic = ByteBuffer.allocate(2);
+        while (magic.hasRemaining() && channel.read(magic) > 0) ;
+        ReadableByteChannel content = new PrefixedChannel(magic.flip(), channel);
+        if (!isGzipMagic(magic)) return content;
+        return new InputStreamChannel(new GZIPInputStream(Channels.newInputStream(content), Defaults.BUFFER_SIZE));
+    }
+
+    /**
+     * Checks whether a file starts with the gzip magic number, without moving the channel position.
+     *
+     * @param fileChannel the channel of the file
+     * @return {@code true} if the file is gzip compressed
+     * @throws IOException if the file cannot be read
+     */
+    private boolean isGzip(FileChannel fileChannel) throws IOException {
+        ByteBuffer magic = ByteBuffer.allocate(2);
+        while (magic.hasRemaining() && fileChannel.read(magic, magic.position()) > 0) ;
+        return isGzipMagic(magic.flip());
+    }
+
+    /**
+     * Checks whether the first bytes of a content are the gzip magic number.
+     *
+     * @param magic the first bytes of the content, from index zero up to the limit of the buffer
+     * @return {@code true} if the content is gzip compressed
+     */
+    private boolean isGzipMagic(ByteBuffer magic) {
+        return magic.limit() == 2
+                && magic.get(0) == (byte) GZIPInputStream.GZIP_MAGIC
+                && magic.get(1) == (byte) (GZIPInputStream.GZIP_MAGIC >> 8);
+    }
+
+    /**
+     * Checks whether a file can be opened and is not gzip compressed, so byte ranges of its content can be mapped.
+     * Failures are left to be reported when the file is read.
+     *
+     * @param file the file
+     * @return {@code true} if the file can be mapped
+     */
+    private boolean isMappable(File file) {
+        if (!file.isFile()) return false;
+        try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return !isGzip(fileChannel);
+        } catch (IOException | SecurityException | InvalidPathException e) {
+            return false;
+        }
     }
 
     /**
@@ -141,25 +425,120 @@ public final class EmployeeCsvFileReader implements FileReaderService<Employee>
     }
 
     /**
-     * Constructs an {@code Employee} object from an array of values representing employee data from a CSV lineNumber.
+     * Constructs an {@code Employee} object from a CSV row.
      *
-     * @param values     the array of values representing read data
-     * @param lineNumber the lineNumber number from which the data was read
+     * @param row the row holding the read data
      * @return the constructed {@code Employee} object
      * @throws ParseExtractionException if any error occurs during parsing of the employee data
      */
-    private Employee employeeFromLineValues(String[] values, int lineNumber) {
-        try {
-            Integer id = Integer.valueOf(values[Defaults.ID_INDEX]);
-            String firstName = String.valueOf(values[Defaults.FIRST_NAME_INDEX]);
-            String lastName = String.valueOf(values[Defaults.LAST_NAME_INDEX]);
-            Integer salary = Integer.valueOf(values[Defaults.SALARY_INDEX]);
-            Integer managerId = (values.length >= 5) ? Integer.valueOf(values[Defaults.MANAGER_ID_INDEX]) : null;
+    private Employee employeeFromRow(CsvRow row) {
+        int id = intFromRow(row, Defaults.ID_INDEX);
+        String firstName = String.valueOf(row.text(Defaults.FIRST_NAME_INDEX));
+        String lastName = String.valueOf(row.text(Defaults.LAST_NAME_INDEX));
+        int salary = intFromRow(row, Defaults.SALARY_INDEX);
+        Integer managerId = (row.fieldCount() >= 5) ? intFromRow(row, Defaults.MANAGER_ID_INDEX) : null;
+
+        return new Employee(id, firstName, lastName, salary, managerId);
+    }
+
+    /**
+     * Appends the employee of a CSV row to a table under construction.
+     *
+     * @param row         the row holding the read data
+     * @param table       the table receiving the employee
+     * @param parseSalary whether the salary is parsed, or left as zero
+     * @param names       the names receiving the byte ranges of the employee names, or {@code null} to decode them
+     * @throws ParseExtractionException if any error occurs during parsing of the employee data
+     */
+    private void addRowToTable(CsvRow row, EmployeeTable.Builder table, boolean parseSalary, MappedNames.Builder names) {
+        int id = intFromRow(row, Defaults.ID_INDEX);
+        int salary = parseSalary ? intFromRow(row, Defaults.SALARY_INDEX) : 0;
+        boolean hasManager = row.fieldCount() >= 5;
+        int managerId = hasManager ? intFromRow(row, Defaults.MANAGER_ID_INDEX) : 0;
 
-            return new Employee(id, firstName, lastName, salary, managerId);
-        } catch (Exception e) {
-            throw new ParseExtractionException(String.format("Error on line number %d -> %s", lineNumber, e.getMessage()));
+        if (names == null) {
+            String firstName = String.valueOf(row.text(Defaults.FIRST_NAME_INDEX));
+            String lastName = String.valueOf(row.text(Defaults.LAST_NAME_INDEX));
+            table.add(id, firstName, lastName, salary, hasManager, managerId);
+            return;
         }
+        names.add(nameOffset(row, Defaults.FIRST_NAME_INDEX), nameLength(row, Defaults.FIRST_NAME_INDEX),
+                nameOffset(row, Defaults.LAST_NAME_INDEX), nameLength(row, Defaults.LAST_NAME_INDEX));
+        table.add(id, salary, hasManager, managerId);
+    }
+
+    /**
+     * Gets the offset on the file of a name of a CSV row.
+     *
+     * @param row    the row holding the read data
+     * @param column the column of the name
+     * @return the offset of the name, or zero when the row has no such column
+     */
+    private long nameOffset(CsvRow row, int column) {
+        return row.hasColumn(column) ? row.offset(column) : 0;
+    }
+
+    /**
+     * Gets the number of bytes of a name of a CSV row.
+     *
+     * @param row    the row holding the read data
+     * @param column the column of the name
+     * @return the length of the name, or zero when the row has no such column
+     */
+    private int nameLength(CsvRow row, int column) {
+        return row.hasColumn(column) ? row.end(column) - row.start(column) : 0;
+    }
+
+    /**
+     * Reads an integer value from a column of a CSV row.
+     *
+     * @param row    the row holding the read data
+     * @param column the column of the value
+     * @return the integer value
+     * @throws ParseExtractionException if the value is missing or is not a valid integer
+     */
+    private int intFromRow(CsvRow row, int column) {
+        long value = row.intValue(column);
+        if (value == CsvRow.INVALID)
+            throw new ParseExtractionException(String.format("Error on line number %d -> %s", row.lineNumber(), invalidIntReason(row, column)));
+        return (int) value;
+    }
+
+    /**
+     * Validates every field of a CSV row needed to build an employee, without throwing any exception.
+     *
+     * @param row the row holding the read data
+     * @return the reason the row is malformed, or {@code null} if it is valid
+     */
+    private String rowError(CsvRow row) {
+        if (row.fieldCount() < Defaults.MINIMUM_REQUIRED_VALUES_BY_CSV_LINE) return missingFieldsReason();
+        if (row.intValue(Defaults.ID_INDEX) == CsvRow.INVALID) return invalidIntReason(row, Defaults.ID_INDEX);
+        if (row.intValue(Defaults.SALARY_INDEX) == CsvRow.INVALID) return invalidIntReason(row, Defaults.SALARY_INDEX);
+        if (row.fieldCount() >= 5 && row.intValue(Defaults.MANAGER_ID_INDEX) == CsvRow.INVALID)
+            return invalidIntReason(row, Defaults.MANAGER_ID_INDEX);
+        return null;
+    }
+
+    /**
+     * Describes a row with fewer fields than required.
+     *
+     * @return the reason the row is malformed
+     */
+    private String missingFieldsReason() {
+        return String.format("%s %d", "Line has less elements than the required size", Defaults.MINIMUM_REQUIRED_VALUES_BY_CSV_LINE);
+    }
+
+    /**
+     * Describes an integer field of a CSV row that is missing or is not a valid integer.
+     *
+     * @param row    the row holding the read data
+     * @param column the column of the value
+     * @return the reason the row is malformed
+     */
+    private String invalidIntReason(CsvRow row, int column) {
+        return row.hasColumn(column)
+                ? String.format("For input string: \"%s\"", row.text(column))
+                : "Cannot parse null string: null";
     }
 
     /**
@@ -171,27 +550,94 @@ public final class EmployeeCsvFileReader implements FileReaderService<Employee>
      * @throws ParseExtractionException if any error occurs during parsing of the header
      */
     private int[] createHeaderMapper(String[] header) throws ParseExtractionException {
-        List<String> headerList = Arrays.stream(header).map(String::toLowerCase).toList();
-        new HashSet<>(headerOrder).forEach(requiredHeader -> {
+        List<String> headerList = new ArrayList<>(header.length);
+        for (String column : header) headerList.add(column.toLowerCase());
+        for (String requiredHeader : new HashSet<>(headerOrder)) {
             if (!headerList.contains(requiredHeader))
                 throw new ParseExtractionException(String.format("Required header not found on header file: %s", requiredHeader));
-        });
-        return headerList.stream().mapToInt(headerOrder::indexOf).toArray();
+        }
+        int[] headerMapper = new int[headerList.size()];
+        for (int field = 0; field < headerMapper.length; field++) headerMapper[field] = headerOrder.indexOf(headerList.get(field));
+        return headerMapper;
     }
 
     /**
-     * Orders read data based on the header mapper array.
-     *
-     * @param headerMapper the header mapper array
-     * @param values       the array of values representing data from a CSV line
-     * @return the ordered data array
+     * Groups parsed employees into batches of a fixed size before handing them over to a consumer.
      */
-    private String[] orderReadData(int[] headerMapper, String[] values) {
-        String[] orderedData = new String[values.length];
-        for (int i = 0; i < values.length; i++) {
-            orderedData[headerMapper[i]] = values[i];
+    private static final class EmployeeBatcher implements Consumer<Employee> {
+
+        private final int batchSize;
+        private final Consumer<List<Employee>> batchConsumer;
+        private List<Employee> batch;
+
+        EmployeeBatcher(int batchSize, Consumer<List<Employee>> batchConsumer) {
+            this.batchSize = batchSize;
+            this.batchConsumer = batchConsumer;
+            this.batch = new ArrayList<>(batchSize);
+        }
+
+        @Override
+        public void accept(Employee employee) {
+            batch.add(employee);
+            if (batch.size() == batchSize) flush();
+        }
+
+        /**
+         * Hands the current batch over to the consumer, if it has any employee.
+         */
+        void flush() {
+            if (batch.isEmpty()) return;
+            batchConsumer.accept(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    /**
+     * Writes the rejected rows of a read to a file, aborting the read once more rows than the error budget
+     * are rejected.
+     */
+    private static final class RejectedRows implements Closeable {
+
+        private final Path file;
+        private final int errorBudget;
+        private final BufferedWriter writer;
+        private int count;
+
+        RejectedRows(Path file, int errorBudget) throws IOException {
+            this.file = file;
+            this.errorBudget = errorBudget;
+            this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Writes a rejected row.
+         *
+         * @param row    the rejected row
+         * @param reason the reason the row is malformed
+         * @throws IOException              if the row cannot be written
+         * @throws ParseExtractionException if the error budget is exhausted
+         */
+        void reject(CsvRow row, String reason) throws IOException {
+            writer.write(String.format("Line number %d -> %s | %s", row.lineNumber(), reason, row.line()));
+            writer.newLine();
+            if (++count > errorBudget)
+                throw new ParseExtractionException(String.format("Error on line number %d -> Error budget of %d rejected rows exhausted | Filename: %s",
+                        row.lineNumber(), errorBudget, file.getFileName()));
+        }
+
+        /**
+         * Gets the number of rows rejected so far.
+         *
+         * @return the number of rejected rows
+         */
+        int count() {
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
         }
-        return orderedData;
     }
 
     /**
@@ -226,5 +672,9 @@ public final class EmployeeCsvFileReader implements FileReaderService<Employee>
          * Default index for the 'managerid' column in the CSV file.
          */
         static final int MANAGER_ID_INDEX = 4;
+        /**
+         * Default size of the buffers used for reading and decompressing the file.
+         */
+        static final int BUFFER_SIZE = 1 << 16;
     }
 }
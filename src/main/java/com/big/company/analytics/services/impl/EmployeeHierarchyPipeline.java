@@ -0,0 +1,193 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.exception.EmployeeNodeServiceException;
+import com.big.company.analytics.exception.FileReaderException;
+import com.big.company.analytics.exception.ParseExtractionException;
+import com.big.company.analytics.exception.UnexpectedException;
+import com.big.company.analytics.services.FileReaderService;
+
+import java.io.File;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Reads employees from a file and builds their hierarchy at the same time.
+ * <p>
+ * The calling thread parses the file and feeds the parsed batches through a bounded queue into an
+ * {@link IncrementalEmployeeNodeBuilder} running on another thread, so the hierarchy is ready almost as soon as
+ * the last line is read. The bounded queue keeps the reader from running too far ahead of the builder.
+ */
+public class EmployeeHierarchyPipeline {
+
+    /**
+     * Default number of employees on each batch handed over from the reader to the builder.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    /**
+     * Default number of batches the queue between the reader and the builder can hold.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+    /**
+     * Marks the end of the batches on the queue. Compared by identity.
+     */
+    private static final List<Employee> END_OF_BATCHES = new ArrayList<>(0);
+
+    /**
+     * Service for reading data from a file.
+     */
+    private final FileReaderService<Employee> fileReaderService;
+
+    /**
+     * Number of employees on each batch.
+     */
+    private final int batchSize;
+
+    /**
+     * Number of batches the queue can hold.
+     */
+    private final int queueCapacity;
+
+    /**
+     * Constructs an {@code EmployeeHierarchyPipeline} with the specified reader, batch size and queue capacity.
+     *
+     * @param fileReaderService the service for reading data from a file
+     * @param batchSize         the number of employees on each batch
+     * @param queueCapacity     the number of batches the queue can hold
+     * @throws NullPointerException     if the file reader service is null
+     * @throws IllegalArgumentException if batch size or queue capacity are not positive
+     */
+    public EmployeeHierarchyPipeline(FileReaderService<Employee> fileReaderService, int batchSize, int queueCapacity) {
+        this.fileReaderService = Objects.requireNonNull(fileReaderService, "File reader service must not be null");
+        if (batchSize <= 0) throw new IllegalArgumentException("Batch size should be positive");
+        if (queueCapacity <= 0) throw new IllegalArgumentException("Queue capacity should be positive");
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Constructs an {@code EmployeeHierarchyPipeline} with the specified reader and default batch size and queue capacity.
+     *
+     * @param fileReaderService the service for reading data from a file
+     * @throws NullPointerException if the file reader service is null
+     */
+    public EmployeeHierarchyPipeline(FileReaderService<Employee> fileReaderService) {
+        this(fileReaderService, DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Reads the employees from the file while building their hierarchy.
+     *
+     * @param file the file containing employee data
+     * @return the result of the pipeline, with the root of the hierarchy and the number of employees read
+     * @throws FileReaderException          if the file is not found or cannot be loaded
+     * @throws ParseExtractionException     if any error occurs during parsing of the file content
+     * @throws EmployeeNodeServiceException if employees list is not valid e.g. not having an eligible ceo
+     * @throws NullPointerException         if file is null
+     */
+    public Result run(File file) {
+        Objects.requireNonNull(file, "File must not be null");
+        return run(batchConsumer -> fileReaderService.readFile(file, batchSize, batchConsumer));
+    }
+
+    /**
+     * Reads the employees from a channel, such as the standard input, while building their hierarchy.
+     *
+     * @param input the channel holding the employee data
+     * @return the result of the pipeline, with the root of the hierarchy and the number of employees read
+     * @throws FileReaderException          if the channel cannot be read
+     * @throws ParseExtractionException     if any error occurs during parsing of the content
+     * @throws EmployeeNodeServiceException if employees list is not valid e.g. not having an eligible ceo
+     * @throws NullPointerException         if input is null
+     */
+    public Result run(ReadableByteChannel input) {
+        Objects.requireNonNull(input, "Input channel must not be null");
+        return run(batchConsumer -> fileReaderService.readChannel(input, batchSize, batchConsumer));
+    }
+
+    /**
+     * Reads the employees in batches while building their hierarchy.
+     *
+     * @param batches reads the employees, handing them over to the given consumer in batches
+     * @return the result of the pipeline, with the root of the hierarchy and the number of employees read
+     */
+    private Result run(Consumer<Consumer<List<Employee>>> batches) {
+        BlockingQueue<List<Employee>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        IncrementalEmployeeNodeBuilder builder = new IncrementalEmployeeNodeBuilder();
+        CompletableFuture<Void> building = CompletableFuture.runAsync(() -> consumeBatches(queue, builder));
+
+        try {
+            batches.accept(batch -> put(queue, batch));
+        } finally {
+            put(queue, END_OF_BATCHES);
+        }
+
+        try {
+            building.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new UnexpectedException(e.getMessage());
+        }
+        return new Result(builder.build(), builder.employeesAdded());
+    }
+
+    /**
+     * Takes the batches from the queue and adds them to the builder until the end of batches is reached.
+     * If the builder fails, the remaining batches are still drained so that the reader is never blocked.
+     *
+     * @param queue   the queue of parsed batches
+     * @param builder the hierarchy builder
+     */
+    private void consumeBatches(BlockingQueue<List<Employee>> queue, IncrementalEmployeeNodeBuilder builder) {
+        RuntimeException failure = null;
+        try {
+            List<Employee> batch;
+            while ((batch = queue.take()) != END_OF_BATCHES) {
+                if (failure != null) continue;
+                try {
+                    builder.addEmployees(batch);
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnexpectedException("Hierarchy building was interrupted");
+        }
+        if (failure != null) throw failure;
+    }
+
+    /**
+     * Puts a batch on the queue, waiting for space if needed.
+     *
+     * @param queue the queue of parsed batches
+     * @param batch the batch to be put
+     */
+    private static void put(BlockingQueue<List<Employee>> queue, List<Employee> batch) {
+        try {
+            queue.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnexpectedException("File reading was interrupted");
+        }
+    }
+
+    /**
+     * Result of a pipeline run.
+     *
+     * @param employeesHierarchy the root node of the employee hierarchy
+     * @param employeesRead      the number of employees read from the file
+     */
+    public record Result(EmployeeNode employeesHierarchy, int employeesRead) {
+    }
+}
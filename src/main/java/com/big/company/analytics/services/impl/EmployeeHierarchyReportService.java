@@ -1,36 +1,40 @@
 package com.big.company.analytics.services.impl;
 
+import com.big.company.analytics.domain.CompactEmployeeHierarchy;
 import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
 import com.big.company.analytics.domain.EmployeeNode;
 import com.big.company.analytics.services.EmployeeReportService;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 /**
  * Implementation of the {@code EmployeeReport} interface that generates reports based on
  * the hierarchy (N-tree) of employees.
+ * <p>
+ * Reports are computed over an ordinal-indexed {@link EmployeeHierarchy} with plain array passes; trees of
+ * {@link EmployeeNode}s are flattened first.
  */
 public class EmployeeHierarchyReportService implements EmployeeReportService {
 
     /**
      * Default threshold value for reporting lines be considered excessive.
      */
-    private static final int DEFAULT_REPORTING_LINES_THRESHOLD = 4;
+    static final int DEFAULT_REPORTING_LINES_THRESHOLD = 4;
 
     /**
      * Default minimum percentage for salary policy violation.
      * Manager salary should be a minimum percentage (20%) more than its subordinate's average salary
      */
-    private static final int DEFAULT_MINIMUM_PERCENTAGE = 20;
+    static final int DEFAULT_MINIMUM_PERCENTAGE = 20;
 
     /**
      * Default maximum percentage for salary policy violation.
      * Manager salary should NOT be a maximum percentage (50%) more than its subordinate's average salary
      */
-    private static final int DEFAULT_MAXIMUM_PERCENTAGE = 50;
+    static final int DEFAULT_MAXIMUM_PERCENTAGE = 50;
 
     /**
      * {@inheritDoc}
@@ -48,92 +52,114 @@ public class EmployeeHierarchyReportService implements EmployeeReportService {
         Objects.requireNonNull(minimumPercentage, "Minimum Percentage must not be null");
         Objects.requireNonNull(maximumPercentage, "Maximum Percentage must not be null");
 
+        if (employeeHierarchy == null)
+            throw new NullPointerException("Employees hierarchy must not be null");
+
+        return reportManagersSalaryPolicyViolation(CompactEmployeeHierarchy.of(employeeHierarchy), minimumPercentage, maximumPercentage);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Employee, String> reportManagersSalaryPolicyViolation(EmployeeHierarchy employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage) {
+        Objects.requireNonNull(minimumPercentage, "Minimum Percentage must not be null");
+        Objects.requireNonNull(maximumPercentage, "Maximum Percentage must not be null");
+
         if (employeeHierarchy == null)
             throw new NullPointerException("Employees hierarchy must not be null");
 
         Map<Employee, String> managersWithPolicyViolation =
                 findManagersWithPolicyViolation(employeeHierarchy, minimumPercentage, maximumPercentage);
-        printReportManagersSalaryPolicyViolation(managersWithPolicyViolation, minimumPercentage, maximumPercentage);
+        EmployeeReportPrinter.printManagersSalaryPolicyViolation(managersWithPolicyViolation, minimumPercentage, maximumPercentage);
 
         return managersWithPolicyViolation;
     }
 
     /**
-     * Prints a report of managers who violate the salary policy regarding their subordinates' average salary.
-     * This method prints the details of managers with their corresponding violation descriptions.
+     * Finds managers who violate the salary policy regarding their subordinates' average salary.
+     * <p>
+     * The direct subordinates of a manager have consecutive ordinals, so each average is a plain sum
+     * over a slice of the hierarchy.
      *
-     * @param managersWithPolicyViolation a map containing managers who violate the salary policy along with the violation description
-     * @param minimumPercentage           the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
-     * @param maximumPercentage           the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param employeeHierarchy the ordinal-indexed employee hierarchy
+     * @param minimumPercentage the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param maximumPercentage the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @return a map containing managers who violate the salary policy along with the violation description
      */
-    private synchronized void printReportManagersSalaryPolicyViolation(Map<Employee, String> managersWithPolicyViolation, Integer minimumPercentage, Integer maximumPercentage) {
-        StringBuilder report = new StringBuilder();
-        report.append(String.format("----- Report of employees with salary policy violation -----%n"));
-        report.append(String.format("-> Minimum percentage allowed: %d %n", minimumPercentage));
-        report.append(String.format("-> Maximum percentage allowed: %d %n", maximumPercentage));
-        report.append(String.format("-> Number of employees with salary policy violation: %d%n", managersWithPolicyViolation.size()));
-        report.append(String.format("%-12s|%-12s|%-12s|%-12s|%-12s%n",
-                "ID",
-                "FIRST NAME",
-                "LAST NAME",
-                "SALARY",
-                "VIOLATION"));
-
-        managersWithPolicyViolation.forEach((employee, violationDescr) ->
-                report.append(String.format("%-12d|%-12s|%-12s|%-12d|%s%n",
-                        employee.id(),
-                        employee.firstName(),
-                        employee.lastName(),
-                        employee.salary(),
-                        violationDescr)));
-
-        System.out.println(report);
+    private Map<Employee, String> findManagersWithPolicyViolation(EmployeeHierarchy employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage) {
+        Map<Employee, String> managersAndPolicyViolation = new HashMap<>();
+        for (int ordinal = 0; ordinal < employeeHierarchy.size(); ordinal++) {
+            int subordinateCount = employeeHierarchy.subordinateCount(ordinal);
+            if (subordinateCount == 0) continue;
+
+            long salariesSum = 0;
+            int firstSubordinate = employeeHierarchy.firstSubordinate(ordinal);
+            for (int subordinate = firstSubordinate; subordinate < firstSubordinate + subordinateCount; subordinate++) {
+                salariesSum += employeeHierarchy.salary(subordinate);
+            }
+            String violation = salaryPolicyViolation(employeeHierarchy.salary(ordinal),
+                    (double) salariesSum / subordinateCount, minimumPercentage, maximumPercentage);
+            if (violation != null) managersAndPolicyViolation.put(employeeHierarchy.employee(ordinal), violation);
+        }
+        return managersAndPolicyViolation;
     }
 
     /**
-     * Finds managers who violate the salary policy regarding their subordinates' average salary.
+     * Checks a manager's salary against the salary policy.
      *
-     * @param employeeHierarchy the root node of the employee hierarchy
+     * @param salary            the manager's salary
+     * @param average           the average salary of the manager's direct subordinates
      * @param minimumPercentage the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
      * @param maximumPercentage the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
-     * @return a map containing managers who violate the salary policy along with the violation description
+     * @return the violation description, or {@code null} if the salary follows the policy
      */
-    private Map<Employee, String> findManagersWithPolicyViolation(EmployeeNode employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage) {
-        Map<Employee, Double> managersAndAverage = new HashMap<>();
-        getNodesSubordinatesSalaryAverage(employeeHierarchy, managersAndAverage);
+    static String salaryPolicyViolation(double salary, double average, int minimumPercentage, int maximumPercentage) {
+        int comparison = compareWithSalaryPolicy(salary, average, minimumPercentage, maximumPercentage);
+        if (comparison > 0)
+            return String.format("Salary is %.2f higher than the maximum salary allowed", salary - maximumSalaryAllowed(average, maximumPercentage));
+        if (comparison < 0)
+            return String.format("Salary is %.2f lesser than the minimum salary allowed", minimumSalaryAllowed(average, minimumPercentage) - salary);
+        return null;
+    }
 
-        Map<Employee, String> managersAndPolicyViolation = new HashMap<>();
-        managersAndAverage.forEach(((employee, average) -> {
-            double minimumSalaryAllowed = average * (1 + ((double) minimumPercentage / 100));
-            double maximumSalaryAllowed = average * (1 + ((double) maximumPercentage / 100));
-            double salary = employee.salary().doubleValue();
-
-            if (salary < minimumSalaryAllowed)
-                managersAndPolicyViolation.put(employee,
-                        String.format("Salary is %.2f lesser than the minimum salary allowed", minimumSalaryAllowed - salary));
-
-            if (salary > maximumSalaryAllowed)
-                managersAndPolicyViolation.put(employee,
-                        String.format("Salary is %.2f higher than the maximum salary allowed", salary - maximumSalaryAllowed));
-        }));
-        return managersAndPolicyViolation;
+    /**
+     * Compares a manager's salary with the salary policy, without describing the violation. Every index answering
+     * salary policy questions uses this comparison, so its answers match the report's on the bounds of the band.
+     *
+     * @param salary            the manager's salary
+     * @param average           the average salary of the manager's direct subordinates
+     * @param minimumPercentage the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param maximumPercentage the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @return a negative number if the salary is below the minimum allowed, a positive number if it is above the
+     * maximum allowed, and zero if it follows the policy
+     */
+    public static int compareWithSalaryPolicy(double salary, double average, int minimumPercentage, int maximumPercentage) {
+        if (salary > maximumSalaryAllowed(average, maximumPercentage)) return 1;
+        if (salary < minimumSalaryAllowed(average, minimumPercentage)) return -1;
+        return 0;
+    }
+
+    /**
+     * Gets the minimum salary allowed for a manager.
+     *
+     * @param average           the average salary of the manager's direct subordinates
+     * @param minimumPercentage the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @return the minimum salary allowed
+     */
+    private static double minimumSalaryAllowed(double average, int minimumPercentage) {
+        return average * (1 + ((double) minimumPercentage / 100));
     }
 
     /**
-     * Calculates the average salary of subordinates for each manager node in the employee hierarchy.
+     * Gets the maximum salary allowed for a manager.
      *
-     * @param node   the current node in the employee hierarchy
-     * @param result a map to store the manager node and its corresponding average salary of subordinates
+     * @param average           the average salary of the manager's direct subordinates
+     * @param maximumPercentage the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @return the maximum salary allowed
      */
-    private void getNodesSubordinatesSalaryAverage(EmployeeNode node, Map<Employee, Double> result) {
-        if (node.subordinates().isEmpty()) return;
-        Double average = node.subordinates().stream()
-                .collect(Collectors.averagingInt(child -> child.employee().salary()));
-        result.put(node.employee(), average);
-
-        for (EmployeeNode subordinate : node.subordinates()) {
-            getNodesSubordinatesSalaryAverage(subordinate, result);
-        }
+    private static double maximumSalaryAllowed(double average, int maximumPercentage) {
+        return average * (1 + ((double) maximumPercentage / 100));
     }
 
     /**
@@ -154,68 +180,44 @@ public class EmployeeHierarchyReportService implements EmployeeReportService {
         if (employeeHierarchy == null)
             throw new NullPointerException("Employees hierarchy must not be null");
 
-        Map<Employee, Integer> managerAndReportingLines = getNodesWithDepthGreaterThan(employeeHierarchy, reportingLinesThreshold);
-        printReportManagersWithExcessiveReportingLines(managerAndReportingLines, reportingLinesThreshold);
-
-        return managerAndReportingLines;
+        return reportManagersWithExcessiveReportingLines(CompactEmployeeHierarchy.of(employeeHierarchy), reportingLinesThreshold);
     }
 
     /**
-     * Prints a report of managers with excessive reporting lines.
-     * This method prints the details of managers along with the number of reporting lines exceeding the specified threshold.
-     *
-     * @param managerAndReportingLines a map containing managers with reporting lines greater than the depth threshold
-     * @param reportingLinesThreshold  the threshold depth beyond which reporting lines are considered excessive
+     * {@inheritDoc}
      */
-    private synchronized void printReportManagersWithExcessiveReportingLines(Map<Employee, Integer> managerAndReportingLines, Integer reportingLinesThreshold) {
-        StringBuilder report = new StringBuilder();
-        report.append(String.format("----- Report of employees with reporting line higher than %d -----%n", reportingLinesThreshold));
-        report.append(String.format("-> Number of employees with excessive reporting lines: %d%n", managerAndReportingLines.size()));
-        report.append(String.format("%-12s|%-12s|%-12s|%-12s%n",
-                "ID",
-                "FIRST NAME",
-                "LAST NAME",
-                "EXCESSIVE REPORTING LINES"));
-
-        managerAndReportingLines.forEach(((employee, reportingLines) ->
-                report.append(String.format("%-12d|%-12s|%-12s|%-12d%n",
-                        employee.id(),
-                        employee.firstName(),
-                        employee.lastName(),
-                        reportingLines))));
-
-        System.out.println(report);
-    }
+    @Override
+    public Map<Employee, Integer> reportManagersWithExcessiveReportingLines(EmployeeHierarchy employeeHierarchy, Integer reportingLinesThreshold) {
+        Objects.requireNonNull(reportingLinesThreshold, "Reporting lines threshold must not be null");
 
+        if (employeeHierarchy == null)
+            throw new NullPointerException("Employees hierarchy must not be null");
+
+        Map<Employee, Integer> managerAndReportingLines = getNodesWithDepthGreaterThan(employeeHierarchy, reportingLinesThreshold);
+        EmployeeReportPrinter.printManagersWithExcessiveReportingLines(managerAndReportingLines, reportingLinesThreshold);
+
+        return managerAndReportingLines;
+    }
 
     /**
      * Retrieves managers with reporting lines greater than a specified depth threshold.
+     * <p>
+     * Managers come before their subordinates on the ordinal order, so every depth is computed on a single
+     * forward pass from the depth of the manager.
      *
-     * @param employeeHierarchy the root node of the employee hierarchy
+     * @param employeeHierarchy the ordinal-indexed employee hierarchy
      * @param depthThreshold    the threshold depth beyond which reporting lines are considered excessive
      * @return a map containing managers with reporting lines greater than the depth threshold
      */
-    private Map<Employee, Integer> getNodesWithDepthGreaterThan(EmployeeNode employeeHierarchy, Integer depthThreshold) {
+    private Map<Employee, Integer> getNodesWithDepthGreaterThan(EmployeeHierarchy employeeHierarchy, Integer depthThreshold) {
         Map<Employee, Integer> managerAndReportingLines = new HashMap<>();
-        int rootDepth = 0;
-        traverseDepthGreaterThan(employeeHierarchy, rootDepth, depthThreshold, managerAndReportingLines);
-        return managerAndReportingLines;
-    }
-
-    /**
-     * Traverses the employee hierarchy to find managers with reporting lines greater than a specified depth threshold.
-     *
-     * @param node           the current node being traversed
-     * @param depth          the depth of the current node in the hierarchy
-     * @param depthThreshold the threshold depth beyond which reporting lines are considered excessive
-     * @param result         a map to store managers with excessive reporting lines
-     */
-    private void traverseDepthGreaterThan(EmployeeNode node, int depth, Integer depthThreshold, Map<Employee, Integer> result) {
-        if (depth > depthThreshold) {
-            result.put(node.employee(), depth - depthThreshold);
-        }
-        for (EmployeeNode subordinate : node.subordinates()) {
-            traverseDepthGreaterThan(subordinate, depth + 1, depthThreshold, result);
+        int[] depths = new int[employeeHierarchy.size()];
+        for (int ordinal = 0; ordinal < depths.length; ordinal++) {
+            int manager = employeeHierarchy.managerOrdinal(ordinal);
+            depths[ordinal] = (manager == EmployeeHierarchy.NO_MANAGER) ? 0 : depths[manager] + 1;
+            if (depths[ordinal] > depthThreshold)
+                managerAndReportingLines.put(employeeHierarchy.employee(ordinal), depths[ordinal] - depthThreshold);
         }
+        return managerAndReportingLines;
     }
 }
@@ -0,0 +1,113 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.HierarchyValidationReport;
+import com.big.company.analytics.services.HierarchyValidationService;
+import com.big.company.analytics.util.IntIntHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Validates a list of employees in linear time, without building their hierarchy.
+ * <p>
+ * Employee ids are indexed on a primitive map, each employee is linked to the position of its manager and the
+ * resulting reporting lines are walked once with an iterative three-colour marking, which finds every cycle
+ * without recursion.
+ */
+public class EmployeeHierarchyValidator implements HierarchyValidationService {
+
+    /**
+     * Manager position of an employee without a manager.
+     */
+    private static final int NO_MANAGER = -1;
+
+    /**
+     * Manager position of an employee whose manager id was not found on the list.
+     */
+    private static final int UNKNOWN_MANAGER = -2;
+
+    /**
+     * Marks of the reporting line walk: not visited yet, on the line being walked and already walked.
+     */
+    private static final byte UNVISITED = 0;
+    private static final byte ON_CURRENT_LINE = 1;
+    private static final byte WALKED = 2;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public HierarchyValidationReport validate(List<Employee> employees) {
+        Objects.requireNonNull(employees, "Employees list must not be null");
+        Employee[] indexed = employees.toArray(new Employee[0]);
+        int size = indexed.length;
+
+        IntIntHashMap positionsById = new IntIntHashMap(size);
+        IntIntHashMap duplicateIds = new IntIntHashMap();
+        List<Integer> duplicates = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            int id = indexed[i].id();
+            if (positionsById.putIfAbsent(id, i, -1) >= 0 && duplicateIds.putIfAbsent(id, i, -1) < 0)
+                duplicates.add(id);
+        }
+
+        List<Employee> ceoCandidates = new ArrayList<>();
+        List<Employee> orphans = new ArrayList<>();
+        int[] managerPositions = new int[size];
+        for (int i = 0; i < size; i++) {
+            Integer managerId = indexed[i].managerId();
+            if (managerId == null) {
+                managerPositions[i] = NO_MANAGER;
+                ceoCandidates.add(indexed[i]);
+            } else {
+                managerPositions[i] = positionsById.get(managerId, UNKNOWN_MANAGER);
+                if (managerPositions[i] == UNKNOWN_MANAGER) orphans.add(indexed[i]);
+            }
+        }
+
+        return new HierarchyValidationReport(ceoCandidates, duplicates, orphans, findCycles(indexed, managerPositions));
+    }
+
+    /**
+     * Finds every reporting line that loops back on itself.
+     * <p>
+     * Each employee is walked up through its managers until reaching an employee already walked, a missing manager
+     * or an employee on the line being walked, which closes a cycle. Every employee is walked only once.
+     *
+     * @param employees        the employees, by position
+     * @param managerPositions the position of the manager of each employee
+     * @return the cycles, each one with the ids of its members in reporting order
+     */
+    private List<List<Integer>> findCycles(Employee[] employees, int[] managerPositions) {
+        int size = employees.length;
+        byte[] marks = new byte[size];
+        int[] line = new int[size];
+        int[] positionsOnLine = new int[size];
+        List<List<Integer>> cycles = new ArrayList<>();
+
+        for (int start = 0; start < size; start++) {
+            int lineLength = 0;
+            int current = start;
+            while (current >= 0 && marks[current] == UNVISITED) {
+                marks[current] = ON_CURRENT_LINE;
+                positionsOnLine[current] = lineLength;
+                line[lineLength++] = current;
+                current = managerPositions[current];
+            }
+
+            if (current >= 0 && marks[current] == ON_CURRENT_LINE) {
+                List<Integer> cycle = new ArrayList<>(lineLength - positionsOnLine[current]);
+                for (int i = positionsOnLine[current]; i < lineLength; i++) {
+                    cycle.add(employees[line[i]].id());
+                }
+                cycles.add(cycle);
+            }
+            for (int i = 0; i < lineLength; i++) {
+                marks[line[i]] = WALKED;
+            }
+        }
+        return cycles;
+    }
+}
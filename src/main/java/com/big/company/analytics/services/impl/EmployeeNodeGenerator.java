@@ -1,90 +1,165 @@
 package com.big.company.analytics.services.impl;
 
+import com.big.company.analytics.domain.CompactEmployeeHierarchy;
 import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
 import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.domain.EmployeeTable;
+import com.big.company.analytics.domain.HierarchyValidationReport;
 import com.big.company.analytics.exception.EmployeeException;
 import com.big.company.analytics.exception.EmployeeNodeException;
 import com.big.company.analytics.exception.EmployeeNodeServiceException;
 import com.big.company.analytics.services.EmployeeNodeService;
-import com.big.company.analytics.util.EmployeeUtils;
+import com.big.company.analytics.services.HierarchyValidationService;
+import com.big.company.analytics.util.IntIntHashMap;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Generates an employee hierarchy based on the provided list of employees.
  * The employee hierarchy is built upon {@link EmployeeNode} class.
+ * <p>
+ * Employees are validated in a single pass before the build: employees whose manager is missing or whose
+ * reporting line is a cycle are reported and left out of the hierarchy.
+ * <p>
+ * The hierarchy is then built in linear time over an {@link EmployeeTable}, where every manager reference is
+ * resolved to a dense ordinal, so no id lookup is made while linking subordinates to their managers. With a
+ * parallel generator, the hierarchy and its nodes are built on every core. The reports that do not need a tree can
+ * take the columnar hierarchy from {@link #generateHierarchy(List)}, so no node is built at all.
  */
 public class EmployeeNodeGenerator implements EmployeeNodeService {
 
+    /**
+     * Validates the employees before the hierarchy is built.
+     */
+    private final HierarchyValidationService validationService;
+
+    /**
+     * Whether the hierarchy is built on every core.
+     */
+    private final boolean parallel;
+
+    /**
+     * Constructs an {@code EmployeeNodeGenerator} validating the employees with the specified service.
+     *
+     * @param validationService the service validating the employees before the hierarchy is built
+     * @param parallel          whether the hierarchy is built on every core
+     * @throws NullPointerException if the validation service is null
+     */
+    public EmployeeNodeGenerator(HierarchyValidationService validationService, boolean parallel) {
+        this.validationService = Objects.requireNonNull(validationService, "Hierarchy validation service must not be null");
+        this.parallel = parallel;
+    }
+
+    /**
+     * Constructs an {@code EmployeeNodeGenerator} validating the employees with the specified service, building the
+     * hierarchy on a single thread.
+     *
+     * @param validationService the service validating the employees before the hierarchy is built
+     * @throws NullPointerException if the validation service is null
+     */
+    public EmployeeNodeGenerator(HierarchyValidationService validationService) {
+        this(validationService, false);
+    }
+
+    /**
+     * Constructs an {@code EmployeeNodeGenerator} validating the employees with {@link EmployeeHierarchyValidator}.
+     */
+    public EmployeeNodeGenerator() {
+        this(new EmployeeHierarchyValidator());
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public EmployeeNode generateEmployeesHierarchy(List<Employee> employees) {
+        CompactEmployeeHierarchy hierarchy = generateHierarchy(employees);
+        return parallel ? hierarchy.toEmployeeNodeParallel() : hierarchy.toEmployeeNode();
+    }
+
+    /**
+     * Generates the employee hierarchy as the columnar hierarchy the tree is restored from, without restoring it.
+     * The hierarchy keeps the employee instances of the list.
+     *
+     * @param employees the list of employees to be reported
+     * @return the generated employee hierarchy
+     * @throws NullPointerException         if employees list is null
+     * @throws EmployeeNodeServiceException if employees list is not valid e.g. not having an eligible ceo
+     */
+    @Override
+    public CompactEmployeeHierarchy generateHierarchy(List<Employee> employees) {
         Objects.requireNonNull(employees, "Employees list must not be null");
         try {
-            Employee ceo = EmployeeUtils.findCEO(employees);
-            EmployeeNode root = new EmployeeNode(ceo);
-            return this.addUnorderedEmployeesToHierarchy(root, employees);
+            HierarchyValidationReport validation = validationService.validate(employees);
+            findCEO(validation);
+            warnInvalidEmployees(validation);
+
+            EmployeeTable table = EmployeeTable.of(employees);
+            CompactEmployeeHierarchy hierarchy = parallel ? CompactEmployeeHierarchy.ofParallel(table) : CompactEmployeeHierarchy.of(table);
+            warnUnreachableEmployees(employees, validation, hierarchy);
+            return hierarchy;
         } catch (EmployeeNodeException | EmployeeException e) {
             throw new EmployeeNodeServiceException(String.format("Error when creating Employee Hierarchy | %s", e.getMessage()));
         }
     }
 
     /**
-     * Adds unordered employees to the employee hierarchy.
+     * Gets a generator validating the employees with the same service, building the hierarchy on every core.
      *
-     * @param root      root of employee node hierarchy
-     * @param employees the list of employees to be added to the hierarchy
-     * @return the root node of the employee hierarchy
+     * @return the parallel generator
      */
-    private EmployeeNode addUnorderedEmployeesToHierarchy(EmployeeNode root, List<Employee> employees) {
-        Deque<Employee> validEmployeesQueue = removeEmployeesWithoutValidManagers(employees);
-
-        int cursor = 0;
-        int queueSize = validEmployeesQueue.size();
-        boolean retry = false;
-        while (!validEmployeesQueue.isEmpty()) {
-            if (cursor >= queueSize) {
-                if (!retry) break;
-                cursor = 0;
-                queueSize = validEmployeesQueue.size();
-                retry = false;
-            }
-
-            Employee employee = validEmployeesQueue.pop();
-            if (!root.addEmployee(employee)) {
-                validEmployeesQueue.addLast(employee);
-                retry = true;
-            }
-            cursor++;
-        }
-        return root;
+    @Override
+    public EmployeeNodeService parallel() {
+        return parallel ? this : new EmployeeNodeGenerator(validationService, true);
+    }
+
+    /**
+     * Gets the CEO found by the validation.
+     *
+     * @param validation the validation of the employees
+     * @return the CEO employee
+     * @throws EmployeeException if the list has more than one CEO or no CEO found
+     */
+    private Employee findCEO(HierarchyValidationReport validation) {
+        if (validation.ceoCandidates().size() > 1) throw new EmployeeException("Employee list has more than one CEO");
+        if (validation.ceoCandidates().isEmpty()) throw new EmployeeException("Employee list has no CEO");
+        return validation.ceoCandidates().get(0);
+    }
+
+    /**
+     * Prints a warning for each employee that will be left out of the hierarchy or may be misplaced on it.
+     *
+     * @param validation the validation of the employees
+     */
+    private void warnInvalidEmployees(HierarchyValidationReport validation) {
+        for (Employee employee : validation.orphans())
+            System.out.printf("Warning -> Removing employee with id %d due no manager id %d was found on the list%n", employee.id(), employee.managerId());
+        for (List<Integer> cycle : validation.cycles())
+            System.out.printf("Warning -> Removing employees with ids %s due their reporting line is a cycle%n", cycle);
+        for (Integer id : validation.duplicateIds())
+            System.out.printf("Warning -> Employee id %d was found more than once on the list%n", id);
     }
 
     /**
-     * Remove employees that doesn't have a manager id or its manager id was not found in the list of employees.
+     * Prints a warning for each valid employee left out of the hierarchy because its reporting line goes through
+     * an invalid employee and never reaches the CEO.
      *
-     * @param employees the list of employees to be validated
-     * @return a deque of valid employees
+     * @param employees  the list of employees
+     * @param validation the validation of the employees
+     * @param hierarchy  the built hierarchy
      */
-    private Deque<Employee> removeEmployeesWithoutValidManagers(List<Employee> employees) {
-        Set<Integer> ids = new HashSet<>(employees.stream().map(Employee::id).toList());
-        return employees.stream()
-                .filter(employee -> {
-                    if (employee.getManagerId().isEmpty()) return false;
-                    if (!ids.contains(employee.getManagerId().get())) {
-                        System.out.printf("Warning -> Removing employee with id %d due no manager id %d was found on the list%n", employee.id(), employee.getManagerId().get());
-                        return false;
-                    }
-                    return true;
-                })
-                .collect(Collectors.toCollection(ArrayDeque::new));
+    private void warnUnreachableEmployees(List<Employee> employees, HierarchyValidationReport validation, EmployeeHierarchy hierarchy) {
+        if (hierarchy.size() == employees.size()) return;
+        IntIntHashMap invalidIds = new IntIntHashMap();
+        validation.orphans().forEach(employee -> invalidIds.put(employee.id(), 0));
+        validation.cycles().forEach(cycle -> cycle.forEach(id -> invalidIds.put(id, 0)));
+
+        for (Employee employee : employees) {
+            if (employee.managerId() != null && !invalidIds.containsKey(employee.id())
+                    && hierarchy.ordinalOf(employee.id()) == EmployeeHierarchy.NOT_FOUND)
+                System.out.printf("Warning -> Removing employee with id %d due its reporting line does not reach the CEO%n", employee.id());
+        }
     }
 }
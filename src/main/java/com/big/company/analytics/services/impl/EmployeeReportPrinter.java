@@ -0,0 +1,122 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Prints the employee reports on the console, so every way of computing them prints the same output.
+ */
+final class EmployeeReportPrinter {
+
+    /**
+     * Number of characters of report rows buffered before they are printed.
+     */
+    private static final int FLUSH_THRESHOLD = 1 << 16;
+
+    private EmployeeReportPrinter() {
+    }
+
+    /**
+     * Prints a report of managers who violate the salary policy regarding their subordinates' average salary.
+     * This method prints the details of managers with their corresponding violation descriptions.
+     *
+     * @param managersWithPolicyViolation a map containing managers who violate the salary policy along with the violation description
+     * @param minimumPercentage           the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param maximumPercentage           the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+     */
+    static void printManagersSalaryPolicyViolation(Map<Employee, String> managersWithPolicyViolation, Integer minimumPercentage, Integer maximumPercentage) {
+        printManagersSalaryPolicyViolation(managersWithPolicyViolation.size(), managersWithPolicyViolation::forEach, minimumPercentage, maximumPercentage);
+    }
+
+    /**
+     * Prints a report of managers who violate the salary policy regarding their subordinates' average salary,
+     * printing the violations as they are handed over, so they do not need to be held in memory.
+     *
+     * @param violationCount    the number of managers who violate the salary policy
+     * @param violations        hands over each manager who violates the salary policy along with the violation description
+     * @param minimumPercentage the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param maximumPercentage the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+     */
+    static synchronized void printManagersSalaryPolicyViolation(int violationCount, Consumer<BiConsumer<Employee, String>> violations,
+                                                                Integer minimumPercentage, Integer maximumPercentage) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("----- Report of employees with salary policy violation -----%n"));
+        report.append(String.format("-> Minimum percentage allowed: %d %n", minimumPercentage));
+        report.append(String.format("-> Maximum percentage allowed: %d %n", maximumPercentage));
+        report.append(String.format("-> Number of employees with salary policy violation: %d%n", violationCount));
+        report.append(String.format("%-12s|%-12s|%-12s|%-12s|%-12s%n",
+                "ID",
+                "FIRST NAME",
+                "LAST NAME",
+                "SALARY",
+                "VIOLATION"));
+
+        violations.accept((employee, violation) -> {
+            report.append(String.format("%-12d|%-12s|%-12s|%-12d|%s%n",
+                    employee.id(),
+                    employee.firstName(),
+                    employee.lastName(),
+                    employee.salary(),
+                    violation));
+            flushIfFull(report);
+        });
+
+        System.out.println(report);
+    }
+
+    /**
+     * Prints a report of managers with excessive reporting lines.
+     * This method prints the details of managers along with the number of reporting lines exceeding the specified threshold.
+     *
+     * @param managerAndReportingLines a map containing managers with reporting lines greater than the depth threshold
+     * @param reportingLinesThreshold  the threshold depth beyond which reporting lines are considered excessive
+     */
+    static void printManagersWithExcessiveReportingLines(Map<Employee, Integer> managerAndReportingLines, Integer reportingLinesThreshold) {
+        printManagersWithExcessiveReportingLines(managerAndReportingLines.size(), managerAndReportingLines::forEach, reportingLinesThreshold);
+    }
+
+    /**
+     * Prints a report of managers with excessive reporting lines, printing them as they are handed over, so they do
+     * not need to be held in memory.
+     *
+     * @param employeeCount           the number of employees with reporting lines greater than the depth threshold
+     * @param reportingLines          hands over each employee along with how much reporting lines higher than the threshold
+     * @param reportingLinesThreshold the threshold depth beyond which reporting lines are considered excessive
+     */
+    static synchronized void printManagersWithExcessiveReportingLines(int employeeCount, Consumer<BiConsumer<Employee, Integer>> reportingLines,
+                                                                      Integer reportingLinesThreshold) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("----- Report of employees with reporting line higher than %d -----%n", reportingLinesThreshold));
+        report.append(String.format("-> Number of employees with excessive reporting lines: %d%n", employeeCount));
+        report.append(String.format("%-12s|%-12s|%-12s|%-12s%n",
+                "ID",
+                "FIRST NAME",
+                "LAST NAME",
+                "EXCESSIVE REPORTING LINES"));
+
+        reportingLines.accept((employee, excess) -> {
+            report.append(String.format("%-12d|%-12s|%-12s|%-12d%n",
+                    employee.id(),
+                    employee.firstName(),
+                    employee.lastName(),
+                    excess));
+            flushIfFull(report);
+        });
+
+        System.out.println(report);
+    }
+
+    /**
+     * Prints the buffered part of a report once it reaches {@link #FLUSH_THRESHOLD} characters.
+     *
+     * @param report the buffered part of the report, emptied when printed
+     */
+    private static void flushIfFull(StringBuilder report) {
+        if (report.length() < FLUSH_THRESHOLD) return;
+        System.out.print(report);
+        report.setLength(0);
+    }
+}
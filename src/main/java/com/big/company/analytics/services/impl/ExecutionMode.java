@@ -0,0 +1,48 @@
+package com.big.company.analytics.services.impl;
+
+/**
+ * Defines how the {@link AnalyticsManager} reads the employees and builds their hierarchy.
+ */
+public enum ExecutionMode {
+
+    /**
+     * Reads the whole file into a list, then builds the hierarchy from it.
+     */
+    IN_MEMORY,
+
+    /**
+     * Reads the whole file into a list, then builds the hierarchy from it on every core, with the parallel
+     * variant of the employee node service, see {@link com.big.company.analytics.services.EmployeeNodeService#parallel()}.
+     */
+    PARALLEL,
+
+    /**
+     * Builds the hierarchy on another thread while the file is still being read.
+     */
+    PIPELINED,
+
+    /**
+     * Sorts the employees on temporary files and computes the reports level by level, so files larger than the
+     * heap can be analysed. The reports are computed with the default parameters, without an employee report service.
+     */
+    EXTERNAL_MEMORY,
+
+    /**
+     * Reads the whole file and builds the hierarchy, then computes the reports on {@link PartitionedAnalytics#DEFAULT_WORKERS}
+     * worker processes, each one holding some subtrees of the direct subordinates of the CEO.
+     */
+    PARTITIONED,
+
+    /**
+     * Runs only the salary policy report, aggregating the salaries of each manager's subordinates while the file is
+     * read, without building the hierarchy nor decoding the names of the managers it does not report. Reporting lines
+     * are not validated, see {@link StreamingSalaryPolicyReport}.
+     */
+    SALARY_POLICY_ONLY,
+
+    /**
+     * Lets the {@link ExecutionPlanner} choose the mode from the size of the input, the available heap and the number
+     * of cores, and logs the plan before running it.
+     */
+    AUTO
+}
@@ -0,0 +1,231 @@
+package com.big.company.analytics.services.impl;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Chooses the {@link ExecutionMode} of an analysis from the size of its input, the heap available and the number
+ * of cores, for the {@link ExecutionMode#AUTO} mode.
+ * <p>
+ * The number of rows is estimated from the average row length on a sampled prefix of the file, and the heap needed
+ * to hold them from the measured footprint of an employee, its node and its index entries. Inputs whose estimated
+ * footprint exceeds half the available heap are analysed out of core, inputs above a quarter of it are streamed into
+ * the hierarchy without holding the employee list, and the rest are held in memory, with the hierarchy built on
+ * every core when the input is large enough to pay for the threads. The {@link ExecutionMode#PARTITIONED} and
+ * {@link ExecutionMode#SALARY_POLICY_ONLY} modes are never chosen, as they change what is computed and where.
+ */
+public class ExecutionPlanner {
+
+    /**
+     * Number of bytes sampled from the start of the file to estimate the average row length.
+     */
+    public static final int SAMPLE_SIZE = 64 * 1024;
+
+    /**
+     * Heap used per employee by the in-memory modes, besides its names: the record, its node, its subordinates list
+     * and its entries on the generator's indexes.
+     */
+    public static final long EMPLOYEE_OVERHEAD_BYTES = 320;
+
+    /**
+     * Minimum estimated number of rows for building the hierarchy on several cores to pay for the threads.
+     */
+    public static final long PARALLEL_ROWS_THRESHOLD = 200_000;
+
+    /**
+     * Compression ratio assumed for gzip files, as their recorded uncompressed size wraps around above 4 GB.
+     */
+    private static final long ASSUMED_GZIP_RATIO = 4;
+
+    /**
+     * Heap available to the analysis, in bytes.
+     */
+    private final long availableHeap;
+
+    /**
+     * Number of cores available to the analysis.
+     */
+    private final int processors;
+
+    /**
+     * Constructs an {@code ExecutionPlanner} for the heap and the cores of the running JVM.
+     */
+    public ExecutionPlanner() {
+        this(availableHeap(Runtime.getRuntime()), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs an {@code ExecutionPlanner} for the specified heap and cores.
+     *
+     * @param availableHeap the heap available to the analysis, in bytes
+     * @param processors    the number of cores available to the analysis
+     * @throws IllegalArgumentException if the heap is negative or there is no core
+     */
+    public ExecutionPlanner(long availableHeap, int processors) {
+        if (availableHeap < 0) throw new IllegalArgumentException("Available heap should not be negative");
+        if (processors < 1) throw new IllegalArgumentException("Processors should be at least 1");
+        this.availableHeap = availableHeap;
+        this.processors = processors;
+    }
+
+    /**
+     * Plans the analysis of a file. A file that cannot be sampled is planned as an empty one, leaving the error to
+     * be reported by the reading itself.
+     *
+     * @param file the file containing employee data, plain or gzip compressed
+     * @return the plan
+     * @throws NullPointerException if file is null
+     */
+    public Plan plan(File file) {
+        Objects.requireNonNull(file, "File must not be null");
+        List<String> reasons = new ArrayList<>();
+        if (!file.isFile()) {
+            reasons.add("input is not a regular file, so its size is unknown");
+            return new Plan(ExecutionMode.EXTERNAL_MEMORY, -1, -1, -1, availableHeap, processors, reasons);
+        }
+
+        long fileSize = file.length();
+        long inputSize = fileSize;
+        long sampledBytes = 0;
+        long sampledRows = 0;
+        try (FileInputStream stream = new FileInputStream(file)) {
+            boolean gzip = stream.read() == 0x1f && stream.read() == 0x8b;
+            if (gzip) {
+                inputSize = Math.max(recordedGzipSize(file), fileSize * ASSUMED_GZIP_RATIO);
+                reasons.add("file is gzip compressed, its uncompressed size is estimated from its trailer");
+            }
+            try (InputStream content = gzip ? new GZIPInputStream(new FileInputStream(file)) : new FileInputStream(file)) {
+                byte[] sample = content.readNBytes(SAMPLE_SIZE);
+                sampledBytes = sample.length;
+                for (byte b : sample) if (b == '\n') sampledRows++;
+            }
+        } catch (IOException e) {
+            reasons.add("file could not be sampled, planned as an empty one");
+        }
+
+        // a sample without a full row, or the whole file, gives its rows as they are
+        long estimatedRows = (sampledRows == 0 || sampledBytes >= inputSize)
+                ? Math.max(sampledRows, (sampledBytes > 0) ? 1 : 0)
+                : inputSize * sampledRows / sampledBytes;
+        long averageRowBytes = (sampledRows == 0) ? sampledBytes : sampledBytes / sampledRows;
+        long estimatedHeap = estimatedRows * (EMPLOYEE_OVERHEAD_BYTES + averageRowBytes);
+        return new Plan(choose(estimatedRows, estimatedHeap, reasons), inputSize, estimatedRows, estimatedHeap,
+                availableHeap, processors, reasons);
+    }
+
+    /**
+     * Plans the analysis of an input channel, such as the standard input, whose size is not known before it is read.
+     *
+     * @return the plan
+     */
+    public Plan planChannel() {
+        List<String> reasons = new ArrayList<>();
+        reasons.add("input is a stream, so its size is unknown");
+        return new Plan(ExecutionMode.EXTERNAL_MEMORY, -1, -1, -1, availableHeap, processors, reasons);
+    }
+
+    /**
+     * Chooses the mode for an input of known size.
+     *
+     * @param estimatedRows the estimated number of rows
+     * @param estimatedHeap the estimated heap needed to hold the employees and their hierarchy, in bytes
+     * @param reasons       the reasons of the choice, appended to
+     * @return the chosen mode
+     */
+    private ExecutionMode choose(long estimatedRows, long estimatedHeap, List<String> reasons) {
+        if (estimatedHeap > availableHeap / 2) {
+            reasons.add("estimated footprint is above half the available heap, so the employees are sorted on temporary files");
+            return ExecutionMode.EXTERNAL_MEMORY;
+        }
+        if (estimatedHeap > availableHeap / 4) {
+            reasons.add("estimated footprint is above a quarter of the available heap, so the hierarchy is built as the file is read, without holding the employee list");
+            return ExecutionMode.PIPELINED;
+        }
+        reasons.add("estimated footprint fits in the available heap");
+        if (estimatedRows < PARALLEL_ROWS_THRESHOLD) {
+            reasons.add(String.format("below %d estimated rows, extra threads cost more than they save", PARALLEL_ROWS_THRESHOLD));
+            return ExecutionMode.IN_MEMORY;
+        }
+        if (processors == 1) {
+            reasons.add("a single core is available");
+            return ExecutionMode.IN_MEMORY;
+        }
+        if (processors == 2) {
+            reasons.add("with 2 cores, reading on one while building on the other beats a parallel build");
+            return ExecutionMode.PIPELINED;
+        }
+        reasons.add(String.format("the hierarchy is built on %d cores", processors));
+        return ExecutionMode.PARALLEL;
+    }
+
+    /**
+     * Reads the uncompressed size recorded on the trailer of a gzip file, which is modulo 2<sup>32</sup>.
+     *
+     * @param file the gzip file
+     * @return the recorded size, in bytes
+     * @throws IOException if the file cannot be read
+     */
+    private static long recordedGzipSize(File file) throws IOException {
+        try (RandomAccessFile gzip = new RandomAccessFile(file, "r")) {
+            if (gzip.length() < 4) return 0;
+            gzip.seek(gzip.length() - 4);
+            return Integer.toUnsignedLong(Integer.reverseBytes(gzip.readInt()));
+        }
+    }
+
+    /**
+     * Gets the heap still available to a JVM: its maximum heap less what is currently used.
+     *
+     * @param runtime the runtime of the JVM
+     * @return the available heap, in bytes
+     */
+    private static long availableHeap(Runtime runtime) {
+        return runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+    }
+
+    /**
+     * A plan chosen by the {@code ExecutionPlanner}, with what it was based on.
+     *
+     * @param mode          the chosen execution mode
+     * @param inputSize     the size of the input, uncompressed, in bytes, or -1 when unknown
+     * @param estimatedRows the estimated number of rows, or -1 when unknown
+     * @param estimatedHeap the estimated heap needed in memory, in bytes, or -1 when unknown
+     * @param availableHeap the heap available, in bytes
+     * @param processors    the number of cores available
+     * @param reasons       the reasons of the choice, in the order they were considered
+     */
+    public record Plan(ExecutionMode mode, long inputSize, long estimatedRows, long estimatedHeap,
+                       long availableHeap, int processors, List<String> reasons) {
+
+        /**
+         * Constructs a {@code Plan}, copying the reasons.
+         */
+        public Plan {
+            reasons = List.copyOf(reasons);
+        }
+
+        /**
+         * Describes how each stage of the analysis runs on this plan.
+         *
+         * @return the read, build and report strategies
+         */
+        public String stages() {
+            return switch (mode) {
+                case IN_MEMORY -> "read: whole file into a list | build: single thread | report: in memory";
+                case PARALLEL -> "read: whole file into a list | build: every core | report: in memory";
+                case PIPELINED -> "read: streamed in batches | build: concurrently with the reading | report: in memory";
+                case EXTERNAL_MEMORY -> "read: streamed into sorted runs on temporary files | build: none | report: level by level, out of core";
+                case PARTITIONED -> "read: whole file into a list | build: single thread | report: on worker processes";
+                case SALARY_POLICY_ONLY -> "read: streamed | build: none | report: salary policy only, while reading";
+                case AUTO -> throw new IllegalStateException("A plan must have a concrete execution mode");
+            };
+        }
+    }
+}
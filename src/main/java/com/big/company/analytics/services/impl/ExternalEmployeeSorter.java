@@ -0,0 +1,267 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts more employees than fit in memory, spilling sorted runs to temporary files and merging them.
+ * <p>
+ * Employees are buffered until their estimated size reaches the memory budget, then sorted and written as a run.
+ * Runs are merged {@link #MERGE_FAN_IN} at a time until a single sorted file is left. The sort is stable: employees
+ * in the same order position keep the order they were added in. Every file created by the sorter is deleted when it
+ * is closed.
+ */
+final class ExternalEmployeeSorter implements AutoCloseable {
+
+    /**
+     * Maximum number of runs merged at once, bounding the number of open files and their buffers.
+     */
+    private static final int MERGE_FAN_IN = 64;
+
+    /**
+     * Size of the buffers of each run file.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Directory holding the run files.
+     */
+    private final Path directory;
+
+    /**
+     * Estimated size in bytes of the employees buffered before a run is spilled.
+     */
+    private final long memoryBudgetBytes;
+
+    /**
+     * Order of the sorted employees.
+     */
+    private final Comparator<Employee> order;
+
+    /**
+     * Employees not spilled yet.
+     */
+    private final List<Employee> buffer = new ArrayList<>();
+
+    /**
+     * Estimated size in bytes of the buffered employees.
+     */
+    private long bufferedBytes;
+
+    /**
+     * Sorted runs waiting to be merged.
+     */
+    private final List<Path> runs = new ArrayList<>();
+
+    /**
+     * Every file created by the sorter.
+     */
+    private final List<Path> createdFiles = new ArrayList<>();
+
+    /**
+     * Constructs an {@code ExternalEmployeeSorter} spilling runs to the specified directory.
+     *
+     * @param directory         the directory holding the run files
+     * @param memoryBudgetBytes the estimated size in bytes of the employees buffered before a run is spilled
+     * @param order             the order of the sorted employees
+     */
+    ExternalEmployeeSorter(Path directory, long memoryBudgetBytes, Comparator<Employee> order) {
+        this.directory = directory;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.order = order;
+    }
+
+    /**
+     * Adds an employee to be sorted, spilling a run when the memory budget is reached.
+     *
+     * @param employee the employee
+     * @throws IOException if a run cannot be written
+     */
+    void add(Employee employee) throws IOException {
+        buffer.add(employee);
+        bufferedBytes += estimatedSize(employee);
+        if (bufferedBytes >= memoryBudgetBytes) spill();
+    }
+
+    /**
+     * Sorts every added employee.
+     *
+     * @return the file holding the sorted employees, readable with {@link Reader}
+     * @throws IOException if a run cannot be written or merged
+     */
+    Path sort() throws IOException {
+        if (!buffer.isEmpty() || runs.isEmpty()) spill();
+        while (runs.size() > 1) {
+            List<Path> merged = new ArrayList<>();
+            for (int from = 0; from < runs.size(); from += MERGE_FAN_IN) {
+                merged.add(merge(runs.subList(from, Math.min(runs.size(), from + MERGE_FAN_IN))));
+            }
+            runs.clear();
+            runs.addAll(merged);
+        }
+        return runs.get(0);
+    }
+
+    /**
+     * Deletes every file created by the sorter.
+     *
+     * @throws IOException if a file cannot be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        for (Path file : createdFiles) {
+            Files.deleteIfExists(file);
+        }
+        createdFiles.clear();
+    }
+
+    /**
+     * Sorts the buffered employees and writes them as a new run.
+     *
+     * @throws IOException if the run cannot be written
+     */
+    private void spill() throws IOException {
+        buffer.sort(order);
+        Path run = newFile();
+        try (DataOutputStream output = newOutput(run)) {
+            for (Employee employee : buffer) {
+                EmployeeCodec.write(output, employee);
+            }
+        }
+        runs.add(run);
+        buffer.clear();
+        bufferedBytes = 0;
+    }
+
+    /**
+     * Merges sorted runs into a new run.
+     *
+     * @param sources the sorted runs
+     * @return the merged run
+     * @throws IOException if the runs cannot be read or the merged run cannot be written
+     */
+    private Path merge(List<Path> sources) throws IOException {
+        if (sources.size() == 1) return sources.get(0);
+        Path merged = newFile();
+        List<Reader> readers = new ArrayList<>(sources.size());
+        try (DataOutputStream output = newOutput(merged)) {
+            PriorityQueue<Integer> heads = new PriorityQueue<>(sources.size(), (a, b) -> {
+                int comparison = order.compare(readers.get(a).current, readers.get(b).current);
+                return (comparison != 0) ? comparison : Integer.compare(a, b);
+            });
+            for (Path source : sources) {
+                Reader reader = new Reader(source);
+                readers.add(reader);
+                if (reader.next() != null) heads.add(readers.size() - 1);
+            }
+            while (!heads.isEmpty()) {
+                int head = heads.poll();
+                Reader reader = readers.get(head);
+                EmployeeCodec.write(output, reader.current);
+                if (reader.next() != null) heads.add(head);
+            }
+        } finally {
+            for (Reader reader : readers) {
+                reader.close();
+            }
+        }
+        for (Path source : sources) {
+            Files.deleteIfExists(source);
+        }
+        return merged;
+    }
+
+    /**
+     * Creates a new empty file on the directory of the sorter.
+     *
+     * @return the file
+     * @throws IOException if the file cannot be created
+     */
+    private Path newFile() throws IOException {
+        Path file = Files.createTempFile(directory, "run-", ".bin");
+        createdFiles.add(file);
+        return file;
+    }
+
+    /**
+     * Opens a buffered output over a file.
+     *
+     * @param file the file
+     * @return the output
+     * @throws IOException if the file cannot be opened
+     */
+    private static DataOutputStream newOutput(Path file) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+    }
+
+    /**
+     * Estimates the heap footprint of an employee.
+     *
+     * @param employee the employee
+     * @return the estimated size in bytes
+     */
+    private static long estimatedSize(Employee employee) {
+        return 96 + 2L * (employee.firstName().length() + employee.lastName().length());
+    }
+
+    /**
+     * Reads the employees of a sorted file one at a time.
+     */
+    static final class Reader implements AutoCloseable {
+
+        /**
+         * Input of the file.
+         */
+        private final DataInputStream input;
+
+        /**
+         * Employee last read, or {@code null} at the end of the file.
+         */
+        private Employee current;
+
+        /**
+         * Opens a reader over a sorted file.
+         *
+         * @param file the sorted file
+         * @throws IOException if the file cannot be opened
+         */
+        Reader(Path file) throws IOException {
+            this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE));
+        }
+
+        /**
+         * Reads the next employee.
+         *
+         * @return the next employee, or {@code null} at the end of the file
+         * @throws IOException if the file cannot be read
+         */
+        Employee next() throws IOException {
+            return current = EmployeeCodec.read(input);
+        }
+
+        /**
+         * Gets the employee last read.
+         *
+         * @return the employee last read, or {@code null} at the end of the file or before the first read
+         */
+        Employee current() {
+            return current;
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+}
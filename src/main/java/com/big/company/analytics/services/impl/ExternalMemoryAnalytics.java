@@ -0,0 +1,473 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.exception.EmployeeNodeServiceException;
+import com.big.company.analytics.exception.HierarchyStoreException;
+import com.big.company.analytics.services.FileReaderService;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Computes the employee reports of files larger than the available heap, keeping only a bounded number of
+ * employees in memory.
+ * <p>
+ * Employees are streamed from the file and sorted on disk, first by id and then by manager id, spilling sorted runs
+ * under the memory budget and merging them. The hierarchy is then walked level by level from the CEO: each level, sorted by id, is
+ * merge-joined with the employees sorted by manager id, which gives the direct subordinates of each manager of the
+ * level, hence their salary average, and the next level, sorted on disk again. Depths come from the level number.
+ * <p>
+ * As in {@link EmployeeNodeGenerator}, only employees whose reporting line reaches the CEO are reported, so the
+ * reports are identical to the in-memory ones. Employees are first sorted by id, keeping the order they were read
+ * in, so that when an id is repeated a warning is printed and only its first employee takes the subordinates
+ * reporting to that id, the others being placed on the hierarchy without subordinates. Employees whose reporting
+ * line does not reach the CEO are counted instead of being warned one by one. The reports are handed over to a
+ * {@link ReportSink} as they are computed, so they are not kept in memory either.
+ */
+public class ExternalMemoryAnalytics {
+
+    /**
+     * Default estimated size in bytes of the employees kept in memory while sorting.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * Number of employees on each batch read from the file.
+     */
+    private static final int BATCH_SIZE = 1024;
+
+    /**
+     * Orders employees by manager id, the CEO first.
+     */
+    private static final Comparator<Employee> BY_MANAGER_ID =
+            Comparator.comparing(Employee::managerId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    /**
+     * Orders employees by id.
+     */
+    private static final Comparator<Employee> BY_ID = Comparator.comparing(Employee::id);
+
+    /**
+     * Service for reading data from a file.
+     */
+    private final FileReaderService<Employee> fileReaderService;
+
+    /**
+     * Directory where the temporary files are created.
+     */
+    private final Path temporaryDirectory;
+
+    /**
+     * Estimated size in bytes of the employees kept in memory while sorting.
+     */
+    private final long memoryBudgetBytes;
+
+    /**
+     * Constructs an {@code ExternalMemoryAnalytics} with the specified reader, temporary directory and memory budget.
+     *
+     * @param fileReaderService  the service for reading data from a file
+     * @param temporaryDirectory the directory where the temporary files are created
+     * @param memoryBudgetBytes  the estimated size in bytes of the employees kept in memory while sorting
+     * @throws NullPointerException     if the file reader service or the temporary directory is null
+     * @throws IllegalArgumentException if memory budget is not positive
+     */
+    public ExternalMemoryAnalytics(FileReaderService<Employee> fileReaderService, Path temporaryDirectory, long memoryBudgetBytes) {
+        this.fileReaderService = Objects.requireNonNull(fileReaderService, "File reader service must not be null");
+        this.temporaryDirectory = Objects.requireNonNull(temporaryDirectory, "Temporary directory must not be null");
+        if (memoryBudgetBytes <= 0) throw new IllegalArgumentException("Memory budget should be positive");
+        this.memoryBudgetBytes = memoryBudgetBytes;
+    }
+
+    /**
+     * Constructs an {@code ExternalMemoryAnalytics} with the specified reader, creating the temporary files on the
+     * default temporary directory with the {@link #DEFAULT_MEMORY_BUDGET_BYTES} memory budget.
+     *
+     * @param fileReaderService the service for reading data from a file
+     * @throws NullPointerException if the file reader service is null
+     */
+    public ExternalMemoryAnalytics(FileReaderService<Employee> fileReaderService) {
+        this(fileReaderService, Path.of(System.getProperty("java.io.tmpdir")), DEFAULT_MEMORY_BUDGET_BYTES);
+    }
+
+    /**
+     * Computes the reports of the employees of a file with the default salary policy and reporting lines threshold.
+     *
+     * @param file the file containing employee data
+     * @param sink the sink receiving the reports
+     * @return the counts of the reports and of the employees
+     * @see #analyze(File, int, int, int, ReportSink)
+     */
+    public Result analyze(File file, ReportSink sink) {
+        return analyze(file, EmployeeHierarchyReportService.DEFAULT_MINIMUM_PERCENTAGE,
+                EmployeeHierarchyReportService.DEFAULT_MAXIMUM_PERCENTAGE,
+                EmployeeHierarchyReportService.DEFAULT_REPORTING_LINES_THRESHOLD, sink);
+    }
+
+    /**
+     * Computes the reports of the employees of a file.
+     *
+     * @param file                    the file containing employee data
+     * @param minimumPercentage       the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param maximumPercentage       the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines
+     * @param sink                    the sink receiving the reports
+     * @return the counts of the reports and of the employees
+     * @throws NullPointerException                                       if file or sink is null
+     * @throws com.big.company.analytics.exception.FileReaderException      if the file is not found or cannot be loaded
+     * @throws com.big.company.analytics.exception.ParseExtractionException if any error occurs during parsing of the file content
+     * @throws EmployeeNodeServiceException                               if the file has more than one CEO or no CEO
+     * @throws HierarchyStoreException                                    if the temporary files cannot be written or read
+     */
+    public Result analyze(File file, int minimumPercentage, int maximumPercentage, int reportingLinesThreshold, ReportSink sink) {
+        Objects.requireNonNull(file, "File should not be null");
+        return analyze(batchConsumer -> fileReaderService.readFile(file, BATCH_SIZE, batchConsumer),
+                minimumPercentage, maximumPercentage, reportingLinesThreshold, sink);
+    }
+
+    /**
+     * Computes the reports of the employees of a channel, such as the standard input, with the default salary
+     * policy and reporting lines threshold.
+     *
+     * @param input the channel holding the employee data
+     * @param sink  the sink receiving the reports
+     * @return the counts of the reports and of the employees
+     * @see #analyze(ReadableByteChannel, int, int, int, ReportSink)
+     */
+    public Result analyze(ReadableByteChannel input, ReportSink sink) {
+        return analyze(input, EmployeeHierarchyReportService.DEFAULT_MINIMUM_PERCENTAGE,
+                EmployeeHierarchyReportService.DEFAULT_MAXIMUM_PERCENTAGE,
+                EmployeeHierarchyReportService.DEFAULT_REPORTING_LINES_THRESHOLD, sink);
+    }
+
+    /**
+     * Computes the reports of the employees of a channel, such as the standard input. The channel is read once,
+     * so the memory used is bounded by the memory budget whatever the size of its content.
+     *
+     * @param input                   the channel holding the employee data
+     * @param minimumPercentage       the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param maximumPercentage       the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines
+     * @param sink                    the sink receiving the reports
+     * @return the counts of the reports and of the employees
+     * @throws NullPointerException                                       if input or sink is null
+     * @throws com.big.company.analytics.exception.FileReaderException      if the channel cannot be read
+     * @throws com.big.company.analytics.exception.ParseExtractionException if any error occurs during parsing of the content
+     * @throws EmployeeNodeServiceException                               if the content has more than one CEO or no CEO
+     * @throws HierarchyStoreException                                    if the temporary files cannot be written or read
+     */
+    public Result analyze(ReadableByteChannel input, int minimumPercentage, int maximumPercentage, int reportingLinesThreshold, ReportSink sink) {
+        Objects.requireNonNull(input, "Input channel should not be null");
+        return analyze(batchConsumer -> fileReaderService.readChannel(input, BATCH_SIZE, batchConsumer),
+                minimumPercentage, maximumPercentage, reportingLinesThreshold, sink);
+    }
+
+    /**
+     * Computes the reports of the employees read in batches, with every temporary file on a new work directory.
+     *
+     * @param batches                 reads the employees, handing them over to the given consumer in batches
+     * @param minimumPercentage       the minimum percentage of the salary policy
+     * @param maximumPercentage       the maximum percentage of the salary policy
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines
+     * @param sink                    the sink receiving the reports
+     * @return the counts of the reports and of the employees
+     */
+    private Result analyze(Consumer<Consumer<List<Employee>>> batches, int minimumPercentage, int maximumPercentage,
+                           int reportingLinesThreshold, ReportSink sink) {
+        Objects.requireNonNull(sink, "Report sink should not be null");
+        Path workDirectory = null;
+        try {
+            workDirectory = Files.createTempDirectory(temporaryDirectory, "employees-");
+            return analyze(batches, workDirectory, minimumPercentage, maximumPercentage, reportingLinesThreshold, sink);
+        } catch (IOException | UncheckedIOException e) {
+            throw new HierarchyStoreException("Error when writing the temporary files of the employees");
+        } finally {
+            if (workDirectory != null) workDirectory.toFile().delete();
+        }
+    }
+
+    /**
+     * Computes the reports of the employees read in batches, with every temporary file on a work directory.
+     *
+     * @param batches                 reads the employees, handing them over to the given consumer in batches
+     * @param workDirectory           the directory of the temporary files
+     * @param minimumPercentage       the minimum percentage of the salary policy
+     * @param maximumPercentage       the maximum percentage of the salary policy
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines
+     * @param sink                    the sink receiving the reports
+     * @return the counts of the reports and of the employees
+     * @throws IOException if the temporary files cannot be written or read
+     */
+    private Result analyze(Consumer<Consumer<List<Employee>>> batches, Path workDirectory, int minimumPercentage, int maximumPercentage,
+                           int reportingLinesThreshold, ReportSink sink) throws IOException {
+        try (ExternalEmployeeSorter byManagerId = new ExternalEmployeeSorter(workDirectory, memoryBudgetBytes, BY_MANAGER_ID);
+             ExternalEmployeeSorter repeatedByManagerId = new ExternalEmployeeSorter(workDirectory, memoryBudgetBytes, BY_MANAGER_ID);
+             ExternalEmployeeSorter ceoLevel = new ExternalEmployeeSorter(workDirectory, memoryBudgetBytes, BY_ID)) {
+            int employeesRead;
+            boolean ceoIdRepeated;
+            // the employees sorted by id are only needed to split the repeated ids, so their files go right after
+            try (ExternalEmployeeSorter byId = new ExternalEmployeeSorter(workDirectory, memoryBudgetBytes, BY_ID)) {
+                int[] counts = new int[2];
+                batches.accept(batch -> {
+                    for (Employee employee : batch) {
+                        counts[0]++;
+                        if (employee.managerId() == null) counts[1]++;
+                        try {
+                            byId.add(employee);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                });
+                employeesRead = counts[0];
+                if (counts[1] > 1)
+                    throw new EmployeeNodeServiceException("Error when creating Employee Hierarchy | Employee list has more than one CEO");
+                if (counts[1] == 0)
+                    throw new EmployeeNodeServiceException("Error when creating Employee Hierarchy | Employee list has no CEO");
+
+                ceoIdRepeated = splitRepeatedIds(byId.sort(), byManagerId, repeatedByManagerId, ceoLevel);
+            }
+
+            CountingReportSink reports = new CountingReportSink(sink);
+            Path subordinates = byManagerId.sort();
+            Path repeatedSubordinates = repeatedByManagerId.sort();
+            Path levelFile = ceoLevel.sort();
+            int employeesInHierarchy = 0;
+            if (ceoIdRepeated) {
+                employeesInHierarchy = reportCEOWithoutSubordinates(levelFile, reportingLinesThreshold, reports);
+            } else {
+                int depth = 0;
+                ExternalEmployeeSorter level = null;
+                try {
+                    while (true) {
+                        ExternalEmployeeSorter nextLevel = new ExternalEmployeeSorter(workDirectory, memoryBudgetBytes, BY_ID);
+                        int levelSize = joinLevel(levelFile, subordinates, repeatedSubordinates, depth, nextLevel,
+                                minimumPercentage, maximumPercentage, reportingLinesThreshold, reports);
+                        if (level != null) level.close();
+                        level = nextLevel;
+                        if (levelSize == 0) break;
+
+                        employeesInHierarchy += levelSize;
+                        levelFile = nextLevel.sort();
+                        depth++;
+                    }
+                } finally {
+                    if (level != null) level.close();
+                }
+            }
+
+            int removed = employeesRead - employeesInHierarchy;
+            if (removed > 0)
+                System.out.printf("Warning -> Removing %d employees due their reporting line does not reach the CEO%n", removed);
+            return new Result(reports.salaryPolicyViolations, reports.excessiveReportingLines, employeesRead, employeesInHierarchy);
+        }
+    }
+
+    /**
+     * Splits the employees sorted by id, warning about every repeated id. The CEO goes to its own level, the first
+     * employee of every other id to the employees taking subordinates, and the following ones of a repeated id to the
+     * employees placed without subordinates.
+     *
+     * @param sortedById          every employee, sorted by id in the order they were read
+     * @param byManagerId         the sorter receiving the first employee of each id with a manager
+     * @param repeatedByManagerId the sorter receiving the other employees of a repeated id with a manager
+     * @param ceoLevel            the sorter receiving the CEO
+     * @return whether the CEO is not the first employee of its id, so the subordinates of its id do not report to it
+     * @throws IOException if the temporary files cannot be written or read
+     */
+    private boolean splitRepeatedIds(Path sortedById, ExternalEmployeeSorter byManagerId, ExternalEmployeeSorter repeatedByManagerId,
+                                     ExternalEmployeeSorter ceoLevel) throws IOException {
+        boolean ceoIdRepeated = false;
+        try (ExternalEmployeeSorter.Reader employees = new ExternalEmployeeSorter.Reader(sortedById)) {
+            Employee first = null;
+            boolean warned = false;
+            for (Employee employee = employees.next(); employee != null; employee = employees.next()) {
+                boolean repeated = first != null && first.id().equals(employee.id());
+                if (!repeated) {
+                    first = employee;
+                    warned = false;
+                } else if (!warned) {
+                    System.out.printf("Warning -> Employee id %d was found more than once on the list%n", employee.id());
+                    warned = true;
+                }
+
+                if (employee.managerId() == null) {
+                    ceoIdRepeated = repeated;
+                    ceoLevel.add(employee);
+                } else if (repeated) {
+                    repeatedByManagerId.add(employee);
+                } else {
+                    byManagerId.add(employee);
+                }
+            }
+        }
+        return ceoIdRepeated;
+    }
+
+    /**
+     * Reports the CEO alone, when the subordinates of its id report to an earlier employee with the same id.
+     *
+     * @param ceoLevel                the level holding the CEO
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines
+     * @param sink                    the sink receiving the reports
+     * @return the number of employees on the hierarchy
+     * @throws IOException if the temporary files cannot be read
+     */
+    private int reportCEOWithoutSubordinates(Path ceoLevel, int reportingLinesThreshold, ReportSink sink) throws IOException {
+        try (ExternalEmployeeSorter.Reader ceo = new ExternalEmployeeSorter.Reader(ceoLevel)) {
+            if (reportingLinesThreshold < 0) sink.excessiveReportingLine(ceo.next(), -reportingLinesThreshold);
+        }
+        return 1;
+    }
+
+    /**
+     * Merge-joins a level of the hierarchy, sorted by id, with the employees sorted by manager id. Reports the
+     * employees of the level and adds their direct subordinates to the next level. The subordinates that repeat an
+     * id have no subordinates themselves, so they are reported along with the level instead of being added to the
+     * next one.
+     *
+     * @param levelFile               the employees of the level, sorted by id
+     * @param subordinates            the first employee of each id with a manager, sorted by manager id
+     * @param repeatedSubordinates    the other employees of a repeated id with a manager, sorted by manager id
+     * @param depth                   the depth of the level
+     * @param nextLevel               the sorter receiving the employees of the next level
+     * @param minimumPercentage       the minimum percentage of the salary policy
+     * @param maximumPercentage       the maximum percentage of the salary policy
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines
+     * @param sink                    the sink receiving the reports
+     * @return the number of employees on the level and of the repeated subordinates reported along with it
+     * @throws IOException if the temporary files cannot be written or read
+     */
+    private int joinLevel(Path levelFile, Path subordinates, Path repeatedSubordinates, int depth, ExternalEmployeeSorter nextLevel,
+                          int minimumPercentage, int maximumPercentage, int reportingLinesThreshold, ReportSink sink) throws IOException {
+        int levelSize = 0;
+        try (ExternalEmployeeSorter.Reader managers = new ExternalEmployeeSorter.Reader(levelFile);
+             ExternalEmployeeSorter.Reader employees = new ExternalEmployeeSorter.Reader(subordinates);
+             ExternalEmployeeSorter.Reader repeated = new ExternalEmployeeSorter.Reader(repeatedSubordinates)) {
+            Employee subordinate = employees.next();
+            Employee repeatedSubordinate = repeated.next();
+            for (Employee manager = managers.next(); manager != null; manager = managers.next()) {
+                levelSize++;
+                if (depth > reportingLinesThreshold) sink.excessiveReportingLine(manager, depth - reportingLinesThreshold);
+
+                while (subordinate != null && subordinate.managerId() < manager.id()) subordinate = employees.next();
+                while (repeatedSubordinate != null && repeatedSubordinate.managerId() < manager.id()) repeatedSubordinate = repeated.next();
+                long salariesSum = 0;
+                int subordinateCount = 0;
+                while (subordinate != null && subordinate.managerId().equals(manager.id())) {
+                    salariesSum += subordinate.salary();
+                    subordinateCount++;
+                    nextLevel.add(subordinate);
+                    subordinate = employees.next();
+                }
+                while (repeatedSubordinate != null && repeatedSubordinate.managerId().equals(manager.id())) {
+                    salariesSum += repeatedSubordinate.salary();
+                    subordinateCount++;
+                    levelSize++;
+                    if (depth + 1 > reportingLinesThreshold)
+                        sink.excessiveReportingLine(repeatedSubordinate, depth + 1 - reportingLinesThreshold);
+                    repeatedSubordinate = repeated.next();
+                }
+                if (subordinateCount == 0) continue;
+
+                String violation = EmployeeHierarchyReportService.salaryPolicyViolation(manager.salary(),
+                        (double) salariesSum / subordinateCount, minimumPercentage, maximumPercentage);
+                if (violation != null) sink.salaryPolicyViolation(manager, violation);
+            }
+        }
+        return levelSize;
+    }
+
+    /**
+     * Receives the reports as they are computed, in no particular order.
+     */
+    public interface ReportSink {
+
+        /**
+         * Receives a manager violating the salary policy.
+         *
+         * @param manager   the manager
+         * @param violation the violation description
+         */
+        void salaryPolicyViolation(Employee manager, String violation);
+
+        /**
+         * Receives an employee with excessive reporting lines.
+         *
+         * @param employee the employee
+         * @param excess   how much reporting lines higher than the threshold
+         */
+        void excessiveReportingLine(Employee employee, int excess);
+    }
+
+    /**
+     * Hands the reports over to another sink, counting them.
+     */
+    private static final class CountingReportSink implements ReportSink {
+
+        /**
+         * Sink receiving the reports.
+         */
+        private final ReportSink delegate;
+
+        /**
+         * Number of managers violating the salary policy received so far.
+         */
+        private int salaryPolicyViolations;
+
+        /**
+         * Number of employees with excessive reporting lines received so far.
+         */
+        private int excessiveReportingLines;
+
+        /**
+         * Constructs a {@code CountingReportSink} handing the reports over to the specified sink.
+         *
+         * @param delegate the sink receiving the reports
+         */
+        private CountingReportSink(ReportSink delegate) {
+            this.delegate = delegate;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void salaryPolicyViolation(Employee manager, String violation) {
+            salaryPolicyViolations++;
+            delegate.salaryPolicyViolation(manager, violation);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void excessiveReportingLine(Employee employee, int excess) {
+            excessiveReportingLines++;
+            delegate.excessiveReportingLine(employee, excess);
+        }
+    }
+
+    /**
+     * Counts of the reports handed over to the sink and of the employees read from a file.
+     *
+     * @param salaryPolicyViolations  the number of managers violating the salary policy
+     * @param excessiveReportingLines the number of employees with excessive reporting lines
+     * @param employeesRead           the number of employees read from the file
+     * @param employeesInHierarchy    the number of employees whose reporting line reaches the CEO
+     */
+    public record Result(
+            int salaryPolicyViolations,
+            int excessiveReportingLines,
+            int employeesRead,
+            int employeesInHierarchy
+    ) {
+    }
+}
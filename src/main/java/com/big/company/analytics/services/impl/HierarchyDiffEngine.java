@@ -0,0 +1,222 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
+import com.big.company.analytics.domain.HierarchyChange;
+import com.big.company.analytics.services.HierarchyDiffService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Compares two snapshots of an employee hierarchy by joining their employees on id.
+ * <p>
+ * The join goes through the primitive id lookup of each hierarchy, so no map is built: every employee of the later
+ * snapshot is looked up on the earlier one, then every employee of the earlier snapshot is looked up on the later
+ * one to find the removals. Depths are computed once per snapshot with a forward pass over the ordinals, and the
+ * salary policy of each manager from its contiguous subordinates, so the whole comparison is linear and only
+ * materializes the employees that changed.
+ * <p>
+ * A manager move is reported once, on the moved employee; the reporting lines of its subtree are reported as report
+ * changes. Employees not on a snapshot are taken as not reported on it. When an id is repeated on a snapshot, only
+ * its first employee is compared.
+ */
+public class HierarchyDiffEngine implements HierarchyDiffService {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<HierarchyChange> diff(EmployeeHierarchy before, EmployeeHierarchy after) {
+        List<HierarchyChange> changes = new ArrayList<>();
+        diff(before, after, EmployeeHierarchyReportService.DEFAULT_MINIMUM_PERCENTAGE,
+                EmployeeHierarchyReportService.DEFAULT_MAXIMUM_PERCENTAGE,
+                EmployeeHierarchyReportService.DEFAULT_REPORTING_LINES_THRESHOLD, changes::add);
+        return changes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void diff(EmployeeHierarchy before, EmployeeHierarchy after, int minimumPercentage, int maximumPercentage,
+                     int reportingLinesThreshold, Consumer<HierarchyChange> changes) {
+        Objects.requireNonNull(before, "Earlier hierarchy must not be null");
+        Objects.requireNonNull(after, "Later hierarchy must not be null");
+        Objects.requireNonNull(changes, "Changes consumer must not be null");
+        Snapshot earlier = new Snapshot(before, minimumPercentage, maximumPercentage, reportingLinesThreshold);
+        Snapshot later = new Snapshot(after, minimumPercentage, maximumPercentage, reportingLinesThreshold);
+
+        for (int ordinal = 0; ordinal < after.size(); ordinal++) {
+            int id = after.id(ordinal);
+            if (after.ordinalOf(id) != ordinal) continue;
+            int beforeOrdinal = before.ordinalOf(id);
+            Employee afterEmployee = after.employee(ordinal);
+            if (beforeOrdinal == EmployeeHierarchy.NOT_FOUND) {
+                changes.accept(new HierarchyChange(HierarchyChange.Type.ADDED, null, afterEmployee, null));
+                reportChanges(earlier, EmployeeHierarchy.NOT_FOUND, null, later, ordinal, afterEmployee, changes);
+                continue;
+            }
+
+            boolean managerChanged = earlier.managerId(beforeOrdinal) != later.managerId(ordinal);
+            boolean salaryChanged = before.salary(beforeOrdinal) != after.salary(ordinal);
+            boolean nameChanged = !before.firstName(beforeOrdinal).equals(after.firstName(ordinal))
+                    || !before.lastName(beforeOrdinal).equals(after.lastName(ordinal));
+            Employee beforeEmployee = (managerChanged || salaryChanged || nameChanged) ? before.employee(beforeOrdinal) : null;
+            if (managerChanged)
+                changes.accept(new HierarchyChange(HierarchyChange.Type.MANAGER_CHANGED, beforeEmployee, afterEmployee, null));
+            if (salaryChanged)
+                changes.accept(new HierarchyChange(HierarchyChange.Type.SALARY_CHANGED, beforeEmployee, afterEmployee, null));
+            if (nameChanged)
+                changes.accept(new HierarchyChange(HierarchyChange.Type.NAME_CHANGED, beforeEmployee, afterEmployee, null));
+            reportChanges(earlier, beforeOrdinal, beforeEmployee, later, ordinal, afterEmployee, changes);
+        }
+
+        for (int ordinal = 0; ordinal < before.size(); ordinal++) {
+            int id = before.id(ordinal);
+            if (before.ordinalOf(id) != ordinal || after.ordinalOf(id) != EmployeeHierarchy.NOT_FOUND) continue;
+            Employee beforeEmployee = before.employee(ordinal);
+            changes.accept(new HierarchyChange(HierarchyChange.Type.REMOVED, beforeEmployee, null, null));
+            reportChanges(earlier, ordinal, beforeEmployee, later, EmployeeHierarchy.NOT_FOUND, null, changes);
+        }
+    }
+
+    /**
+     * Compares whether an employee is reported on each snapshot.
+     *
+     * @param earlier        the earlier snapshot
+     * @param beforeOrdinal  the ordinal of the employee on the earlier snapshot, or {@link EmployeeHierarchy#NOT_FOUND}
+     * @param beforeEmployee the employee on the earlier snapshot, or {@code null} if not restored yet
+     * @param later          the later snapshot
+     * @param afterOrdinal   the ordinal of the employee on the later snapshot, or {@link EmployeeHierarchy#NOT_FOUND}
+     * @param afterEmployee  the employee on the later snapshot, or {@code null} if not on it
+     * @param changes        the consumer of the changes
+     */
+    private void reportChanges(Snapshot earlier, int beforeOrdinal, Employee beforeEmployee,
+                               Snapshot later, int afterOrdinal, Employee afterEmployee,
+                               Consumer<HierarchyChange> changes) {
+        String beforeViolation = earlier.salaryPolicyViolation(beforeOrdinal);
+        String afterViolation = later.salaryPolicyViolation(afterOrdinal);
+        if (beforeViolation == null && afterViolation != null)
+            changes.accept(new HierarchyChange(HierarchyChange.Type.SALARY_POLICY_VIOLATION_ADDED,
+                    employee(earlier, beforeOrdinal, beforeEmployee), afterEmployee, afterViolation));
+        else if (beforeViolation != null && afterViolation == null)
+            changes.accept(new HierarchyChange(HierarchyChange.Type.SALARY_POLICY_VIOLATION_RESOLVED,
+                    employee(earlier, beforeOrdinal, beforeEmployee), afterEmployee, beforeViolation));
+
+        int beforeExcess = earlier.excessiveReportingLines(beforeOrdinal);
+        int afterExcess = later.excessiveReportingLines(afterOrdinal);
+        if (beforeExcess == 0 && afterExcess > 0)
+            changes.accept(new HierarchyChange(HierarchyChange.Type.EXCESSIVE_REPORTING_LINES_ADDED,
+                    employee(earlier, beforeOrdinal, beforeEmployee), afterEmployee, String.valueOf(afterExcess)));
+        else if (beforeExcess > 0 && afterExcess == 0)
+            changes.accept(new HierarchyChange(HierarchyChange.Type.EXCESSIVE_REPORTING_LINES_RESOLVED,
+                    employee(earlier, beforeOrdinal, beforeEmployee), afterEmployee, String.valueOf(beforeExcess)));
+    }
+
+    /**
+     * Restores an employee of the earlier snapshot only when it was not restored yet.
+     *
+     * @param earlier  the earlier snapshot
+     * @param ordinal  the ordinal of the employee, or {@link EmployeeHierarchy#NOT_FOUND}
+     * @param employee the employee, or {@code null} if not restored yet
+     * @return the employee, or {@code null} if not on the snapshot
+     */
+    private static Employee employee(Snapshot earlier, int ordinal, Employee employee) {
+        if (employee != null || ordinal == EmployeeHierarchy.NOT_FOUND) return employee;
+        return earlier.hierarchy.employee(ordinal);
+    }
+
+    /**
+     * A hierarchy with the depth of each employee, answering whether an employee is reported on it.
+     */
+    private static final class Snapshot {
+
+        /**
+         * The hierarchy of the snapshot.
+         */
+        private final EmployeeHierarchy hierarchy;
+
+        /**
+         * Depth of each employee, by ordinal.
+         */
+        private final int[] depths;
+
+        /**
+         * The minimum percentage of the salary policy.
+         */
+        private final int minimumPercentage;
+
+        /**
+         * The maximum percentage of the salary policy.
+         */
+        private final int maximumPercentage;
+
+        /**
+         * The maximum allowed number of reporting lines.
+         */
+        private final int reportingLinesThreshold;
+
+        /**
+         * Constructs a {@code Snapshot} of a hierarchy, computing the depth of each employee.
+         *
+         * @param hierarchy               the hierarchy of the snapshot
+         * @param minimumPercentage       the minimum percentage of the salary policy
+         * @param maximumPercentage       the maximum percentage of the salary policy
+         * @param reportingLinesThreshold the maximum allowed number of reporting lines
+         */
+        Snapshot(EmployeeHierarchy hierarchy, int minimumPercentage, int maximumPercentage, int reportingLinesThreshold) {
+            this.hierarchy = hierarchy;
+            this.minimumPercentage = minimumPercentage;
+            this.maximumPercentage = maximumPercentage;
+            this.reportingLinesThreshold = reportingLinesThreshold;
+            this.depths = new int[hierarchy.size()];
+            for (int ordinal = 0; ordinal < depths.length; ordinal++) {
+                int manager = hierarchy.managerOrdinal(ordinal);
+                depths[ordinal] = (manager == EmployeeHierarchy.NO_MANAGER) ? 0 : depths[manager] + 1;
+            }
+        }
+
+        /**
+         * Gets the id of the manager of an employee.
+         *
+         * @param ordinal the ordinal of the employee
+         * @return the manager id, or {@link Long#MIN_VALUE} for the CEO
+         */
+        long managerId(int ordinal) {
+            int manager = hierarchy.managerOrdinal(ordinal);
+            return (manager == EmployeeHierarchy.NO_MANAGER) ? Long.MIN_VALUE : hierarchy.id(manager);
+        }
+
+        /**
+         * Checks an employee against the salary policy.
+         *
+         * @param ordinal the ordinal of the employee, or {@link EmployeeHierarchy#NOT_FOUND}
+         * @return the violation description, or {@code null} if the employee is not a manager violating the policy
+         */
+        String salaryPolicyViolation(int ordinal) {
+            if (ordinal == EmployeeHierarchy.NOT_FOUND || hierarchy.subordinateCount(ordinal) == 0) return null;
+            int first = hierarchy.firstSubordinate(ordinal);
+            int count = hierarchy.subordinateCount(ordinal);
+            long salariesSum = 0;
+            for (int subordinate = first; subordinate < first + count; subordinate++) {
+                salariesSum += hierarchy.salary(subordinate);
+            }
+            return EmployeeHierarchyReportService.salaryPolicyViolation(hierarchy.salary(ordinal),
+                    (double) salariesSum / count, minimumPercentage, maximumPercentage);
+        }
+
+        /**
+         * Gets by how many reporting lines an employee exceeds the threshold.
+         *
+         * @param ordinal the ordinal of the employee, or {@link EmployeeHierarchy#NOT_FOUND}
+         * @return the reporting lines above the threshold, or {@code 0} if the employee is not reported
+         */
+        int excessiveReportingLines(int ordinal) {
+            if (ordinal == EmployeeHierarchy.NOT_FOUND) return 0;
+            return Math.max(0, depths[ordinal] - reportingLinesThreshold);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.exception.EmployeeNodeServiceException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Builds an employee hierarchy incrementally, as employees arrive in any order.
+ * <p>
+ * Every employee gets its {@link EmployeeNode} on arrival. When its manager has already arrived the node is linked
+ * straight away, otherwise it is parked until the manager shows up, carrying its own (partial) subtree with it.
+ * This way the hierarchy is complete as soon as the last employee is added.
+ * <p>
+ * As with {@link EmployeeHierarchyValidator} and {@link EmployeeNodeGenerator}, when an id is repeated only its first
+ * employee takes the subordinates reporting to that id, the others being linked without subordinates, and the
+ * employees left out of the hierarchy are warned about when the build finishes: those under a missing manager, those
+ * whose reporting line is a cycle and those whose reporting line goes through them.
+ * <p>
+ * This class is not thread-safe: a single thread should add the employees and finish the build.
+ */
+public class IncrementalEmployeeNodeBuilder {
+
+    /**
+     * Node of the first employee added with each id, by employee id, in the order they were added.
+     */
+    private final Map<Integer, EmployeeNode> nodesById = new LinkedHashMap<>();
+
+    /**
+     * Ids added more than once, in the order they were first repeated.
+     */
+    private final Set<Integer> duplicateIds = new LinkedHashSet<>();
+
+    /**
+     * Nodes waiting for their manager to arrive, by manager id.
+     */
+    private final Map<Integer, List<EmployeeNode>> parkedByManagerId = new HashMap<>();
+
+    /**
+     * Root of the hierarchy, set when the CEO arrives.
+     */
+    private EmployeeNode root;
+
+    /**
+     * Number of employees added so far.
+     */
+    private int employeesAdded;
+
+    /**
+     * Adds an employee to the hierarchy under construction.
+     *
+     * @param employee the employee to be added
+     * @throws NullPointerException         if employee is null
+     * @throws EmployeeNodeServiceException if a second CEO is added
+     */
+    public void addEmployee(Employee employee) {
+        Objects.requireNonNull(employee, "Employee must not be null");
+
+        EmployeeNode node = new EmployeeNode(employee);
+        boolean repeated = nodesById.putIfAbsent(employee.id(), node) != null;
+        if (repeated) duplicateIds.add(employee.id());
+        employeesAdded++;
+
+        if (employee.getManagerId().isEmpty()) {
+            if (root != null) throw new EmployeeNodeServiceException("Error when creating Employee Hierarchy | Employee list has more than one CEO");
+            root = node;
+        } else {
+            Integer managerId = employee.getManagerId().get();
+            EmployeeNode manager = nodesById.get(managerId);
+            if (manager != null) manager.subordinates().add(node);
+            else parkedByManagerId.computeIfAbsent(managerId, id -> new ArrayList<>()).add(node);
+        }
+
+        if (repeated) return;
+        List<EmployeeNode> parkedSubordinates = parkedByManagerId.remove(employee.id());
+        if (parkedSubordinates != null) node.subordinates().addAll(parkedSubordinates);
+    }
+
+    /**
+     * Adds a list of employees to the hierarchy under construction.
+     *
+     * @param employees the employees to be added, in any order
+     * @throws NullPointerException         if employees list or any of its employees is null
+     * @throws EmployeeNodeServiceException if a second CEO is added
+     */
+    public void addEmployees(List<Employee> employees) {
+        Objects.requireNonNull(employees, "Employees list must not be null");
+        for (Employee employee : employees) {
+            addEmployee(employee);
+        }
+    }
+
+    /**
+     * Gets the number of employees added so far.
+     *
+     * @return the number of added employees
+     */
+    public int employeesAdded() {
+        return employeesAdded;
+    }
+
+    /**
+     * Finishes the build, returning the hierarchy rooted at the CEO.
+     * Employees whose reporting line does not reach the CEO are left out of the hierarchy, and a warning is printed
+     * for each of them, as well as for every repeated id.
+     *
+     * @return the root node of the employee hierarchy
+     * @throws EmployeeNodeServiceException if no CEO was added
+     */
+    public EmployeeNode build() {
+        if (root == null) throw new EmployeeNodeServiceException("Error when creating Employee Hierarchy | Employee list has no CEO");
+
+        Set<Integer> reachableIds = reachableIds();
+        Set<Integer> invalidIds = new HashSet<>();
+        parkedByManagerId.forEach((managerId, nodes) -> nodes.forEach(node -> {
+            invalidIds.add(node.employee().id());
+            System.out.printf("Warning -> Removing employee with id %d due no manager id %d was found on the list%n", node.employee().id(), managerId);
+        }));
+        for (List<Integer> cycle : findCycles(reachableIds)) {
+            invalidIds.addAll(cycle);
+            System.out.printf("Warning -> Removing employees with ids %s due their reporting line is a cycle%n", cycle);
+        }
+        for (Integer id : duplicateIds)
+            System.out.printf("Warning -> Employee id %d was found more than once on the list%n", id);
+        for (EmployeeNode node : nodesById.values()) {
+            Integer id = node.employee().id();
+            if (!reachableIds.contains(id) && !invalidIds.contains(id))
+                System.out.printf("Warning -> Removing employee with id %d due its reporting line does not reach the CEO%n", id);
+        }
+        return root;
+    }
+
+    /**
+     * Gets the ids of every employee on the hierarchy rooted at the CEO.
+     *
+     * @return the ids reachable from the CEO
+     */
+    private Set<Integer> reachableIds() {
+        Set<Integer> ids = new HashSet<>();
+        Deque<EmployeeNode> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            EmployeeNode node = pending.pop();
+            ids.add(node.employee().id());
+            node.subordinates().forEach(pending::push);
+        }
+        return ids;
+    }
+
+    /**
+     * Finds every reporting line that loops back on itself, walking up from each employee out of the hierarchy in
+     * the order they were added, as {@link EmployeeHierarchyValidator} does.
+     *
+     * @param reachableIds the ids reachable from the CEO
+     * @return the cycles, each one with the ids of its members in reporting order
+     */
+    private List<List<Integer>> findCycles(Set<Integer> reachableIds) {
+        Map<Integer, Boolean> onCurrentLine = new HashMap<>();
+        List<List<Integer>> cycles = new ArrayList<>();
+        for (Integer start : nodesById.keySet()) {
+            if (reachableIds.contains(start)) continue;
+            List<Integer> line = new ArrayList<>();
+            Integer current = start;
+            while (current != null && nodesById.containsKey(current) && !onCurrentLine.containsKey(current)) {
+                onCurrentLine.put(current, Boolean.TRUE);
+                line.add(current);
+                current = nodesById.get(current).employee().managerId();
+            }
+
+            if (current != null && Boolean.TRUE.equals(onCurrentLine.get(current)))
+                cycles.add(List.copyOf(line.subList(line.indexOf(current), line.size())));
+            for (Integer id : line) {
+                onCurrentLine.put(id, Boolean.FALSE);
+            }
+        }
+        return cycles;
+    }
+}
@@ -0,0 +1,59 @@
+package com.big.company.analytics.services.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * A {@link ReadableByteChannel} over an {@link InputStream}.
+ * <p>
+ * Unlike {@link java.nio.channels.Channels#newChannel(InputStream)}, heap buffers are filled by reading from the
+ * stream straight into their backing array, without any intermediate copy or transfer size limit.
+ */
+final class InputStreamChannel implements ReadableByteChannel {
+
+    /**
+     * Stream the bytes are read from.
+     */
+    private final InputStream inputStream;
+
+    /**
+     * Whether the channel is still open.
+     */
+    private boolean open = true;
+
+    /**
+     * Constructs an {@code InputStreamChannel} over the specified stream.
+     *
+     * @param inputStream the stream the bytes are read from
+     */
+    InputStreamChannel(InputStream inputStream) {
+        this.inputStream = inputStream;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        if (!dst.hasRemaining()) return 0;
+        if (dst.hasArray()) {
+            int read = inputStream.read(dst.array(), dst.arrayOffset() + dst.position(), dst.remaining());
+            if (read > 0) dst.position(dst.position() + read);
+            return read;
+        }
+        byte[] chunk = new byte[dst.remaining()];
+        int read = inputStream.read(chunk);
+        if (read > 0) dst.put(chunk, 0, read);
+        return read;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() throws IOException {
+        open = false;
+        inputStream.close();
+    }
+}
@@ -0,0 +1,175 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeTable;
+import com.big.company.analytics.domain.PointerJumpingDepths;
+import com.big.company.analytics.util.IntIntHashMap;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Worker process of a {@link PartitionedAnalytics}, computing the reports of a partition of the hierarchy.
+ * <p>
+ * The worker reads from its standard input the salary policy, the reporting lines threshold, the manager ordinal and
+ * depth of each partition root and then the number of employees of the partition, each one encoded by
+ * {@link EmployeeCodec} after the position of its manager on the stream. Partition roots are the employees whose
+ * manager is not on the partition, come first on the stream and may sit at different depths. Parent links never go
+ * through the employee ids, so a repeated id cannot attach subordinates to the wrong employee.
+ * It writes to its standard output the salary policy violations and the excessive reporting lines of its employees,
+ * and for each manager outside the partition, by its ordinal on the coordinator, the sum and count of the salaries of
+ * its subordinates on the partition, so the coordinator can complete their average. Errors are printed to the standard error and end the process with exit code 1.
+ */
+public final class PartitionWorker {
+
+    /**
+     * Size of the buffers of the standard input and output.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private PartitionWorker() {
+    }
+
+    /**
+     * Runs the worker over its standard input and output.
+     *
+     * @param args not used
+     */
+    public static void main(String[] args) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(System.in, BUFFER_SIZE));
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(System.out, BUFFER_SIZE))) {
+            analyze(input, output);
+        } catch (Exception e) {
+            System.err.printf("ERROR in partition worker | %s%n", e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Computes the reports of a partition.
+     *
+     * @param input  the policy, threshold, roots and employees of the partition
+     * @param output the reports and the boundary salaries of the partition
+     * @throws IOException if the input cannot be read or the output cannot be written
+     */
+    static void analyze(DataInput input, DataOutput output) throws IOException {
+        int minimumPercentage = input.readInt();
+        int maximumPercentage = input.readInt();
+        int reportingLinesThreshold = input.readInt();
+        int roots = input.readInt();
+        int[] rootManagers = new int[roots];
+        int[] rootDepths = new int[roots];
+        for (int root = 0; root < roots; root++) {
+            rootManagers[root] = input.readInt();
+            rootDepths[root] = input.readInt();
+        }
+        int size = input.readInt();
+        int[] managerOrdinals = new int[size];
+        EmployeeTable.Builder builder = new EmployeeTable.Builder(size);
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            managerOrdinals[ordinal] = input.readInt();
+            Employee employee = EmployeeCodec.read(input);
+            if (employee == null) throw new EOFException("Partition ended before its last employee");
+            builder.add(employee);
+        }
+        EmployeeTable table = builder.build();
+
+        long[] salariesSums = new long[size];
+        int[] subordinateCounts = new int[size];
+        IntIntHashMap boundaryIndexes = new IntIntHashMap();
+        List<Integer> boundaryManagers = new ArrayList<>();
+        List<long[]> boundarySalaries = new ArrayList<>();
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            int manager = managerOrdinals[ordinal];
+            if (manager != PointerJumpingDepths.NO_MANAGER) {
+                salariesSums[manager] += table.salary(ordinal);
+                subordinateCounts[manager]++;
+                continue;
+            }
+            int boundaryManager = rootManagers[ordinal];
+            int index = boundaryIndexes.putIfAbsent(boundaryManager, boundaryManagers.size(), -1);
+            if (index < 0) {
+                index = boundaryManagers.size();
+                boundaryManagers.add(boundaryManager);
+                boundarySalaries.add(new long[2]);
+            }
+            boundarySalaries.get(index)[0] += table.salary(ordinal);
+            boundarySalaries.get(index)[1]++;
+        }
+
+        List<Integer> violating = new ArrayList<>();
+        List<String> violations = new ArrayList<>();
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (subordinateCounts[ordinal] == 0) continue;
+            String violation = EmployeeHierarchyReportService.salaryPolicyViolation(table.salary(ordinal),
+                    (double) salariesSums[ordinal] / subordinateCounts[ordinal], minimumPercentage, maximumPercentage);
+            if (violation == null) continue;
+            violating.add(ordinal);
+            violations.add(violation);
+        }
+        output.writeInt(violating.size());
+        for (int i = 0; i < violating.size(); i++) {
+            EmployeeCodec.write(output, table.employee(violating.get(i)));
+            output.writeUTF(violations.get(i));
+        }
+
+        int[] depths = PointerJumpingDepths.of(managerOrdinals);
+        int[] rootOffsets = rootOffsets(managerOrdinals, rootDepths);
+        List<Integer> excessive = new ArrayList<>();
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (depths[ordinal] + rootOffsets[ordinal] > reportingLinesThreshold) excessive.add(ordinal);
+        }
+        output.writeInt(excessive.size());
+        for (int ordinal : excessive) {
+            EmployeeCodec.write(output, table.employee(ordinal));
+            output.writeInt(depths[ordinal] + rootOffsets[ordinal] - reportingLinesThreshold);
+        }
+
+        output.writeInt(boundaryManagers.size());
+        for (int i = 0; i < boundaryManagers.size(); i++) {
+            output.writeInt(boundaryManagers.get(i));
+            output.writeLong(boundarySalaries.get(i)[0]);
+            output.writeInt((int) boundarySalaries.get(i)[1]);
+        }
+    }
+
+    /**
+     * Gets the depth of the partition root of every employee, walking up to the root once per unvisited chain.
+     *
+     * @param managerOrdinals the manager ordinal of each employee, or {@link PointerJumpingDepths#NO_MANAGER} for the roots
+     * @param rootDepths      the depth of each partition root, by ordinal
+     * @return the depth of the partition root of each ordinal
+     */
+    private static int[] rootOffsets(int[] managerOrdinals, int[] rootDepths) {
+        int size = managerOrdinals.length;
+        int[] offsets = new int[size];
+        boolean[] known = new boolean[size];
+        int[] chain = new int[size];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            int length = 0;
+            int current = ordinal;
+            while (!known[current] && managerOrdinals[current] != PointerJumpingDepths.NO_MANAGER) {
+                chain[length++] = current;
+                current = managerOrdinals[current];
+            }
+            if (!known[current]) {
+                offsets[current] = rootDepths[current];
+                known[current] = true;
+            }
+            while (length > 0) {
+                int employee = chain[--length];
+                offsets[employee] = offsets[current];
+                known[employee] = true;
+            }
+        }
+        return offsets;
+    }
+}
@@ -0,0 +1,405 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.CompactEmployeeHierarchy;
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
+import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.exception.WorkerProcessException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Computes the employee reports on several local worker processes, each one holding a partition of the hierarchy.
+ * <p>
+ * The hierarchy is split into subtrees, starting from those of the direct subordinates of the CEO: while there are
+ * fewer subtrees than workers, the largest one is replaced by the subtrees of its direct subordinates, so a CEO with
+ * a single direct report, such as a COO, still spreads the organisation over every worker. The subtrees are then
+ * spread over the partitions, the largest first on the smallest partition. Each partition is streamed to a
+ * {@link PartitionWorker} through its standard input, and the workers run at the same time.
+ * <p>
+ * The managers above the subtrees, the CEO and every split subtree root, are the boundary managers, and their reports
+ * are computed by the coordinator. It then merges the reports of the workers, patching the two values a partition
+ * cannot compute alone: the depth of each partition root, sent to the workers as an offset, and the average salary of
+ * the subordinates of each boundary manager, merged from the sums and counts of every partition and the salaries of
+ * the subordinates that are boundary managers themselves.
+ * <p>
+ * Employees are matched by their ordinal on the hierarchy, never by id, so repeated ids are reported as the
+ * single-process reports do.
+ */
+public class PartitionedAnalytics {
+
+    /**
+     * Default number of worker processes.
+     */
+    public static final int DEFAULT_WORKERS = 4;
+
+    /**
+     * Size of the buffers of the pipes of each worker.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Maximum number of worker processes.
+     */
+    private final int workers;
+
+    /**
+     * Command starting a worker process.
+     */
+    private final List<String> workerCommand;
+
+    /**
+     * Constructs a {@code PartitionedAnalytics} with the specified number of workers, each one started by a command.
+     *
+     * @param workers       the maximum number of worker processes
+     * @param workerCommand the command starting a {@link PartitionWorker} process
+     * @throws NullPointerException     if the worker command is null
+     * @throws IllegalArgumentException if the number of workers is not positive or the worker command is empty
+     */
+    public PartitionedAnalytics(int workers, List<String> workerCommand) {
+        if (workers <= 0) throw new IllegalArgumentException("Number of workers should be positive");
+        Objects.requireNonNull(workerCommand, "Worker command must not be null");
+        if (workerCommand.isEmpty()) throw new IllegalArgumentException("Worker command must not be empty");
+        this.workers = workers;
+        this.workerCommand = List.copyOf(workerCommand);
+    }
+
+    /**
+     * Constructs a {@code PartitionedAnalytics} with the specified number of workers, each one a JVM with the class
+     * path of the running one.
+     *
+     * @param workers the maximum number of worker processes
+     * @throws IllegalArgumentException if the number of workers is not positive
+     */
+    public PartitionedAnalytics(int workers) {
+        this(workers, List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"), PartitionWorker.class.getName()));
+    }
+
+    /**
+     * Computes the reports of a hierarchy with the default salary policy and reporting lines threshold.
+     *
+     * @param employeesHierarchy the root node of the hierarchy
+     * @return the reports of the employees
+     * @see #analyze(EmployeeHierarchy, int, int, int)
+     */
+    public Result analyze(EmployeeNode employeesHierarchy) {
+        Objects.requireNonNull(employeesHierarchy, "Employees hierarchy must not be null");
+        return analyze(CompactEmployeeHierarchy.of(employeesHierarchy));
+    }
+
+    /**
+     * Computes the reports of a hierarchy on the worker processes.
+     *
+     * @param employeesHierarchy      the root node of the hierarchy
+     * @param minimumPercentage       the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param maximumPercentage       the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines
+     * @return the reports of the employees
+     * @see #analyze(EmployeeHierarchy, int, int, int)
+     */
+    public Result analyze(EmployeeNode employeesHierarchy, int minimumPercentage, int maximumPercentage, int reportingLinesThreshold) {
+        Objects.requireNonNull(employeesHierarchy, "Employees hierarchy must not be null");
+        return analyze(CompactEmployeeHierarchy.of(employeesHierarchy), minimumPercentage, maximumPercentage, reportingLinesThreshold);
+    }
+
+    /**
+     * Computes the reports of a hierarchy with the default salary policy and reporting lines threshold.
+     *
+     * @param employeesHierarchy the employee hierarchy
+     * @return the reports of the employees
+     * @see #analyze(EmployeeHierarchy, int, int, int)
+     */
+    public Result analyze(EmployeeHierarchy employeesHierarchy) {
+        return analyze(employeesHierarchy, EmployeeHierarchyReportService.DEFAULT_MINIMUM_PERCENTAGE,
+                EmployeeHierarchyReportService.DEFAULT_MAXIMUM_PERCENTAGE,
+                EmployeeHierarchyReportService.DEFAULT_REPORTING_LINES_THRESHOLD);
+    }
+
+    /**
+     * Computes the reports of a hierarchy on the worker processes.
+     *
+     * @param employeesHierarchy      the employee hierarchy
+     * @param minimumPercentage       the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param maximumPercentage       the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines
+     * @return the reports of the employees
+     * @throws NullPointerException   if the hierarchy is null
+     * @throws WorkerProcessException if a worker cannot be started, fails or cannot be communicated with
+     */
+    public Result analyze(EmployeeHierarchy employeesHierarchy, int minimumPercentage, int maximumPercentage, int reportingLinesThreshold) {
+        Objects.requireNonNull(employeesHierarchy, "Employees hierarchy must not be null");
+        int[] subtreeSizes = subtreeSizes(employeesHierarchy);
+        int[] depths = new int[employeesHierarchy.size()];
+        List<Integer> boundaryManagers = new ArrayList<>();
+        List<Integer> subtrees = split(employeesHierarchy, subtreeSizes, depths, boundaryManagers);
+        List<List<Integer>> partitions = partition(subtrees, subtreeSizes);
+        List<Integer> partitionSizes = new ArrayList<>(partitions.size());
+        for (List<Integer> partition : partitions) {
+            partitionSizes.add(partition.stream().mapToInt(subtree -> subtreeSizes[subtree]).sum());
+        }
+
+        Map<Employee, String> salaryPolicyViolations = new HashMap<>();
+        Map<Employee, Integer> excessiveReportingLines = new HashMap<>();
+        Map<Integer, long[]> boundarySalaries = new HashMap<>();
+        List<Process> processes = new ArrayList<>(partitions.size());
+        try {
+            for (int i = 0; i < partitions.size(); i++) {
+                processes.add(new ProcessBuilder(workerCommand).redirectError(ProcessBuilder.Redirect.INHERIT).start());
+            }
+            for (int i = 0; i < partitions.size(); i++) {
+                send(processes.get(i), employeesHierarchy, partitions.get(i), partitionSizes.get(i), depths,
+                        minimumPercentage, maximumPercentage, reportingLinesThreshold);
+            }
+            for (int i = 0; i < partitions.size(); i++) {
+                receive(processes.get(i), salaryPolicyViolations, excessiveReportingLines, boundarySalaries);
+                int exitCode = processes.get(i).waitFor();
+                if (exitCode != 0)
+                    throw new WorkerProcessException(String.format("Partition worker %d failed with exit code %d", i, exitCode));
+            }
+        } catch (IOException e) {
+            throw new WorkerProcessException("Error when communicating with the partition workers", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WorkerProcessException("Interrupted while waiting for the partition workers", e);
+        } finally {
+            processes.forEach(Process::destroy);
+        }
+
+        reportBoundaryManagers(employeesHierarchy, boundaryManagers, depths, boundarySalaries, minimumPercentage,
+                maximumPercentage, reportingLinesThreshold, salaryPolicyViolations, excessiveReportingLines);
+        return new Result(salaryPolicyViolations, excessiveReportingLines, partitionSizes);
+    }
+
+    /**
+     * Gets the number of employees of the subtree of every employee, itself included, with a backward pass over the
+     * ordinals.
+     *
+     * @param hierarchy the employee hierarchy
+     * @return the subtree size of each ordinal
+     */
+    private static int[] subtreeSizes(EmployeeHierarchy hierarchy) {
+        int[] sizes = new int[hierarchy.size()];
+        for (int ordinal = hierarchy.size() - 1; ordinal >= EmployeeHierarchy.ROOT; ordinal--) {
+            sizes[ordinal]++;
+            int manager = hierarchy.managerOrdinal(ordinal);
+            if (manager != EmployeeHierarchy.NO_MANAGER) sizes[manager] += sizes[ordinal];
+        }
+        return sizes;
+    }
+
+    /**
+     * Splits the hierarchy into the subtrees to be spread over the partitions: starting from the direct subordinates
+     * of the CEO, the largest subtree is replaced by those of its direct subordinates while there are fewer subtrees
+     * than workers and the largest one has subordinates.
+     *
+     * @param hierarchy        the employee hierarchy
+     * @param subtreeSizes     the subtree size of each ordinal
+     * @param depths           the array receiving the depth of the subtree roots and of the boundary managers
+     * @param boundaryManagers the list receiving the CEO and every split subtree root
+     * @return the roots of the subtrees
+     */
+    private List<Integer> split(EmployeeHierarchy hierarchy, int[] subtreeSizes, int[] depths, List<Integer> boundaryManagers) {
+        PriorityQueue<Integer> bySize = new PriorityQueue<>(Comparator.comparingInt((Integer subtree) -> subtreeSizes[subtree]).reversed());
+        List<Integer> leaves = new ArrayList<>();
+        if (hierarchy.size() > 0) {
+            boundaryManagers.add(EmployeeHierarchy.ROOT);
+            addSubordinates(hierarchy, EmployeeHierarchy.ROOT, depths, bySize);
+        }
+        while (bySize.size() + leaves.size() < workers && !bySize.isEmpty()) {
+            int largest = bySize.poll();
+            if (hierarchy.subordinateCount(largest) == 0) {
+                leaves.add(largest);
+                continue;
+            }
+            boundaryManagers.add(largest);
+            addSubordinates(hierarchy, largest, depths, bySize);
+        }
+        List<Integer> subtrees = new ArrayList<>(bySize);
+        subtrees.addAll(leaves);
+        return subtrees;
+    }
+
+    /**
+     * Adds the direct subordinates of a manager to the subtrees, one level below it.
+     *
+     * @param hierarchy the employee hierarchy
+     * @param manager   the ordinal of the manager
+     * @param depths    the depth of each ordinal, set for the subordinates
+     * @param subtrees  the subtrees receiving the subordinates
+     */
+    private static void addSubordinates(EmployeeHierarchy hierarchy, int manager, int[] depths, PriorityQueue<Integer> subtrees) {
+        int firstSubordinate = hierarchy.firstSubordinate(manager);
+        for (int subordinate = firstSubordinate; subordinate < firstSubordinate + hierarchy.subordinateCount(manager); subordinate++) {
+            depths[subordinate] = depths[manager] + 1;
+            subtrees.add(subordinate);
+        }
+    }
+
+    /**
+     * Spreads the subtrees over at most {@link #workers} partitions, each subtree, from the largest, going to the
+     * partition with the fewest employees.
+     *
+     * @param subtrees     the roots of the subtrees
+     * @param subtreeSizes the subtree size of each ordinal
+     * @return the non-empty partitions
+     */
+    private List<List<Integer>> partition(List<Integer> subtrees, int[] subtreeSizes) {
+        int partitionCount = Math.min(workers, subtrees.size());
+        List<List<Integer>> partitions = new ArrayList<>(partitionCount);
+        int[] partitionSizes = new int[partitionCount];
+        for (int i = 0; i < partitionCount; i++) partitions.add(new ArrayList<>());
+
+        List<Integer> bySize = new ArrayList<>(subtrees);
+        bySize.sort(Comparator.comparingInt((Integer subtree) -> subtreeSizes[subtree]).reversed());
+        for (int subtree : bySize) {
+            int smallest = 0;
+            for (int i = 1; i < partitionCount; i++) {
+                if (partitionSizes[i] < partitionSizes[smallest]) smallest = i;
+            }
+            partitions.get(smallest).add(subtree);
+            partitionSizes[smallest] += subtreeSizes[subtree];
+        }
+        return partitions;
+    }
+
+    /**
+     * Streams a partition to a worker and closes its standard input: the manager ordinal and depth of each subtree
+     * root, then the employees of the subtrees, breadth-first, each one after the position of its manager on the
+     * stream.
+     *
+     * @param process                 the worker process
+     * @param hierarchy               the employee hierarchy
+     * @param partition               the roots of the subtrees of the partition
+     * @param partitionSize           the number of employees of the partition
+     * @param depths                  the depth of each subtree root
+     * @param minimumPercentage       the minimum percentage of the salary policy
+     * @param maximumPercentage       the maximum percentage of the salary policy
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines
+     * @throws IOException if the partition cannot be written
+     */
+    private static void send(Process process, EmployeeHierarchy hierarchy, List<Integer> partition, int partitionSize,
+                             int[] depths, int minimumPercentage, int maximumPercentage, int reportingLinesThreshold) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(process.getOutputStream(), BUFFER_SIZE))) {
+            output.writeInt(minimumPercentage);
+            output.writeInt(maximumPercentage);
+            output.writeInt(reportingLinesThreshold);
+            output.writeInt(partition.size());
+            int[] pending = new int[partitionSize];
+            int[] managerPositions = new int[partitionSize];
+            int tail = 0;
+            for (int root : partition) {
+                output.writeInt(hierarchy.managerOrdinal(root));
+                output.writeInt(depths[root]);
+                managerPositions[tail] = EmployeeHierarchy.NO_MANAGER;
+                pending[tail++] = root;
+            }
+            output.writeInt(partitionSize);
+            for (int head = 0; head < tail; head++) {
+                int ordinal = pending[head];
+                output.writeInt(managerPositions[head]);
+                EmployeeCodec.write(output, hierarchy.employee(ordinal));
+                int firstSubordinate = hierarchy.firstSubordinate(ordinal);
+                for (int subordinate = firstSubordinate; subordinate < firstSubordinate + hierarchy.subordinateCount(ordinal); subordinate++) {
+                    managerPositions[tail] = head;
+                    pending[tail++] = subordinate;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the reports of a worker and merges them.
+     *
+     * @param process                 the worker process
+     * @param salaryPolicyViolations  the map receiving the managers violating the salary policy
+     * @param excessiveReportingLines the map receiving the employees with excessive reporting lines
+     * @param boundarySalaries        the map receiving the sum and count of the salaries of the subordinates of each
+     *                                boundary manager, by ordinal
+     * @throws IOException if the reports cannot be read
+     */
+    private static void receive(Process process, Map<Employee, String> salaryPolicyViolations,
+                                Map<Employee, Integer> excessiveReportingLines, Map<Integer, long[]> boundarySalaries) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(process.getInputStream(), BUFFER_SIZE))) {
+            int violations = input.readInt();
+            for (int i = 0; i < violations; i++) {
+                salaryPolicyViolations.put(EmployeeCodec.read(input), input.readUTF());
+            }
+            int excessive = input.readInt();
+            for (int i = 0; i < excessive; i++) {
+                excessiveReportingLines.put(EmployeeCodec.read(input), input.readInt());
+            }
+            int boundaryManagers = input.readInt();
+            for (int i = 0; i < boundaryManagers; i++) {
+                long[] salaries = boundarySalaries.computeIfAbsent(input.readInt(), ordinal -> new long[2]);
+                salaries[0] += input.readLong();
+                salaries[1] += input.readInt();
+            }
+        }
+    }
+
+    /**
+     * Computes the reports of the boundary managers, whose subordinates are split over the partitions or are
+     * boundary managers themselves.
+     *
+     * @param hierarchy               the employee hierarchy
+     * @param boundaryManagers        the ordinals of the boundary managers
+     * @param depths                  the depth of each boundary manager
+     * @param boundarySalaries        the sum and count of the salaries of the subordinates of each boundary manager
+     *                                on the partitions, by ordinal
+     * @param minimumPercentage       the minimum percentage of the salary policy
+     * @param maximumPercentage       the maximum percentage of the salary policy
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines
+     * @param salaryPolicyViolations  the map receiving the managers violating the salary policy
+     * @param excessiveReportingLines the map receiving the employees with excessive reporting lines
+     */
+    private static void reportBoundaryManagers(EmployeeHierarchy hierarchy, List<Integer> boundaryManagers, int[] depths,
+                                               Map<Integer, long[]> boundarySalaries, int minimumPercentage, int maximumPercentage,
+                                               int reportingLinesThreshold, Map<Employee, String> salaryPolicyViolations,
+                                               Map<Employee, Integer> excessiveReportingLines) {
+        // a split subtree root is on no partition, so its salary is added to its manager's from here
+        for (int manager : boundaryManagers) {
+            if (manager == EmployeeHierarchy.ROOT) continue;
+            long[] salaries = boundarySalaries.computeIfAbsent(hierarchy.managerOrdinal(manager), ordinal -> new long[2]);
+            salaries[0] += hierarchy.salary(manager);
+            salaries[1]++;
+        }
+        for (int manager : boundaryManagers) {
+            Employee employee = hierarchy.employee(manager);
+            long[] salaries = boundarySalaries.get(manager);
+            if (salaries != null && salaries[1] > 0) {
+                String violation = EmployeeHierarchyReportService.salaryPolicyViolation(employee.salary(),
+                        (double) salaries[0] / salaries[1], minimumPercentage, maximumPercentage);
+                if (violation != null) salaryPolicyViolations.put(employee, violation);
+            }
+            if (depths[manager] > reportingLinesThreshold)
+                excessiveReportingLines.put(employee, depths[manager] - reportingLinesThreshold);
+        }
+    }
+
+    /**
+     * Reports computed on the worker processes.
+     *
+     * @param salaryPolicyViolations  the managers violating the salary policy and the violation description
+     * @param excessiveReportingLines the employees with excessive reporting lines and how much reporting lines higher than the threshold
+     * @param partitionSizes          the number of employees of each partition
+     */
+    public record Result(
+            Map<Employee, String> salaryPolicyViolations,
+            Map<Employee, Integer> excessiveReportingLines,
+            List<Integer> partitionSizes
+    ) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.big.company.analytics.services.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * A {@link ReadableByteChannel} that first gives back the bytes already read from a channel to peek at its content,
+ * then the rest of the channel.
+ * <p>
+ * Closing this channel leaves the underlying channel open, as it belongs to whoever opened it.
+ */
+final class PrefixedChannel implements ReadableByteChannel {
+
+    /**
+     * Bytes already read from the channel and not yet given back.
+     */
+    private final ByteBuffer prefix;
+
+    /**
+     * Channel the rest of the bytes are read from.
+     */
+    private final ReadableByteChannel channel;
+
+    /**
+     * Whether the channel is still open.
+     */
+    private boolean open = true;
+
+    /**
+     * Constructs a {@code PrefixedChannel} over the specified channel.
+     *
+     * @param prefix  the bytes already read from the channel, between the position and the limit of the buffer
+     * @param channel the channel the rest of the bytes are read from
+     */
+    PrefixedChannel(ByteBuffer prefix, ReadableByteChannel channel) {
+        this.prefix = prefix;
+        this.channel = channel;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        if (!prefix.hasRemaining()) return channel.read(dst);
+        int read = Math.min(prefix.remaining(), dst.remaining());
+        dst.put(dst.position(), prefix, prefix.position(), read);
+        dst.position(dst.position() + read);
+        prefix.position(prefix.position() + read);
+        return read;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() {
+        open = false;
+    }
+}
@@ -0,0 +1,144 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.exception.FileReaderException;
+import com.big.company.analytics.exception.ParseExtractionException;
+import com.big.company.analytics.exception.UnexpectedException;
+import com.big.company.analytics.services.FileReaderService;
+import com.big.company.analytics.util.IntIntHashMap;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Reads the employees of several files, such as one export per division, into a single list.
+ * <p>
+ * Every file is read on its own thread with its own header, so the files may order their columns differently and
+ * the total time is close to that of the largest file. The lists are then merged in file order, so an employee may
+ * report to a manager of another file. An id found on more than one file is kept on the first file only, and
+ * reported; ids repeated within a single file are left to the hierarchy validation, as when reading one file.
+ */
+public class ShardedEmployeeReader {
+
+    /**
+     * Marks an id not found on any file yet.
+     */
+    private static final int NO_FILE = -1;
+
+    /**
+     * Service for reading data from a file.
+     */
+    private final FileReaderService<Employee> fileReaderService;
+
+    /**
+     * Constructs a {@code ShardedEmployeeReader} reading each file with the specified service.
+     *
+     * @param fileReaderService the service for reading data from a file, called from several threads at once
+     * @throws NullPointerException if the file reader service is null
+     */
+    public ShardedEmployeeReader(FileReaderService<Employee> fileReaderService) {
+        this.fileReaderService = Objects.requireNonNull(fileReaderService, "File reader service must not be null");
+    }
+
+    /**
+     * Reads the employees of every file concurrently and merges them into a single list.
+     *
+     * @param files the files containing employee data, each one with its own header
+     * @return the result of the reading, with the merged employees, the duplicated ids and the cross-file reporting lines
+     * @throws FileReaderException      if a file is not found or cannot be loaded
+     * @throws ParseExtractionException if any error occurs during parsing of a file content
+     * @throws NullPointerException     if files or any file is null
+     * @throws IllegalArgumentException if files is empty
+     */
+    public Result read(List<File> files) {
+        Objects.requireNonNull(files, "Files must not be null");
+        if (files.isEmpty()) throw new IllegalArgumentException("At least one file should be given");
+        for (File file : files) Objects.requireNonNull(file, "File must not be null");
+
+        // the first file is read on the calling thread while the others are read on the common pool
+        List<CompletableFuture<List<Employee>>> readings = new ArrayList<>(files.size() - 1);
+        for (File file : files.subList(1, files.size()))
+            readings.add(CompletableFuture.supplyAsync(() -> fileReaderService.readFile(file)));
+
+        List<List<Employee>> shards = new ArrayList<>(files.size());
+        shards.add(fileReaderService.readFile(files.get(0)));
+        for (CompletableFuture<List<Employee>> reading : readings) shards.add(join(reading));
+        return merge(files, shards);
+    }
+
+    /**
+     * Waits for the reading of a file, rethrowing its failure.
+     *
+     * @param reading the reading of a file
+     * @return the employees of the file
+     */
+    private static List<Employee> join(CompletableFuture<List<Employee>> reading) {
+        try {
+            return reading.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new UnexpectedException(e.getMessage());
+        }
+    }
+
+    /**
+     * Merges the employees of every file in file order, keeping each id on the first file it was found on, and
+     * counts the employees reporting to a manager of another file.
+     *
+     * @param files  the files read
+     * @param shards the employees of each file, in the order of the files
+     * @return the result of the reading
+     */
+    private static Result merge(List<File> files, List<List<Employee>> shards) {
+        int total = 0;
+        for (List<Employee> shard : shards) total += shard.size();
+
+        IntIntHashMap fileOfId = new IntIntHashMap(total);
+        List<Employee> employees = new ArrayList<>(total);
+        List<DuplicateId> duplicateIds = new ArrayList<>();
+        List<Integer> employeesPerFile = new ArrayList<>(shards.size());
+        for (int fileIndex = 0; fileIndex < shards.size(); fileIndex++) {
+            List<Employee> shard = shards.get(fileIndex);
+            employeesPerFile.add(shard.size());
+            for (Employee employee : shard) {
+                int firstFile = fileOfId.putIfAbsent(employee.id(), fileIndex, NO_FILE);
+                if (firstFile == NO_FILE || firstFile == fileIndex) employees.add(employee);
+                else duplicateIds.add(new DuplicateId(employee.id(), files.get(firstFile).getName(), files.get(fileIndex).getName()));
+            }
+        }
+
+        int crossFileReportingLines = 0;
+        for (Employee employee : employees) {
+            if (employee.managerId() == null) continue;
+            int managerFile = fileOfId.get(employee.managerId(), NO_FILE);
+            if (managerFile != NO_FILE && managerFile != fileOfId.get(employee.id(), NO_FILE)) crossFileReportingLines++;
+        }
+        return new Result(employees, List.copyOf(employeesPerFile), List.copyOf(duplicateIds), crossFileReportingLines);
+    }
+
+    /**
+     * Result of the reading of several files.
+     *
+     * @param employees               the employees of every file, in file order, without the ids already found on a previous file
+     * @param employeesPerFile        the number of employees read from each file, in the order of the files
+     * @param duplicateIds            the ids found on more than one file, left out of the employees after their first file
+     * @param crossFileReportingLines the number of employees reporting to a manager of another file
+     */
+    public record Result(List<Employee> employees, List<Integer> employeesPerFile, List<DuplicateId> duplicateIds,
+                         int crossFileReportingLines) {
+    }
+
+    /**
+     * An id found on more than one file.
+     *
+     * @param id        the employee id
+     * @param keptFile  the name of the first file the id was found on, whose employee is kept
+     * @param otherFile the name of the file the id was found on again, whose employee is left out
+     */
+    public record DuplicateId(int id, String keptFile, String otherFile) {
+    }
+}
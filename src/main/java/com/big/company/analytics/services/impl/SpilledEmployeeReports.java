@@ -0,0 +1,218 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.exception.HierarchyStoreException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.BiConsumer;
+
+/**
+ * Receives the reports of {@link ExternalMemoryAnalytics} and spills them to temporary files as they are computed,
+ * so they are printed, their size first, without holding them in memory. Both files are deleted when closed.
+ */
+final class SpilledEmployeeReports implements ExternalMemoryAnalytics.ReportSink, AutoCloseable {
+
+    /**
+     * Size of the buffers of each file.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * File holding the managers violating the salary policy and the violation description.
+     */
+    private final Path salaryPolicyFile;
+
+    /**
+     * File holding the employees with excessive reporting lines and how much reporting lines higher than the threshold.
+     */
+    private final Path reportingLinesFile;
+
+    /**
+     * Output of the salary policy file.
+     */
+    private final DataOutputStream salaryPolicyOutput;
+
+    /**
+     * Output of the reporting lines file.
+     */
+    private final DataOutputStream reportingLinesOutput;
+
+    /**
+     * Number of managers violating the salary policy received so far.
+     */
+    private int salaryPolicyViolations;
+
+    /**
+     * Number of employees with excessive reporting lines received so far.
+     */
+    private int excessiveReportingLines;
+
+    /**
+     * Constructs a {@code SpilledEmployeeReports} creating its files on the specified directory.
+     *
+     * @param directory the directory where the files are created
+     * @throws HierarchyStoreException if the files cannot be created
+     */
+    SpilledEmployeeReports(Path directory) {
+        Path salaryPolicy = null;
+        Path reportingLines = null;
+        try {
+            salaryPolicy = Files.createTempFile(directory, "salary-policy-", ".bin");
+            reportingLines = Files.createTempFile(directory, "reporting-lines-", ".bin");
+            this.salaryPolicyOutput = newOutput(salaryPolicy);
+            this.reportingLinesOutput = newOutput(reportingLines);
+        } catch (IOException e) {
+            deleteQuietly(salaryPolicy);
+            deleteQuietly(reportingLines);
+            throw new HierarchyStoreException("Error when creating the temporary files of the reports");
+        }
+        this.salaryPolicyFile = salaryPolicy;
+        this.reportingLinesFile = reportingLines;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void salaryPolicyViolation(Employee manager, String violation) {
+        try {
+            EmployeeCodec.write(salaryPolicyOutput, manager);
+            salaryPolicyOutput.writeUTF(violation);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        salaryPolicyViolations++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void excessiveReportingLine(Employee employee, int excess) {
+        try {
+            EmployeeCodec.write(reportingLinesOutput, employee);
+            reportingLinesOutput.writeInt(excess);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        excessiveReportingLines++;
+    }
+
+    /**
+     * Prints the report of managers who violate the salary policy received so far.
+     *
+     * @param minimumPercentage the minimum percentage of the salary policy
+     * @param maximumPercentage the maximum percentage of the salary policy
+     * @throws HierarchyStoreException if the file cannot be read
+     */
+    void printManagersSalaryPolicyViolation(int minimumPercentage, int maximumPercentage) {
+        try {
+            salaryPolicyOutput.flush();
+            EmployeeReportPrinter.printManagersSalaryPolicyViolation(salaryPolicyViolations,
+                    violations -> read(salaryPolicyFile, salaryPolicyViolations, violations, DataInput::readUTF),
+                    minimumPercentage, maximumPercentage);
+        } catch (IOException | UncheckedIOException e) {
+            throw new HierarchyStoreException("Error when reading the temporary files of the reports");
+        }
+    }
+
+    /**
+     * Prints the report of employees with excessive reporting lines received so far.
+     *
+     * @param reportingLinesThreshold the maximum allowed number of reporting lines
+     * @throws HierarchyStoreException if the file cannot be read
+     */
+    void printManagersWithExcessiveReportingLines(int reportingLinesThreshold) {
+        try {
+            reportingLinesOutput.flush();
+            EmployeeReportPrinter.printManagersWithExcessiveReportingLines(excessiveReportingLines,
+                    reportingLines -> read(reportingLinesFile, excessiveReportingLines, reportingLines, DataInput::readInt),
+                    reportingLinesThreshold);
+        } catch (IOException | UncheckedIOException e) {
+            throw new HierarchyStoreException("Error when reading the temporary files of the reports");
+        }
+    }
+
+    /**
+     * Deletes both files.
+     *
+     * @throws IOException if a file cannot be closed or deleted
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            salaryPolicyOutput.close();
+            reportingLinesOutput.close();
+        } finally {
+            Files.deleteIfExists(salaryPolicyFile);
+            Files.deleteIfExists(reportingLinesFile);
+        }
+    }
+
+    /**
+     * Hands over every employee of a file along with the value written after it.
+     *
+     * @param file     the file
+     * @param count    the number of employees on the file
+     * @param consumer the consumer receiving each employee and its value
+     * @param value    reads the value written after each employee
+     * @param <V>      the type of the values
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    private static <V> void read(Path file, int count, BiConsumer<Employee, V> consumer, ValueReader<V> value) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+            for (int i = 0; i < count; i++) {
+                Employee employee = EmployeeCodec.read(input);
+                consumer.accept(employee, value.read(input));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Opens a buffered output over a file.
+     *
+     * @param file the file
+     * @return the output
+     * @throws IOException if the file cannot be opened
+     */
+    private static DataOutputStream newOutput(Path file) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+    }
+
+    /**
+     * Deletes a file, ignoring any error.
+     *
+     * @param file the file, or {@code null}
+     */
+    private static void deleteQuietly(Path file) {
+        if (file != null) file.toFile().delete();
+    }
+
+    /**
+     * Reads the value written after an employee.
+     *
+     * @param <V> the type of the value
+     */
+    @FunctionalInterface
+    private interface ValueReader<V> {
+
+        /**
+         * Reads the value.
+         *
+         * @param input the input
+         * @return the value
+         * @throws IOException if the input cannot be read
+         */
+        V read(DataInput input) throws IOException;
+    }
+}
@@ -0,0 +1,407 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeTable;
+import com.big.company.analytics.exception.HierarchyStoreException;
+import com.big.company.analytics.services.FileReaderService;
+import com.big.company.analytics.util.IntIntHashMap;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Generates the salary policy report of a file without building the employee hierarchy.
+ * <p>
+ * The salary policy only needs the salary of each manager and the sum and count of the salaries of its direct
+ * subordinates. Each parsed employee is folded into primitive accumulators indexed through a primitive id map, so
+ * no tree is built and no employee is kept: only the salary of each id is. The violating managers are then restored
+ * by a second pass filtered by their ids, over the file again, or, for a channel such as the standard input, which
+ * can only be read once, over a temporary file where the first employee read with each id is spilled. A table read
+ * with only the salary column, see {@link com.big.company.analytics.services.EmployeeTableReader}, is checked the
+ * same way, restoring only the violating managers, so only their names are decoded.
+ * <p>
+ * Unlike {@link EmployeeNodeGenerator}, reporting lines are not validated: managers whose reporting line does not
+ * reach the CEO, such as those on a cycle or under a missing manager, are also checked against the policy. When an
+ * id is repeated, its first employee is the one checked.
+ */
+public class StreamingSalaryPolicyReport {
+
+    /**
+     * Number of employees on each batch read from the file.
+     */
+    private static final int BATCH_SIZE = 1024;
+
+    /**
+     * Service for reading data from a file.
+     */
+    private final FileReaderService<Employee> fileReaderService;
+
+    /**
+     * Constructs a {@code StreamingSalaryPolicyReport} reading the employees with the specified service.
+     *
+     * @param fileReaderService the service for reading data from a file
+     * @throws NullPointerException if the file reader service is null
+     */
+    public StreamingSalaryPolicyReport(FileReaderService<Employee> fileReaderService) {
+        this.fileReaderService = Objects.requireNonNull(fileReaderService, "File reader service must not be null");
+    }
+
+    /**
+     * Generates a report printed in console on managers who violate the default salary policy, from 20% to 50%.
+     *
+     * @param file the file containing employee data
+     * @return a map of the managers and the salary violation description
+     * @see #report(File, int, int)
+     */
+    public Map<Employee, String> report(File file) {
+        return report(file, EmployeeHierarchyReportService.DEFAULT_MINIMUM_PERCENTAGE, EmployeeHierarchyReportService.DEFAULT_MAXIMUM_PERCENTAGE);
+    }
+
+    /**
+     * Generates a report printed in console on managers who violate the salary policy by falling outside
+     * the specified percentage range.
+     *
+     * @param file              the file containing employee data
+     * @param minimumPercentage the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param maximumPercentage the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @return a map of the managers and the salary violation description
+     * @throws NullPointerException                                       if file is null
+     * @throws com.big.company.analytics.exception.FileReaderException      if the file is not found or cannot be loaded
+     * @throws com.big.company.analytics.exception.ParseExtractionException if any error occurs during parsing of the file content
+     */
+    public Map<Employee, String> report(File file, int minimumPercentage, int maximumPercentage) {
+        Objects.requireNonNull(file, "File should not be null");
+        Consumer<Consumer<List<Employee>>> employees = batchConsumer -> fileReaderService.readFile(file, BATCH_SIZE, batchConsumer);
+        SalaryAccumulator accumulator = new SalaryAccumulator();
+        employees.accept(batch -> batch.forEach(accumulator::add));
+        return report(accumulator, employees, minimumPercentage, maximumPercentage);
+    }
+
+    /**
+     * Generates a report printed in console on managers who violate the default salary policy, from 20% to 50%,
+     * reading the employees from a channel such as the standard input.
+     *
+     * @param input the channel holding the employee data
+     * @return a map of the managers and the salary violation description
+     * @see #report(ReadableByteChannel, int, int)
+     */
+    public Map<Employee, String> report(ReadableByteChannel input) {
+        return report(input, EmployeeHierarchyReportService.DEFAULT_MINIMUM_PERCENTAGE, EmployeeHierarchyReportService.DEFAULT_MAXIMUM_PERCENTAGE);
+    }
+
+    /**
+     * Generates a report printed in console on managers who violate the salary policy by falling outside
+     * the specified percentage range, reading the employees from a channel such as the standard input.
+     * The channel is read once, up to its end, and is left open; the first employee read with each id is spilled to a
+     * temporary file, deleted before returning, to restore the violating managers.
+     *
+     * @param input             the channel holding the employee data
+     * @param minimumPercentage the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param maximumPercentage the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @return a map of the managers and the salary violation description
+     * @throws NullPointerException                                       if input is null
+     * @throws com.big.company.analytics.exception.FileReaderException      if the channel cannot be read
+     * @throws com.big.company.analytics.exception.ParseExtractionException if any error occurs during parsing of the content
+     * @throws HierarchyStoreException                                    if the temporary file cannot be written or read
+     */
+    public Map<Employee, String> report(ReadableByteChannel input, int minimumPercentage, int maximumPercentage) {
+        Objects.requireNonNull(input, "Input channel should not be null");
+        SalaryAccumulator accumulator = new SalaryAccumulator();
+        try (SpilledEmployees spilled = new SpilledEmployees()) {
+            fileReaderService.readChannel(input, BATCH_SIZE, batch -> batch.forEach(employee -> {
+                if (accumulator.add(employee)) spilled.write(employee);
+            }));
+            return report(accumulator, spilled::read, minimumPercentage, maximumPercentage);
+        }
+    }
+
+    /**
+     * Generates a report printed in console on managers who violate the default salary policy, from 20% to 50%,
+     * from a table of employees.
+     *
+     * @param table the table holding the employees, where only ids, manager ids and salaries are needed
+     * @return a map of the managers and the salary violation description
+     * @see #report(EmployeeTable, int, int)
+     */
+    public Map<Employee, String> report(EmployeeTable table) {
+        return report(table, EmployeeHierarchyReportService.DEFAULT_MINIMUM_PERCENTAGE, EmployeeHierarchyReportService.DEFAULT_MAXIMUM_PERCENTAGE);
+    }
+
+    /**
+     * Generates a report printed in console on managers who violate the salary policy by falling outside
+     * the specified percentage range, from a table of employees. Only the violating managers are restored from the
+     * table, so the names of the other employees are never decoded.
+     *
+     * @param table             the table holding the employees, where only ids, manager ids and salaries are needed
+     * @param minimumPercentage the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @param maximumPercentage the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+     * @return a map of the managers and the salary violation description
+     * @throws NullPointerException if table is null
+     */
+    public Map<Employee, String> report(EmployeeTable table, int minimumPercentage, int maximumPercentage) {
+        Objects.requireNonNull(table, "Employee table should not be null");
+        int size = table.size();
+        long[] subordinateSalaries = new long[size];
+        int[] subordinateCounts = new int[size];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            // a repeated manager id resolves to its first ordinal, which is the one checked
+            int manager = table.managerOrdinal(ordinal);
+            if (manager < 0) continue;
+            subordinateSalaries[manager] += table.salary(ordinal);
+            subordinateCounts[manager]++;
+        }
+
+        Map<Employee, String> managersWithPolicyViolation = new HashMap<>();
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (subordinateCounts[ordinal] == 0) continue;
+            String violation = EmployeeHierarchyReportService.salaryPolicyViolation(table.salary(ordinal),
+                    (double) subordinateSalaries[ordinal] / subordinateCounts[ordinal], minimumPercentage, maximumPercentage);
+            if (violation != null) managersWithPolicyViolation.put(table.employee(ordinal), violation);
+        }
+
+        EmployeeReportPrinter.printManagersSalaryPolicyViolation(managersWithPolicyViolation, minimumPercentage, maximumPercentage);
+        return managersWithPolicyViolation;
+    }
+
+    /**
+     * Checks the accumulated salaries against the policy, then restores the violating managers with a pass over the
+     * employees filtered by their ids, and prints the report.
+     *
+     * @param accumulator       the salaries folded from the employees
+     * @param employees         reads the employees again, handing them over to the given consumer in batches
+     * @param minimumPercentage the minimum percentage of the salary policy
+     * @param maximumPercentage the maximum percentage of the salary policy
+     * @return a map of the managers and the salary violation description
+     */
+    private Map<Employee, String> report(SalaryAccumulator accumulator, Consumer<Consumer<List<Employee>>> employees,
+                                         int minimumPercentage, int maximumPercentage) {
+        Map<Integer, String> violationsById = new HashMap<>();
+        for (int index = 0; index < accumulator.size; index++) {
+            if (!accumulator.read[index] || accumulator.subordinateCounts[index] == 0) continue;
+            String violation = EmployeeHierarchyReportService.salaryPolicyViolation(accumulator.salaries[index],
+                    (double) accumulator.subordinateSalaries[index] / accumulator.subordinateCounts[index],
+                    minimumPercentage, maximumPercentage);
+            if (violation != null) violationsById.put(accumulator.ids[index], violation);
+        }
+
+        Map<Employee, String> managersWithPolicyViolation = new HashMap<>();
+        if (!violationsById.isEmpty()) {
+            // removing each id once found restores the first employee read with it
+            employees.accept(batch -> batch.forEach(employee -> {
+                String violation = violationsById.remove(employee.id());
+                if (violation != null) managersWithPolicyViolation.put(employee, violation);
+            }));
+        }
+
+        EmployeeReportPrinter.printManagersSalaryPolicyViolation(managersWithPolicyViolation, minimumPercentage, maximumPercentage);
+        return managersWithPolicyViolation;
+    }
+
+    /**
+     * Accumulates the salary of the first employee read with each id and the sum and count of the salaries of its
+     * direct subordinates, on columns indexed by the order each id was first seen.
+     */
+    private static final class SalaryAccumulator {
+
+        /**
+         * Initial capacity of the columns.
+         */
+        private static final int INITIAL_CAPACITY = 1024;
+
+        /**
+         * Index of each id on the columns.
+         */
+        private final IntIntHashMap indexesById = new IntIntHashMap();
+
+        /**
+         * Number of ids indexed so far.
+         */
+        private int size;
+
+        /**
+         * Id of each index.
+         */
+        private int[] ids = new int[INITIAL_CAPACITY];
+
+        /**
+         * Whether an employee was read with the id of each index, which may otherwise only be referenced as a manager.
+         */
+        private boolean[] read = new boolean[INITIAL_CAPACITY];
+
+        /**
+         * Salary of the first employee read with the id of each index.
+         */
+        private int[] salaries = new int[INITIAL_CAPACITY];
+
+        /**
+         * Sum of the salaries of the direct subordinates of each index.
+         */
+        private long[] subordinateSalaries = new long[INITIAL_CAPACITY];
+
+        /**
+         * Number of direct subordinates of each index.
+         */
+        private int[] subordinateCounts = new int[INITIAL_CAPACITY];
+
+        /**
+         * Folds an employee into the accumulators of its own id and of its manager id.
+         *
+         * @param employee the employee
+         * @return {@code true} if it is the first employee read with its id
+         */
+        boolean add(Employee employee) {
+            int index = indexOf(employee.id());
+            boolean first = !read[index];
+            if (first) {
+                read[index] = true;
+                salaries[index] = employee.salary();
+            }
+            if (employee.managerId() != null) {
+                int manager = indexOf(employee.managerId());
+                subordinateSalaries[manager] += employee.salary();
+                subordinateCounts[manager]++;
+            }
+            return first;
+        }
+
+        /**
+         * Gets the index of an id, indexing it if it was not seen yet.
+         *
+         * @param id the id
+         * @return the index of the id
+         */
+        private int indexOf(int id) {
+            int index = indexesById.putIfAbsent(id, size, -1);
+            if (index >= 0) return index;
+            if (size == ids.length) grow();
+            ids[size] = id;
+            return size++;
+        }
+
+        /**
+         * Doubles the capacity of every column.
+         */
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            read = Arrays.copyOf(read, capacity);
+            salaries = Arrays.copyOf(salaries, capacity);
+            subordinateSalaries = Arrays.copyOf(subordinateSalaries, capacity);
+            subordinateCounts = Arrays.copyOf(subordinateCounts, capacity);
+        }
+    }
+
+    /**
+     * Temporary file holding the first employee read with each id from a channel, encoded by {@link EmployeeCodec},
+     * deleted when closed.
+     */
+    private static final class SpilledEmployees implements AutoCloseable {
+
+        /**
+         * Size of the buffers of the file.
+         */
+        private static final int BUFFER_SIZE = 1 << 16;
+
+        /**
+         * The temporary file.
+         */
+        private final Path file;
+
+        /**
+         * Output of the file.
+         */
+        private final DataOutputStream output;
+
+        /**
+         * Constructs a {@code SpilledEmployees} on a new temporary file.
+         *
+         * @throws HierarchyStoreException if the file cannot be created
+         */
+        SpilledEmployees() {
+            Path created = null;
+            try {
+                created = Files.createTempFile("salary-policy-employees-", ".bin");
+                this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(created), BUFFER_SIZE));
+            } catch (IOException e) {
+                deleteQuietly(created);
+                throw new HierarchyStoreException("Error when creating the temporary file of the employees");
+            }
+            this.file = created;
+        }
+
+        /**
+         * Appends an employee to the file.
+         *
+         * @param employee the employee
+         * @throws HierarchyStoreException if the file cannot be written
+         */
+        void write(Employee employee) {
+            try {
+                EmployeeCodec.write(output, employee);
+            } catch (IOException e) {
+                throw new HierarchyStoreException("Error when writing the temporary file of the employees");
+            }
+        }
+
+        /**
+         * Reads the employees written so far, handing them over to a consumer in batches.
+         *
+         * @param batchConsumer the consumer of each batch of employees
+         * @throws HierarchyStoreException if the file cannot be read
+         */
+        void read(Consumer<List<Employee>> batchConsumer) {
+            try {
+                output.flush();
+                try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+                    List<Employee> batch = new ArrayList<>(BATCH_SIZE);
+                    for (Employee employee = EmployeeCodec.read(input); employee != null; employee = EmployeeCodec.read(input)) {
+                        batch.add(employee);
+                        if (batch.size() == BATCH_SIZE) {
+                            batchConsumer.accept(batch);
+                            batch = new ArrayList<>(BATCH_SIZE);
+                        }
+                    }
+                    if (!batch.isEmpty()) batchConsumer.accept(batch);
+                }
+            } catch (IOException e) {
+                throw new HierarchyStoreException("Error when reading the temporary file of the employees");
+            }
+        }
+
+        /**
+         * Closes and deletes the file.
+         */
+        @Override
+        public void close() {
+            try {
+                output.close();
+            } catch (IOException e) {
+                // the file is deleted anyway
+            }
+            deleteQuietly(file);
+        }
+
+        /**
+         * Deletes a file, ignoring any error.
+         *
+         * @param file the file, or {@code null}
+         */
+        private static void deleteQuietly(Path file) {
+            if (file != null) file.toFile().delete();
+        }
+    }
+}
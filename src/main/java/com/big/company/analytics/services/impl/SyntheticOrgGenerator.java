@@ -0,0 +1,855 @@
+package com.big.company.analytics.services.impl;
+
+import com.big.company.analytics.domain.EmployeeHierarchy;
+import com.big.company.analytics.exception.SyntheticDataException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Writes a synthetic organization as an employee CSV file, for testing the analytics at scale.
+ * <p>
+ * The file is fully determined by the seed and the parameters, and is streamed row by row in constant memory: every
+ * value of a row is computed from its ordinal alone. The employees are laid out in levels, the CEO alone on the
+ * first one and each level {@code fanOut} times larger than the previous one, up to the maximum depth, whose level
+ * takes all the remaining employees. The managers of a level are given to the employees of the next one by a
+ * monotone mapping, so each manager has a contiguous range of subordinates: with a skew of 1 every manager has about
+ * {@code fanOut} subordinates, and higher skews concentrate them on the first managers of the level, giving a
+ * power-law fan-out, with managers left without subordinates once the skew is above the growth of the levels.
+ * <p>
+ * Salaries are computed top-down: each subordinate earns the salary of their manager divided by a ratio drawn for
+ * that manager, plus or minus the salary spread. The ratio of a manager is drawn within the salary policy band, or,
+ * with the violation rate as probability, below or above it, with margins wide enough for the spread and the rounding
+ * of the salaries to never move a manager across the band: exactly the managers drawn as violations are reported.
+ * <p>
+ * Rows are written in ordinal order, with managers before their subordinates and ascending ids, in reverse order, or
+ * shuffled by a keyed permutation of the ordinals. Defects are injected as extra rows spread evenly over the file:
+ * employees whose manager does not exist, pairs of employees reporting to each other and repeated ids. The repeated
+ * ids are the only defect changing the salary averages of the valid managers.
+ */
+public class SyntheticOrgGenerator {
+
+    /**
+     * Maximum number of employees of an organization.
+     */
+    public static final int MAX_EMPLOYEES = 1_000_000_000;
+
+    /**
+     * Maximum depth of an organization, keeping the salary of the CEO within an int.
+     */
+    public static final int MAX_DEPTH = 30;
+
+    /**
+     * Minimum base salary, keeping the rounding of the salaries far below the margins of the salary policy band.
+     */
+    public static final int MIN_SALARY_BASE = 1000;
+
+    /**
+     * System property keys of the command line generator.
+     */
+    public static final String FILE_SYSTEM_PROPERTY = "file";
+    public static final String EMPLOYEES_SYSTEM_PROPERTY = "employees";
+    public static final String SEED_SYSTEM_PROPERTY = "seed";
+    public static final String FAN_OUT_SYSTEM_PROPERTY = "fan_out";
+    public static final String FAN_OUT_SKEW_SYSTEM_PROPERTY = "fan_out_skew";
+    public static final String MAX_DEPTH_SYSTEM_PROPERTY = "max_depth";
+    public static final String ORDER_SYSTEM_PROPERTY = "order";
+    public static final String SALARY_BASE_SYSTEM_PROPERTY = "salary_base";
+    public static final String SALARY_SPREAD_SYSTEM_PROPERTY = "salary_spread";
+    public static final String VIOLATION_RATE_SYSTEM_PROPERTY = "violation_rate";
+    public static final String ORPHANS_SYSTEM_PROPERTY = "orphans";
+    public static final String CYCLES_SYSTEM_PROPERTY = "cycles";
+    public static final String DUPLICATES_SYSTEM_PROPERTY = "duplicates";
+
+    /**
+     * Header of the generated file.
+     */
+    private static final byte[] HEADER = "Id,firstName,lastName,salary,managerId\n".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Names the employees are given, chosen from their ordinal.
+     */
+    private static final byte[][] FIRST_NAMES = ascii("John", "Jane", "Michael", "Emily", "David", "Sarah", "Christopher",
+            "Amanda", "Matthew", "Ashley", "Joseph", "Samantha", "Daniel", "Olivia", "Robert", "William");
+    private static final byte[][] LAST_NAMES = ascii("Doe", "Smith", "Johnson", "Brown", "Miller", "Williams", "Jones",
+            "Davis", "Clark", "Taylor", "Wilson", "Martin", "Moore", "Anderson", "Thomas", "Jackson");
+
+    /**
+     * Distance between the salary ratios of the managers and the bounds of the salary policy band, covering the
+     * rounding of the salaries.
+     */
+    private static final double BAND_MARGIN = 0.01;
+
+    /**
+     * Width of the ranges the ratios of the managers violating the salary policy are drawn from.
+     */
+    private static final double VIOLATION_WIDTH = 0.1;
+
+    /**
+     * Number of bytes buffered before being written.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Maximum number of managers of each level whose subordinate salary is cached, bounding the memory used while
+     * sparing shuffled rows most of the computation of their reporting line.
+     */
+    private static final int SALARY_CACHE_SIZE = 1 << 12;
+
+    /**
+     * ASCII digits of the numbers from 0 to 99, two bytes per number.
+     */
+    private static final byte[] DIGIT_PAIRS = new byte[200];
+
+    static {
+        for (int number = 0; number < 100; number++) {
+            DIGIT_PAIRS[2 * number] = (byte) ('0' + number / 10);
+            DIGIT_PAIRS[2 * number + 1] = (byte) ('0' + number % 10);
+        }
+    }
+
+    /**
+     * Streams of the random values, keeping the values of a row independent from each other; the shuffle takes one
+     * stream per round of its permutation.
+     */
+    private static final int SALARY_STREAM = 0;
+    private static final int RATIO_STREAM = 1;
+    private static final int VIOLATION_STREAM = 2;
+    private static final int NAME_STREAM = 3;
+    private static final int DUPLICATE_STREAM = 4;
+    private static final int SHUFFLE_STREAM = 5;
+    private static final int SHUFFLE_ROUNDS = 4;
+
+    /**
+     * Increment of the SplitMix64 generator, spreading consecutive indexes over the whole range of longs.
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Order of the rows on the generated file.
+     */
+    public enum RowOrder {
+
+        /**
+         * Managers before their subordinates, by ascending id.
+         */
+        SORTED,
+
+        /**
+         * Subordinates before their managers, by descending id.
+         */
+        REVERSED,
+
+        /**
+         * Shuffled by a permutation keyed by the seed.
+         */
+        SHUFFLED
+    }
+
+    /**
+     * Parameters of the organization, see {@link Builder}.
+     */
+    private final int employees;
+    private final double fanOutSkew;
+    private final RowOrder rowOrder;
+    private final int salaryBase;
+    private final double salarySpread;
+    private final double violationRate;
+    private final int orphans;
+    private final int cycles;
+    private final int duplicates;
+
+    /**
+     * First ordinal of each level, with one extra entry for the number of employees.
+     */
+    private final int[] levelStarts;
+
+    /**
+     * Inverse of the number of employees of each level.
+     */
+    private final double[] inverseLevelSizes;
+
+    /**
+     * Salary of the CEO, so that the employees of the deepest level earn about the base salary.
+     */
+    private final double ceoSalary;
+
+    /**
+     * Range of the salary ratios of the managers within the salary policy band, and the highest ratio of the
+     * underpaid managers and the lowest of the overpaid ones.
+     */
+    private final double lowRatio;
+    private final double highRatio;
+    private final double underpaidRatio;
+    private final double overpaidRatio;
+
+    /**
+     * Key of each stream of random values, derived from the seed.
+     */
+    private final long[] streamKeys;
+
+    /**
+     * Number of bits of each half of the shuffled ordinals.
+     */
+    private final int halfBits;
+
+    private SyntheticOrgGenerator(Builder builder) {
+        if (builder.employees < 1 || builder.employees > MAX_EMPLOYEES)
+            throw new IllegalArgumentException(String.format("Employees should be between 1 and %d", MAX_EMPLOYEES));
+        if (!(builder.fanOut >= 1)) throw new IllegalArgumentException("Fan-out should be at least 1");
+        if (!(builder.fanOutSkew >= 1)) throw new IllegalArgumentException("Fan-out skew should be at least 1");
+        if (builder.maxDepth < 1 || builder.maxDepth > MAX_DEPTH)
+            throw new IllegalArgumentException(String.format("Max depth should be between 1 and %d", MAX_DEPTH));
+        if (builder.salaryBase < MIN_SALARY_BASE)
+            throw new IllegalArgumentException(String.format("Base salary should be at least %d", MIN_SALARY_BASE));
+        if (!(builder.violationRate >= 0 && builder.violationRate <= 1))
+            throw new IllegalArgumentException("Violation rate should be between 0 and 1");
+        if (builder.minimumPercentage < 0 || builder.maximumPercentage <= builder.minimumPercentage)
+            throw new IllegalArgumentException("Salary policy percentages should not be negative and the maximum should be above the minimum");
+        if (builder.orphans < 0 || builder.cycles < 0 || builder.duplicates < 0)
+            throw new IllegalArgumentException("Defect counts should not be negative");
+        if (builder.duplicates > 0 && builder.employees < 2)
+            throw new IllegalArgumentException("Duplicates need at least 2 employees");
+        // the ids of the defects and of the missing managers of the orphans come after the employees
+        if ((long) builder.employees + 2L * builder.orphans + 2L * builder.cycles >= Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Employees and defects should fit on int ids");
+
+        double minimumRatio = 1 + ((double) builder.minimumPercentage / 100);
+        double maximumRatio = 1 + ((double) builder.maximumPercentage / 100);
+        if (!(builder.salarySpread >= 0)) throw new IllegalArgumentException("Salary spread should not be negative");
+        this.lowRatio = minimumRatio * (1 + builder.salarySpread) + BAND_MARGIN;
+        this.highRatio = maximumRatio * (1 - builder.salarySpread) - BAND_MARGIN;
+        if (lowRatio >= highRatio || minimumRatio * (1 - builder.salarySpread) - BAND_MARGIN - VIOLATION_WIDTH <= 0)
+            throw new IllegalArgumentException("Salary spread is too wide for the salary policy band");
+        this.underpaidRatio = minimumRatio * (1 - builder.salarySpread) - BAND_MARGIN;
+        this.overpaidRatio = maximumRatio * (1 + builder.salarySpread) + BAND_MARGIN;
+
+        this.employees = builder.employees;
+        this.streamKeys = new long[SHUFFLE_STREAM + SHUFFLE_ROUNDS];
+        for (int stream = 0; stream < streamKeys.length; stream++) streamKeys[stream] = mix(builder.seed + (stream + 1) * GOLDEN_GAMMA);
+        this.fanOutSkew = builder.fanOutSkew;
+        this.rowOrder = Objects.requireNonNull(builder.rowOrder, "Row order must not be null");
+        this.salaryBase = builder.salaryBase;
+        this.salarySpread = builder.salarySpread;
+        this.violationRate = builder.violationRate;
+        this.orphans = builder.orphans;
+        this.cycles = builder.cycles;
+        this.duplicates = builder.duplicates;
+        this.levelStarts = levelStarts(builder.employees, builder.fanOut, builder.maxDepth);
+        this.inverseLevelSizes = new double[levelStarts.length - 1];
+        for (int depth = 0; depth < inverseLevelSizes.length; depth++) inverseLevelSizes[depth] = 1.0 / (levelStarts[depth + 1] - levelStarts[depth]);
+
+        this.ceoSalary = builder.salaryBase * Math.pow((lowRatio + highRatio) / 2, depth());
+        if (ceoSalary * (1 + salarySpread) > Integer.MAX_VALUE / 2)
+            throw new IllegalArgumentException("Salaries should fit on an int, lower the base salary or the max depth");
+        int bits = 64 - Long.numberOfLeadingZeros(Math.max(1, employees - 1));
+        this.halfBits = (bits + 1) / 2;
+    }
+
+    /**
+     * Computes the first ordinal of each level, each one {@code fanOut} times larger than the previous one until the
+     * maximum depth, whose level takes the remaining employees.
+     *
+     * @param employees the number of employees
+     * @param fanOut    the growth of the levels
+     * @param maxDepth  the maximum depth
+     * @return the first ordinal of each level, with one extra entry for the number of employees
+     */
+    private static int[] levelStarts(int employees, double fanOut, int maxDepth) {
+        int[] starts = new int[maxDepth + 2];
+        int levels = 1;
+        long levelSize = 1;
+        long end = 1;
+        while (end < employees) {
+            starts[levels] = (int) end;
+            levelSize = (levels == maxDepth) ? employees - end : Math.min(employees - end, Math.max(1, (long) Math.ceil(levelSize * fanOut)));
+            end += levelSize;
+            levels++;
+        }
+        starts[levels] = employees;
+        return Arrays.copyOf(starts, levels + 1);
+    }
+
+    /**
+     * Gets the depth of the deepest employees.
+     *
+     * @return the number of reporting lines between the deepest employees and the CEO
+     */
+    public int depth() {
+        return levelStarts.length - 2;
+    }
+
+    /**
+     * Writes the organization to a file, replacing it if it exists.
+     *
+     * @param file the file
+     * @return the result of the generation
+     * @throws SyntheticDataException if the file cannot be written
+     * @throws NullPointerException   if file is null
+     */
+    public Result write(Path file) {
+        Objects.requireNonNull(file, "File must not be null");
+        try (OutputStream output = Files.newOutputStream(file)) {
+            return write(output);
+        } catch (IOException e) {
+            throw new SyntheticDataException(String.format("Error when writing the synthetic employees | Filename: %s", file.getFileName()));
+        }
+    }
+
+    /**
+     * Writes the organization to a stream, which is flushed but left open.
+     *
+     * @param output the stream
+     * @return the result of the generation
+     * @throws IOException          if the stream cannot be written
+     * @throws NullPointerException if output is null
+     */
+    public Result write(OutputStream output) throws IOException {
+        Objects.requireNonNull(output, "Output stream must not be null");
+        return new Generation(output).run();
+    }
+
+    /**
+     * Gets the depth of an employee.
+     *
+     * @param ordinal the ordinal of the employee
+     * @return the level of the employee
+     */
+    private int depthOf(int ordinal) {
+        int depth = levelStarts.length - 2;
+        while (levelStarts[depth] > ordinal) depth--;
+        return depth;
+    }
+
+    /**
+     * Gets the manager of an employee, by the monotone mapping of its level onto the previous one.
+     *
+     * @param ordinal the ordinal of the employee, not the CEO
+     * @param depth   the depth of the employee
+     * @return the ordinal of the manager
+     */
+    private int managerOf(int ordinal, int depth) {
+        int start = levelStarts[depth];
+        int managersStart = levelStarts[depth - 1];
+        int managers = start - managersStart;
+        double position = (ordinal - start) * inverseLevelSizes[depth];
+        if (fanOutSkew != 1) position = Math.pow(position, fanOutSkew);
+        return managersStart + Math.min((int) (managers * position), managers - 1);
+    }
+
+    /**
+     * Gets the ratio between the salary of a manager and the salaries of their subordinates, before the spread.
+     *
+     * @param ordinal the ordinal of the manager
+     * @return the salary ratio
+     */
+    private double ratioOf(int ordinal) {
+        double position = unit(RATIO_STREAM, ordinal);
+        if (unit(VIOLATION_STREAM, ordinal) >= violationRate) return lowRatio + position * (highRatio - lowRatio);
+        // the lower half of the positions are underpaid managers, the upper half overpaid ones
+        return (position < 0.5) ? underpaidRatio - 2 * position * VIOLATION_WIDTH : overpaidRatio + (2 * position - 1) * VIOLATION_WIDTH;
+    }
+
+    /**
+     * Gets the factor a salary is multiplied by for the salary spread.
+     *
+     * @param ordinal the ordinal of the employee
+     * @return the factor, within one plus or minus the spread
+     */
+    private double spreadOf(int ordinal) {
+        return 1 + salarySpread * (2 * unit(SALARY_STREAM, ordinal) - 1);
+    }
+
+    /**
+     * Gets the position of a row on the permutation of the ordinals, walking the cycle of the permutation of the
+     * enclosing power of two until an ordinal is reached.
+     *
+     * @param position the position of the row
+     * @return the ordinal written on the row
+     */
+    private int shuffled(int position) {
+        long value = position;
+        do {
+            value = feistel(value);
+        } while (value >= employees);
+        return (int) value;
+    }
+
+    /**
+     * Permutes the values of {@code 2 * halfBits} bits with a Feistel network keyed by the seed.
+     *
+     * @param value the value
+     * @return the permuted value
+     */
+    private long feistel(long value) {
+        long mask = (1L << halfBits) - 1;
+        long left = value >>> halfBits;
+        long right = value & mask;
+        for (int round = 0; round < SHUFFLE_ROUNDS; round++) {
+            long next = left ^ (random(SHUFFLE_STREAM + round, right) & mask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    /**
+     * Gets a random value between 0, inclusive, and 1, exclusive.
+     *
+     * @param stream the stream of the value
+     * @param index  the index of the value on the stream
+     * @return the random value
+     */
+    private double unit(int stream, long index) {
+        return (random(stream, index) >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Gets a random value of a stream, determined by the seed: the value of the SplitMix64 generator at the index,
+     * starting from the key of the stream.
+     *
+     * @param stream the stream of the value
+     * @param index  the index of the value on the stream
+     * @return the random value
+     */
+    private long random(int stream, long index) {
+        return mix(streamKeys[stream] + index * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Mixes the bits of a value, as the finalizer of the SplitMix64 generator.
+     *
+     * @param value the value
+     * @return the mixed value
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    private static byte[][] ascii(String... names) {
+        byte[][] bytes = new byte[names.length][];
+        for (int i = 0; i < names.length; i++) bytes[i] = names[i].getBytes(StandardCharsets.US_ASCII);
+        return bytes;
+    }
+
+    /**
+     * The writing of the organization to a stream, holding its buffer and a direct-mapped cache of the salaries of the
+     * managers of each level, so rows in ordinal order compute the salary of their manager once per manager.
+     */
+    private final class Generation {
+
+        /**
+         * Stream the rows are written to, and the buffer holding the bytes not written yet.
+         */
+        private final OutputStream output;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int length;
+
+        /**
+         * Number of bytes and rows written so far.
+         */
+        private long bytes;
+        private long rows;
+
+        /**
+         * Managers of each level whose salary was computed, by their ordinal modulo the size of the cache of the level,
+         * with the salary of their subordinates before the spread.
+         */
+        private final int[][] managers = new int[levelStarts.length - 1][];
+        private final double[][] subordinateSalaries = new double[levelStarts.length - 1][];
+
+        Generation(OutputStream output) {
+            this.output = output;
+            for (int depth = 0; depth < managers.length; depth++) {
+                int levelSize = levelStarts[depth + 1] - levelStarts[depth];
+                int cacheSize = Integer.highestOneBit(Math.min(SALARY_CACHE_SIZE, levelSize) * 2 - 1);
+                managers[depth] = new int[cacheSize];
+                subordinateSalaries[depth] = new double[cacheSize];
+                Arrays.fill(managers[depth], -1);
+            }
+        }
+
+        /**
+         * Writes the header, the employees in the row order and the defects spread evenly between them.
+         *
+         * @return the result of the generation
+         * @throws IOException if the stream cannot be written
+         */
+        Result run() throws IOException {
+            write(HEADER);
+            long defects = orphans + 2L * cycles + duplicates;
+            long defect = 0;
+            for (int position = 0; position < employees; position++) {
+                for (; defect < defects && (defect + 1) * employees / (defects + 1) == position; defect++) writeDefect((int) defect);
+                int ordinal = switch (rowOrder) {
+                    case SORTED -> position;
+                    case REVERSED -> employees - 1 - position;
+                    case SHUFFLED -> shuffled(position);
+                };
+                writeEmployee(ordinal);
+            }
+            for (; defect < defects; defect++) writeDefect((int) defect);
+            flush();
+            output.flush();
+            return new Result(employees, rows, bytes, depth());
+        }
+
+        /**
+         * Writes the row of an employee of the organization.
+         *
+         * @param ordinal the ordinal of the employee
+         * @throws IOException if the stream cannot be written
+         */
+        private void writeEmployee(int ordinal) throws IOException {
+            if (ordinal == EmployeeHierarchy.ROOT) {
+                writeRow(ordinal + 1, ordinal, ceoSalary, -1);
+                return;
+            }
+            int depth = depthOf(ordinal);
+            int manager = managerOf(ordinal, depth);
+            writeRow(ordinal + 1, ordinal, subordinateSalary(manager, depth - 1) * spreadOf(ordinal), manager + 1);
+        }
+
+        /**
+         * Writes the row of an injected defect: first the orphans, then the pairs of employees reporting to each other,
+         * then the repeated ids.
+         *
+         * @param defect the index of the defect row
+         * @throws IOException if the stream cannot be written
+         */
+        private void writeDefect(int defect) throws IOException {
+            int firstDefectId = employees + 1;
+            if (defect < orphans) {
+                // the missing managers have the ids after every defect
+                writeRow(firstDefectId + defect, employees + defect, salaryBase * spreadOf(employees + defect),
+                        firstDefectId + orphans + 2 * cycles + defect);
+            } else if (defect < orphans + 2 * cycles) {
+                int member = defect - orphans;
+                int partner = (member % 2 == 0) ? member + 1 : member - 1;
+                writeRow(firstDefectId + orphans + member, employees + defect, salaryBase * spreadOf(employees + defect),
+                        firstDefectId + orphans + partner);
+            } else {
+                int ordinal = 1 + (int) Long.remainderUnsigned(random(DUPLICATE_STREAM, defect), employees - 1);
+                int depth = depthOf(ordinal);
+                int manager = managerOf(ordinal, depth);
+                writeRow(ordinal + 1, employees + defect, subordinateSalary(manager, depth - 1) * spreadOf(ordinal), manager + 1);
+            }
+        }
+
+        /**
+         * Gets the salary of the subordinates of a manager before the spread, computing the salaries of their
+         * reporting line up to the first manager found on the cache.
+         *
+         * @param manager the ordinal of the manager
+         * @param depth   the depth of the manager
+         * @return the salary of the manager divided by their salary ratio
+         */
+        private double subordinateSalary(int manager, int depth) {
+            int slot = manager & (managers[depth].length - 1);
+            if (managers[depth][slot] != manager) {
+                double salary = (depth == 0) ? ceoSalary
+                        : subordinateSalary(managerOf(manager, depth), depth - 1) * spreadOf(manager);
+                managers[depth][slot] = manager;
+                subordinateSalaries[depth][slot] = salary / ratioOf(manager);
+            }
+            return subordinateSalaries[depth][slot];
+        }
+
+        /**
+         * Writes a row.
+         *
+         * @param id        the employee id
+         * @param nameIndex the index the names are chosen from
+         * @param salary    the salary, rounded to the closest int
+         * @param managerId the manager id, or a negative value for no manager
+         * @throws IOException if the stream cannot be written
+         */
+        private void writeRow(int id, long nameIndex, double salary, int managerId) throws IOException {
+            long names = random(NAME_STREAM, nameIndex);
+            writeInt(id);
+            writeByte(',');
+            write(FIRST_NAMES[(int) (names & (FIRST_NAMES.length - 1))]);
+            writeByte(',');
+            write(LAST_NAMES[(int) ((names >>> 32) & (LAST_NAMES.length - 1))]);
+            writeByte(',');
+            writeInt((int) Math.round(salary));
+            writeByte(',');
+            if (managerId >= 0) writeInt(managerId);
+            writeByte('\n');
+            rows++;
+        }
+
+        private void writeInt(int value) throws IOException {
+            if (length + 10 > buffer.length) flush();
+            int digits = 1;
+            for (int bound = 10; digits < 10 && value >= bound; bound *= 10) digits++;
+            // two digits at a time from the last one
+            int position = length + digits;
+            while (value >= 100) {
+                int pair = value % 100;
+                value /= 100;
+                buffer[--position] = DIGIT_PAIRS[2 * pair + 1];
+                buffer[--position] = DIGIT_PAIRS[2 * pair];
+            }
+            if (value >= 10) {
+                buffer[--position] = DIGIT_PAIRS[2 * value + 1];
+                buffer[--position] = DIGIT_PAIRS[2 * value];
+            } else {
+                buffer[--position] = (byte) ('0' + value);
+            }
+            length += digits;
+        }
+
+        private void writeByte(char value) throws IOException {
+            if (length == buffer.length) flush();
+            buffer[length++] = (byte) value;
+        }
+
+        private void write(byte[] value) throws IOException {
+            if (length + value.length > buffer.length) flush();
+            System.arraycopy(value, 0, buffer, length, value.length);
+            length += value.length;
+        }
+
+        private void flush() throws IOException {
+            output.write(buffer, 0, length);
+            bytes += length;
+            length = 0;
+        }
+    }
+
+    /**
+     * Result of the generation of an organization.
+     *
+     * @param employees the number of employees of the organization, without the defects
+     * @param rows      the number of rows written, with the defects and without the header
+     * @param bytes     the number of bytes written
+     * @param depth     the depth of the deepest employees
+     */
+    public record Result(int employees, long rows, long bytes, int depth) {
+    }
+
+    /**
+     * Builder of a {@code SyntheticOrgGenerator}, starting from the default parameters.
+     */
+    public static final class Builder {
+
+        /**
+         * Parameters of the organization, described on their setters.
+         */
+        private final int employees;
+        private long seed = 42;
+        private double fanOut = 8;
+        private double fanOutSkew = 1;
+        private int maxDepth = 12;
+        private RowOrder rowOrder = RowOrder.SORTED;
+        private int salaryBase = 30_000;
+        private double salarySpread = 0.05;
+        private double violationRate = 0.05;
+        private int minimumPercentage = EmployeeHierarchyReportService.DEFAULT_MINIMUM_PERCENTAGE;
+        private int maximumPercentage = EmployeeHierarchyReportService.DEFAULT_MAXIMUM_PERCENTAGE;
+        private int orphans;
+        private int cycles;
+        private int duplicates;
+
+        /**
+         * Constructs a builder of an organization of the specified number of employees.
+         *
+         * @param employees the number of employees, without the defects
+         */
+        public Builder(int employees) {
+            this.employees = employees;
+        }
+
+        /**
+         * Sets the seed every random value is determined by; 42 by default.
+         *
+         * @param seed the seed
+         * @return this builder
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Sets how many times each level is larger than the previous one, the average number of subordinates of a
+         * manager; 8 by default.
+         *
+         * @param fanOut the fan-out, at least 1
+         * @return this builder
+         */
+        public Builder fanOut(double fanOut) {
+            this.fanOut = fanOut;
+            return this;
+        }
+
+        /**
+         * Sets how much the subordinates of a level are concentrated on its first managers; 1 by default, giving every
+         * manager about the same number of subordinates.
+         *
+         * @param fanOutSkew the skew, at least 1
+         * @return this builder
+         */
+        public Builder fanOutSkew(double fanOutSkew) {
+            this.fanOutSkew = fanOutSkew;
+            return this;
+        }
+
+        /**
+         * Sets the maximum depth, whose level takes all the employees not fitting on the levels above; 12 by default.
+         *
+         * @param maxDepth the maximum depth, between 1 and {@link #MAX_DEPTH}
+         * @return this builder
+         */
+        public Builder maxDepth(int maxDepth) {
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        /**
+         * Sets the order of the rows; sorted by default.
+         *
+         * @param rowOrder the order of the rows
+         * @return this builder
+         */
+        public Builder rowOrder(RowOrder rowOrder) {
+            this.rowOrder = rowOrder;
+            return this;
+        }
+
+        /**
+         * Sets the salary the employees of the deepest level earn about; 30000 by default.
+         *
+         * @param salaryBase the base salary, at least {@link #MIN_SALARY_BASE}
+         * @return this builder
+         */
+        public Builder salaryBase(int salaryBase) {
+            this.salaryBase = salaryBase;
+            return this;
+        }
+
+        /**
+         * Sets the relative spread of the salaries of the subordinates of a manager; 0.05 by default, for plus or
+         * minus 5%.
+         *
+         * @param salarySpread the spread, narrow enough to fit the salary policy band
+         * @return this builder
+         */
+        public Builder salarySpread(double salarySpread) {
+            this.salarySpread = salarySpread;
+            return this;
+        }
+
+        /**
+         * Sets the probability of a manager violating the salary policy, as underpaid or overpaid with the same
+         * probability; 0.05 by default.
+         *
+         * @param violationRate the violation rate, between 0 and 1
+         * @return this builder
+         */
+        public Builder violationRate(double violationRate) {
+            this.violationRate = violationRate;
+            return this;
+        }
+
+        /**
+         * Sets the salary policy band the violations are drawn against; the report defaults of 20% and 50% by default.
+         *
+         * @param minimumPercentage the minimum percentage by which a manager's salary should be more than the average salary of their subordinates
+         * @param maximumPercentage the maximum percentage by which a manager's salary should be more than the average salary of their subordinates
+         * @return this builder
+         */
+        public Builder salaryPolicy(int minimumPercentage, int maximumPercentage) {
+            this.minimumPercentage = minimumPercentage;
+            this.maximumPercentage = maximumPercentage;
+            return this;
+        }
+
+        /**
+         * Sets the number of injected employees whose manager does not exist; none by default.
+         *
+         * @param orphans the number of orphans
+         * @return this builder
+         */
+        public Builder orphans(int orphans) {
+            this.orphans = orphans;
+            return this;
+        }
+
+        /**
+         * Sets the number of injected pairs of employees reporting to each other; none by default.
+         *
+         * @param cycles the number of cycles
+         * @return this builder
+         */
+        public Builder cycles(int cycles) {
+            this.cycles = cycles;
+            return this;
+        }
+
+        /**
+         * Sets the number of injected rows repeating the id of an employee other than the CEO; none by default.
+         *
+         * @param duplicates the number of repeated ids
+         * @return this builder
+         */
+        public Builder duplicates(int duplicates) {
+            this.duplicates = duplicates;
+            return this;
+        }
+
+        /**
+         * Builds the generator.
+         *
+         * @return the generator
+         * @throws IllegalArgumentException if any parameter is out of range
+         * @throws NullPointerException     if the row order is null
+         */
+        public SyntheticOrgGenerator build() {
+            return new SyntheticOrgGenerator(this);
+        }
+    }
+
+    /**
+     * Generates an organization from the command line, configured by system properties, e.g.
+     * {@code -Dfile=employees.csv -Demployees=100000000 -Dorder=shuffled -Dorphans=10}.
+     *
+     * @param args not used
+     */
+    public static void main(String[] args) {
+        Path file = Path.of(property(FILE_SYSTEM_PROPERTY, "SyntheticData.csv"));
+        SyntheticOrgGenerator generator = new Builder(Integer.parseInt(property(EMPLOYEES_SYSTEM_PROPERTY, "1000000")))
+                .seed(Long.parseLong(property(SEED_SYSTEM_PROPERTY, "42")))
+                .fanOut(Double.parseDouble(property(FAN_OUT_SYSTEM_PROPERTY, "8")))
+                .fanOutSkew(Double.parseDouble(property(FAN_OUT_SKEW_SYSTEM_PROPERTY, "1")))
+                .maxDepth(Integer.parseInt(property(MAX_DEPTH_SYSTEM_PROPERTY, "12")))
+                .rowOrder(RowOrder.valueOf(property(ORDER_SYSTEM_PROPERTY, "sorted").toUpperCase()))
+                .salaryBase(Integer.parseInt(property(SALARY_BASE_SYSTEM_PROPERTY, "30000")))
+                .salarySpread(Double.parseDouble(property(SALARY_SPREAD_SYSTEM_PROPERTY, "0.05")))
+                .violationRate(Double.parseDouble(property(VIOLATION_RATE_SYSTEM_PROPERTY, "0.05")))
+                .orphans(Integer.parseInt(property(ORPHANS_SYSTEM_PROPERTY, "0")))
+                .cycles(Integer.parseInt(property(CYCLES_SYSTEM_PROPERTY, "0")))
+                .duplicates(Integer.parseInt(property(DUPLICATES_SYSTEM_PROPERTY, "0")))
+                .build();
+
+        long start = System.nanoTime();
+        Result result = generator.write(file);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Generated file: %s%n", file);
+        System.out.printf("-> Employees: %d | Rows: %d | Depth: %d%n", result.employees(), result.rows(), result.depth());
+        System.out.printf("-> Bytes: %d | Time: %.1f s | %.1f MB/s%n", result.bytes(), seconds, result.bytes() / 1e6 / seconds);
+    }
+
+    private static String property(String key, String defaultValue) {
+        return Optional.ofNullable(System.getProperty(key)).orElse(defaultValue);
+    }
+}
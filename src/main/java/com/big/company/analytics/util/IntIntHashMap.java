@@ -0,0 +1,222 @@
+package com.big.company.analytics.util;
+
+/**
+ * A hash map from {@code int} keys to {@code int} values, without boxing.
+ * <p>
+ * Entries are kept on plain arrays with open addressing and linear probing, so lookups touch no other object
+ * than the map itself. Entries cannot be removed. This class is not thread-safe.
+ */
+public final class IntIntHashMap {
+
+    /**
+     * Maximum ratio of used slots before the arrays are doubled.
+     */
+    private static final float LOAD_FACTOR = 0.5f;
+
+    /**
+     * Keys of each slot.
+     */
+    private int[] keys;
+
+    /**
+     * Values of each slot.
+     */
+    private int[] values;
+
+    /**
+     * Whether each slot is in use.
+     */
+    private boolean[] used;
+
+    /**
+     * Number of entries in the map.
+     */
+    private int size;
+
+    /**
+     * Number of entries that triggers the next resize.
+     */
+    private int resizeThreshold;
+
+    /**
+     * Constructs an empty {@code IntIntHashMap} able to hold the expected number of entries without resizing.
+     *
+     * @param expectedSize the expected number of entries
+     */
+    public IntIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) Math.ceil(Math.max(0, expectedSize) / LOAD_FACTOR)) * 2 - 1);
+        allocate(capacity);
+    }
+
+    /**
+     * Constructs an empty {@code IntIntHashMap}.
+     */
+    public IntIntHashMap() {
+        this(16);
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key          the key
+     * @param defaultValue the value returned when the key is not in the map
+     * @return the value of the key, or {@code defaultValue} if the key is not in the map
+     */
+    public int get(int key, int defaultValue) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; used[slot]; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) return values[slot];
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Checks whether a key is in the map.
+     *
+     * @param key the key
+     * @return {@code true} if the key is in the map
+     */
+    public boolean containsKey(int key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; used[slot]; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sets the value of a key, replacing any previous value.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public void put(int key, int value) {
+        int slot = findSlot(key);
+        if (used[slot]) {
+            values[slot] = value;
+            return;
+        }
+        insert(slot, key, value);
+    }
+
+    /**
+     * Sets the value of a key only if the key is not in the map yet.
+     *
+     * @param key          the key
+     * @param value        the value
+     * @param defaultValue the value returned when the key was not in the map
+     * @return the current value of the key, or {@code defaultValue} if the key was not in the map and was added
+     */
+    public int putIfAbsent(int key, int value, int defaultValue) {
+        int slot = findSlot(key);
+        if (used[slot]) return values[slot];
+        insert(slot, key, value);
+        return defaultValue;
+    }
+
+    /**
+     * Adds a delta to the value of a key, starting from zero when the key is not in the map.
+     *
+     * @param key   the key
+     * @param delta the delta to be added
+     * @return the new value of the key
+     */
+    public int addTo(int key, int delta) {
+        int slot = findSlot(key);
+        if (used[slot]) return values[slot] += delta;
+        insert(slot, key, delta);
+        return delta;
+    }
+
+    /**
+     * Gets the number of entries in the map.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the keys of the map, in no particular order.
+     *
+     * @return a new array with every key
+     */
+    public int[] keys() {
+        int[] result = new int[size];
+        int count = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) result[count++] = keys[i];
+        }
+        return result;
+    }
+
+    /**
+     * Finds the slot holding a key, or the free slot where it should be inserted.
+     *
+     * @param key the key
+     * @return the slot of the key
+     */
+    private int findSlot(int key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (used[slot] && keys[slot] != key) slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    /**
+     * Inserts a new entry on a free slot, growing the arrays when the load factor is exceeded.
+     *
+     * @param slot  the free slot
+     * @param key   the key
+     * @param value the value
+     */
+    private void insert(int slot, int key, int value) {
+        used[slot] = true;
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeThreshold) rehash(keys.length * 2);
+    }
+
+    /**
+     * Moves every entry to new arrays of the specified capacity.
+     *
+     * @param capacity the new capacity, a power of two
+     */
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (!oldUsed[i]) continue;
+            int slot = findSlot(oldKeys[i]);
+            used[slot] = true;
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    /**
+     * Allocates empty arrays of the specified capacity.
+     *
+     * @param capacity the capacity, a power of two
+     */
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * Spreads the bits of a key, so that sequential and sparse keys are both well distributed.
+     *
+     * @param key the key
+     * @return the hash of the key
+     */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
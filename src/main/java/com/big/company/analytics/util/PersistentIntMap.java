@@ -0,0 +1,218 @@
+package com.big.company.analytics.util;
+
+import java.util.Objects;
+
+/**
+ * An immutable map from {@code int} keys to values, where every update returns a new map sharing all the unchanged
+ * structure with the previous one.
+ * <p>
+ * Entries are kept on a hash array mapped trie: each node consumes five bits of the mixed key and only holds the
+ * children actually present, indexed through a bitmap. An update copies the nodes on the path to its key, at most
+ * seven, so a new version costs memory proportional to the trie depth and not to its size. Instances are
+ * thread-safe.
+ *
+ * @param <V> the type of the values
+ */
+public final class PersistentIntMap<V> {
+
+    /**
+     * Number of key bits consumed by each level of the trie.
+     */
+    private static final int BITS_PER_LEVEL = 5;
+
+    /**
+     * Mask of the key bits of a level.
+     */
+    private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+
+    /**
+     * The empty map.
+     */
+    private static final PersistentIntMap<?> EMPTY = new PersistentIntMap<>(null, 0);
+
+    /**
+     * Root node of the trie, or {@code null} when the map is empty.
+     */
+    private final Node root;
+
+    /**
+     * Number of entries in the map.
+     */
+    private final int size;
+
+    private PersistentIntMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Gets the empty map.
+     *
+     * @param <V> the type of the values
+     * @return the empty map
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> PersistentIntMap<V> empty() {
+        return (PersistentIntMap<V>) EMPTY;
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key the key
+     * @return the value of the key, or {@code null} if the key is not in the map
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int hash = mix(key);
+        Node node = root;
+        for (int shift = 0; node != null; shift += BITS_PER_LEVEL) {
+            int bit = 1 << ((hash >>> shift) & LEVEL_MASK);
+            if ((node.bitmap & bit) == 0) return null;
+            Object child = node.children[Integer.bitCount(node.bitmap & (bit - 1))];
+            if (child instanceof Entry entry) return (entry.key == key) ? (V) entry.value : null;
+            node = (Node) child;
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether a key is in the map.
+     *
+     * @param key the key
+     * @return {@code true} if the key is in the map
+     */
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Sets the value of a key.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return a map with the key set to the value, or this map if the key already had the same value instance
+     * @throws NullPointerException if value is null
+     */
+    public PersistentIntMap<V> put(int key, V value) {
+        Objects.requireNonNull(value, "Value must not be null");
+        boolean added = !containsKey(key);
+        Node updated = put(root, 0, mix(key), new Entry(key, value));
+        return (updated == root) ? this : new PersistentIntMap<>(updated, added ? size + 1 : size);
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key the key
+     * @return a map without the key, or this map if the key was not in it
+     */
+    public PersistentIntMap<V> remove(int key) {
+        if (!containsKey(key)) return this;
+        return new PersistentIntMap<>(remove(root, 0, mix(key), key), size - 1);
+    }
+
+    /**
+     * Gets the number of entries in the map.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Sets an entry on a node, copying the node.
+     *
+     * @param node  the node, or {@code null} for an empty one
+     * @param shift the shift of the key bits of the node level
+     * @param hash  the mixed key
+     * @param entry the entry
+     * @return the updated node, or the same node if the entry was already there
+     */
+    private static Node put(Node node, int shift, int hash, Entry entry) {
+        if (node == null) return new Node(1 << ((hash >>> shift) & LEVEL_MASK), new Object[]{entry});
+        int bit = 1 << ((hash >>> shift) & LEVEL_MASK);
+        int index = Integer.bitCount(node.bitmap & (bit - 1));
+        if ((node.bitmap & bit) == 0) {
+            Object[] children = new Object[node.children.length + 1];
+            System.arraycopy(node.children, 0, children, 0, index);
+            children[index] = entry;
+            System.arraycopy(node.children, index, children, index + 1, node.children.length - index);
+            return new Node(node.bitmap | bit, children);
+        }
+
+        Object child = node.children[index];
+        Object updated;
+        if (child instanceof Entry existing) {
+            if (existing.key == entry.key) {
+                if (existing.value == entry.value) return node;
+                updated = entry;
+            } else {
+                updated = put(put(null, shift + BITS_PER_LEVEL, mix(existing.key), existing), shift + BITS_PER_LEVEL, hash, entry);
+            }
+        } else {
+            updated = put((Node) child, shift + BITS_PER_LEVEL, hash, entry);
+            if (updated == child) return node;
+        }
+        Object[] children = node.children.clone();
+        children[index] = updated;
+        return new Node(node.bitmap, children);
+    }
+
+    /**
+     * Removes a key present on a node, copying the node.
+     *
+     * @param node  the node
+     * @param shift the shift of the key bits of the node level
+     * @param hash  the mixed key
+     * @param key   the key
+     * @return the updated node, or {@code null} if it became empty
+     */
+    private static Node remove(Node node, int shift, int hash, int key) {
+        int bit = 1 << ((hash >>> shift) & LEVEL_MASK);
+        int index = Integer.bitCount(node.bitmap & (bit - 1));
+        Object child = node.children[index];
+        Object updated = (child instanceof Entry) ? null : remove((Node) child, shift + BITS_PER_LEVEL, hash, key);
+        if (updated != null) {
+            Object[] children = node.children.clone();
+            children[index] = updated;
+            return new Node(node.bitmap, children);
+        }
+        if (node.children.length == 1) return null;
+        Object[] children = new Object[node.children.length - 1];
+        System.arraycopy(node.children, 0, children, 0, index);
+        System.arraycopy(node.children, index + 1, children, index, children.length - index);
+        return new Node(node.bitmap & ~bit, children);
+    }
+
+    /**
+     * Mixes the bits of a key, so sequential keys spread over the trie. The mix is a bijection, so distinct keys
+     * always end on distinct paths.
+     *
+     * @param key the key
+     * @return the mixed key
+     */
+    private static int mix(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * A node of the trie, with a bit set for each present child.
+     *
+     * @param bitmap   the bits of the present children
+     * @param children the children, each one an {@link Entry} or a {@link Node}, in bit order
+     */
+    private record Node(int bitmap, Object[] children) {
+    }
+
+    /**
+     * An entry of the map.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    private record Entry(int key, Object value) {
+    }
+}
@@ -0,0 +1,290 @@
+package com.big.company.analytics.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list, where every update returns a new list sharing all the unchanged structure with the previous one.
+ * <p>
+ * Elements are kept on the leaves of a tree of nodes of at most {@value #BRANCHING} children, each inner node holding
+ * the number of elements under each of its children. Replacing, appending or removing an element copies the nodes
+ * on the path to its position, so a new version costs memory proportional to the tree depth and not to the list
+ * size. Removed elements may leave nodes partly empty, as they are not merged back. The {@link java.util.List}
+ * methods changing the list are not supported. Instances are thread-safe.
+ *
+ * @param <E> the type of the elements
+ */
+public final class PersistentList<E> extends AbstractList<E> implements RandomAccess {
+
+    /**
+     * Maximum number of elements of a leaf and of children of an inner node.
+     */
+    private static final int BRANCHING = 32;
+
+    /**
+     * The empty list.
+     */
+    private static final PersistentList<?> EMPTY = new PersistentList<>(null, 0);
+
+    /**
+     * Root node of the tree, or {@code null} when the list is empty.
+     */
+    private final Node root;
+
+    /**
+     * Number of elements in the list.
+     */
+    private final int size;
+
+    private PersistentList(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Gets the empty list.
+     *
+     * @param <E> the type of the elements
+     * @return the empty list
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentList<E> empty() {
+        return (PersistentList<E>) EMPTY;
+    }
+
+    /**
+     * Creates a list holding the elements of a collection, in its iteration order, with full nodes.
+     *
+     * @param elements the elements
+     * @param <E>      the type of the elements
+     * @return the list
+     * @throws NullPointerException if elements is null
+     */
+    public static <E> PersistentList<E> of(Collection<? extends E> elements) {
+        Objects.requireNonNull(elements, "Elements must not be null");
+        if (elements.isEmpty()) return empty();
+        Object[] items = elements.toArray();
+        Node[] level = new Node[(items.length + BRANCHING - 1) / BRANCHING];
+        for (int i = 0; i < level.length; i++) {
+            level[i] = new Node(Arrays.copyOfRange(items, i * BRANCHING, Math.min(items.length, (i + 1) * BRANCHING)), null);
+        }
+        while (level.length > 1) {
+            Node[] parents = new Node[(level.length + BRANCHING - 1) / BRANCHING];
+            for (int i = 0; i < parents.length; i++) {
+                Node[] children = Arrays.copyOfRange(level, i * BRANCHING, Math.min(level.length, (i + 1) * BRANCHING));
+                parents[i] = Node.inner(children);
+            }
+            level = parents;
+        }
+        return new PersistentList<>(level[0], items.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        Node node = root;
+        while (node.ends != null) {
+            int child = node.childOf(index);
+            if (child > 0) index -= node.ends[child - 1];
+            node = (Node) node.items[child];
+        }
+        return (E) node.items[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets a list with an element replaced.
+     *
+     * @param index   the position of the replaced element
+     * @param element the new element
+     * @return the new list
+     * @throws IndexOutOfBoundsException if the index is out of the list
+     */
+    public PersistentList<E> replaced(int index, E element) {
+        Objects.checkIndex(index, size);
+        return new PersistentList<>(root.replaced(index, element), size);
+    }
+
+    /**
+     * Gets a list with an element appended.
+     *
+     * @param element the appended element
+     * @return the new list
+     */
+    public PersistentList<E> appended(E element) {
+        if (root == null) return new PersistentList<>(new Node(new Object[]{element}, null), 1);
+        Node[] appended = root.appended(element);
+        return new PersistentList<>((appended.length == 1) ? appended[0] : Node.inner(appended), size + 1);
+    }
+
+    /**
+     * Gets a list with an element removed, the following elements moving one position down.
+     *
+     * @param index the position of the removed element
+     * @return the new list
+     * @throws IndexOutOfBoundsException if the index is out of the list
+     */
+    public PersistentList<E> removed(int index) {
+        Objects.checkIndex(index, size);
+        if (size == 1) return empty();
+        Node removed = root.removed(index);
+        while (removed.ends != null && removed.items.length == 1) removed = (Node) removed.items[0];
+        return new PersistentList<>(removed, size - 1);
+    }
+
+    /**
+     * A node of the tree: a leaf holding elements, or an inner node holding child nodes.
+     */
+    private static final class Node {
+
+        /**
+         * Elements of a leaf, or children of an inner node.
+         */
+        private final Object[] items;
+
+        /**
+         * Number of elements under each child and the children before it; {@code null} for a leaf.
+         */
+        private final int[] ends;
+
+        private Node(Object[] items, int[] ends) {
+            this.items = items;
+            this.ends = ends;
+        }
+
+        /**
+         * Creates an inner node, counting the elements under its children.
+         *
+         * @param children the child nodes
+         * @return the inner node
+         */
+        private static Node inner(Node[] children) {
+            int[] ends = new int[children.length];
+            int count = 0;
+            for (int i = 0; i < children.length; i++) {
+                count += children[i].size();
+                ends[i] = count;
+            }
+            return new Node(children, ends);
+        }
+
+        /**
+         * Gets the number of elements under the node.
+         *
+         * @return the number of elements
+         */
+        private int size() {
+            return (ends == null) ? items.length : ends[ends.length - 1];
+        }
+
+        /**
+         * Finds the child of an inner node holding a position.
+         *
+         * @param index the position under the node
+         * @return the index of the child
+         */
+        private int childOf(int index) {
+            int low = 0;
+            int high = ends.length - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (ends[middle] <= index) low = middle + 1;
+                else high = middle;
+            }
+            return low;
+        }
+
+        /**
+         * Copies the path to a position with its element replaced.
+         *
+         * @param index   the position under the node
+         * @param element the new element
+         * @return the copied node
+         */
+        private Node replaced(int index, Object element) {
+            Object[] copy = items.clone();
+            if (ends == null) {
+                copy[index] = element;
+                return new Node(copy, null);
+            }
+            int child = childOf(index);
+            copy[child] = ((Node) items[child]).replaced(index - ((child > 0) ? ends[child - 1] : 0), element);
+            return new Node(copy, ends);
+        }
+
+        /**
+         * Copies the path to the last position with an element appended after it.
+         *
+         * @param element the appended element
+         * @return the copied node, or the copied node and a new sibling holding the element when the node was full
+         */
+        private Node[] appended(Object element) {
+            if (ends == null) {
+                if (items.length == BRANCHING) return new Node[]{this, new Node(new Object[]{element}, null)};
+                Object[] copy = Arrays.copyOf(items, items.length + 1);
+                copy[items.length] = element;
+                return new Node[]{new Node(copy, null)};
+            }
+            int last = items.length - 1;
+            Node[] appended = ((Node) items[last]).appended(element);
+            if (appended.length == 1) {
+                Object[] copy = items.clone();
+                copy[last] = appended[0];
+                int[] copiedEnds = ends.clone();
+                copiedEnds[last]++;
+                return new Node[]{new Node(copy, copiedEnds)};
+            }
+            if (items.length == BRANCHING) return new Node[]{this, inner(new Node[]{appended[1]})};
+            Object[] copy = Arrays.copyOf(items, items.length + 1);
+            copy[items.length] = appended[1];
+            int[] copiedEnds = Arrays.copyOf(ends, ends.length + 1);
+            copiedEnds[ends.length] = ends[last] + 1;
+            return new Node[]{new Node(copy, copiedEnds)};
+        }
+
+        /**
+         * Copies the path to a position with its element removed, dropping the children left empty.
+         *
+         * @param index the position under the node, which holds more than one element
+         * @return the copied node
+         */
+        private Node removed(int index) {
+            if (ends == null) {
+                Object[] copy = new Object[items.length - 1];
+                System.arraycopy(items, 0, copy, 0, index);
+                System.arraycopy(items, index + 1, copy, index, items.length - index - 1);
+                return new Node(copy, null);
+            }
+            int child = childOf(index);
+            Node node = (Node) items[child];
+            if (node.size() == 1) {
+                Object[] copy = new Object[items.length - 1];
+                int[] copiedEnds = new int[ends.length - 1];
+                System.arraycopy(items, 0, copy, 0, child);
+                System.arraycopy(items, child + 1, copy, child, items.length - child - 1);
+                System.arraycopy(ends, 0, copiedEnds, 0, child);
+                for (int i = child + 1; i < ends.length; i++) copiedEnds[i - 1] = ends[i] - 1;
+                return new Node(copy, copiedEnds);
+            }
+            Object[] copy = items.clone();
+            copy[child] = node.removed(index - ((child > 0) ? ends[child - 1] : 0));
+            int[] copiedEnds = ends.clone();
+            for (int i = child; i < ends.length; i++) copiedEnds[i]--;
+            return new Node(copy, copiedEnds);
+        }
+    }
+}
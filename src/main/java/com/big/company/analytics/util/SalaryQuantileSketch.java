@@ -0,0 +1,222 @@
+package com.big.company.analytics.util;
+
+import java.util.Objects;
+
+/**
+ * A mergeable sketch of a distribution of salaries, answering quantiles with a bounded relative error in bounded
+ * memory.
+ * <p>
+ * Salaries are counted on logarithmic buckets: bucket {@code i} holds the salaries in
+ * {@code (gamma^(i-1), gamma^i]}, with {@code gamma = (1 + accuracy) / (1 - accuracy)}, so any salary is within the
+ * relative accuracy of the middle of its bucket, and a quantile is within it of the exact quantile. Salaries of zero
+ * or less are counted apart and reported as zero. Two sketches with the same accuracy merge by adding their bucket
+ * counts, which gives the same sketch as counting both inputs on one.
+ * <p>
+ * At most {@code maxBuckets} buckets are kept: when the salaries span more, the lowest buckets are collapsed into the
+ * lowest kept one, so only the quantiles falling on collapsed buckets lose their accuracy guarantee, and overestimate.
+ * This class is not thread-safe.
+ */
+public final class SalaryQuantileSketch {
+
+    /**
+     * Number of buckets allocated when the first salary is counted.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Relative accuracy of the quantiles.
+     */
+    private final double relativeAccuracy;
+
+    /**
+     * Growth factor between consecutive buckets, and its logarithm.
+     */
+    private final double gamma;
+    private final double logGamma;
+
+    /**
+     * Maximum number of buckets kept.
+     */
+    private final int maxBuckets;
+
+    /**
+     * Counts of the buckets, the first one being the bucket of index {@link #offset}.
+     */
+    private long[] counts = new long[0];
+    private int offset;
+
+    /**
+     * Lowest and highest indexes of the buckets in use; the highest is below the lowest while no positive salary
+     * was counted.
+     */
+    private int lowIndex = 0;
+    private int highIndex = -1;
+
+    /**
+     * Number of salaries counted, and of those of zero or less.
+     */
+    private long count;
+    private long zeroCount;
+
+    /**
+     * Constructs an empty {@code SalaryQuantileSketch}.
+     *
+     * @param relativeAccuracy the relative accuracy of the quantiles, e.g. 0.01 for 1%
+     * @param maxBuckets       the maximum number of buckets kept
+     * @throws IllegalArgumentException if the accuracy is not between 0 and 1, exclusive, or the buckets are not positive
+     */
+    public SalaryQuantileSketch(double relativeAccuracy, int maxBuckets) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1))
+            throw new IllegalArgumentException("Relative accuracy should be between 0 and 1");
+        if (maxBuckets < 1) throw new IllegalArgumentException("Max buckets should be positive");
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.maxBuckets = maxBuckets;
+    }
+
+    /**
+     * Counts a salary.
+     *
+     * @param salary the salary
+     */
+    public void add(int salary) {
+        count++;
+        if (salary <= 0) {
+            zeroCount++;
+            return;
+        }
+        addToBucket((int) Math.ceil(Math.log(salary) / logGamma), 1);
+    }
+
+    /**
+     * Adds the salaries counted on another sketch to this one. The other sketch is left unchanged.
+     *
+     * @param other the other sketch
+     * @throws NullPointerException     if other is null
+     * @throws IllegalArgumentException if the sketches have different accuracies
+     */
+    public void merge(SalaryQuantileSketch other) {
+        Objects.requireNonNull(other, "Sketch must not be null");
+        if (other.relativeAccuracy != relativeAccuracy)
+            throw new IllegalArgumentException("Sketches should have the same relative accuracy");
+        if (other.highIndex >= other.lowIndex) {
+            // from the highest bucket down, so the buckets beyond the limit are collapsed as they come
+            for (int index = other.highIndex; index >= other.lowIndex; index--) {
+                long bucketCount = other.counts[index - other.offset];
+                if (bucketCount > 0) addToBucket(index, bucketCount);
+            }
+        }
+        count += other.count;
+        zeroCount += other.zeroCount;
+    }
+
+    /**
+     * Estimates a quantile of the salaries counted: the salary with rank {@code quantile * (count - 1)}, rounded down,
+     * on the sorted salaries.
+     *
+     * @param quantile the quantile, e.g. 0.5 for the median
+     * @return the estimated salary, or {@code NaN} if no salary was counted
+     * @throws IllegalArgumentException if the quantile is not between 0 and 1
+     */
+    public double quantile(double quantile) {
+        if (!(quantile >= 0 && quantile <= 1)) throw new IllegalArgumentException("Quantile should be between 0 and 1");
+        if (count == 0) return Double.NaN;
+        long rank = (long) (quantile * (count - 1));
+        if (rank < zeroCount) return 0;
+        long seen = zeroCount;
+        for (int index = lowIndex; index < highIndex; index++) {
+            seen += counts[index - offset];
+            if (seen > rank) return bucketValue(index);
+        }
+        return bucketValue(highIndex);
+    }
+
+    /**
+     * Gets the number of salaries counted.
+     *
+     * @return the number of salaries
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Gets the number of buckets in use, at most the maximum number of buckets.
+     *
+     * @return the number of buckets
+     */
+    public int bucketCount() {
+        return (highIndex >= lowIndex) ? highIndex - lowIndex + 1 : 0;
+    }
+
+    /**
+     * Adds to the count of a bucket, collapsing the lowest buckets when the range would exceed the maximum.
+     *
+     * @param index       the index of the bucket
+     * @param bucketCount the count added
+     */
+    private void addToBucket(int index, long bucketCount) {
+        if (highIndex < lowIndex) {
+            if (counts.length == 0) counts = new long[Math.min(INITIAL_CAPACITY, maxBuckets)];
+            offset = index - counts.length / 2;
+            lowIndex = index;
+            highIndex = index;
+        } else if (index > highIndex) {
+            if (index - lowIndex + 1 > maxBuckets) collapseBelow(index - maxBuckets + 1);
+        } else if (index < lowIndex) {
+            index = Math.max(index, highIndex - maxBuckets + 1);
+        }
+        fit(Math.min(lowIndex, index), Math.max(highIndex, index));
+        counts[index - offset] += bucketCount;
+        lowIndex = Math.min(lowIndex, index);
+        highIndex = Math.max(highIndex, index);
+    }
+
+    /**
+     * Collapses the buckets below an index into the bucket of that index.
+     *
+     * @param newLowIndex the lowest index kept
+     */
+    private void collapseBelow(int newLowIndex) {
+        long collapsed = 0;
+        for (int index = lowIndex; index < newLowIndex && index <= highIndex; index++) {
+            collapsed += counts[index - offset];
+            counts[index - offset] = 0;
+        }
+        int newHighIndex = Math.max(highIndex, newLowIndex);
+        fit(newLowIndex, newHighIndex);
+        counts[newLowIndex - offset] += collapsed;
+        lowIndex = newLowIndex;
+        highIndex = newHighIndex;
+    }
+
+    /**
+     * Makes the counts array cover a range of bucket indexes, moving the buckets in use.
+     *
+     * @param low  the lowest index to be covered
+     * @param high the highest index to be covered
+     */
+    private void fit(int low, int high) {
+        if (low >= offset && high < offset + counts.length) return;
+        int needed = high - low + 1;
+        int capacity = Math.max(Math.min(Math.max(counts.length * 2, needed), maxBuckets), needed);
+        long[] resized = new long[capacity];
+        int resizedOffset = low - (capacity - needed) / 2;
+        for (int index = Math.max(lowIndex, low); index <= Math.min(highIndex, high); index++) {
+            resized[index - resizedOffset] = counts[index - offset];
+        }
+        counts = resized;
+        offset = resizedOffset;
+    }
+
+    /**
+     * Gets the salary representing a bucket, at the same relative distance from both of its bounds.
+     *
+     * @param index the index of the bucket
+     * @return the salary representing the bucket
+     */
+    private double bucketValue(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+}
@@ -4,10 +4,20 @@ import com.big.company.analytics.exception.FileReaderException;
 import com.big.company.analytics.exception.ParseExtractionException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
 import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class MainApplicationTests {
 
@@ -45,9 +55,65 @@ class MainApplicationTests {
                 () -> MainApplication.main(null));
     }
 
+    @Test
+    void shouldMainMethodReadFileWithCommaOnPath(@TempDir Path tempDir) throws IOException {
+        Path file = Files.copy(Path.of(TEST_FILEPATH, "SampleData.csv"), tempDir.resolve("Sample,Data.csv"));
+        System.setProperty("file", file.toString());
+
+        assertDoesNotThrow(() -> MainApplication.main(null));
+    }
+
+    @Test
+    void shouldMainMethodReadSeveralFiles() {
+        System.setProperty("files", TEST_FILEPATH + "SampleData.csv" + File.pathSeparator + TEST_FILEPATH + "SalaryViolationPolicyData.csv");
+
+        assertDoesNotThrow(() -> MainApplication.main(null));
+
+        System.setProperty("file", TEST_FILEPATH + "SampleData.csv");
+        assertThrows("Only one of the file and files properties should be given", IllegalArgumentException.class,
+                () -> MainApplication.main(null));
+    }
+
+    @Test
+    void shouldMainMethodWithInvalidPropertiesFails() {
+        System.setProperty("file", TEST_FILEPATH + "SampleData.csv");
+        System.setProperty("mode", "in-memory");
+        assertThrows("Invalid execution mode: in-memory | Expected one of: in_memory, parallel, pipelined, external_memory, partitioned, salary_policy_only, auto",
+                IllegalArgumentException.class, () -> MainApplication.main(null));
+
+        System.setProperty("mode", "In_Memory");
+        System.setProperty("rejected_rows", "Rejected.txt");
+        System.setProperty("error_budget", "ten");
+        assertThrows("Invalid error budget: ten | Expected a non-negative integer", IllegalArgumentException.class,
+                () -> MainApplication.main(null));
+        System.setProperty("error_budget", "-1");
+        assertThrows("Invalid error budget: -1 | Expected a non-negative integer", IllegalArgumentException.class,
+                () -> MainApplication.main(null));
+    }
+
+    @Test
+    void shouldMainMethodPassModeWithDefaultFile() {
+        System.setProperty("mode", "auto");
+        PrintStream standardOutput = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+        try {
+            assertThrows("File not found | Filepath: / | Filename: SampleData.csv", FileReaderException.class,
+                    () -> MainApplication.main(null));
+        } finally {
+            System.setOut(standardOutput);
+        }
+
+        assertTrue(output.toString(StandardCharsets.UTF_8).contains("Execution plan -> "));
+    }
+
     @AfterEach
     void clean() {
+        System.clearProperty("mode");
+        System.clearProperty("rejected_rows");
+        System.clearProperty("error_budget");
         System.clearProperty("file");
+        System.clearProperty("files");
         System.clearProperty("has_header");
     }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.big.company.analytics.benchmark;
+
+import com.big.company.analytics.domain.CompactEmployeeHierarchy;
+import com.big.company.analytics.domain.EmployeeHierarchy;
+import com.big.company.analytics.domain.EmployeeLookupIndex;
+import com.big.company.analytics.domain.EmployeeLookupResult;
+import com.big.company.analytics.domain.EmployeeTable;
+
+import java.util.Random;
+
+/**
+ * Compares a batch lookup on {@link EmployeeLookupIndex} with the same lookups made one id at a time.
+ * <p>
+ * The hierarchy is a random tree where each employee reports to one of the employees before it. Run it with the
+ * number of employees as first argument (default 2000000), the number of looked up ids as second argument
+ * (default 50000) and the number of measured iterations as third argument (default 10).
+ */
+public class BatchLookupBenchmark {
+
+    public static void main(String[] args) {
+        int employees = (args.length > 0) ? Integer.parseInt(args[0]) : 2_000_000;
+        int lookups = (args.length > 1) ? Integer.parseInt(args[1]) : 50_000;
+        int iterations = (args.length > 2) ? Integer.parseInt(args[2]) : 10;
+
+        Random random = new Random(42);
+        EmployeeTable.Builder builder = new EmployeeTable.Builder(employees);
+        builder.add(1, 200_000, false, 0);
+        for (int id = 2; id <= employees; id++) {
+            builder.add(id, 30_000 + random.nextInt(100_000), true, 1 + random.nextInt(id - 1));
+        }
+        EmployeeHierarchy hierarchy = CompactEmployeeHierarchy.of(builder.build());
+
+        long start = System.nanoTime();
+        EmployeeLookupIndex index = EmployeeLookupIndex.of(hierarchy, 20, 50);
+        System.out.printf("Index of %,d employees built in %.1f ms%n", employees, (System.nanoTime() - start) / 1e6);
+
+        int[] ids = new int[lookups];
+        for (int i = 0; i < lookups; i++) ids[i] = 1 + random.nextInt(employees);
+
+        long bestBatch = Long.MAX_VALUE;
+        long bestSingle = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            start = System.nanoTime();
+            EmployeeLookupResult result = index.lookup(ids);
+            bestBatch = Math.min(bestBatch, System.nanoTime() - start);
+            checksum += result.organizationSizes()[lookups - 1];
+
+            start = System.nanoTime();
+            int[] single = new int[1];
+            for (int id : ids) {
+                single[0] = id;
+                checksum += index.lookup(single).organizationSizes()[0];
+            }
+            bestSingle = Math.min(bestSingle, System.nanoTime() - start);
+        }
+        System.out.printf("%,d lookups | batch best %.2f ms | one by one best %.2f ms | %.1fx | checksum %d%n",
+                lookups, bestBatch / 1e6, bestSingle / 1e6, (double) bestSingle / bestBatch, checksum);
+    }
+}
@@ -0,0 +1,79 @@
+package com.big.company.analytics.benchmark;
+
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+
+/**
+ * Measures the throughput of {@link EmployeeCsvFileReader} on plain and gzip compressed inputs.
+ * <p>
+ * The input is built by repeating the rows of {@code HugeData.csv} with shifted ids. Run it with the number of
+ * copies as first argument (default 500) and the number of measured iterations as second argument (default 5).
+ */
+public class ReaderThroughputBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int copies = (args.length > 0) ? Integer.parseInt(args[0]) : 500;
+        int iterations = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+
+        Path tempDir = Files.createTempDirectory("reader-benchmark");
+        Path plainFile = tempDir.resolve("employees.csv");
+        Path gzipFile = tempDir.resolve("employees.csv.gz");
+        try {
+            writeInput(plainFile, copies);
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzipFile), 1 << 16)) {
+                Files.copy(plainFile, out);
+            }
+
+            long uncompressedBytes = Files.size(plainFile);
+            System.out.printf("Input: %d bytes plain, %d bytes gzip%n", uncompressedBytes, Files.size(gzipFile));
+            measure("plain", plainFile, uncompressedBytes, iterations);
+            measure("gzip", gzipFile, uncompressedBytes, iterations);
+        } finally {
+            Files.deleteIfExists(plainFile);
+            Files.deleteIfExists(gzipFile);
+            Files.deleteIfExists(tempDir);
+        }
+    }
+
+    private static void writeInput(Path file, int copies) throws IOException {
+        List<String> rows = Files.readAllLines(Path.of(TEST_FILEPATH, "HugeData.csv"));
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(rows.get(0));
+            writer.newLine();
+            for (int copy = 0; copy < copies; copy++) {
+                int offset = copy * 100_000;
+                for (String row : rows.subList(1, rows.size())) {
+                    String[] values = row.split(",");
+                    writer.write(String.format("%d,%s,%s,%s,%s", Integer.parseInt(values[0]) + offset, values[1], values[2], values[3],
+                            (values.length > 4) ? String.valueOf(Integer.parseInt(values[4]) + offset) : ""));
+                    writer.newLine();
+                }
+            }
+        }
+    }
+
+    private static void measure(String name, Path file, long uncompressedBytes, int iterations) {
+        EmployeeCsvFileReader reader = new EmployeeCsvFileReader();
+        int rows = reader.readFile(file.toFile()).size();
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            reader.readFile(file.toFile());
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double seconds = best / 1e9;
+        System.out.printf("%-6s| %,d rows | best %.1f ms | %.1f MB/s uncompressed | %,.0f rows/s%n",
+                name, rows, best / 1e6, uncompressedBytes / 1e6 / seconds, rows / seconds);
+    }
+}
@@ -0,0 +1,68 @@
+package com.big.company.analytics.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+
+/**
+ * Measures the time from launching the packaged application on {@code SampleData.csv} to its first report line,
+ * without and with the class-data-sharing archive created by {@code mvn package}.
+ * <p>
+ * Build the jar first with {@code mvn package}. Run it with the number of measured launches as first argument
+ * (default 10); each launch is a new JVM, and the median time is printed.
+ */
+public class StartupBenchmark {
+
+    private static final Path JAR = Path.of("target", "BigCompanyAnalytics-1.0-SNAPSHOT.jar");
+    private static final Path ARCHIVE = Path.of("target", "BigCompanyAnalytics-1.0-SNAPSHOT.jsa");
+    private static final String FIRST_REPORT_LINE = "Minimum percentage allowed";
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int launches = (args.length > 0) ? Integer.parseInt(args[0]) : 10;
+        if (!Files.isRegularFile(JAR)) throw new IllegalStateException("Run mvn package first, no jar found at " + JAR);
+
+        measure("default CDS", List.of(), launches);
+        if (Files.isRegularFile(ARCHIVE)) {
+            measure("AppCDS", List.of("-XX:SharedArchiveFile=" + ARCHIVE), launches);
+        } else {
+            System.out.println("No class-data-sharing archive found at " + ARCHIVE + ", was it skipped?");
+        }
+    }
+
+    private static void measure(String name, List<String> jvmOptions, int launches) throws IOException, InterruptedException {
+        launch(jvmOptions); // warms the file system cache
+        long[] times = new long[launches];
+        for (int i = 0; i < launches; i++) times[i] = launch(jvmOptions);
+        Arrays.sort(times);
+        System.out.printf("%-12s| median %.1f ms | best %.1f ms to first report line%n",
+                name, times[launches / 2] / 1e6, times[0] / 1e6);
+    }
+
+    private static long launch(List<String> jvmOptions) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-Dfile=" + Path.of(TEST_FILEPATH, "SampleData.csv"));
+        command.add("-jar");
+        command.add(JAR.toString());
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        long elapsed = -1;
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            for (String line = output.readLine(); line != null; line = output.readLine()) {
+                if (elapsed < 0 && line.contains(FIRST_REPORT_LINE)) elapsed = System.nanoTime() - start;
+            }
+        }
+        if (process.waitFor() != 0 || elapsed < 0) throw new IllegalStateException("Launch failed: " + command);
+        return elapsed;
+    }
+}
@@ -0,0 +1,49 @@
+package com.big.company.analytics.benchmark;
+
+import com.big.company.analytics.services.impl.SyntheticOrgGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compares the throughput of {@link SyntheticOrgGenerator} on each row order with writing the same number of bytes
+ * to disk, and reports the heap used after each generation.
+ * <p>
+ * Run it with the number of employees as first argument (default 10000000).
+ */
+public class SyntheticOrgBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int employees = (args.length > 0) ? Integer.parseInt(args[0]) : 10_000_000;
+
+        Path tempDir = Files.createTempDirectory("synthetic-benchmark");
+        Path file = tempDir.resolve("employees.csv");
+        try {
+            long bytes = 0;
+            for (SyntheticOrgGenerator.RowOrder rowOrder : SyntheticOrgGenerator.RowOrder.values()) {
+                SyntheticOrgGenerator generator = new SyntheticOrgGenerator.Builder(employees).rowOrder(rowOrder).orphans(100).build();
+                long start = System.nanoTime();
+                bytes = generator.write(file).bytes();
+                report(rowOrder.name().toLowerCase(), bytes, System.nanoTime() - start);
+            }
+
+            byte[] block = new byte[1 << 16];
+            long start = System.nanoTime();
+            try (OutputStream output = Files.newOutputStream(file)) {
+                for (long written = 0; written < bytes; written += block.length) output.write(block);
+            }
+            report("raw", bytes, System.nanoTime() - start);
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(tempDir);
+        }
+    }
+
+    private static void report(String name, long bytes, long nanos) {
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("%-9s| %,d bytes | %.1f ms | %.1f MB/s | heap used %d MB%n",
+                name, bytes, nanos / 1e6, bytes * 1e3 / nanos, (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+    }
+}
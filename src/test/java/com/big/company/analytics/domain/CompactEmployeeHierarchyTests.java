@@ -0,0 +1,150 @@
+package com.big.company.analytics.domain;
+
+import com.big.company.analytics.exception.EmployeeException;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeNodeGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactEmployeeHierarchyTests {
+
+    @Test
+    void shouldRemapEmployeeIdsToDenseOrdinals() {
+        List<Employee> employees = new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "UnorderedData.csv");
+        EmployeeTable table = EmployeeTable.of(employees);
+
+        assertEquals(6, table.size());
+        assertEquals(0, table.ordinalOf(305));
+        assertEquals(1, table.managerOrdinal(0));
+        assertEquals(EmployeeTable.UNKNOWN_MANAGER, table.managerOrdinal(table.ordinalOf(304)));
+        assertEquals(EmployeeTable.NO_MANAGER, table.managerOrdinal(table.ordinalOf(123)));
+        assertEquals(EmployeeTable.NOT_FOUND, table.ordinalOf(999));
+        for (int ordinal = 0; ordinal < table.size(); ordinal++) {
+            assertEquals(employees.get(ordinal), table.employee(ordinal));
+        }
+    }
+
+    @Test
+    void shouldReadEmployeeTableStraightFromFile() {
+        File file = new File(TEST_FILEPATH, "HugeData.csv");
+        EmployeeCsvFileReader reader = new EmployeeCsvFileReader();
+        List<Employee> employees = reader.readFile(file);
+        EmployeeTable table = reader.readTable(file);
+
+        assertEquals(employees.size(), table.size());
+        for (int ordinal = 0; ordinal < table.size(); ordinal++) {
+            assertEquals(employees.get(ordinal), table.employee(ordinal));
+        }
+    }
+
+    @Test
+    void shouldBuildHierarchyBreadthFirst() {
+        EmployeeTable table = new EmployeeCsvFileReader().readTable(new File(TEST_FILEPATH, "UnorderedData.csv"));
+        CompactEmployeeHierarchy hierarchy = CompactEmployeeHierarchy.of(table);
+
+        assertEquals(5, hierarchy.size());
+        assertEquals(123, hierarchy.id(EmployeeHierarchy.ROOT));
+        assertEquals(EmployeeHierarchy.NO_MANAGER, hierarchy.managerOrdinal(EmployeeHierarchy.ROOT));
+        assertEquals(2, hierarchy.subordinateCount(EmployeeHierarchy.ROOT));
+        assertEquals(EmployeeHierarchy.NOT_FOUND, hierarchy.ordinalOf(304));
+        for (int ordinal = 1; ordinal < hierarchy.size(); ordinal++) {
+            int manager = hierarchy.managerOrdinal(ordinal);
+            assertTrue(manager < ordinal);
+            assertTrue(ordinal >= hierarchy.firstSubordinate(manager));
+            assertTrue(ordinal < hierarchy.firstSubordinate(manager) + hierarchy.subordinateCount(manager));
+        }
+        assertEquals(new Employee(305, "Brett", "Hardleaf", 34000, 300), hierarchy.employee(hierarchy.ordinalOf(305)));
+    }
+
+    @Test
+    void shouldRestoreSameTreeAsEmployeeNodes() {
+        List<Employee> employees = new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "HugeData.csv");
+        EmployeeNode root = new EmployeeNodeGenerator().generateEmployeesHierarchy(employees);
+
+        assertEquals(root, CompactEmployeeHierarchy.of(EmployeeTable.of(employees)).toEmployeeNode());
+        assertEquals(root, CompactEmployeeHierarchy.of(root).toEmployeeNode());
+        assertEquals(root.size(), CompactEmployeeHierarchy.of(root).size());
+    }
+
+    @Test
+    void shouldKeepOriginalEmployeeInstances() {
+        List<Employee> employees = new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "HugeData.csv");
+        EmployeeTable table = EmployeeTable.of(employees);
+
+        for (EmployeeHierarchy hierarchy : List.of(CompactEmployeeHierarchy.of(table), CompactEmployeeHierarchy.ofParallel(table))) {
+            for (Employee employee : employees) {
+                int ordinal = hierarchy.ordinalOf(employee.id());
+                assertSame(employee, hierarchy.employee(ordinal));
+                assertEquals(employee.firstName(), hierarchy.firstName(ordinal));
+                assertEquals(employee.lastName(), hierarchy.lastName(ordinal));
+            }
+        }
+        EmployeeNode root = CompactEmployeeHierarchy.of(table).toEmployeeNode();
+        assertSame(employees.get(table.ordinalOf(root.employee().id())), root.employee());
+    }
+
+    @Test
+    void shouldBuildSameHierarchyInParallel() {
+        Random random = new Random(7);
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee(0, "Joe", "Doe", 60000, null));
+        for (int id = 1; id < 100_000; id++) {
+            int manager = (random.nextInt(10) == 0) ? id - 1 : random.nextInt(id);
+            employees.add(new Employee(id, "First" + id, "Last" + id, 30000 + random.nextInt(30000), manager));
+        }
+        employees.add(new Employee(100_000, "Orphan", "Doe", 40000, 200_000));
+        employees.add(new Employee(100_001, "Under", "Orphan", 40000, 100_000));
+        Collections.shuffle(employees, random);
+        EmployeeTable table = EmployeeTable.of(employees);
+
+        CompactEmployeeHierarchy expected = CompactEmployeeHierarchy.of(table);
+        CompactEmployeeHierarchy hierarchy = CompactEmployeeHierarchy.ofParallel(table);
+
+        assertEquals(100_000, hierarchy.size());
+        for (int ordinal = 0; ordinal < expected.size(); ordinal++) {
+            assertEquals(expected.employee(ordinal), hierarchy.employee(ordinal));
+            assertEquals(expected.managerOrdinal(ordinal), hierarchy.managerOrdinal(ordinal));
+            assertEquals(expected.firstSubordinate(ordinal), hierarchy.firstSubordinate(ordinal));
+            assertEquals(expected.subordinateCount(ordinal), hierarchy.subordinateCount(ordinal));
+            assertEquals(ordinal, hierarchy.ordinalOf(hierarchy.id(ordinal)));
+        }
+        assertEquals(expected.toEmployeeNode(), hierarchy.toEmployeeNodeParallel());
+    }
+
+    @Test
+    void shouldFailsWhenTableHasNoSingleCEOInParallel() {
+        Employee ceo = new Employee(1, "Joe", "Doe", 60000, null);
+        Employee otherCeo = new Employee(2, "Martin", "Chekov", 45000, null);
+        Employee subordinate = new Employee(3, "Bob", "Ronstad", 47000, 4);
+
+        assertThrows("Employee list has more than one CEO", EmployeeException.class,
+                () -> CompactEmployeeHierarchy.ofParallel(EmployeeTable.of(List.of(ceo, otherCeo))));
+        assertThrows("Employee list has no CEO", EmployeeException.class,
+                () -> CompactEmployeeHierarchy.ofParallel(EmployeeTable.of(List.of(subordinate))));
+        assertThrows("Employee table must not be null", NullPointerException.class,
+                () -> CompactEmployeeHierarchy.ofParallel(null));
+    }
+
+    @Test
+    void shouldFailsWhenTableHasNoSingleCEO() {
+        Employee ceo = new Employee(1, "Joe", "Doe", 60000, null);
+        Employee otherCeo = new Employee(2, "Martin", "Chekov", 45000, null);
+        Employee subordinate = new Employee(3, "Bob", "Ronstad", 47000, 4);
+
+        assertThrows("Employee list has more than one CEO", EmployeeException.class,
+                () -> CompactEmployeeHierarchy.of(EmployeeTable.of(List.of(ceo, otherCeo))));
+        assertThrows("Employee list has no CEO", EmployeeException.class,
+                () -> CompactEmployeeHierarchy.of(EmployeeTable.of(List.of(subordinate))));
+        assertThrows("Employee table must not be null", NullPointerException.class,
+                () -> CompactEmployeeHierarchy.of((EmployeeTable) null));
+    }
+}
@@ -0,0 +1,53 @@
+package com.big.company.analytics.domain;
+
+import com.big.company.analytics.services.EmployeeReportService;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DepthIndexTests {
+
+    private EmployeeHierarchy hierarchyOf(String fileName) {
+        return CompactEmployeeHierarchy.of(new EmployeeCsvFileReader().readTable(new File(TEST_FILEPATH, fileName)));
+    }
+
+    @Test
+    void shouldIndexDepthsOfHierarchy() {
+        EmployeeHierarchy hierarchy = hierarchyOf("ValidatedDataWithHeader.csv");
+        DepthIndex index = DepthIndex.of(hierarchy);
+
+        assertEquals(3, index.maxDepth());
+        assertArrayEquals(new int[]{1, 2, 1, 1}, index.histogram());
+        assertEquals(0, index.depth(hierarchy.ordinalOf(123)));
+        assertEquals(3, index.depth(hierarchy.ordinalOf(305)));
+        assertEquals(2, index.countDeeperThan(1));
+        assertArrayEquals(new int[]{hierarchy.ordinalOf(300), hierarchy.ordinalOf(305)}, index.ordinalsDeeperThan(1));
+        assertEquals(5, index.countDeeperThan(-1));
+        assertEquals(0, index.countDeeperThan(3));
+        assertEquals(0, index.countAtDepth(4));
+        assertThrows("Employees hierarchy must not be null", NullPointerException.class,
+                () -> DepthIndex.of(null));
+    }
+
+    @Test
+    void shouldAnswerEveryThresholdAsReport() {
+        EmployeeHierarchy hierarchy = hierarchyOf("HugeData.csv");
+        DepthIndex index = DepthIndex.of(hierarchy);
+        EmployeeReportService report = new EmployeeHierarchyReportService();
+
+        assertEquals(hierarchy.size(), Arrays.stream(index.histogram()).sum());
+        for (int threshold = 0; threshold <= index.maxDepth() + 1; threshold++) {
+            assertEquals(report.reportManagersWithExcessiveReportingLines(hierarchy, threshold),
+                    index.excessiveReportingLines(threshold));
+            assertEquals(index.excessiveReportingLines(threshold).size(), index.countDeeperThan(threshold));
+        }
+        assertEquals(2779, index.countDeeperThan(4));
+    }
+}
@@ -0,0 +1,110 @@
+package com.big.company.analytics.domain;
+
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeLookupIndexTests {
+
+    private EmployeeHierarchy hierarchyOf(String fileName) {
+        return CompactEmployeeHierarchy.of(new EmployeeCsvFileReader().readTable(new File(TEST_FILEPATH, fileName)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SampleData.csv", "SalaryViolationPolicyData.csv", "HugeData.csv"})
+    void shouldLookUpSameValuesAsHierarchyAndReports(String fileName) {
+        EmployeeHierarchy hierarchy = hierarchyOf(fileName);
+        EmployeeLookupIndex index = EmployeeLookupIndex.of(hierarchy, 20, 50);
+        DepthIndex depthIndex = DepthIndex.of(hierarchy);
+        Map<Employee, String> violations = new EmployeeHierarchyReportService().reportManagersSalaryPolicyViolation(hierarchy, 20, 50);
+
+        int size = hierarchy.size();
+        int[] ids = new int[size];
+        for (int i = 0; i < size; i++) ids[i] = hierarchy.id(size - 1 - i);
+        EmployeeLookupResult result = index.lookup(ids);
+
+        assertEquals(size, index.size());
+        assertEquals(size, result.size());
+        int[] organizationSizes = new int[size];
+        for (int ordinal = size - 1; ordinal > EmployeeHierarchy.ROOT; ordinal--) {
+            organizationSizes[hierarchy.managerOrdinal(ordinal)] += organizationSizes[ordinal] + 1;
+        }
+        for (int position = 0; position < size; position++) {
+            int ordinal = size - 1 - position;
+            assertTrue(result.isFound(position));
+            assertEquals(ordinal, result.ordinals()[position]);
+            if (ordinal != EmployeeHierarchy.ROOT) {
+                assertEquals(hierarchy.id(hierarchy.managerOrdinal(ordinal)), result.managerIds()[position]);
+            }
+            assertEquals(depthIndex.depth(ordinal), result.depths()[position]);
+            assertEquals(hierarchy.subordinateCount(ordinal), result.teamSizes()[position]);
+            assertEquals(organizationSizes[ordinal], result.organizationSizes()[position]);
+
+            String violation = violations.get(hierarchy.employee(ordinal));
+            byte expected = (violation == null) ? EmployeeLookupIndex.NO_VIOLATION
+                    : violation.contains("lesser") ? EmployeeLookupIndex.UNDERPAID : EmployeeLookupIndex.OVERPAID;
+            assertEquals(expected, result.violations()[position]);
+        }
+        assertEquals(size - 1, result.organizationSizes()[size - 1]);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"243, 225, 8", "2033, 1900, 7", "486, 450, 8"})
+    void shouldGiveSameSalaryPolicyStatusAsReportOnBandBounds(int salary, int subordinateSalary, int percentage) {
+        EmployeeHierarchy hierarchy = CompactEmployeeHierarchy.of(EmployeeTable.of(List.of(
+                new Employee(1, "Joe", "Doe", salary, null),
+                new Employee(2, "Martin", "Chekov", subordinateSalary, 1))));
+        EmployeeHierarchyReportService report = new EmployeeHierarchyReportService();
+
+        assertEquals(1, report.reportManagersSalaryPolicyViolation(hierarchy, percentage, 50).size());
+        assertEquals(EmployeeLookupIndex.UNDERPAID, EmployeeLookupIndex.of(hierarchy, percentage, 50).lookup(new int[]{1}).violations()[0]);
+        assertTrue(report.reportManagersSalaryPolicyViolation(hierarchy, 0, percentage).isEmpty());
+        assertEquals(EmployeeLookupIndex.NO_VIOLATION, EmployeeLookupIndex.of(hierarchy, 0, percentage).lookup(new int[]{1}).violations()[0]);
+    }
+
+    @Test
+    void shouldKeepPositionsOfRepeatedAndUnknownIds() {
+        EmployeeHierarchy hierarchy = hierarchyOf("SampleData.csv");
+        EmployeeLookupIndex index = EmployeeLookupIndex.of(hierarchy, 20, 50);
+        int ceo = hierarchy.id(EmployeeHierarchy.ROOT);
+        int subordinate = hierarchy.id(hierarchy.firstSubordinate(EmployeeHierarchy.ROOT));
+
+        EmployeeLookupResult result = index.lookup(new int[]{subordinate, -42, ceo, subordinate, ceo});
+
+        assertArrayEquals(new int[]{1, -1, 0, 1, 0}, result.depths());
+        assertFalse(result.isFound(1));
+        assertEquals(EmployeeHierarchy.NOT_FOUND, result.ordinals()[1]);
+        assertEquals(ceo, result.managerIds()[0]);
+        assertEquals(ceo, result.managerIds()[3]);
+        assertEquals(hierarchy.size() - 1, result.organizationSizes()[2]);
+        assertEquals(result.organizationSizes()[2], result.organizationSizes()[4]);
+        assertEquals(0, index.lookup(new int[0]).size());
+
+        int[] manyIds = new int[4000];
+        for (int i = 0; i < manyIds.length; i++) manyIds[i] = (i % 2 == 0) ? -i : ceo;
+        EmployeeLookupResult manyResult = index.lookup(manyIds);
+        for (int i = 0; i < manyIds.length; i++) {
+            assertEquals((i % 2 == 0) ? -1 : 0, manyResult.depths()[i]);
+        }
+    }
+
+    @Test
+    void shouldFailsWithInvalidParams() {
+        EmployeeLookupIndex index = EmployeeLookupIndex.of(hierarchyOf("SampleData.csv"), 20, 50);
+
+        assertThrows("Employees hierarchy must not be null", NullPointerException.class,
+                () -> EmployeeLookupIndex.of(null, 20, 50));
+        assertThrows("Employee ids must not be null", NullPointerException.class, () -> index.lookup(null));
+    }
+}
@@ -0,0 +1,137 @@
+package com.big.company.analytics.domain;
+
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeNodeGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchyRegistryTests {
+
+    @Test
+    void shouldPublishVersionsOfPersistentHierarchy() {
+        List<Employee> employees = new EmployeeCsvFileReader().readFile(new File(TEST_FILEPATH, "SampleData.csv"));
+        PersistentEmployeeHierarchy initial = PersistentEmployeeHierarchy.of(new EmployeeNodeGenerator().generateEmployeesHierarchy(employees));
+        HierarchyRegistry<PersistentEmployeeHierarchy> registry = new HierarchyRegistry<>(initial);
+        HierarchyRegistry.Snapshot<PersistentEmployeeHierarchy> first = registry.current();
+
+        HierarchyRegistry.Snapshot<PersistentEmployeeHierarchy> second = registry.update(hierarchy ->
+                hierarchy.withEmployee(new Employee(9999, "New", "Hire", 40000, hierarchy.root().employee().id())));
+
+        assertEquals(0, first.version());
+        assertEquals(1, second.version());
+        assertTrue(second.supersedes(first));
+        assertFalse(first.supersedes(second));
+        assertFalse(second.supersedes(new HierarchyRegistry<>(initial).current()));
+        assertSame(second, registry.current());
+        assertSame(initial, first.hierarchy());
+        assertNull(first.hierarchy().employee(9999));
+        assertEquals(initial.size() + 1, registry.current().hierarchy().size());
+        assertTrue(first.isReclaimed());
+    }
+
+    @Test
+    void shouldReclaimRetiredSnapshotOnceItsReadersDrain() {
+        List<String> reclaimed = new ArrayList<>();
+        HierarchyRegistry<String> registry = new HierarchyRegistry<>("v0", reclaimed::add);
+
+        HierarchyRegistry.Lease<String> first = registry.acquire();
+        HierarchyRegistry.Lease<String> second = registry.acquire();
+        registry.publish("v1");
+        assertEquals("v0", first.hierarchy());
+        assertEquals(List.of(), reclaimed);
+
+        first.close();
+        first.close();
+        assertEquals(List.of(), reclaimed);
+        second.close();
+        assertEquals(List.of("v0"), reclaimed);
+        assertThrows("Lease was already closed", IllegalStateException.class, second::snapshot);
+
+        registry.publish("v2");
+        assertEquals(List.of("v0", "v1"), reclaimed);
+        try (HierarchyRegistry.Lease<String> lease = registry.acquire()) {
+            assertEquals(2, lease.snapshot().version());
+            assertFalse(lease.snapshot().isReclaimed());
+        }
+        assertEquals(List.of("v0", "v1"), reclaimed);
+    }
+
+    @Test
+    void shouldNeverLetReadersSeeReclaimedSnapshots() throws InterruptedException {
+        ConcurrentLinkedQueue<AtomicBoolean> reclaimed = new ConcurrentLinkedQueue<>();
+        HierarchyRegistry<AtomicBoolean> registry = new HierarchyRegistry<>(new AtomicBoolean(), hierarchy -> {
+            hierarchy.set(true);
+            reclaimed.add(hierarchy);
+        });
+        int readers = 3;
+        int publishes = 20_000;
+        AtomicBoolean failed = new AtomicBoolean();
+        AtomicBoolean done = new AtomicBoolean();
+        CountDownLatch finished = new CountDownLatch(readers);
+        for (int i = 0; i < readers; i++) {
+            new Thread(() -> {
+                long lastVersion = -1;
+                while (!done.get()) {
+                    try (HierarchyRegistry.Lease<AtomicBoolean> lease = registry.acquire()) {
+                        if (lease.hierarchy().get() || lease.snapshot().version() < lastVersion) failed.set(true);
+                        lastVersion = lease.snapshot().version();
+                    }
+                }
+                finished.countDown();
+            }).start();
+        }
+
+        for (int i = 0; i < publishes; i++) registry.publish(new AtomicBoolean());
+        done.set(true);
+        finished.await();
+
+        assertFalse(failed.get());
+        assertEquals(publishes, registry.current().version());
+        assertEquals(publishes, reclaimed.size());
+        assertFalse(registry.current().isReclaimed());
+    }
+
+    @Test
+    void shouldApplyConcurrentUpdatesAtomically() throws InterruptedException {
+        HierarchyRegistry<Integer> registry = new HierarchyRegistry<>(0);
+        int threads = 4;
+        int updates = 5_000;
+        List<Thread> updaters = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread updater = new Thread(() -> {
+                for (int j = 0; j < updates; j++) registry.update(value -> value + 1);
+            });
+            updater.start();
+            updaters.add(updater);
+        }
+        for (Thread updater : updaters) updater.join();
+
+        assertEquals(threads * updates, registry.current().hierarchy());
+        assertEquals(threads * updates, registry.current().version());
+    }
+
+    @Test
+    void shouldFailsWithInvalidParams() {
+        HierarchyRegistry<String> registry = new HierarchyRegistry<>("v0");
+        HierarchyRegistry.Lease<String> lease = registry.acquire();
+        lease.close();
+
+        assertThrows("Hierarchy must not be null", NullPointerException.class, () -> new HierarchyRegistry<String>(null));
+        assertThrows("Reclaimer must not be null", NullPointerException.class, () -> new HierarchyRegistry<>("v0", null));
+        assertThrows("Hierarchy must not be null", NullPointerException.class, () -> registry.publish(null));
+        assertThrows("Update must not be null", NullPointerException.class, () -> registry.update(null));
+        assertThrows("Hierarchy must not be null", NullPointerException.class, () -> registry.update(value -> null));
+        assertThrows("Lease was already closed", IllegalStateException.class, lease::snapshot);
+        assertEquals(0, registry.current().version());
+    }
+}
@@ -0,0 +1,99 @@
+package com.big.company.analytics.domain;
+
+import com.big.company.analytics.services.EmployeeReportService;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapEmployeeHierarchyTests {
+
+    private static CompactEmployeeHierarchy hugeHierarchy() {
+        return CompactEmployeeHierarchy.of(new EmployeeCsvFileReader().readTable(new File(TEST_FILEPATH, "HugeData.csv")));
+    }
+
+    private static void assertSameHierarchy(EmployeeHierarchy expected, EmployeeHierarchy actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int ordinal = 0; ordinal < expected.size(); ordinal++) {
+            assertEquals(expected.employee(ordinal), actual.employee(ordinal));
+            assertEquals(expected.managerOrdinal(ordinal), actual.managerOrdinal(ordinal));
+            assertEquals(expected.firstSubordinate(ordinal), actual.firstSubordinate(ordinal));
+            assertEquals(expected.subordinateCount(ordinal), actual.subordinateCount(ordinal));
+            assertEquals(ordinal, actual.ordinalOf(expected.id(ordinal)));
+        }
+    }
+
+    @Test
+    void shouldStoreHierarchyInDirectBuffers() {
+        CompactEmployeeHierarchy hierarchy = hugeHierarchy();
+        OffHeapEmployeeHierarchy offHeap = OffHeapEmployeeHierarchy.ofDirect(hierarchy);
+
+        assertSameHierarchy(hierarchy, offHeap);
+        assertEquals(EmployeeHierarchy.NOT_FOUND, offHeap.ordinalOf(-1));
+        assertTrue(offHeap.offHeapBytes() > 32L * hierarchy.size());
+        assertThrowsExactly(IndexOutOfBoundsException.class, () -> offHeap.id(hierarchy.size()));
+    }
+
+    @Test
+    void shouldStoreHierarchyInTemporaryMappedFileByDefault() throws IOException {
+        CompactEmployeeHierarchy hierarchy = hugeHierarchy();
+        Path tempDir = Path.of(System.getProperty("java.io.tmpdir"));
+        long filesBefore;
+        try (Stream<Path> files = Files.list(tempDir)) {
+            filesBefore = files.filter(file -> file.getFileName().toString().startsWith("hierarchy")).count();
+        }
+
+        OffHeapEmployeeHierarchy offHeap = OffHeapEmployeeHierarchy.of(hierarchy);
+
+        assertSameHierarchy(hierarchy, offHeap);
+        assertEquals(EmployeeHierarchy.NOT_FOUND, offHeap.ordinalOf(-1));
+        if (!System.getProperty("os.name").startsWith("Windows")) {
+            try (Stream<Path> files = Files.list(tempDir)) {
+                assertEquals(filesBefore, files.filter(file -> file.getFileName().toString().startsWith("hierarchy")).count());
+            }
+        }
+        assertThrows("Employees hierarchy must not be null", NullPointerException.class, () -> OffHeapEmployeeHierarchy.of(null));
+    }
+
+    @Test
+    void shouldSpreadRecordsAndNamesOverSmallSegments() {
+        EmployeeTable table = EmployeeTable.of(List.of(
+                new Employee(1, "Zoë", "Ångström", 90000, null),
+                new Employee(2, "José", "Müller-Lüdenscheidt", 50000, 1),
+                new Employee(3, "😀", "\uD800", 40000, 1)));
+        CompactEmployeeHierarchy hierarchy = CompactEmployeeHierarchy.of(table);
+
+        OffHeapEmployeeHierarchy offHeap = OffHeapEmployeeHierarchy.ofDirect(hierarchy, 5);
+
+        assertSameHierarchy(CompactEmployeeHierarchy.of(EmployeeTable.of(List.of(
+                new Employee(1, "Zoë", "Ångström", 90000, null),
+                new Employee(2, "José", "Müller-Lüdenscheidt", 50000, 1),
+                new Employee(3, "😀", "?", 40000, 1)))), offHeap);
+    }
+
+    @Test
+    void shouldReportFromMemoryMappedStore(@TempDir Path tempDir) {
+        CompactEmployeeHierarchy hierarchy = hugeHierarchy();
+        OffHeapEmployeeHierarchy mapped = OffHeapEmployeeHierarchy.map(hierarchy, tempDir.resolve("hierarchy.bin"));
+        EmployeeReportService report = new EmployeeHierarchyReportService();
+
+        assertSameHierarchy(hierarchy, mapped);
+        assertEquals(report.reportManagersSalaryPolicyViolation(hierarchy, 20, 50),
+                report.reportManagersSalaryPolicyViolation(mapped, 20, 50));
+        assertEquals(report.reportManagersWithExcessiveReportingLines(hierarchy, 4),
+                report.reportManagersWithExcessiveReportingLines(mapped, 4));
+        assertThrows("Employees hierarchy must not be null", NullPointerException.class,
+                () -> OffHeapEmployeeHierarchy.map(null, tempDir.resolve("other.bin")));
+    }
+}
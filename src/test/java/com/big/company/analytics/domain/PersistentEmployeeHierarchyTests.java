@@ -0,0 +1,170 @@
+package com.big.company.analytics.domain;
+
+import com.big.company.analytics.exception.EmployeeException;
+import com.big.company.analytics.services.EmployeeReportService;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
+import com.big.company.analytics.services.impl.EmployeeNodeGenerator;
+import com.big.company.analytics.services.impl.HierarchyDiffEngine;
+import com.big.company.analytics.util.PersistentList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentEmployeeHierarchyTests {
+
+    private final EmployeeReportService report = new EmployeeHierarchyReportService();
+
+    private static List<Employee> replaced(List<Employee> employees, Employee employee) {
+        List<Employee> result = new ArrayList<>(employees);
+        result.replaceAll(existing -> existing.id().equals(employee.id()) ? employee : existing);
+        return result;
+    }
+
+    private void assertSameReports(List<Employee> employees, PersistentEmployeeHierarchy hierarchy) {
+        EmployeeNode expected = new EmployeeNodeGenerator().generateEmployeesHierarchy(employees);
+        assertEquals(report.reportManagersSalaryPolicyViolation(expected), report.reportManagersSalaryPolicyViolation(hierarchy.root()));
+        assertEquals(report.reportManagersWithExcessiveReportingLines(expected), report.reportManagersWithExcessiveReportingLines(hierarchy.root()));
+        assertEquals(expected.size(), hierarchy.size());
+    }
+
+    @Test
+    void shouldAnswerReportsAsOfEachVersion() {
+        List<Employee> employees = new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "SampleData.csv");
+        EmployeeNode root = new EmployeeNodeGenerator().generateEmployeesHierarchy(employees);
+        EmployeeHierarchyHistory history = new EmployeeHierarchyHistory(PersistentEmployeeHierarchy.of(root));
+        assertEquals(root, history.latest().root());
+
+        Employee raised = new Employee(103, "Michael", "Johnson", 90000, 101);
+        history.commit(history.latest().withEmployee(raised));
+        List<Employee> raisedEmployees = replaced(employees, raised);
+
+        Employee moved = new Employee(109, "Matthew", "Clark", 42000, 104);
+        history.commit(history.latest().withEmployee(moved));
+        List<Employee> movedEmployees = replaced(raisedEmployees, moved);
+
+        Employee hired = new Employee(500, "Emily", "Brown", 30000, 120);
+        history.commit(history.latest().withEmployee(hired).withoutEmployee(129));
+        List<Employee> hiredEmployees = new ArrayList<>(movedEmployees);
+        hiredEmployees.add(hired);
+        hiredEmployees.removeIf(employee -> employee.id() == 129);
+
+        assertEquals(4, history.versionCount());
+        assertSameReports(employees, history.asOf(0));
+        assertSameReports(raisedEmployees, history.asOf(1));
+        assertSameReports(movedEmployees, history.asOf(2));
+        assertSameReports(hiredEmployees, history.asOf(3));
+        assertEquals(root, history.asOf(0).root());
+        assertEquals(moved, history.asOf(3).employee(109));
+        assertNull(history.asOf(3).employee(129));
+    }
+
+    @Test
+    void shouldShareUnchangedSubtreesBetweenVersions() {
+        List<Employee> employees = new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "HugeData.csv");
+        PersistentEmployeeHierarchy before = PersistentEmployeeHierarchy.of(new EmployeeNodeGenerator().generateEmployeesHierarchy(employees));
+        EmployeeNode changedSubtree = before.root().subordinates().get(0);
+        Employee changed = changedSubtree.employee();
+
+        PersistentEmployeeHierarchy after = before.withEmployee(
+                new Employee(changed.id(), changed.firstName(), changed.lastName(), changed.salary() + 1, changed.managerId()));
+
+        assertNotSame(before.root(), after.root());
+        assertSame(changedSubtree.subordinates(), after.root().subordinates().get(0).subordinates());
+        for (int i = 1; i < before.root().subordinates().size(); i++) {
+            assertSame(before.root().subordinates().get(i), after.root().subordinates().get(i));
+        }
+        assertSame(before.employee(employees.get(10).id()), after.employee(employees.get(10).id()));
+        assertEquals(changed.salary(), before.employee(changed.id()).salary());
+    }
+
+    @Test
+    void shouldCopyFewSubordinatesOfWideManager() {
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee(0, "Joe", "Doe", 900000, null));
+        for (int id = 1; id <= 50_000; id++) employees.add(new Employee(id, "First" + id, "Last" + id, 40000, 0));
+        PersistentEmployeeHierarchy before = PersistentEmployeeHierarchy.of(new EmployeeNodeGenerator().generateEmployeesHierarchy(employees));
+
+        PersistentEmployeeHierarchy after = before.withEmployee(new Employee(25_000, "First25000", "Last25000", 41000, 0))
+                .withEmployee(new Employee(50_001, "New", "Hire", 30000, 0));
+
+        List<EmployeeNode> beforeSubordinates = before.root().subordinates();
+        List<EmployeeNode> afterSubordinates = after.root().subordinates();
+        assertInstanceOf(PersistentList.class, afterSubordinates);
+        assertEquals(50_001, afterSubordinates.size());
+        assertEquals(41000, afterSubordinates.get(24_999).employee().salary());
+        assertEquals(40000, beforeSubordinates.get(24_999).employee().salary());
+        assertEquals(50_000, beforeSubordinates.size());
+        assertSameReports(replaced(employees, after.employee(25_000)), after.withoutEmployee(50_001));
+    }
+
+    @Test
+    void shouldRebaseOnNewlyLoadedSnapshot() {
+        List<Employee> employees = List.of(new Employee(1, "Joe", "Doe", 90000, null),
+                new Employee(2, "Bob", "Ronstad", 60000, 1), new Employee(3, "Martin", "Chekov", 45000, 2),
+                new Employee(4, "Alice", "Hasacat", 50000, 2), new Employee(5, "Brett", "Hardleaf", 34000, 4),
+                new Employee(6, "Steve", "Strange", 62000, 1), new Employee(7, "Wanda", "Maximoff", 41000, 6));
+        PersistentEmployeeHierarchy current = PersistentEmployeeHierarchy.of(new EmployeeNodeGenerator().generateEmployeesHierarchy(employees));
+
+        // Alice takes over from Bob, who now reports to a new director under her, and Martin leaves
+        List<Employee> loaded = List.of(new Employee(1, "Joe", "Doe", 90000, null),
+                new Employee(4, "Alice", "Hasacat", 65000, 1), new Employee(8, "Nick", "Fury", 58000, 4),
+                new Employee(2, "Bob", "Ronstad", 60000, 8), new Employee(5, "Brett", "Hardleaf", 34000, 4),
+                new Employee(6, "Steve", "Strange", 62000, 1), new Employee(7, "Wanda", "Maximoff", 41000, 6));
+        EmployeeHierarchy snapshot = new EmployeeNodeGenerator().generateHierarchy(loaded);
+
+        PersistentEmployeeHierarchy rebased = new HierarchyDiffEngine().rebase(current, snapshot);
+
+        assertSameReports(loaded, rebased);
+        assertNull(rebased.employee(3));
+        assertEquals(Integer.valueOf(8), rebased.employee(2).managerId());
+        assertSame(current.root().subordinates().get(1), rebased.root().subordinates().get(0));
+        assertSameReports(employees, current);
+    }
+
+    @Test
+    void shouldRebaseOnSnapshotChangingOnlyNames() {
+        PersistentEmployeeHierarchy current = PersistentEmployeeHierarchy.of(new EmployeeNodeGenerator().generateEmployeesHierarchy(
+                List.of(new Employee(1, "Joe", "Doe", 90000, null), new Employee(2, "Old", "Name", 60000, 1),
+                        new Employee(3, "Martin", "Chekov", 45000, 2))));
+        Employee renamed = new Employee(2, "New", "Name", 60000, 1);
+        EmployeeHierarchy snapshot = new EmployeeNodeGenerator().generateHierarchy(
+                List.of(new Employee(1, "Joe", "Doe", 90000, null), renamed, new Employee(3, "Martin", "Chekov", 45000, 2)));
+
+        List<HierarchyChange> changes = new HierarchyDiffEngine().diff(CompactEmployeeHierarchy.of(current.root()), snapshot);
+        PersistentEmployeeHierarchy rebased = new HierarchyDiffEngine().rebase(current, snapshot);
+
+        assertEquals(List.of(new HierarchyChange(HierarchyChange.Type.NAME_CHANGED, current.employee(2), renamed, null)), changes);
+        assertEquals(renamed, rebased.employee(2));
+        assertEquals(renamed, rebased.root().subordinates().get(0).employee());
+        assertEquals("Old", current.employee(2).firstName());
+    }
+
+    @Test
+    void shouldFailsWithInvalidChanges() {
+        PersistentEmployeeHierarchy hierarchy = PersistentEmployeeHierarchy.of(new EmployeeNodeGenerator().generateEmployeesHierarchy(
+                List.of(new Employee(1, "Joe", "Doe", 60000, null), new Employee(2, "Bob", "Ronstad", 47000, 1),
+                        new Employee(3, "Martin", "Chekov", 45000, 2))));
+
+        assertThrows("Employee list has more than one CEO", EmployeeException.class,
+                () -> hierarchy.withEmployee(new Employee(4, "Alice", "Hasacat", 80000, null)));
+        assertThrows("Employee list has no CEO", EmployeeException.class,
+                () -> hierarchy.withEmployee(new Employee(1, "Joe", "Doe", 60000, 3)));
+        assertThrows("No manager id 9 was found on the hierarchy", EmployeeException.class,
+                () -> hierarchy.withEmployee(new Employee(4, "Alice", "Hasacat", 80000, 9)));
+        assertThrows("Reporting line of employee with id 2 would be a cycle", EmployeeException.class,
+                () -> hierarchy.withEmployee(new Employee(2, "Bob", "Ronstad", 47000, 3)));
+        assertThrows("Employee with id 2 still has subordinates", EmployeeException.class,
+                () -> hierarchy.withoutEmployee(2));
+        assertThrows("No employee id 9 was found on the hierarchy", EmployeeException.class,
+                () -> hierarchy.withoutEmployee(9));
+        assertThrows("Employees hierarchy must not be null", NullPointerException.class,
+                () -> PersistentEmployeeHierarchy.of(null));
+        assertThrowsExactly(IndexOutOfBoundsException.class, () -> new EmployeeHierarchyHistory(hierarchy).asOf(1));
+    }
+}
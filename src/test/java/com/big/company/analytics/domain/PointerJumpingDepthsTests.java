@@ -0,0 +1,70 @@
+package com.big.company.analytics.domain;
+
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.Random;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointerJumpingDepthsTests {
+
+    @Test
+    void shouldComputeSameDepthsAsDepthIndex() {
+        EmployeeTable table = new EmployeeCsvFileReader().readTable(new File(TEST_FILEPATH, "HugeData.csv"));
+        EmployeeHierarchy hierarchy = CompactEmployeeHierarchy.of(table);
+        DepthIndex index = DepthIndex.of(hierarchy);
+
+        int[] depths = PointerJumpingDepths.of(table);
+
+        for (int ordinal = 0; ordinal < hierarchy.size(); ordinal++) {
+            assertEquals(index.depth(ordinal), depths[table.ordinalOf(hierarchy.id(ordinal))]);
+        }
+    }
+
+    @Test
+    void shouldComputeDepthsOfLongShuffledReportingLine() {
+        int size = 200_000;
+        int[] positions = new int[size];
+        for (int i = 0; i < size; i++) positions[i] = i;
+        Random random = new Random(42);
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = positions[i];
+            positions[i] = positions[j];
+            positions[j] = swap;
+        }
+        int[] managerOrdinals = new int[size];
+        managerOrdinals[positions[0]] = PointerJumpingDepths.NO_MANAGER;
+        for (int depth = 1; depth < size; depth++) {
+            managerOrdinals[positions[depth]] = positions[depth - 1];
+        }
+
+        int[] depths = PointerJumpingDepths.of(managerOrdinals);
+
+        for (int depth = 0; depth < size; depth++) {
+            assertEquals(depth, depths[positions[depth]]);
+        }
+    }
+
+    @Test
+    void shouldMarkCyclesAndUnknownManagersAsUnreachable() {
+        int[] managerOrdinals = {-1, 0, 1, 4, 3, EmployeeTable.UNKNOWN_MANAGER, 5, 7, -1};
+
+        assertArrayEquals(new int[]{0, 1, 2, -1, -1, -1, -1, -1, 0}, PointerJumpingDepths.of(managerOrdinals));
+        assertArrayEquals(new int[0], PointerJumpingDepths.of(new int[0]));
+    }
+
+    @Test
+    void shouldFailsWithInvalidParams() {
+        assertThrows("Manager ordinals must not be null", NullPointerException.class,
+                () -> PointerJumpingDepths.of((int[]) null));
+        assertThrows("Employee table must not be null", NullPointerException.class,
+                () -> PointerJumpingDepths.of((EmployeeTable) null));
+        assertThrows("Manager ordinal 3 of employee 1 is out of range", IllegalArgumentException.class,
+                () -> PointerJumpingDepths.of(new int[]{-1, 3, 0}));
+    }
+}
@@ -0,0 +1,91 @@
+package com.big.company.analytics.domain;
+
+import com.big.company.analytics.services.EmployeeReportService;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalaryRatioIndexTests {
+
+    private EmployeeHierarchy hierarchyOf(String fileName) {
+        return CompactEmployeeHierarchy.of(new EmployeeCsvFileReader().readTable(new File(TEST_FILEPATH, fileName)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SampleData.csv", "SalaryViolationPolicyData.csv", "HugeData.csv"})
+    void shouldFindSameViolationsAsReport(String fileName) {
+        EmployeeHierarchy hierarchy = hierarchyOf(fileName);
+        SalaryRatioIndex index = SalaryRatioIndex.of(hierarchy);
+        EmployeeReportService report = new EmployeeHierarchyReportService();
+
+        for (int minimumPercentage = -10; minimumPercentage <= 60; minimumPercentage += 7) {
+            for (int maximumPercentage = 0; maximumPercentage <= 80; maximumPercentage += 10) {
+                Map<Employee, String> expected = report.reportManagersSalaryPolicyViolation(hierarchy, minimumPercentage, maximumPercentage);
+                List<Employee> violations = index.violations(minimumPercentage, maximumPercentage);
+
+                assertEquals(expected.size(), index.countViolations(minimumPercentage, maximumPercentage));
+                assertEquals(expected.keySet(), new HashSet<>(violations));
+                assertEquals(expected.size(), violations.size());
+            }
+        }
+    }
+
+    @Test
+    void shouldAnswerThresholdSweep() {
+        SalaryRatioIndex index = SalaryRatioIndex.of(hierarchyOf("HugeData.csv"));
+
+        int[] counts = index.countViolations(new int[]{20, 27, 0}, new int[]{50, 50, 1000});
+
+        assertArrayEquals(new int[]{966, index.countViolations(27, 50), index.countViolations(0, 1000)}, counts);
+        assertTrue(counts[1] >= counts[0]);
+        assertEquals(index.managerCount(), index.countViolations(1000, 0));
+        assertThrows("Minimum and maximum percentages should have the same length", IllegalArgumentException.class,
+                () -> index.countViolations(new int[]{20}, new int[0]));
+        assertThrows("Employees hierarchy must not be null", NullPointerException.class,
+                () -> SalaryRatioIndex.of(null));
+    }
+
+    @Test
+    void shouldNeverReportManagersWithoutSalaryRatio() {
+        EmployeeTable table = EmployeeTable.of(List.of(
+                new Employee(1, "Joe", "Doe", 0, null),
+                new Employee(2, "Martin", "Chekov", 0, 1)));
+        SalaryRatioIndex index = SalaryRatioIndex.of(CompactEmployeeHierarchy.of(table));
+
+        assertEquals(1, index.managerCount());
+        assertEquals(0, index.countViolations(1000, 0));
+        assertTrue(index.violations(20, 50).isEmpty());
+    }
+
+    @ParameterizedTest
+    @CsvSource({"243, 225, 8", "2033, 1900, 7", "486, 450, 8"})
+    void shouldFindSameViolationsAsReportOnBandBounds(int salary, int subordinateSalary, int minimumPercentage) {
+        EmployeeTable table = EmployeeTable.of(List.of(
+                new Employee(1, "Joe", "Doe", salary, null),
+                new Employee(2, "Martin", "Chekov", subordinateSalary, 1)));
+        EmployeeHierarchy hierarchy = CompactEmployeeHierarchy.of(table);
+        SalaryRatioIndex index = SalaryRatioIndex.of(hierarchy);
+        Map<Employee, String> expected = new EmployeeHierarchyReportService()
+                .reportManagersSalaryPolicyViolation(hierarchy, minimumPercentage, 50);
+        Map<Employee, String> atMaximum = new EmployeeHierarchyReportService()
+                .reportManagersSalaryPolicyViolation(hierarchy, 0, minimumPercentage);
+
+        assertEquals(1, expected.size());
+        assertEquals(expected.size(), index.countViolations(minimumPercentage, 50));
+        assertEquals(expected.keySet(), new HashSet<>(index.violations(minimumPercentage, 50)));
+        assertEquals(atMaximum.size(), index.countViolations(0, minimumPercentage));
+        assertEquals(atMaximum.keySet(), new HashSet<>(index.violations(0, minimumPercentage)));
+    }
+}
@@ -0,0 +1,80 @@
+package com.big.company.analytics.domain;
+
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubtreeSalaryQuantilesTests {
+
+    private EmployeeHierarchy hierarchyOf(String fileName) {
+        return CompactEmployeeHierarchy.of(new EmployeeCsvFileReader().readTable(new File(TEST_FILEPATH, fileName)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SampleData.csv", "SalaryViolationPolicyData.csv", "HugeData.csv"})
+    void shouldEstimateSubtreeQuantilesWithinAccuracy(String fileName) {
+        EmployeeHierarchy hierarchy = hierarchyOf(fileName);
+
+        SubtreeSalaryQuantiles quantiles = SubtreeSalaryQuantiles.of(hierarchy);
+
+        for (int ordinal = 0; ordinal < hierarchy.size(); ordinal++) {
+            if (hierarchy.subordinateCount(ordinal) == 0) {
+                assertTrue(Double.isNaN(quantiles.median(ordinal)));
+                continue;
+            }
+            int[] salaries = subtreeSalaries(hierarchy, ordinal);
+            double exactMedian = salaries[(int) (SubtreeSalaryQuantiles.MEDIAN * (salaries.length - 1))];
+            double exactPercentile90 = salaries[(int) (SubtreeSalaryQuantiles.PERCENTILE_90 * (salaries.length - 1))];
+            assertEquals(exactMedian, quantiles.median(ordinal), exactMedian * SubtreeSalaryQuantiles.DEFAULT_RELATIVE_ACCURACY);
+            assertEquals(exactPercentile90, quantiles.percentile90(ordinal), exactPercentile90 * SubtreeSalaryQuantiles.DEFAULT_RELATIVE_ACCURACY);
+        }
+    }
+
+    @Test
+    void shouldComputeRequestedQuantiles() {
+        EmployeeHierarchy hierarchy = hierarchyOf("HugeData.csv");
+
+        SubtreeSalaryQuantiles quantiles = SubtreeSalaryQuantiles.of(hierarchy, 0.02, 200, 0, 1);
+
+        int[] salaries = subtreeSalaries(hierarchy, EmployeeHierarchy.ROOT);
+        assertEquals(salaries[0], quantiles.quantile(EmployeeHierarchy.ROOT, 0), salaries[0] * 0.02);
+        assertEquals(salaries[salaries.length - 1], quantiles.quantile(EmployeeHierarchy.ROOT, 1), salaries[salaries.length - 1] * 0.02);
+        assertThrows("Quantile 0.5 was not computed", IllegalArgumentException.class, () -> quantiles.median(EmployeeHierarchy.ROOT));
+    }
+
+    @Test
+    void shouldFailsWithInvalidParams() {
+        EmployeeHierarchy hierarchy = hierarchyOf("SampleData.csv");
+
+        assertThrows("Employees hierarchy must not be null", NullPointerException.class, () -> SubtreeSalaryQuantiles.of(null));
+        assertThrows("Quantiles must not be null", NullPointerException.class,
+                () -> SubtreeSalaryQuantiles.of(hierarchy, 0.01, 100, (double[]) null));
+        assertThrows("Quantile should be between 0 and 1", IllegalArgumentException.class,
+                () -> SubtreeSalaryQuantiles.of(hierarchy, 0.01, 100, 90));
+        assertThrows("Relative accuracy should be between 0 and 1", IllegalArgumentException.class,
+                () -> SubtreeSalaryQuantiles.of(hierarchy, 2, 100, 0.5));
+    }
+
+    private static int[] subtreeSalaries(EmployeeHierarchy hierarchy, int manager) {
+        List<Integer> pending = new ArrayList<>(List.of(manager));
+        List<Integer> salaries = new ArrayList<>();
+        while (!pending.isEmpty()) {
+            int ordinal = pending.remove(pending.size() - 1);
+            int first = hierarchy.firstSubordinate(ordinal);
+            for (int subordinate = first; subordinate < first + hierarchy.subordinateCount(ordinal); subordinate++) {
+                salaries.add(hierarchy.salary(subordinate));
+                pending.add(subordinate);
+            }
+        }
+        return salaries.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+}
@@ -6,22 +6,31 @@ import com.big.company.analytics.exception.ParseExtractionException;
 import com.big.company.analytics.services.impl.AnalyticsManager;
 import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
 import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
+import com.big.company.analytics.services.impl.EmployeeHierarchyValidator;
 import com.big.company.analytics.services.impl.EmployeeNodeGenerator;
+import com.big.company.analytics.services.impl.ExecutionMode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
 import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILENAME;
 import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class AnalyticsServiceTests {
 
@@ -45,7 +54,11 @@ class AnalyticsServiceTests {
         assertThrows("Employee report service must not be null", NullPointerException.class,
                 () -> new AnalyticsManager(fileReaderService, nodeService, null));
         assertThrows("File must not be null", NullPointerException.class,
-                () -> new AnalyticsManager(fileReaderService, nodeService, reportService, null));
+                () -> new AnalyticsManager(fileReaderService, nodeService, reportService, (File) null));
+        assertThrows("Execution mode must not be null", NullPointerException.class,
+                () -> new AnalyticsManager(fileReaderService, nodeService, reportService, (ExecutionMode) null));
+        assertThrows("Execution mode must not be null", NullPointerException.class,
+                () -> new AnalyticsManager(fileReaderService, nodeService, reportService, new File(TEST_FILENAME), null));
     }
 
     @Test
@@ -87,6 +100,106 @@ class AnalyticsServiceTests {
         assertDoesNotThrow(analyticsManager::runAnalytics);
     }
 
+    @ParameterizedTest()
+    @MethodSource("validFiles")
+    void shouldRunPipelinedReportsWithValidFileSuccess(String fileName) {
+        File file = new File(TEST_FILEPATH + fileName);
+        AnalyticsManager analyticsManager = new AnalyticsManager(fileReaderService, nodeService, reportService, file, ExecutionMode.PIPELINED);
+        assertDoesNotThrow(analyticsManager::runAnalytics);
+    }
+
+    @ParameterizedTest()
+    @MethodSource("validFiles")
+    void shouldRunExternalMemoryReportsWithValidFileSuccess(String fileName) {
+        File file = new File(TEST_FILEPATH + fileName);
+        AnalyticsManager analyticsManager = new AnalyticsManager(fileReaderService, nodeService, reportService, file, ExecutionMode.EXTERNAL_MEMORY);
+        assertDoesNotThrow(analyticsManager::runAnalytics);
+    }
+
+    @ParameterizedTest()
+    @MethodSource("validFiles")
+    void shouldRunStreamingSalaryPolicyReportWithValidFileSuccess(String fileName) {
+        File file = new File(TEST_FILEPATH + fileName);
+        AnalyticsManager analyticsManager = new AnalyticsManager(fileReaderService, nodeService, reportService, file, ExecutionMode.SALARY_POLICY_ONLY);
+        assertDoesNotThrow(analyticsManager::runAnalytics);
+    }
+
+    @ParameterizedTest()
+    @MethodSource("validFiles")
+    void shouldRunParallelReportsWithValidFileSuccess(String fileName) {
+        File file = new File(TEST_FILEPATH + fileName);
+        AnalyticsManager analyticsManager = new AnalyticsManager(fileReaderService, nodeService, reportService, file, ExecutionMode.PARALLEL);
+        assertDoesNotThrow(analyticsManager::runAnalytics);
+    }
+
+    @Test
+    void shouldRunParallelReportsWithConfiguredValidation() {
+        AtomicInteger validations = new AtomicInteger();
+        EmployeeHierarchyValidator validator = new EmployeeHierarchyValidator();
+        EmployeeNodeService validatingNodeService = new EmployeeNodeGenerator(employees -> {
+            validations.incrementAndGet();
+            return validator.validate(employees);
+        });
+        File file = new File(TEST_FILEPATH + "HugeData.csv");
+
+        assertDoesNotThrow(new AnalyticsManager(fileReaderService, validatingNodeService, reportService, file, ExecutionMode.PARALLEL)::runAnalytics);
+        assertEquals(1, validations.get());
+
+        AtomicInteger generations = new AtomicInteger();
+        EmployeeNodeService customNodeService = employees -> {
+            generations.incrementAndGet();
+            return nodeService.generateEmployeesHierarchy(employees);
+        };
+        assertDoesNotThrow(new AnalyticsManager(fileReaderService, customNodeService, reportService, file, ExecutionMode.PARALLEL)::runAnalytics);
+        assertEquals(1, generations.get());
+    }
+
+    @ParameterizedTest()
+    @MethodSource("validFiles")
+    void shouldRunPartitionedReportsWithValidFileSuccess(String fileName) {
+        File file = new File(TEST_FILEPATH + fileName);
+        AnalyticsManager analyticsManager = new AnalyticsManager(fileReaderService, nodeService, reportService, file, ExecutionMode.PARTITIONED);
+        assertDoesNotThrow(analyticsManager::runAnalytics);
+    }
+
+    @ParameterizedTest()
+    @MethodSource("validFiles")
+    void shouldRunPlannedReportsWithValidFileSuccess(String fileName) {
+        File file = new File(TEST_FILEPATH + fileName);
+        AnalyticsManager analyticsManager = new AnalyticsManager(fileReaderService, nodeService, reportService, file, ExecutionMode.AUTO);
+        assertDoesNotThrow(analyticsManager::runAnalytics);
+    }
+
+    @ParameterizedTest()
+    @EnumSource(value = ExecutionMode.class, names = {"IN_MEMORY", "PIPELINED", "EXTERNAL_MEMORY", "SALARY_POLICY_ONLY", "AUTO"})
+    void shouldRunReportsFromInputChannelSuccess(ExecutionMode executionMode) throws IOException {
+        try (ReadableByteChannel input = Files.newByteChannel(Path.of(TEST_FILEPATH, "HugeData.csv"))) {
+            AnalyticsManager analyticsManager = new AnalyticsManager(fileReaderService, nodeService, reportService, input, executionMode);
+            assertDoesNotThrow(analyticsManager::runAnalytics);
+        }
+        assertThrows("Input channel must not be null", NullPointerException.class,
+                () -> new AnalyticsManager(fileReaderService, nodeService, reportService, (ReadableByteChannel) null, executionMode));
+    }
+
+    @ParameterizedTest()
+    @EnumSource(value = ExecutionMode.class, names = {"IN_MEMORY", "PARALLEL", "PARTITIONED", "AUTO"})
+    void shouldRunReportsFromSeveralFilesSuccess(ExecutionMode executionMode) {
+        List<File> files = List.of(new File(TEST_FILEPATH + TEST_FILENAME), new File(TEST_FILEPATH + "SalaryViolationPolicyData.csv"));
+        AnalyticsManager analyticsManager = new AnalyticsManager(fileReaderService, nodeService, reportService, files, executionMode);
+        assertDoesNotThrow(analyticsManager::runAnalytics);
+    }
+
+    @Test
+    void shouldSeveralFilesFailsWithInvalidParams() {
+        List<File> files = List.of(new File(TEST_FILEPATH + TEST_FILENAME));
+        assertThrows("Files must not be null", NullPointerException.class,
+                () -> new AnalyticsManager(fileReaderService, nodeService, reportService, (List<File>) null, ExecutionMode.IN_MEMORY));
+        assertThrows("At least one file should be given", IllegalArgumentException.class,
+                () -> new AnalyticsManager(fileReaderService, nodeService, reportService, List.of(), ExecutionMode.IN_MEMORY));
+        assertThrows("Execution mode pipelined does not support several files", IllegalArgumentException.class,
+                () -> new AnalyticsManager(fileReaderService, nodeService, reportService, files, ExecutionMode.PIPELINED));
+    }
+
     private static Stream<Arguments> invalidDataFiles() {
         return Stream.of(
                 Arguments.of(
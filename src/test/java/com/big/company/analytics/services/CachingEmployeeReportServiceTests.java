@@ -0,0 +1,169 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.domain.CompactEmployeeHierarchy;
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
+import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.domain.HierarchyRegistry;
+import com.big.company.analytics.services.impl.CachingEmployeeReportService;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
+import com.big.company.analytics.services.impl.EmployeeNodeGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILENAME;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingEmployeeReportServiceTests {
+
+    List<Employee> employees;
+    EmployeeNode employeesHierarchy;
+    CachingEmployeeReportService report;
+
+    @BeforeEach
+    void init() {
+        this.employees = new EmployeeCsvFileReader().readFile(TEST_FILEPATH, TEST_FILENAME);
+        this.employeesHierarchy = new EmployeeNodeGenerator().generateEmployeesHierarchy(employees);
+        this.report = new CachingEmployeeReportService(new EmployeeHierarchyReportService(), 2, true);
+    }
+
+    @Test
+    void shouldAnswerRepeatedReportsFromCache() {
+        EmployeeHierarchy compactHierarchy = CompactEmployeeHierarchy.of(employeesHierarchy);
+        Map<Employee, String> first = report.reportManagersSalaryPolicyViolation(compactHierarchy, 20, 50);
+        Map<Employee, String> second = report.reportManagersSalaryPolicyViolation(compactHierarchy, 20, 50);
+
+        assertSame(first, second);
+        assertEquals(new EmployeeHierarchyReportService().reportManagersSalaryPolicyViolation(employeesHierarchy, 20, 50), first);
+        assertEquals(1, report.hitCount());
+        assertEquals(1, report.missCount());
+
+        report.reportManagersSalaryPolicyViolation(compactHierarchy, 27, 50);
+        assertEquals(2, report.missCount());
+        assertEquals(2, report.size());
+        assertThrows(null, UnsupportedOperationException.class, first::clear);
+    }
+
+    @Test
+    void shouldNotCacheHierarchyTreeChangedInPlace() {
+        Map<Employee, Integer> before = report.reportManagersWithExcessiveReportingLines(employeesHierarchy, 0);
+        EmployeeNode deepest = employeesHierarchy;
+        while (!deepest.subordinates().isEmpty()) deepest = deepest.subordinates().get(0);
+        Employee newcomer = new Employee(999, "New", "Comer", 30000, deepest.employee().id());
+        deepest.addEmployee(newcomer);
+
+        Map<Employee, Integer> after = report.reportManagersWithExcessiveReportingLines(employeesHierarchy, 0);
+
+        assertFalse(before.containsKey(newcomer));
+        assertTrue(after.containsKey(newcomer));
+        assertEquals(0, report.hitCount());
+        assertEquals(0, report.size());
+    }
+
+    @Test
+    void shouldDropReportsOfOlderVersionsWhenNewerSnapshotIsRequested() {
+        HierarchyRegistry<EmployeeNode> registry = new HierarchyRegistry<>(employeesHierarchy);
+        HierarchyRegistry.Snapshot<EmployeeNode> firstVersion = registry.current();
+        Map<Employee, Integer> first = report.reportManagersWithExcessiveReportingLines(firstVersion, 4);
+        assertSame(first, report.reportManagersWithExcessiveReportingLines(firstVersion, 4));
+        assertEquals(1, report.size());
+
+        HierarchyRegistry.Snapshot<EmployeeNode> secondVersion = registry.publish(new EmployeeNodeGenerator().generateEmployeesHierarchy(employees));
+        Map<Employee, Integer> second = report.reportManagersWithExcessiveReportingLines(secondVersion, 4);
+
+        assertNotSame(first, second);
+        assertEquals(first, second);
+        assertEquals(1, report.size());
+        assertEquals(1, report.hitCount());
+        assertEquals(2, report.missCount());
+
+        report.invalidate();
+        assertEquals(0, report.size());
+        assertNotSame(second, report.reportManagersWithExcessiveReportingLines(secondVersion, 4));
+    }
+
+    @Test
+    void shouldDropReportsOfReclaimedSnapshots() {
+        HierarchyRegistry<EmployeeNode> registry = new HierarchyRegistry<>(employeesHierarchy);
+        HierarchyRegistry.Snapshot<EmployeeNode> firstVersion = registry.current();
+        EmployeeHierarchy compactHierarchy = CompactEmployeeHierarchy.of(employeesHierarchy);
+        report.reportManagersWithExcessiveReportingLines(firstVersion, 4);
+        report.reportManagersWithExcessiveReportingLines(compactHierarchy, 4);
+        assertEquals(2, report.size());
+
+        registry.publish(new EmployeeNodeGenerator().generateEmployeesHierarchy(employees));
+
+        assertTrue(firstVersion.isReclaimed());
+        assertEquals(1, report.size());
+        report.reportManagersWithExcessiveReportingLines(firstVersion, 4);
+        assertEquals(1, report.size());
+        assertEquals(0, report.hitCount());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedResult() {
+        EmployeeHierarchy compactHierarchy = CompactEmployeeHierarchy.of(employeesHierarchy);
+        Map<Employee, Integer> threshold4 = report.reportManagersWithExcessiveReportingLines(compactHierarchy, 4);
+        report.reportManagersWithExcessiveReportingLines(compactHierarchy, 5);
+        report.reportManagersWithExcessiveReportingLines(compactHierarchy, 4);
+        report.reportManagersWithExcessiveReportingLines(compactHierarchy, 6);
+
+        assertEquals(2, report.size());
+        assertSame(threshold4, report.reportManagersWithExcessiveReportingLines(compactHierarchy, 4));
+        report.reportManagersWithExcessiveReportingLines(compactHierarchy, 5);
+        assertEquals(2, report.hitCount());
+        assertEquals(4, report.missCount());
+    }
+
+    @Test
+    void shouldPrintCachedReports() {
+        HierarchyRegistry.Snapshot<EmployeeNode> snapshot = new HierarchyRegistry<>(employeesHierarchy).current();
+        PrintStream standardOutput = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+        try {
+            report.reportManagersSalaryPolicyViolation(snapshot, 20, 50);
+            String computed = output.toString(StandardCharsets.UTF_8);
+            output.reset();
+            report.reportManagersSalaryPolicyViolation(snapshot, 20, 50);
+
+            assertEquals(1, report.hitCount());
+            assertEquals(computed, output.toString(StandardCharsets.UTF_8));
+
+            output.reset();
+            CachingEmployeeReportService silentReport = new CachingEmployeeReportService(new EmployeeHierarchyReportService(), 2);
+            silentReport.reportManagersSalaryPolicyViolation(snapshot, 20, 50);
+            output.reset();
+            silentReport.reportManagersSalaryPolicyViolation(snapshot, 20, 50);
+
+            assertEquals(1, silentReport.hitCount());
+            assertEquals("", output.toString(StandardCharsets.UTF_8));
+        } finally {
+            System.setOut(standardOutput);
+        }
+    }
+
+    @Test
+    void shouldFailsWhenCreateCacheWithInvalidParams() {
+        assertThrows("Employee report service must not be null", NullPointerException.class,
+                () -> new CachingEmployeeReportService(null));
+        assertThrows("Maximum entries should be positive", IllegalArgumentException.class,
+                () -> new CachingEmployeeReportService(new EmployeeHierarchyReportService(), 0));
+        assertThrows("Employees hierarchy must not be null", NullPointerException.class,
+                () -> report.reportManagersSalaryPolicyViolation((EmployeeNode) null));
+        assertThrows("Reporting lines threshold must not be null", NullPointerException.class,
+                () -> report.reportManagersWithExcessiveReportingLines(employeesHierarchy, null));
+        assertThrows("Hierarchy snapshot must not be null", NullPointerException.class,
+                () -> report.reportManagersWithExcessiveReportingLines((HierarchyRegistry.Snapshot<EmployeeNode>) null, 4));
+        assertEquals(0, report.size());
+    }
+}
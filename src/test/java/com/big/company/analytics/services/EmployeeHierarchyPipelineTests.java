@@ -0,0 +1,131 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.exception.EmployeeNodeServiceException;
+import com.big.company.analytics.exception.ParseExtractionException;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeHierarchyPipeline;
+import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
+import com.big.company.analytics.services.impl.EmployeeNodeGenerator;
+import com.big.company.analytics.services.impl.IncrementalEmployeeNodeBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILENAME;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmployeeHierarchyPipelineTests {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReadFileInBatches() {
+        List<Integer> batchSizes = new ArrayList<>();
+        new EmployeeCsvFileReader().readFile(new File(TEST_FILEPATH + TEST_FILENAME), 30, batch -> batchSizes.add(batch.size()));
+
+        assertEquals(List.of(30, 30, 30, 10), batchSizes);
+    }
+
+    @Test
+    void shouldBuildSameHierarchyAsGenerator() {
+        File file = new File(TEST_FILEPATH + "HugeData.csv");
+        EmployeeHierarchyPipeline.Result result = new EmployeeHierarchyPipeline(new EmployeeCsvFileReader(), 64, 2).run(file);
+        EmployeeNode expectedHierarchy = new EmployeeNodeGenerator().generateEmployeesHierarchy(new EmployeeCsvFileReader().readFile(file));
+
+        assertEquals(2900, result.employeesRead());
+        assertEquals(expectedHierarchy.size(), result.employeesHierarchy().size());
+
+        EmployeeReportService report = new EmployeeHierarchyReportService();
+        assertEquals(report.reportManagersSalaryPolicyViolation(expectedHierarchy),
+                report.reportManagersSalaryPolicyViolation(result.employeesHierarchy()));
+        assertEquals(report.reportManagersWithExcessiveReportingLines(expectedHierarchy),
+                report.reportManagersWithExcessiveReportingLines(result.employeesHierarchy()));
+    }
+
+    @Test
+    void shouldBuildUnorderedHierarchyWithoutOrphans() {
+        EmployeeHierarchyPipeline.Result result = new EmployeeHierarchyPipeline(new EmployeeCsvFileReader(), 1, 1)
+                .run(new File(TEST_FILEPATH + "UnorderedData.csv"));
+
+        assertEquals(6, result.employeesRead());
+        assertEquals(5, result.employeesHierarchy().size());
+    }
+
+    @Test
+    void shouldBuildSameHierarchyAsGeneratorWithInvalidEmployees() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("Invalid.csv"), """
+                Id,firstName,lastName,salary,managerId
+                1,Joe,Doe,160000,
+                4,Martin,Chekov,40000,2
+                2,Bob,First,10000,1
+                2,Bob,Second,60000,1
+                5,Brett,Hardleaf,30000,2
+                6,Carl,Orphan,50000,99
+                7,Dana,Cycle,50000,8
+                8,Eric,Cycle,50000,7
+                9,Fay,Unreachable,40000,7
+                """);
+        EmployeeNode expectedHierarchy = new EmployeeNodeGenerator().generateEmployeesHierarchy(new EmployeeCsvFileReader().readFile(file.toFile()));
+
+        PrintStream standardOutput = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+        EmployeeHierarchyPipeline.Result result;
+        try {
+            result = new EmployeeHierarchyPipeline(new EmployeeCsvFileReader(), 1, 1).run(file.toFile());
+        } finally {
+            System.setOut(standardOutput);
+        }
+
+        EmployeeReportService report = new EmployeeHierarchyReportService();
+        assertEquals(expectedHierarchy.size(), result.employeesHierarchy().size());
+        for (int[] parameter : new int[][]{{20, 50, 1}, {0, 10, 0}}) {
+            assertEquals(report.reportManagersSalaryPolicyViolation(expectedHierarchy, parameter[0], parameter[1]),
+                    report.reportManagersSalaryPolicyViolation(result.employeesHierarchy(), parameter[0], parameter[1]));
+            assertEquals(report.reportManagersWithExcessiveReportingLines(expectedHierarchy, parameter[2]),
+                    report.reportManagersWithExcessiveReportingLines(result.employeesHierarchy(), parameter[2]));
+        }
+        String warnings = output.toString(StandardCharsets.UTF_8);
+        assertTrue(warnings.contains("Warning -> Removing employee with id 6 due no manager id 99 was found on the list"));
+        assertTrue(warnings.contains("Warning -> Removing employees with ids [7, 8] due their reporting line is a cycle"));
+        assertTrue(warnings.contains("Warning -> Employee id 2 was found more than once on the list"));
+        assertTrue(warnings.contains("Warning -> Removing employee with id 9 due its reporting line does not reach the CEO"));
+    }
+
+    @Test
+    void shouldPipelineFailsWithInvalidData() {
+        EmployeeHierarchyPipeline pipeline = new EmployeeHierarchyPipeline(new EmployeeCsvFileReader(), 1, 1);
+
+        assertThrows("Error on line number 2 -> For input string: \"WrongFormat\"", ParseExtractionException.class,
+                () -> pipeline.run(new File(TEST_FILEPATH + "WrongFormatData.csv")));
+    }
+
+    @Test
+    void shouldIncrementalBuilderFailsWithInvalidCEO() {
+        IncrementalEmployeeNodeBuilder builder = new IncrementalEmployeeNodeBuilder();
+        builder.addEmployee(new Employee(124, "Martin", "Chekov", 45000, 123));
+        assertThrows("Error when creating Employee Hierarchy | Employee list has no CEO", EmployeeNodeServiceException.class,
+                builder::build);
+
+        builder.addEmployee(new Employee(123, "Mark", "Zuckerberg", 250000, null));
+        assertEquals(2, builder.build().size());
+
+        assertThrows("Error when creating Employee Hierarchy | Employee list has more than one CEO", EmployeeNodeServiceException.class,
+                () -> builder.addEmployee(new Employee(345, "Elon", "Musk", 250000, null)));
+    }
+}
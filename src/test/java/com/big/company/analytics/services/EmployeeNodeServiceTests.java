@@ -1,9 +1,12 @@
 package com.big.company.analytics.services;
 
+import com.big.company.analytics.domain.CompactEmployeeHierarchy;
 import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
 import com.big.company.analytics.domain.EmployeeNode;
 import com.big.company.analytics.exception.EmployeeNodeServiceException;
 import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeHierarchyValidator;
 import com.big.company.analytics.services.impl.EmployeeNodeGenerator;
 import com.big.company.analytics.test.util.AssertThrows;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +18,7 @@ import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
 import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILENAME;
 import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class EmployeeNodeServiceTests {
 
@@ -39,11 +43,36 @@ class EmployeeNodeServiceTests {
         assertEquals(5, nodeService.generateEmployeesHierarchy(unorderedEmployees).size());
     }
 
+    @Test
+    void shouldGetSameEmployeesHierarchyInParallel() {
+        List<Employee> hugeEmployees = new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "HugeData.csv");
+        EmployeeNodeService nodeService = new EmployeeNodeGenerator(new EmployeeHierarchyValidator(), true);
+        assertEquals(new EmployeeNodeGenerator().generateEmployeesHierarchy(hugeEmployees),
+                nodeService.generateEmployeesHierarchy(hugeEmployees));
+        assertEquals(nodeService.generateEmployeesHierarchy(hugeEmployees),
+                new EmployeeNodeGenerator().parallel().generateEmployeesHierarchy(hugeEmployees));
+        assertSame(nodeService, nodeService.parallel());
+    }
+
+    @Test
+    void shouldGetEmployeesHierarchyWithoutNodes() {
+        EmployeeNodeService nodeService = new EmployeeNodeGenerator();
+        EmployeeHierarchy hierarchy = nodeService.generateHierarchy(employees);
+        EmployeeNode employeesHierarchy = nodeService.generateEmployeesHierarchy(employees);
+
+        assertEquals(employeesHierarchy.size(), hierarchy.size());
+        assertEquals(employeesHierarchy, ((CompactEmployeeHierarchy) hierarchy).toEmployeeNode());
+        EmployeeNodeService treeOnlyService = nodeService::generateEmployeesHierarchy;
+        assertEquals(employeesHierarchy, ((CompactEmployeeHierarchy) treeOnlyService.generateHierarchy(employees)).toEmployeeNode());
+    }
+
     @Test
     void shouldInvalidEmployeesListFails() {
         EmployeeNodeService nodeService = new EmployeeNodeGenerator();
         assertThrows("Employees list must not be null", NullPointerException.class,
                 () -> nodeService.generateEmployeesHierarchy(null));
+        assertThrows("Employees list must not be null", NullPointerException.class,
+                () -> nodeService.generateHierarchy(null));
 
         Employee anotherCEO = new Employee(345, "Elon", "Musk", 250000, null);
         employees.add(anotherCEO);
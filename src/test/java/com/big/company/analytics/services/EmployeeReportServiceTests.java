@@ -1,7 +1,11 @@
 package com.big.company.analytics.services;
 
+import com.big.company.analytics.domain.CompactEmployeeHierarchy;
 import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
 import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.domain.EmployeeTable;
+import com.big.company.analytics.domain.OffHeapEmployeeHierarchy;
 import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
 
 import static com.big.company.analytics.test.util.AssertThrows.*;
@@ -86,6 +90,56 @@ class EmployeeReportServiceTests {
                 () -> report.reportManagersWithExcessiveReportingLines(employeesHierarchy, null));
     }
 
+    @Test
+    void shouldReportSameManagersFromOrdinalIndexedHierarchy() {
+        this.employees = new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "HugeData.csv");
+        EmployeeNode employeesHierarchy = nodeService.generateEmployeesHierarchy(employees);
+        EmployeeHierarchy compactHierarchy = CompactEmployeeHierarchy.of(EmployeeTable.of(employees));
+
+        assertEquals(report.reportManagersSalaryPolicyViolation(employeesHierarchy, 20, 50),
+                report.reportManagersSalaryPolicyViolation(compactHierarchy, 20, 50));
+        assertEquals(report.reportManagersWithExcessiveReportingLines(employeesHierarchy, 4),
+                report.reportManagersWithExcessiveReportingLines(compactHierarchy, 4));
+        assertThrows("Employees hierarchy must not be null", NullPointerException.class,
+                () -> report.reportManagersWithExcessiveReportingLines((EmployeeHierarchy) null, 4));
+    }
+
+    @Test
+    void shouldReportOrdinalIndexedHierarchyThroughTreeByDefault() {
+        EmployeeNode employeesHierarchy = nodeService.generateEmployeesHierarchy(employees);
+        EmployeeReportService treeOnlyReport = new EmployeeReportService() {
+            @Override
+            public Map<Employee, String> reportManagersSalaryPolicyViolation(EmployeeNode employeeHierarchy, Integer minimumPercentage, Integer maximumPercentage) {
+                return report.reportManagersSalaryPolicyViolation(employeeHierarchy, minimumPercentage, maximumPercentage);
+            }
+
+            @Override
+            public Map<Employee, String> reportManagersSalaryPolicyViolation(EmployeeNode employeeHierarchy) {
+                return report.reportManagersSalaryPolicyViolation(employeeHierarchy);
+            }
+
+            @Override
+            public Map<Employee, Integer> reportManagersWithExcessiveReportingLines(EmployeeNode employeeHierarchy, Integer reportingLinesThreshold) {
+                return report.reportManagersWithExcessiveReportingLines(employeeHierarchy, reportingLinesThreshold);
+            }
+
+            @Override
+            public Map<Employee, Integer> reportManagersWithExcessiveReportingLines(EmployeeNode employeeHierarchy) {
+                return report.reportManagersWithExcessiveReportingLines(employeeHierarchy);
+            }
+        };
+
+        for (EmployeeHierarchy hierarchy : List.of(CompactEmployeeHierarchy.of(employeesHierarchy),
+                OffHeapEmployeeHierarchy.ofDirect(CompactEmployeeHierarchy.of(employeesHierarchy)))) {
+            assertEquals(report.reportManagersSalaryPolicyViolation(employeesHierarchy, 20, 50),
+                    treeOnlyReport.reportManagersSalaryPolicyViolation(hierarchy, 20, 50));
+            assertEquals(report.reportManagersWithExcessiveReportingLines(employeesHierarchy, 4),
+                    treeOnlyReport.reportManagersWithExcessiveReportingLines(hierarchy, 4));
+        }
+        assertThrows("Employees hierarchy must not be null", NullPointerException.class,
+                () -> treeOnlyReport.reportManagersWithExcessiveReportingLines((EmployeeHierarchy) null, 4));
+    }
+
     @Test
     void shouldRunReportsConcurrently() {
         this.employees = new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "HugeData.csv");
@@ -0,0 +1,93 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.services.impl.ExecutionMode;
+import com.big.company.analytics.services.impl.ExecutionPlanner;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutionPlannerTests {
+
+    private static final long GB = 1L << 30;
+
+    @Test
+    void shouldPlanSmallFileInMemory() {
+        File file = new File(TEST_FILEPATH, "HugeData.csv");
+
+        ExecutionPlanner.Plan plan = new ExecutionPlanner(2 * GB, 8).plan(file);
+
+        assertEquals(ExecutionMode.IN_MEMORY, plan.mode());
+        assertEquals(file.length(), plan.inputSize());
+        assertTrue(plan.estimatedRows() > 2800 && plan.estimatedRows() < 3000, "Rows estimated: " + plan.estimatedRows());
+        assertEquals(2 * GB, plan.availableHeap());
+        assertEquals(8, plan.processors());
+        assertFalse(plan.reasons().isEmpty());
+        assertTrue(plan.stages().startsWith("read: whole file into a list"));
+    }
+
+    @Test
+    void shouldPlanByEstimatedFootprintAndCores(@TempDir Path tempDir) throws IOException {
+        File file = writeRows(tempDir.resolve("employees.csv"), 300_000);
+        long footprint = new ExecutionPlanner(GB, 1).plan(file).estimatedHeap();
+
+        assertEquals(ExecutionMode.PARALLEL, new ExecutionPlanner(8 * footprint, 8).plan(file).mode());
+        assertEquals(ExecutionMode.PIPELINED, new ExecutionPlanner(8 * footprint, 2).plan(file).mode());
+        assertEquals(ExecutionMode.IN_MEMORY, new ExecutionPlanner(8 * footprint, 1).plan(file).mode());
+        assertEquals(ExecutionMode.PIPELINED, new ExecutionPlanner(3 * footprint, 8).plan(file).mode());
+        assertEquals(ExecutionMode.EXTERNAL_MEMORY, new ExecutionPlanner(footprint, 8).plan(file).mode());
+    }
+
+    @Test
+    void shouldEstimateRowsOfGzipFileFromItsUncompressedContent(@TempDir Path tempDir) throws IOException {
+        File plain = writeRows(tempDir.resolve("employees.csv"), 300_000);
+        Path gzip = tempDir.resolve("employees.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzip))) {
+            Files.copy(plain.toPath(), out);
+        }
+
+        ExecutionPlanner.Plan plan = new ExecutionPlanner(8 * GB, 8).plan(gzip.toFile());
+
+        assertEquals(plain.length(), plan.inputSize());
+        // the sampled prefix holds the shortest ids, so the rows are overestimated
+        assertTrue(plan.estimatedRows() >= 300_000 && plan.estimatedRows() < 360_000, "Rows estimated: " + plan.estimatedRows());
+        assertEquals(ExecutionMode.PARALLEL, plan.mode());
+    }
+
+    @Test
+    void shouldPlanInputsOfUnknownSizeOutOfCore(@TempDir Path tempDir) {
+        ExecutionPlanner planner = new ExecutionPlanner(8 * GB, 8);
+
+        assertEquals(ExecutionMode.EXTERNAL_MEMORY, planner.planChannel().mode());
+        assertEquals(-1, planner.planChannel().estimatedRows());
+        assertEquals(ExecutionMode.EXTERNAL_MEMORY, planner.plan(tempDir.toFile()).mode());
+    }
+
+    @Test
+    void shouldFailsWithInvalidParams() {
+        assertThrows("Available heap should not be negative", IllegalArgumentException.class,
+                () -> new ExecutionPlanner(-1, 1));
+        assertThrows("Processors should be at least 1", IllegalArgumentException.class,
+                () -> new ExecutionPlanner(GB, 0));
+        assertThrows("File must not be null", NullPointerException.class,
+                () -> new ExecutionPlanner(GB, 1).plan(null));
+    }
+
+    private static File writeRows(Path file, int rows) throws IOException {
+        StringBuilder content = new StringBuilder("Id,firstName,lastName,salary,managerId\n1,John,Doe,90000,\n");
+        for (int id = 2; id <= rows; id++) {
+            content.append(id).append(",Jane,Smith,50000,").append(id / 2).append('\n');
+        }
+        Files.writeString(file, content);
+        return file.toFile();
+    }
+}
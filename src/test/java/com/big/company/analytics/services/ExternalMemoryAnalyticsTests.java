@@ -0,0 +1,150 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.exception.EmployeeNodeServiceException;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
+import com.big.company.analytics.services.impl.EmployeeNodeGenerator;
+import com.big.company.analytics.services.impl.ExternalMemoryAnalytics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalMemoryAnalyticsTests {
+
+    @TempDir
+    Path tempDir;
+
+    private static boolean isEmpty(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.findAny().isEmpty();
+        }
+    }
+
+    private static void assertSameReportsAsInMemory(ExternalMemoryAnalytics analytics, File file, int[][] parameters) {
+        List<Employee> employees = new EmployeeCsvFileReader().readFile(file);
+        EmployeeNode employeesHierarchy = new EmployeeNodeGenerator().generateEmployeesHierarchy(employees);
+        EmployeeReportService report = new EmployeeHierarchyReportService();
+
+        for (int[] parameter : parameters) {
+            CollectingReportSink sink = new CollectingReportSink();
+            ExternalMemoryAnalytics.Result result = analytics.analyze(file, parameter[0], parameter[1], parameter[2], sink);
+
+            assertEquals(report.reportManagersSalaryPolicyViolation(employeesHierarchy, parameter[0], parameter[1]),
+                    sink.salaryPolicyViolations);
+            assertEquals(report.reportManagersWithExcessiveReportingLines(employeesHierarchy, parameter[2]),
+                    sink.excessiveReportingLines);
+            assertEquals(sink.salaryPolicyViolations.size(), result.salaryPolicyViolations());
+            assertEquals(sink.excessiveReportingLines.size(), result.excessiveReportingLines());
+            assertEquals(employees.size(), result.employeesRead());
+            assertEquals(employeesHierarchy.size(), result.employeesInHierarchy());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SampleData.csv", "SalaryViolationPolicyData.csv", "UnorderedData.csv", "HugeData.csv"})
+    void shouldComputeSameReportsAsInMemory(String fileName) throws IOException {
+        ExternalMemoryAnalytics analytics = new ExternalMemoryAnalytics(new EmployeeCsvFileReader(), tempDir, 4 * 1024);
+
+        assertSameReportsAsInMemory(analytics, new File(TEST_FILEPATH, fileName), new int[][]{{20, 50, 4}, {27, 50, 6}, {0, 10, 0}});
+        assertTrue(isEmpty(tempDir));
+    }
+
+    @Test
+    void shouldComputeSameReportsAsInMemoryWithInvalidEmployees() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("Invalid.csv"), """
+                Id,firstName,lastName,salary,managerId
+                1,Joe,Doe,160000,
+                2,Bob,Ronstad,90000,1
+                4,Martin,Chekov,40000,3
+                3,Alice,Hasacat,70000,2
+                3,Alice,Moved,35000,1
+                5,Brett,Hardleaf,30000,4
+                1,Joe,Again,50000,2
+                6,Carl,Orphan,50000,99
+                7,Dana,Cycle,50000,8
+                8,Eric,Cycle,50000,7
+                9,Fay,Unreachable,40000,7
+                3,Alice,Third,20000,5
+                """);
+        Path workDirectory = Files.createDirectory(tempDir.resolve("work"));
+        ExternalMemoryAnalytics analytics = new ExternalMemoryAnalytics(new EmployeeCsvFileReader(), workDirectory, 1);
+
+        assertSameReportsAsInMemory(analytics, file.toFile(), new int[][]{{20, 50, 4}, {0, 10, 0}, {50, 60, 2}, {10, 80, 3}});
+        assertTrue(isEmpty(workDirectory));
+    }
+
+    @Test
+    void shouldPlaceCEOAloneWhenItsIdIsFirstUsedByAnotherEmployee() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("RepeatedCeo.csv"), """
+                Id,firstName,lastName,salary,managerId
+                2,Bob,Ronstad,90000,1
+                1,Joe,Doe,160000,
+                3,Alice,Hasacat,70000,2
+                """);
+        Path workDirectory = Files.createDirectory(tempDir.resolve("work"));
+        ExternalMemoryAnalytics analytics = new ExternalMemoryAnalytics(new EmployeeCsvFileReader(), workDirectory, 1);
+
+        assertSameReportsAsInMemory(analytics, file.toFile(), new int[][]{{20, 50, 0}});
+        assertTrue(isEmpty(workDirectory));
+    }
+
+    @Test
+    void shouldFailsWhenFileHasNoSingleCEO() throws IOException {
+        ExternalMemoryAnalytics analytics = new ExternalMemoryAnalytics(new EmployeeCsvFileReader(), tempDir, 1024);
+        Path noCeo = Files.writeString(tempDir.resolve("NoCeo.csv"), "Id,firstName,lastName,salary,managerId\n2,Joe,Doe,60000,1\n");
+        Path twoCeos = Files.writeString(tempDir.resolve("TwoCeos.csv"), "Id,firstName,lastName,salary,managerId\n1,Joe,Doe,60000,\n2,Bob,Ronstad,47000,\n");
+
+        assertThrows("Error when creating Employee Hierarchy | Employee list has no CEO", EmployeeNodeServiceException.class,
+                () -> analytics.analyze(noCeo.toFile(), new CollectingReportSink()));
+        assertThrows("Error when creating Employee Hierarchy | Employee list has more than one CEO", EmployeeNodeServiceException.class,
+                () -> analytics.analyze(twoCeos.toFile(), new CollectingReportSink()));
+        assertThrows("Report sink should not be null", NullPointerException.class,
+                () -> analytics.analyze(twoCeos.toFile(), null));
+        Files.delete(noCeo);
+        Files.delete(twoCeos);
+        assertTrue(isEmpty(tempDir));
+    }
+
+    @Test
+    void shouldFailsWhenCreateWithInvalidParams() {
+        assertThrows("File reader service must not be null", NullPointerException.class,
+                () -> new ExternalMemoryAnalytics(null));
+        assertThrows("Temporary directory must not be null", NullPointerException.class,
+                () -> new ExternalMemoryAnalytics(new EmployeeCsvFileReader(), null, 1024));
+        assertThrows("Memory budget should be positive", IllegalArgumentException.class,
+                () -> new ExternalMemoryAnalytics(new EmployeeCsvFileReader(), tempDir, 0));
+    }
+
+    private static final class CollectingReportSink implements ExternalMemoryAnalytics.ReportSink {
+
+        private final Map<Employee, String> salaryPolicyViolations = new HashMap<>();
+
+        private final Map<Employee, Integer> excessiveReportingLines = new HashMap<>();
+
+        @Override
+        public void salaryPolicyViolation(Employee manager, String violation) {
+            salaryPolicyViolations.put(manager, violation);
+        }
+
+        @Override
+        public void excessiveReportingLine(Employee employee, int excess) {
+            excessiveReportingLines.put(employee, excess);
+        }
+    }
+}
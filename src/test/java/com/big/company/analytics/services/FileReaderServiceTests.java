@@ -1,15 +1,36 @@
 package com.big.company.analytics.services;
 
+import com.big.company.analytics.domain.CompactEmployeeHierarchy;
 import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeTable;
 import com.big.company.analytics.exception.FileReaderException;
 import com.big.company.analytics.exception.ParseExtractionException;
 import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
 
 import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
 import static org.junit.jupiter.api.Assertions.*;
@@ -119,4 +140,184 @@ class FileReaderServiceTests {
 
         assertEquals(expectedEmployees.size(), employeeData.size());
     }
+
+    @Test
+    void shouldGzipDataSuccessfullyExtracted(@TempDir Path tempDir) throws IOException {
+        Path gzipFile = tempDir.resolve("HugeData.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzipFile))) {
+            Files.copy(Path.of(TEST_FILEPATH, "HugeData.csv"), out);
+        }
+
+        List<Employee> expectedEmployees = fileReaderService.readFile(TEST_FILEPATH, "HugeData.csv");
+        assertEquals(expectedEmployees, fileReaderService.readFile(gzipFile.toFile()));
+    }
+
+    @Test
+    void shouldDataWithAnyLineTerminatorSuccessfullyExtracted(@TempDir Path tempDir) throws IOException {
+        File file = tempDir.resolve("MixedLineTerminators.csv").toFile();
+        Files.writeString(file.toPath(), "Id,firstName,lastName,salary,managerId\r\n123,Joe,Doe,60000,\r\n"
+                + "124,Martin,Chekov,45000,123\r125,Bob,Ronstad,47000,123\n300,Alice,Hasacat,50000,124\n305,Brett,Hardleaf,34000,300", StandardCharsets.UTF_8);
+
+        List<Employee> expectedEmployees = fileReaderService.readFile(TEST_FILEPATH, "ValidatedDataWithHeader.csv");
+        assertEquals(expectedEmployees, fileReaderService.readFile(file));
+    }
+
+    @Test
+    void shouldProjectedTableDecodeNamesOnDemand() {
+        File file = new File(TEST_FILEPATH, "HugeData.csv");
+        EmployeeCsvFileReader reader = new EmployeeCsvFileReader();
+        EmployeeTable table = reader.readTable(file);
+
+        EmployeeTable projected = reader.readTable(file,
+                EnumSet.of(EmployeeTable.Column.ID, EmployeeTable.Column.SALARY, EmployeeTable.Column.MANAGER_ID));
+
+        assertEquals(table.size(), projected.size());
+        for (int ordinal = 0; ordinal < table.size(); ordinal++) {
+            assertEquals(table.employee(ordinal), projected.employee(ordinal));
+        }
+        EmployeeReportService report = new EmployeeHierarchyReportService();
+        assertEquals(report.reportManagersSalaryPolicyViolation(CompactEmployeeHierarchy.of(table), 20, 50),
+                report.reportManagersSalaryPolicyViolation(CompactEmployeeHierarchy.ofParallel(projected), 20, 50));
+        assertEquals(report.reportManagersWithExcessiveReportingLines(CompactEmployeeHierarchy.of(table), 4),
+                report.reportManagersWithExcessiveReportingLines(CompactEmployeeHierarchy.of(projected), 4));
+    }
+
+    @Test
+    void shouldProjectedTableSkipUndeclaredColumns(@TempDir Path tempDir) throws IOException {
+        Path file = Files.writeString(tempDir.resolve("Projected.csv"), "salary,lastName,Id,firstName,managerId\r\n"
+                + "60000,Doe,123,Joé,\r\nnot a salary,Chekov,124,Martin,123\n", StandardCharsets.UTF_8);
+        EmployeeCsvFileReader reader = new EmployeeCsvFileReader();
+
+        EmployeeTable projected = reader.readTable(file.toFile(), EnumSet.of(EmployeeTable.Column.ID));
+
+        assertEquals(new Employee(123, "Joé", "Doe", 0, null), projected.employee(0));
+        assertEquals(new Employee(124, "Martin", "Chekov", 0, 123), projected.employee(1));
+        assertThrows("Error on line number 2 -> For input string: \"not a salary\"", ParseExtractionException.class,
+                () -> reader.readTable(file.toFile(), EnumSet.of(EmployeeTable.Column.SALARY)));
+    }
+
+    @Test
+    void shouldProjectedTableDecodeNamesOfGzipData(@TempDir Path tempDir) throws IOException {
+        Path gzipFile = tempDir.resolve("HugeData.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzipFile))) {
+            Files.copy(Path.of(TEST_FILEPATH, "HugeData.csv"), out);
+        }
+        EmployeeCsvFileReader reader = new EmployeeCsvFileReader();
+
+        EmployeeTable projected = reader.readTable(gzipFile.toFile(), EnumSet.noneOf(EmployeeTable.Column.class));
+
+        EmployeeTable table = reader.readTable(new File(TEST_FILEPATH, "HugeData.csv"));
+        for (int ordinal = 0; ordinal < table.size(); ordinal++) {
+            assertEquals(table.firstName(ordinal), projected.firstName(ordinal));
+            assertEquals(table.id(ordinal), projected.id(ordinal));
+        }
+        assertThrows("Columns should not be null", NullPointerException.class,
+                () -> reader.readTable(gzipFile.toFile(), null));
+    }
+
+    @Test
+    void shouldLenientReaderRejectMalformedRows(@TempDir Path tempDir) throws IOException {
+        File file = tempDir.resolve("DirtyData.csv").toFile();
+        Files.writeString(file.toPath(), "Id,firstName,lastName,salary,managerId\n123,Joe,Doe,60000,\n"
+                + "124,Martin,Chekov,45k,123\n125,Bob,Ronstad,47000,123\n126,Short\n300,Alice,Hasacat,50000,12x\n"
+                + "305,Brett,Hardleaf,34000,125\n", StandardCharsets.UTF_8);
+        Path rejectedRows = tempDir.resolve("Rejected.txt");
+
+        List<Employee> employees = new EmployeeCsvFileReader(true, rejectedRows, 3).readFile(file);
+
+        assertEquals(List.of(new Employee(123, "Joe", "Doe", 60000, null),
+                new Employee(125, "Bob", "Ronstad", 47000, 123),
+                new Employee(305, "Brett", "Hardleaf", 34000, 125)), employees);
+        assertEquals(List.of("Line number 2 -> For input string: \"45k\" | 124,Martin,Chekov,45k,123",
+                "Line number 4 -> Line has less elements than the required size 4 | 126,Short",
+                "Line number 5 -> For input string: \"12x\" | 300,Alice,Hasacat,50000,12x"), Files.readAllLines(rejectedRows));
+        assertEquals(3, new EmployeeCsvFileReader(true, rejectedRows, 3).readTable(file).size());
+    }
+
+    @Test
+    void shouldLenientReaderFailWhenErrorBudgetIsExhausted(@TempDir Path tempDir) throws IOException {
+        File file = tempDir.resolve("DirtyData.csv").toFile();
+        Files.writeString(file.toPath(), "Id,firstName,lastName,salary,managerId\n123,Joe,Doe,60000,\n"
+                + "124,Martin,Chekov,45k,123\n126,Short\n305,Brett,Hardleaf,34000,123\n", StandardCharsets.UTF_8);
+        Path rejectedRows = tempDir.resolve("Rejected.txt");
+
+        assertThrows("Error on line number 3 -> Error budget of 1 rejected rows exhausted | Filename: Rejected.txt",
+                ParseExtractionException.class, () -> new EmployeeCsvFileReader(true, rejectedRows, 1).readFile(file));
+        assertEquals(2, Files.readAllLines(rejectedRows).size());
+        assertThrows("Rejected rows file should not be null", NullPointerException.class,
+                () -> new EmployeeCsvFileReader(true, null, 1));
+        assertThrows("Error budget should not be negative", IllegalArgumentException.class,
+                () -> new EmployeeCsvFileReader(true, rejectedRows, -1));
+    }
+
+    @Test
+    void shouldReadPlainAndGzipChannelsInBatches() throws IOException {
+        byte[] content = Files.readAllBytes(Path.of(TEST_FILEPATH, "HugeData.csv"));
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(content);
+        }
+        List<Employee> expectedEmployees = fileReaderService.readFile(TEST_FILEPATH, "HugeData.csv");
+
+        for (byte[] bytes : List.of(content, compressed.toByteArray())) {
+            ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(bytes));
+            List<Employee> employees = new ArrayList<>();
+            fileReaderService.readChannel(channel, 1000, batch -> {
+                assertTrue(batch.size() <= 1000);
+                employees.addAll(batch);
+            });
+            assertEquals(expectedEmployees, employees);
+            assertTrue(channel.isOpen());
+        }
+        assertThrows("Channel should not be null", NullPointerException.class,
+                () -> fileReaderService.readChannel(null, 10, batch -> {
+                }));
+    }
+
+    @Test
+    void shouldReadChannelWithDefaultImplementation() throws IOException {
+        FileReaderService<Employee> fileReaderOnly = new FileReaderService<>() {
+            @Override
+            public List<Employee> readFile(String path, String fileName) {
+                return fileReaderService.readFile(path, fileName);
+            }
+
+            @Override
+            public List<Employee> readFile(File file) {
+                return fileReaderService.readFile(file);
+            }
+        };
+        ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(Files.readAllBytes(Path.of(TEST_FILEPATH, "HugeData.csv"))));
+        List<Employee> employees = new ArrayList<>();
+
+        fileReaderOnly.readChannel(channel, 1000, batch -> {
+            assertTrue(batch.size() <= 1000);
+            employees.addAll(batch);
+        });
+
+        assertEquals(fileReaderService.readFile(TEST_FILEPATH, "HugeData.csv"), employees);
+        assertTrue(channel.isOpen());
+        assertThrows("Batch size should be positive", IllegalArgumentException.class,
+                () -> fileReaderOnly.readChannel(channel, 0, batch -> {
+                }));
+    }
+
+    @Test
+    @EnabledOnOs({OS.LINUX, OS.MAC})
+    void shouldReadNamedPipe(@TempDir Path tempDir) throws Exception {
+        Path fifo = tempDir.resolve("employees.fifo");
+        assertEquals(0, new ProcessBuilder("mkfifo", fifo.toString()).start().waitFor());
+        CompletableFuture<Long> writing = CompletableFuture.supplyAsync(() -> {
+            try (OutputStream out = Files.newOutputStream(fifo)) {
+                return Files.copy(Path.of(TEST_FILEPATH, "HugeData.csv"), out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        List<Employee> employees = fileReaderService.readFile(fifo.toFile());
+
+        assertTrue(writing.get() > 0);
+        assertEquals(fileReaderService.readFile(TEST_FILEPATH, "HugeData.csv"), employees);
+    }
 }
@@ -0,0 +1,90 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.domain.CompactEmployeeHierarchy;
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
+import com.big.company.analytics.domain.EmployeeTable;
+import com.big.company.analytics.domain.HierarchyChange;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.HierarchyDiffEngine;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchyDiffServiceTests {
+
+    private static EmployeeHierarchy hierarchyOf(Employee... employees) {
+        return CompactEmployeeHierarchy.of(EmployeeTable.of(List.of(employees)));
+    }
+
+    @Test
+    void shouldStreamEveryChangeBetweenSnapshots() {
+        Employee ceo = new Employee(1, "Joe", "Doe", 100000, null);
+        Employee manager = new Employee(2, "Martin", "Chekov", 50000, 1);
+        Employee removed = new Employee(3, "Bob", "Ronstad", 50000, 1);
+        Employee movedManager = new Employee(4, "Alice", "Hasacat", 40000, 2);
+        Employee moved = new Employee(5, "Brett", "Hardleaf", 30000, 4);
+        EmployeeHierarchy before = hierarchyOf(ceo, manager, removed, movedManager, moved);
+
+        Employee ceoWithNewSalary = new Employee(1, "Joe", "Doe", 70000, null);
+        Employee movedToManager = new Employee(5, "Brett", "Hardleaf", 30000, 2);
+        Employee added = new Employee(6, "Emily", "Brown", 20000, 5);
+        EmployeeHierarchy after = hierarchyOf(ceoWithNewSalary, manager, movedManager, movedToManager, added);
+
+        List<HierarchyChange> changes = new ArrayList<>();
+        new HierarchyDiffEngine().diff(before, after, 20, 50, 1, changes::add);
+
+        assertEquals(List.of(
+                new HierarchyChange(HierarchyChange.Type.SALARY_CHANGED, ceo, ceoWithNewSalary, null),
+                new HierarchyChange(HierarchyChange.Type.SALARY_POLICY_VIOLATION_RESOLVED, ceo, ceoWithNewSalary,
+                        "Salary is 25000.00 higher than the maximum salary allowed"),
+                new HierarchyChange(HierarchyChange.Type.MANAGER_CHANGED, moved, movedToManager, null),
+                new HierarchyChange(HierarchyChange.Type.ADDED, null, added, null),
+                new HierarchyChange(HierarchyChange.Type.EXCESSIVE_REPORTING_LINES_ADDED, null, added, "2"),
+                new HierarchyChange(HierarchyChange.Type.REMOVED, removed, null, null)
+        ), changes);
+        assertEquals(-30000, changes.get(0).salaryDelta());
+        assertEquals(3, changes.get(5).id());
+    }
+
+    @Test
+    void shouldFindNoChangeBetweenSameSnapshots() {
+        File file = new File(TEST_FILEPATH, "HugeData.csv");
+        EmployeeHierarchy before = CompactEmployeeHierarchy.of(new EmployeeCsvFileReader().readTable(file));
+        EmployeeHierarchy after = CompactEmployeeHierarchy.of(new EmployeeCsvFileReader().readTable(file));
+
+        assertTrue(new HierarchyDiffEngine().diff(before, after).isEmpty());
+    }
+
+    @Test
+    void shouldReportEveryEmployeeOfOtherSnapshotAsAddedOrRemoved() {
+        EmployeeHierarchy sample = CompactEmployeeHierarchy.of(new EmployeeCsvFileReader().readTable(new File(TEST_FILEPATH, "SampleData.csv")));
+        EmployeeHierarchy other = hierarchyOf(new Employee(1, "Joe", "Doe", 60000, null));
+
+        List<HierarchyChange> changes = new HierarchyDiffEngine().diff(sample, other);
+
+        assertEquals(1, changes.stream().filter(change -> change.type() == HierarchyChange.Type.ADDED).count());
+        assertEquals(sample.size(), changes.stream().filter(change -> change.type() == HierarchyChange.Type.REMOVED).count());
+    }
+
+    @Test
+    void shouldFailsWithInvalidParams() {
+        HierarchyDiffService diff = new HierarchyDiffEngine();
+        EmployeeHierarchy hierarchy = hierarchyOf(new Employee(1, "Joe", "Doe", 60000, null));
+
+        assertThrows("Earlier hierarchy must not be null", NullPointerException.class,
+                () -> diff.diff(null, hierarchy));
+        assertThrows("Later hierarchy must not be null", NullPointerException.class,
+                () -> diff.diff(hierarchy, null));
+        assertThrows("Changes consumer must not be null", NullPointerException.class,
+                () -> diff.diff(hierarchy, hierarchy, 20, 50, 4, null));
+        assertThrows("Changed employee must not be null", IllegalArgumentException.class,
+                () -> new HierarchyChange(HierarchyChange.Type.ADDED, null, null, null));
+    }
+}
@@ -0,0 +1,90 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.HierarchyValidationReport;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeHierarchyValidator;
+import com.big.company.analytics.services.impl.EmployeeNodeGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILENAME;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchyValidationServiceTests {
+
+    HierarchyValidationService validationService;
+    List<Employee> employees;
+
+    @BeforeEach
+    void init() {
+        this.validationService = new EmployeeHierarchyValidator();
+        this.employees = new ArrayList<>(Arrays.asList(
+                new Employee(123, "Joe", "Doe", 60000, null),
+                new Employee(124, "Martin", "Chekov", 45000, 123),
+                new Employee(125, "Bob", "Ronstad", 47000, 123),
+                new Employee(300, "Alice", "Hasacat", 50000, 124)
+        ));
+    }
+
+    @Test
+    void shouldValidateValidEmployees() {
+        HierarchyValidationReport validation = validationService.validate(new EmployeeCsvFileReader().readFile(TEST_FILEPATH, TEST_FILENAME));
+
+        assertTrue(validation.isValid());
+        assertEquals(101, validation.ceoCandidates().get(0).id());
+    }
+
+    @Test
+    void shouldReportEveryProblemInOnePass() {
+        employees.add(new Employee(124, "Martin", "Duplicated", 45000, 123));
+        employees.add(new Employee(304, "John", "Mysterious Manager", 45000, 999));
+        employees.add(new Employee(400, "Ann", "Loop", 40000, 402));
+        employees.add(new Employee(401, "Tom", "Loop", 40000, 400));
+        employees.add(new Employee(402, "Kim", "Loop", 40000, 401));
+        employees.add(new Employee(403, "Outside", "Loop", 40000, 400));
+        employees.add(new Employee(500, "Self", "Managed", 40000, 500));
+        employees.add(new Employee(345, "Elon", "Musk", 250000, null));
+
+        HierarchyValidationReport validation = validationService.validate(employees);
+
+        assertFalse(validation.isValid());
+        assertEquals(List.of(123, 345), validation.ceoCandidates().stream().map(Employee::id).toList());
+        assertEquals(List.of(124), validation.duplicateIds());
+        assertEquals(List.of(304), validation.orphans().stream().map(Employee::id).toList());
+        assertEquals(List.of(List.of(400, 402, 401), List.of(500)), validation.cycles());
+    }
+
+    @Test
+    void shouldReportMissingCEO() {
+        employees.remove(0);
+
+        HierarchyValidationReport validation = validationService.validate(employees);
+
+        assertTrue(validation.ceoCandidates().isEmpty());
+        assertEquals(List.of(124, 125), validation.orphans().stream().map(Employee::id).toList());
+    }
+
+    @Test
+    void shouldGeneratorLeaveCyclesOutOfHierarchy() {
+        employees.add(new Employee(400, "Ann", "Loop", 40000, 401));
+        employees.add(new Employee(401, "Tom", "Loop", 40000, 400));
+        employees.add(new Employee(403, "Outside", "Loop", 40000, 400));
+
+        assertEquals(4, new EmployeeNodeGenerator(validationService).generateEmployeesHierarchy(employees).size());
+    }
+
+    @Test
+    void shouldFailsWithNullParams() {
+        assertThrows("Employees list must not be null", NullPointerException.class,
+                () -> validationService.validate(null));
+        assertThrows("Hierarchy validation service must not be null", NullPointerException.class,
+                () -> new EmployeeNodeGenerator(null));
+    }
+}
@@ -0,0 +1,136 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
+import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.exception.WorkerProcessException;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
+import com.big.company.analytics.services.impl.EmployeeNodeGenerator;
+import com.big.company.analytics.services.impl.PartitionedAnalytics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedAnalyticsTests {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SampleData.csv", "HugeData.csv"})
+    void shouldComputeSameReportsAsSingleProcess(String fileName) {
+        List<Employee> employees = new EmployeeCsvFileReader().readFile(TEST_FILEPATH, fileName);
+        EmployeeNode employeesHierarchy = new EmployeeNodeGenerator().generateEmployeesHierarchy(employees);
+        EmployeeReportService report = new EmployeeHierarchyReportService();
+
+        PartitionedAnalytics.Result result = new PartitionedAnalytics(3).analyze(employeesHierarchy, 20, 50, 2);
+
+        assertEquals(report.reportManagersSalaryPolicyViolation(employeesHierarchy, 20, 50), result.salaryPolicyViolations());
+        assertEquals(report.reportManagersWithExcessiveReportingLines(employeesHierarchy, 2), result.excessiveReportingLines());
+        assertEquals(employeesHierarchy.size() - 1, result.partitionSizes().stream().mapToInt(Integer::intValue).sum());
+        assertTrue(result.partitionSizes().size() <= 3);
+    }
+
+    @Test
+    void shouldSplitBelowCEOWithSingleDirectReport() {
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee(1, "Joe", "Doe", 400000, null));
+        employees.add(new Employee(2, "Jane", "Coo", 150000, 1));
+        int id = 3;
+        for (int vicePresident = 0; vicePresident < 4; vicePresident++) {
+            int vicePresidentId = id++;
+            employees.add(new Employee(vicePresidentId, "Vice", "President", 90000 + vicePresident * 10000, 2));
+            for (int manager = 0; manager < 3; manager++) {
+                int managerId = id++;
+                employees.add(new Employee(managerId, "Team", "Manager", 60000 + manager * 5000, vicePresidentId));
+                for (int engineer = 0; engineer < 2; engineer++) {
+                    employees.add(new Employee(id++, "Software", "Engineer", 45000 + engineer * 3000, managerId));
+                }
+            }
+        }
+        EmployeeNode employeesHierarchy = new EmployeeNodeGenerator().generateEmployeesHierarchy(employees);
+        EmployeeReportService report = new EmployeeHierarchyReportService();
+
+        PartitionedAnalytics.Result result = new PartitionedAnalytics(3).analyze(employeesHierarchy, 20, 50, 2);
+
+        assertEquals(report.reportManagersSalaryPolicyViolation(employeesHierarchy, 20, 50), result.salaryPolicyViolations());
+        assertEquals(report.reportManagersWithExcessiveReportingLines(employeesHierarchy, 2), result.excessiveReportingLines());
+        assertEquals(3, result.partitionSizes().size());
+        // the CEO and the COO are computed by the coordinator
+        assertEquals(employeesHierarchy.size() - 2, result.partitionSizes().stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    void shouldComputeSameReportsAsSingleProcessWithRepeatedId() {
+        List<Employee> employees = List.of(
+                new Employee(1, "Joe", "Doe", 400000, null),
+                new Employee(3, "Jane", "Director", 90000, 1),
+                new Employee(2, "X", "First", 10000, 3),
+                new Employee(2, "X", "Second", 60000, 1),
+                new Employee(4, "Software", "Engineer", 50000, 2),
+                new Employee(5, "Software", "Engineer", 55000, 2));
+        EmployeeNode employeesHierarchy = new EmployeeNodeGenerator().generateEmployeesHierarchy(employees);
+        EmployeeReportService report = new EmployeeHierarchyReportService();
+
+        // a single partition streams the repeated id as a leaf before the employee taking its subordinates
+        PartitionedAnalytics.Result result = new PartitionedAnalytics(1).analyze(employeesHierarchy, 20, 50, 1);
+
+        assertEquals(report.reportManagersSalaryPolicyViolation(employeesHierarchy, 20, 50), result.salaryPolicyViolations());
+        assertEquals(report.reportManagersWithExcessiveReportingLines(employeesHierarchy, 1), result.excessiveReportingLines());
+        assertTrue(result.salaryPolicyViolations().containsKey(employees.get(2)));
+    }
+
+    @Test
+    void shouldComputeReportsOfCEOWithoutSubordinatesWithoutWorkers() {
+        EmployeeNode ceo = new EmployeeNode(new Employee(1, "Joe", "Doe", 60000, null));
+
+        PartitionedAnalytics.Result result = new PartitionedAnalytics(2, List.of("false")).analyze(ceo);
+
+        assertTrue(result.salaryPolicyViolations().isEmpty());
+        assertTrue(result.excessiveReportingLines().isEmpty());
+        assertTrue(result.partitionSizes().isEmpty());
+    }
+
+    @Test
+    void shouldFailsWhenWorkerFails() {
+        List<Employee> employees = new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "SampleData.csv");
+        EmployeeNode employeesHierarchy = new EmployeeNodeGenerator().generateEmployeesHierarchy(employees);
+        PartitionedAnalytics analytics = new PartitionedAnalytics(2, List.of("sh", "-c", "cat > /dev/null; exit 3"));
+
+        WorkerProcessException exception = assertThrowsExactly(WorkerProcessException.class, () -> analytics.analyze(employeesHierarchy));
+        assertEquals("Error when communicating with the partition workers", exception.getMessage());
+        assertInstanceOf(IOException.class, exception.getCause());
+    }
+
+    @Test
+    void shouldFailsWhenWorkerExitsWithError() {
+        List<Employee> employees = new EmployeeCsvFileReader().readFile(TEST_FILEPATH, "SampleData.csv");
+        EmployeeNode employeesHierarchy = new EmployeeNodeGenerator().generateEmployeesHierarchy(employees);
+        // empty but complete reports, then a failure exit code
+        PartitionedAnalytics analytics = new PartitionedAnalytics(2,
+                List.of("sh", "-c", "cat > /dev/null; printf '\\000\\000\\000\\000\\000\\000\\000\\000\\000\\000\\000\\000'; exit 3"));
+
+        assertThrows("Partition worker 0 failed with exit code 3", WorkerProcessException.class,
+                () -> analytics.analyze(employeesHierarchy));
+    }
+
+    @Test
+    void shouldFailsWhenCreateWithInvalidParams() {
+        assertThrows("Number of workers should be positive", IllegalArgumentException.class,
+                () -> new PartitionedAnalytics(0));
+        assertThrows("Worker command must not be null", NullPointerException.class,
+                () -> new PartitionedAnalytics(1, null));
+        assertThrows("Worker command must not be empty", IllegalArgumentException.class,
+                () -> new PartitionedAnalytics(1, List.of()));
+        assertThrows("Employees hierarchy must not be null", NullPointerException.class,
+                () -> new PartitionedAnalytics(1).analyze((EmployeeNode) null));
+        assertThrows("Employees hierarchy must not be null", NullPointerException.class,
+                () -> new PartitionedAnalytics(1).analyze((EmployeeHierarchy) null));
+    }
+}
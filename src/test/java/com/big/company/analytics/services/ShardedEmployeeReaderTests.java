@@ -0,0 +1,129 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.exception.FileReaderException;
+import com.big.company.analytics.exception.ParseExtractionException;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
+import com.big.company.analytics.services.impl.EmployeeNodeGenerator;
+import com.big.company.analytics.services.impl.ShardedEmployeeReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedEmployeeReaderTests {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Splits a file into shards, one line out of every {@code shards} on each, with the columns before the manager id
+     * of the second shard in reverse order.
+     */
+    private List<File> split(File file, int shards) throws IOException {
+        List<String> lines = Files.readAllLines(file.toPath());
+        List<List<String>> shardLines = new ArrayList<>();
+        for (int shard = 0; shard < shards; shard++) shardLines.add(new ArrayList<>(List.of(lines.get(0))));
+        for (int line = 1; line < lines.size(); line++) shardLines.get(line % shards).add(lines.get(line));
+
+        List<File> files = new ArrayList<>();
+        for (int shard = 0; shard < shards; shard++) {
+            List<String> content = shardLines.get(shard);
+            if (shard == 1) content.replaceAll(ShardedEmployeeReaderTests::reverseColumns);
+            files.add(Files.write(tempDir.resolve("Shard" + shard + ".csv"), content).toFile());
+        }
+        return files;
+    }
+
+    private static String reverseColumns(String line) {
+        List<String> columns = Arrays.asList(line.split(",", -1));
+        // the manager id stays last, as it is empty for the CEO
+        Collections.reverse(columns.subList(0, 4));
+        return String.join(",", columns);
+    }
+
+    @Test
+    void shouldBuildSameHierarchyAsSingleFile() throws IOException {
+        File file = new File(TEST_FILEPATH, "HugeData.csv");
+        List<File> files = split(file, 3);
+
+        ShardedEmployeeReader.Result result = new ShardedEmployeeReader(new EmployeeCsvFileReader()).read(files);
+        List<Employee> expectedEmployees = new EmployeeCsvFileReader().readFile(file);
+
+        assertEquals(expectedEmployees.size(), result.employees().size());
+        assertEquals(expectedEmployees.size(), result.employeesPerFile().stream().mapToInt(Integer::intValue).sum());
+        assertEquals(3, result.employeesPerFile().size());
+        assertTrue(result.duplicateIds().isEmpty());
+        assertTrue(result.crossFileReportingLines() > 0);
+        assertTrue(result.employees().containsAll(expectedEmployees));
+
+        EmployeeNode expectedHierarchy = new EmployeeNodeGenerator().generateEmployeesHierarchy(expectedEmployees);
+        EmployeeNode hierarchy = new EmployeeNodeGenerator().generateEmployeesHierarchy(result.employees());
+        EmployeeReportService report = new EmployeeHierarchyReportService();
+        assertEquals(expectedHierarchy.size(), hierarchy.size());
+        assertEquals(report.reportManagersSalaryPolicyViolation(expectedHierarchy), report.reportManagersSalaryPolicyViolation(hierarchy));
+        assertEquals(report.reportManagersWithExcessiveReportingLines(expectedHierarchy), report.reportManagersWithExcessiveReportingLines(hierarchy));
+    }
+
+    @Test
+    void shouldKeepDuplicateIdsOnFirstFile() throws IOException {
+        File sales = Files.writeString(tempDir.resolve("Sales.csv"), """
+                Id,firstName,lastName,salary,managerId
+                1,Joe,Doe,60000,
+                2,Bob,Ronstad,45000,1
+                3,Alice,Hasacat,40000,4
+                """).toFile();
+        File engineering = Files.writeString(tempDir.resolve("Engineering.csv"), """
+                managerId,salary,lastName,firstName,Id
+                1,50000,Chekov,Martin,4
+                1,46000,Ronstad,Bobby,2
+                """).toFile();
+
+        ShardedEmployeeReader.Result result = new ShardedEmployeeReader(new EmployeeCsvFileReader()).read(List.of(sales, engineering));
+
+        assertEquals(List.of(new Employee(1, "Joe", "Doe", 60000, null), new Employee(2, "Bob", "Ronstad", 45000, 1),
+                new Employee(3, "Alice", "Hasacat", 40000, 4), new Employee(4, "Martin", "Chekov", 50000, 1)), result.employees());
+        assertEquals(List.of(3, 2), result.employeesPerFile());
+        assertEquals(List.of(new ShardedEmployeeReader.DuplicateId(2, "Sales.csv", "Engineering.csv")), result.duplicateIds());
+        // Alice reports to Martin, and Martin to Joe
+        assertEquals(2, result.crossFileReportingLines());
+        assertEquals(4, new EmployeeNodeGenerator().generateEmployeesHierarchy(result.employees()).size());
+    }
+
+    @Test
+    void shouldReadFailsWithInvalidFiles() {
+        ShardedEmployeeReader reader = new ShardedEmployeeReader(new EmployeeCsvFileReader());
+        File sample = new File(TEST_FILEPATH, "SampleData.csv");
+
+        assertThrows("Error on line number 2 -> For input string: \"WrongFormat\"", ParseExtractionException.class,
+                () -> reader.read(List.of(sample, new File(TEST_FILEPATH, "WrongFormatData.csv"))));
+        assertThrows("Required header not found on header file: lastname", ParseExtractionException.class,
+                () -> reader.read(List.of(new File(TEST_FILEPATH, "DataWithInvalidHeader.csv"), sample)));
+        assertThrows(String.format("File not found | Filepath: %s | Filename: Missing.csv", tempDir.toFile()), FileReaderException.class,
+                () -> reader.read(List.of(sample, new File(tempDir.toFile(), "Missing.csv"))));
+    }
+
+    @Test
+    void shouldFailsWithInvalidParams() {
+        ShardedEmployeeReader reader = new ShardedEmployeeReader(new EmployeeCsvFileReader());
+
+        assertThrows("File reader service must not be null", NullPointerException.class, () -> new ShardedEmployeeReader(null));
+        assertThrows("Files must not be null", NullPointerException.class, () -> reader.read(null));
+        assertThrows("At least one file should be given", IllegalArgumentException.class, () -> reader.read(List.of()));
+        assertThrows("File must not be null", NullPointerException.class,
+                () -> reader.read(Arrays.asList(new File(TEST_FILEPATH, "SampleData.csv"), null)));
+    }
+}
@@ -0,0 +1,141 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeNode;
+import com.big.company.analytics.domain.EmployeeTable;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
+import com.big.company.analytics.services.impl.EmployeeNodeGenerator;
+import com.big.company.analytics.services.impl.StreamingSalaryPolicyReport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static com.big.company.analytics.test.util.TestResourceConstants.TEST_FILEPATH;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingSalaryPolicyReportTests {
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SampleData.csv", "SalaryViolationPolicyData.csv", "UnorderedData.csv", "HugeData.csv"})
+    void shouldReportSameManagersAsHierarchy(String fileName) {
+        File file = new File(TEST_FILEPATH, fileName);
+        List<Employee> employees = new EmployeeCsvFileReader().readFile(file);
+        EmployeeNode employeesHierarchy = new EmployeeNodeGenerator().generateEmployeesHierarchy(employees);
+        EmployeeReportService report = new EmployeeHierarchyReportService();
+        StreamingSalaryPolicyReport streamingReport = new StreamingSalaryPolicyReport(new EmployeeCsvFileReader());
+        EmployeeTable table = new EmployeeCsvFileReader().readTable(file, EnumSet.of(EmployeeTable.Column.SALARY));
+
+        int[][] parameters = {{20, 50}, {27, 50}, {0, 10}};
+        for (int[] parameter : parameters) {
+            assertEquals(report.reportManagersSalaryPolicyViolation(employeesHierarchy, parameter[0], parameter[1]),
+                    streamingReport.report(file, parameter[0], parameter[1]));
+            assertEquals(report.reportManagersSalaryPolicyViolation(employeesHierarchy, parameter[0], parameter[1]),
+                    streamingReport.report(table, parameter[0], parameter[1]));
+        }
+    }
+
+    @Test
+    void shouldReportManagersWhoseReportingLineDoesNotReachCEO() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("Orphans.csv"), """
+                Id,firstName,lastName,salary,managerId
+                1,Joe,Doe,60000,
+                2,Bob,Ronstad,45000,1
+                3,Alice,Hasacat,90000,99
+                4,Martin,Chekov,30000,3
+                4,Martin,Chekov,31000,3
+                """);
+
+        Map<Employee, String> violations = new StreamingSalaryPolicyReport(new EmployeeCsvFileReader()).report(file.toFile());
+
+        assertEquals(Map.of(new Employee(3, "Alice", "Hasacat", 90000, 99),
+                        "Salary is 44250.00 higher than the maximum salary allowed"),
+                violations);
+    }
+
+    @Test
+    void shouldReportChannelReadingItOnce() throws IOException {
+        File file = new File(TEST_FILEPATH, "UnorderedData.csv");
+        List<Employee> employees = new EmployeeCsvFileReader().readFile(file);
+        EmployeeNode employeesHierarchy = new EmployeeNodeGenerator().generateEmployeesHierarchy(employees);
+        Map<Employee, String> expected = new EmployeeHierarchyReportService().reportManagersSalaryPolicyViolation(employeesHierarchy);
+
+        int[] reads = new int[1];
+        EmployeeCsvFileReader reader = new EmployeeCsvFileReader();
+        FileReaderService<Employee> countingReader = new FileReaderService<>() {
+            @Override
+            public List<Employee> readFile(String path, String fileName) {
+                reads[0]++;
+                return reader.readFile(path, fileName);
+            }
+
+            @Override
+            public List<Employee> readFile(File file) {
+                reads[0]++;
+                return reader.readFile(file);
+            }
+
+            @Override
+            public void readChannel(ReadableByteChannel channel, int batchSize, Consumer<List<Employee>> batchConsumer) {
+                reads[0]++;
+                reader.readChannel(channel, batchSize, batchConsumer);
+            }
+        };
+        try (ReadableByteChannel input = Channels.newChannel(new ByteArrayInputStream(Files.readAllBytes(file.toPath())))) {
+            Map<Employee, String> violations = new StreamingSalaryPolicyReport(countingReader).report(input);
+
+            assertEquals(expected, violations);
+            assertFalse(violations.isEmpty());
+            assertEquals(1, reads[0]);
+        }
+    }
+
+    @Test
+    void shouldRestoreFirstEmployeeOfRepeatedViolatingId() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("Repeated.csv"), """
+                Id,firstName,lastName,salary,managerId
+                1,Joe,Doe,90000,
+                2,Bob,First,40000,1
+                3,Martin,Chekov,45000,2
+                2,Bob,Second,90000,1
+                """);
+        Map<Employee, String> expected = Map.of(new Employee(2, "Bob", "First", 40000, 1),
+                "Salary is 14000.00 lesser than the minimum salary allowed");
+        StreamingSalaryPolicyReport streamingReport = new StreamingSalaryPolicyReport(new EmployeeCsvFileReader());
+
+        assertEquals(expected, streamingReport.report(file.toFile()));
+        assertEquals(expected, streamingReport.report(new EmployeeCsvFileReader().readTable(file.toFile(), EnumSet.of(EmployeeTable.Column.SALARY))));
+        try (ReadableByteChannel input = Files.newByteChannel(file)) {
+            assertEquals(expected, streamingReport.report(input));
+        }
+    }
+
+    @Test
+    void shouldFailsWhenCreateWithInvalidParams() {
+        assertThrows("File reader service must not be null", NullPointerException.class,
+                () -> new StreamingSalaryPolicyReport(null));
+        assertThrows("File should not be null", NullPointerException.class,
+                () -> new StreamingSalaryPolicyReport(new EmployeeCsvFileReader()).report((File) null));
+        assertThrows("Input channel should not be null", NullPointerException.class,
+                () -> new StreamingSalaryPolicyReport(new EmployeeCsvFileReader()).report((ReadableByteChannel) null));
+        assertThrows("Employee table should not be null", NullPointerException.class,
+                () -> new StreamingSalaryPolicyReport(new EmployeeCsvFileReader()).report((EmployeeTable) null));
+    }
+}
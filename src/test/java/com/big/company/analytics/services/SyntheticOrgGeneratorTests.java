@@ -0,0 +1,172 @@
+package com.big.company.analytics.services;
+
+import com.big.company.analytics.domain.CompactEmployeeHierarchy;
+import com.big.company.analytics.domain.DepthIndex;
+import com.big.company.analytics.domain.Employee;
+import com.big.company.analytics.domain.EmployeeHierarchy;
+import com.big.company.analytics.domain.HierarchyValidationReport;
+import com.big.company.analytics.exception.SyntheticDataException;
+import com.big.company.analytics.services.impl.EmployeeCsvFileReader;
+import com.big.company.analytics.services.impl.EmployeeHierarchyReportService;
+import com.big.company.analytics.services.impl.EmployeeHierarchyValidator;
+import com.big.company.analytics.services.impl.SyntheticOrgGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticOrgGeneratorTests {
+
+    @TempDir
+    Path tempDir;
+
+    private List<Employee> generate(SyntheticOrgGenerator.Builder builder, String fileName) {
+        Path file = tempDir.resolve(fileName);
+        SyntheticOrgGenerator.Result result = builder.build().write(file);
+        List<Employee> employees = new EmployeeCsvFileReader().readFile(file.toFile());
+        assertEquals(result.rows(), employees.size());
+        return employees;
+    }
+
+    private EmployeeHierarchy hierarchyOf(Path file) {
+        return CompactEmployeeHierarchy.of(new EmployeeCsvFileReader().readTable(file.toFile()));
+    }
+
+    @Test
+    void shouldGenerateSameFileFromSameSeed() throws IOException {
+        new SyntheticOrgGenerator.Builder(5000).seed(7).rowOrder(SyntheticOrgGenerator.RowOrder.SHUFFLED).orphans(2).build()
+                .write(tempDir.resolve("First.csv"));
+        SyntheticOrgGenerator.Result result = new SyntheticOrgGenerator.Builder(5000).seed(7)
+                .rowOrder(SyntheticOrgGenerator.RowOrder.SHUFFLED).orphans(2).build().write(tempDir.resolve("Second.csv"));
+        new SyntheticOrgGenerator.Builder(5000).seed(8).rowOrder(SyntheticOrgGenerator.RowOrder.SHUFFLED).orphans(2).build()
+                .write(tempDir.resolve("Other.csv"));
+
+        assertArrayEquals(Files.readAllBytes(tempDir.resolve("First.csv")), Files.readAllBytes(tempDir.resolve("Second.csv")));
+        assertFalse(Files.readString(tempDir.resolve("First.csv")).equals(Files.readString(tempDir.resolve("Other.csv"))));
+        assertEquals(Files.size(tempDir.resolve("Second.csv")), result.bytes());
+        assertEquals(5002, result.rows());
+    }
+
+    @ParameterizedTest
+    @EnumSource(SyntheticOrgGenerator.RowOrder.class)
+    void shouldGenerateSameOrganizationInEveryRowOrder(SyntheticOrgGenerator.RowOrder rowOrder) {
+        List<Employee> sorted = generate(new SyntheticOrgGenerator.Builder(20_000).fanOut(6), "Sorted.csv");
+        List<Employee> employees = generate(new SyntheticOrgGenerator.Builder(20_000).fanOut(6).rowOrder(rowOrder), "Ordered.csv");
+
+        assertEquals(new HashSet<>(sorted), new HashSet<>(employees));
+        for (int i = 0; i < sorted.size(); i++) assertEquals(i + 1, sorted.get(i).id());
+        if (rowOrder == SyntheticOrgGenerator.RowOrder.REVERSED) assertEquals(sorted.get(0), employees.get(employees.size() - 1));
+        if (rowOrder == SyntheticOrgGenerator.RowOrder.SHUFFLED) assertNotEquals(sorted, employees);
+
+        EmployeeHierarchy hierarchy = hierarchyOf(tempDir.resolve("Ordered.csv"));
+        DepthIndex depthIndex = DepthIndex.of(hierarchy);
+        assertEquals(20_000, hierarchy.size());
+        assertEquals(6, hierarchy.subordinateCount(EmployeeHierarchy.ROOT));
+        int maxDepth = 0;
+        for (int ordinal = 0; ordinal < hierarchy.size(); ordinal++) maxDepth = Math.max(maxDepth, depthIndex.depth(ordinal));
+        // 1 + 6 + 36 + 216 + 1296 + 7776 employees fit on the first levels, the rest on the sixth
+        assertEquals(new SyntheticOrgGenerator.Builder(20_000).fanOut(6).build().depth(), maxDepth);
+        assertEquals(6, maxDepth);
+    }
+
+    @Test
+    void shouldShapeFanOutAndDepth() {
+        EmployeeHierarchy uniform = hierarchyOf(writeFile(new SyntheticOrgGenerator.Builder(50_000).fanOut(10), "Uniform.csv"));
+        EmployeeHierarchy skewed = hierarchyOf(writeFile(new SyntheticOrgGenerator.Builder(50_000).fanOut(10).fanOutSkew(3), "Skewed.csv"));
+        EmployeeHierarchy shallow = hierarchyOf(writeFile(new SyntheticOrgGenerator.Builder(50_000).fanOut(10).maxDepth(2), "Shallow.csv"));
+
+        assertTrue(maxFanOut(uniform) <= 11);
+        assertTrue(maxFanOut(skewed) > 100);
+        // managers are left without subordinates once the skew is above the growth of the levels
+        assertTrue(leaves(hierarchyOf(writeFile(new SyntheticOrgGenerator.Builder(50_000).fanOut(2).fanOutSkew(4), "Sparse.csv")))
+                > leaves(hierarchyOf(writeFile(new SyntheticOrgGenerator.Builder(50_000).fanOut(2), "Dense.csv"))));
+        assertEquals(10, shallow.subordinateCount(EmployeeHierarchy.ROOT));
+        assertTrue(maxFanOut(shallow) >= 4999);
+        assertEquals(2, new SyntheticOrgGenerator.Builder(50_000).fanOut(10).maxDepth(2).build().depth());
+    }
+
+    private Path writeFile(SyntheticOrgGenerator.Builder builder, String fileName) {
+        Path file = tempDir.resolve(fileName);
+        builder.build().write(file);
+        return file;
+    }
+
+    private static int maxFanOut(EmployeeHierarchy hierarchy) {
+        int maxFanOut = 0;
+        for (int ordinal = 0; ordinal < hierarchy.size(); ordinal++) maxFanOut = Math.max(maxFanOut, hierarchy.subordinateCount(ordinal));
+        return maxFanOut;
+    }
+
+    private static int leaves(EmployeeHierarchy hierarchy) {
+        int leaves = 0;
+        for (int ordinal = 0; ordinal < hierarchy.size(); ordinal++) if (hierarchy.subordinateCount(ordinal) == 0) leaves++;
+        return leaves;
+    }
+
+    @Test
+    void shouldViolateSalaryPolicyAtRequestedRate() {
+        EmployeeHierarchy valid = hierarchyOf(writeFile(new SyntheticOrgGenerator.Builder(50_000).violationRate(0).salarySpread(0.1), "Valid.csv"));
+        EmployeeHierarchy violating = hierarchyOf(writeFile(new SyntheticOrgGenerator.Builder(50_000).violationRate(0.2).seed(3), "Violating.csv"));
+        EmployeeHierarchyReportService report = new EmployeeHierarchyReportService();
+
+        assertTrue(report.reportManagersSalaryPolicyViolation(valid, 20, 50).isEmpty());
+        Map<Employee, String> violations = report.reportManagersSalaryPolicyViolation(violating, 20, 50);
+        int managers = violating.size() - leaves(violating);
+        assertEquals(0.2, (double) violations.size() / managers, 0.03);
+        long underpaid = violations.values().stream().filter(violation -> violation.contains("lesser")).count();
+        assertEquals(0.5, (double) underpaid / violations.size(), 0.1);
+    }
+
+    @Test
+    void shouldInjectDefects() {
+        List<Employee> employees = generate(new SyntheticOrgGenerator.Builder(10_000).rowOrder(SyntheticOrgGenerator.RowOrder.SHUFFLED)
+                .orphans(3).cycles(2).duplicates(4), "Defects.csv");
+
+        HierarchyValidationReport validation = new EmployeeHierarchyValidator().validate(employees);
+        assertEquals(10_000 + 3 + 4 + 4, employees.size());
+        assertEquals(1, validation.ceoCandidates().size());
+        assertEquals(3, validation.orphans().size());
+        assertEquals(2, validation.cycles().size());
+        assertEquals(4, validation.duplicateIds().size());
+        // the defects are spread over the file instead of being appended
+        assertTrue(employees.subList(0, 5000).stream().anyMatch(employee -> employee.id() > 10_000));
+    }
+
+    @Test
+    void shouldFailsWithInvalidParams() {
+        assertThrows("Employees should be between 1 and 1000000000", IllegalArgumentException.class,
+                () -> new SyntheticOrgGenerator.Builder(0).build());
+        assertThrows("Fan-out should be at least 1", IllegalArgumentException.class,
+                () -> new SyntheticOrgGenerator.Builder(10).fanOut(0.5).build());
+        assertThrows("Fan-out skew should be at least 1", IllegalArgumentException.class,
+                () -> new SyntheticOrgGenerator.Builder(10).fanOutSkew(0).build());
+        assertThrows("Max depth should be between 1 and 30", IllegalArgumentException.class,
+                () -> new SyntheticOrgGenerator.Builder(10).maxDepth(31).build());
+        assertThrows("Base salary should be at least 1000", IllegalArgumentException.class,
+                () -> new SyntheticOrgGenerator.Builder(10).salaryBase(10).build());
+        assertThrows("Salary spread is too wide for the salary policy band", IllegalArgumentException.class,
+                () -> new SyntheticOrgGenerator.Builder(10).salarySpread(0.2).build());
+        assertThrows("Violation rate should be between 0 and 1", IllegalArgumentException.class,
+                () -> new SyntheticOrgGenerator.Builder(10).violationRate(2).build());
+        assertThrows("Defect counts should not be negative", IllegalArgumentException.class,
+                () -> new SyntheticOrgGenerator.Builder(10).cycles(-1).build());
+        assertThrows("Duplicates need at least 2 employees", IllegalArgumentException.class,
+                () -> new SyntheticOrgGenerator.Builder(1).duplicates(1).build());
+        assertThrows("Salaries should fit on an int, lower the base salary or the max depth", IllegalArgumentException.class,
+                () -> new SyntheticOrgGenerator.Builder(1_000_000).fanOut(1).maxDepth(30).salaryBase(1_000_000).build());
+        assertThrows("Row order must not be null", NullPointerException.class,
+                () -> new SyntheticOrgGenerator.Builder(10).rowOrder(null).build());
+        assertThrows("Error when writing the synthetic employees | Filename: Missing.csv", SyntheticDataException.class,
+                () -> new SyntheticOrgGenerator.Builder(10).build().write(tempDir.resolve("missing").resolve("Missing.csv")));
+    }
+}
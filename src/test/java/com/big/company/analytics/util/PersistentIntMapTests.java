@@ -0,0 +1,55 @@
+package com.big.company.analytics.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentIntMapTests {
+
+    @Test
+    void shouldBehaveAsHashMapWhileKeepingOldVersions() {
+        Random random = new Random(11);
+        Map<Integer, Integer> expected = new HashMap<>();
+        PersistentIntMap<Integer> map = PersistentIntMap.empty();
+        Map<Integer, Integer> snapshotExpected = null;
+        PersistentIntMap<Integer> snapshot = null;
+
+        for (int operation = 0; operation < 50_000; operation++) {
+            int key = random.nextInt(5_000) - 2_500;
+            if (random.nextInt(4) == 0) {
+                expected.remove(key);
+                map = map.remove(key);
+            } else {
+                expected.put(key, operation);
+                map = map.put(key, operation);
+            }
+            if (operation == 25_000) {
+                snapshotExpected = new HashMap<>(expected);
+                snapshot = map;
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        assertEquals(snapshotExpected.size(), snapshot.size());
+        for (int key = -2_500; key < 2_500; key++) {
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(snapshotExpected.get(key), snapshot.get(key));
+        }
+    }
+
+    @Test
+    void shouldReturnSameMapWhenNothingChanges() {
+        Integer value = 1;
+        PersistentIntMap<Integer> map = PersistentIntMap.<Integer>empty().put(Integer.MIN_VALUE, value).put(Integer.MAX_VALUE, 2);
+
+        assertSame(map, map.put(Integer.MIN_VALUE, value));
+        assertSame(map, map.remove(0));
+        assertEquals(0, map.remove(Integer.MIN_VALUE).remove(Integer.MAX_VALUE).size());
+        assertFalse(map.remove(Integer.MIN_VALUE).containsKey(Integer.MIN_VALUE));
+        assertThrows(NullPointerException.class, () -> map.put(0, null));
+    }
+}
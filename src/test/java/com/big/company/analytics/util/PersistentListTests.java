@@ -0,0 +1,70 @@
+package com.big.company.analytics.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentListTests {
+
+    @Test
+    void shouldBehaveAsArrayListWhileKeepingOldVersions() {
+        Random random = new Random(13);
+        List<Integer> initial = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) initial.add(i);
+        List<Integer> expected = new ArrayList<>(initial);
+        PersistentList<Integer> list = PersistentList.of(initial);
+        List<Integer> snapshotExpected = null;
+        PersistentList<Integer> snapshot = null;
+
+        for (int operation = 0; operation < 30_000; operation++) {
+            int choice = random.nextInt(3);
+            if (choice == 0 && !expected.isEmpty()) {
+                int index = random.nextInt(expected.size());
+                expected.remove(index);
+                list = list.removed(index);
+            } else if (choice == 1 && !expected.isEmpty()) {
+                int index = random.nextInt(expected.size());
+                expected.set(index, -operation);
+                list = list.replaced(index, -operation);
+            } else {
+                expected.add(operation);
+                list = list.appended(operation);
+            }
+            if (operation == 15_000) {
+                snapshotExpected = new ArrayList<>(expected);
+                snapshot = list;
+            }
+        }
+
+        assertEquals(expected, list);
+        assertEquals(snapshotExpected, snapshot);
+        assertEquals(initial, PersistentList.of(initial));
+    }
+
+    @Test
+    void shouldEmptyAndRefillList() {
+        PersistentList<String> list = PersistentList.<String>empty().appended("a").appended("b");
+
+        assertEquals(List.of("b"), list.removed(0));
+        assertSame(PersistentList.empty(), list.removed(0).removed(0));
+        assertEquals(List.of("c"), list.removed(0).removed(0).appended("c"));
+        assertEquals(List.of("a", "b"), list);
+        assertTrue(PersistentList.of(List.of()).isEmpty());
+    }
+
+    @Test
+    void shouldFailsWhenChangedOutOfBoundsOrInPlace() {
+        PersistentList<String> list = PersistentList.of(List.of("a"));
+
+        assertThrowsExactly(IndexOutOfBoundsException.class, () -> list.get(1));
+        assertThrowsExactly(IndexOutOfBoundsException.class, () -> list.replaced(-1, "b"));
+        assertThrowsExactly(IndexOutOfBoundsException.class, () -> list.removed(1));
+        assertThrowsExactly(UnsupportedOperationException.class, () -> list.add("b"));
+        assertThrows("Elements must not be null", NullPointerException.class, () -> PersistentList.of(null));
+    }
+}
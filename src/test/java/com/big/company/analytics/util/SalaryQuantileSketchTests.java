@@ -0,0 +1,106 @@
+package com.big.company.analytics.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.big.company.analytics.test.util.AssertThrows.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalaryQuantileSketchTests {
+
+    private static final double[] QUANTILES = {0, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 1};
+
+    @Test
+    void shouldEstimateQuantilesWithinRelativeAccuracy() {
+        Random random = new Random(42);
+        int[] salaries = new int[100_000];
+        SalaryQuantileSketch sketch = new SalaryQuantileSketch(0.01, 1200);
+        for (int i = 0; i < salaries.length; i++) {
+            // log-normal around 60000, with a long tail of high salaries
+            salaries[i] = (int) (60_000 * Math.exp(random.nextGaussian() * 0.6));
+            sketch.add(salaries[i]);
+        }
+        Arrays.sort(salaries);
+
+        assertEquals(salaries.length, sketch.count());
+        for (double quantile : QUANTILES) {
+            double exact = salaries[(int) (quantile * (salaries.length - 1))];
+            assertEquals(exact, sketch.quantile(quantile), exact * 0.01, "Quantile " + quantile);
+        }
+    }
+
+    @Test
+    void shouldMergeIntoSameQuantilesAsSingleSketch() {
+        Random random = new Random(7);
+        SalaryQuantileSketch whole = new SalaryQuantileSketch(0.01, 1200);
+        SalaryQuantileSketch low = new SalaryQuantileSketch(0.01, 1200);
+        SalaryQuantileSketch high = new SalaryQuantileSketch(0.01, 1200);
+        for (int i = 0; i < 10_000; i++) {
+            int lowSalary = 20_000 + random.nextInt(30_000);
+            int highSalary = 150_000 + random.nextInt(500_000);
+            whole.add(lowSalary);
+            whole.add(highSalary);
+            low.add(lowSalary);
+            high.add(highSalary);
+        }
+        low.add(0);
+        whole.add(0);
+
+        low.merge(high);
+
+        assertEquals(whole.count(), low.count());
+        assertEquals(whole.bucketCount(), low.bucketCount());
+        for (double quantile : QUANTILES) {
+            assertEquals(whole.quantile(quantile), low.quantile(quantile), "Quantile " + quantile);
+        }
+        assertEquals(0, low.quantile(0));
+        assertEquals(10_000, high.count());
+    }
+
+    @Test
+    void shouldCollapseLowestBucketsBeyondMaximum() {
+        SalaryQuantileSketch sketch = new SalaryQuantileSketch(0.01, 100);
+        SalaryQuantileSketch merged = new SalaryQuantileSketch(0.01, 100);
+        for (int salary = 1; salary <= 1_000_000; salary *= 10) {
+            sketch.add(salary);
+            SalaryQuantileSketch single = new SalaryQuantileSketch(0.01, 100);
+            single.add(salary);
+            merged.merge(single);
+        }
+
+        assertEquals(100, sketch.bucketCount());
+        assertEquals(100, merged.bucketCount());
+        assertEquals(1_000_000, sketch.quantile(1), 10_000);
+        assertEquals(1_000_000, merged.quantile(1), 10_000);
+        // the 6 lowest salaries are collapsed into the lowest bucket kept, about 7 times below the highest
+        assertTrue(sketch.quantile(0) > 100_000 && sketch.quantile(0) < 1_000_000);
+    }
+
+    @Test
+    void shouldReturnNaNWhenEmpty() {
+        SalaryQuantileSketch sketch = new SalaryQuantileSketch(0.01, 100);
+
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+        assertEquals(0, sketch.bucketCount());
+        sketch.merge(new SalaryQuantileSketch(0.01, 100));
+        assertEquals(0, sketch.count());
+    }
+
+    @Test
+    void shouldFailsWithInvalidParams() {
+        SalaryQuantileSketch sketch = new SalaryQuantileSketch(0.01, 100);
+
+        assertThrows("Relative accuracy should be between 0 and 1", IllegalArgumentException.class,
+                () -> new SalaryQuantileSketch(0, 100));
+        assertThrows("Relative accuracy should be between 0 and 1", IllegalArgumentException.class,
+                () -> new SalaryQuantileSketch(1, 100));
+        assertThrows("Max buckets should be positive", IllegalArgumentException.class,
+                () -> new SalaryQuantileSketch(0.01, 0));
+        assertThrows("Quantile should be between 0 and 1", IllegalArgumentException.class, () -> sketch.quantile(1.5));
+        assertThrows("Sketch must not be null", NullPointerException.class, () -> sketch.merge(null));
+        assertThrows("Sketches should have the same relative accuracy", IllegalArgumentException.class,
+                () -> sketch.merge(new SalaryQuantileSketch(0.02, 100)));
+    }
+}